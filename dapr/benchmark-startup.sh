@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Measures the time from launch until the readiness probe reports UP, for the plain jar, the jar with a
+# class data sharing archive, and the native image if it was built with: mvn -Pnative native:compile
+# Run from this directory after packaging, with SIDECAR_PORT and STATE_STORE_NAME pointing at a sidecar.
+
+RUNS=${RUNS:-5}
+PORT=${APP_PORT:-8080}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+JAR=$(ls ../target/*.jar | grep -v original | head -n 1)
+NATIVE=../target/auction-api
+CDS_ARCHIVE=../target/auction-api.jsa
+
+# Time a command until the readiness probe is up, in milliseconds, failing if it exits or times out first
+measure() {
+  local start end deadline
+  start=$(date +%s%N)
+  deadline=$(( start + TIMEOUT_SECONDS * 1000000000 ))
+  "$@" --server.port="$PORT" > /dev/null 2>&1 &
+  local pid=$!
+  until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$* exited before becoming ready" >&2
+      return 1
+    fi
+    if [ "$(date +%s%N)" -ge "$deadline" ]; then
+      echo "$* was not ready after ${TIMEOUT_SECONDS}s" >&2
+      kill "$pid"
+      wait "$pid" 2> /dev/null
+      return 1
+    fi
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  kill "$pid"
+  wait "$pid" 2> /dev/null
+  echo $(( (end - start) / 1000000 ))
+}
+
+# Report the average over the runs
+benchmark() {
+  local name=$1 total=0 elapsed
+  shift
+  for _ in $(seq "$RUNS"); do
+    elapsed=$(measure "$@") || exit 1
+    total=$(( total + elapsed ))
+  done
+  echo "$name: $(( total / RUNS ))ms average to ready over $RUNS runs"
+}
+
+benchmark "jar" java -jar "$JAR"
+
+# Record the class data sharing archive with a training run, then start from it
+measure java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -jar "$JAR" > /dev/null || exit 1
+benchmark "jar + cds" java -XX:SharedArchiveFile="$CDS_ARCHIVE" -jar "$JAR"
+
+if [ -x "$NATIVE" ]; then
+  benchmark "native" "$NATIVE"
+fi
@@ -0,0 +1,189 @@
+package com.theauctiongames.auctionapi.business.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits offers per user and per auction, so a single bidder or a single contested auction cannot
+ * starve the state store for everyone else.
+ * <p>
+ * Every user and every auction has a token bucket. Buckets are created on first use and dropped once they
+ * have refilled, so the maps only hold keys that were limited recently, and they are bounded on top of that.
+ */
+@Component
+public class AdmissionControl {
+
+    /**
+     * The tokens refilled per second in each user's bucket.
+     */
+    private final double userRate;
+
+    /**
+     * The capacity of each user's bucket.
+     */
+    private final int userBurst;
+
+    /**
+     * The tokens refilled per second in each auction's bucket.
+     */
+    private final double auctionRate;
+
+    /**
+     * The capacity of each auction's bucket.
+     */
+    private final int auctionBurst;
+
+    /**
+     * The maximum number of buckets of each kind.
+     */
+    private final int maxBuckets;
+
+    /**
+     * The buckets by user id.
+     */
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * The buckets by auction id.
+     */
+    private final Map<String, TokenBucket> auctionBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * The number of offers shed by the user limit.
+     */
+    private final Counter userShed;
+
+    /**
+     * The number of offers shed by the auction limit.
+     */
+    private final Counter auctionShed;
+
+    /**
+     * Construct the admission control.
+     *
+     * @param registry     the meter registry
+     * @param userRate     the tokens refilled per second in each user's bucket
+     * @param userBurst    the capacity of each user's bucket
+     * @param auctionRate  the tokens refilled per second in each auction's bucket
+     * @param auctionBurst the capacity of each auction's bucket
+     * @param maxBuckets   the maximum number of buckets of each kind
+     */
+    public AdmissionControl(MeterRegistry registry,
+                            @Value("${auction.admission.user.rate-per-second:5}") double userRate,
+                            @Value("${auction.admission.user.burst:10}") int userBurst,
+                            @Value("${auction.admission.auction.rate-per-second:50}") double auctionRate,
+                            @Value("${auction.admission.auction.burst:100}") int auctionBurst,
+                            @Value("${auction.admission.max-buckets:100000}") int maxBuckets) {
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.auctionRate = auctionRate;
+        this.auctionBurst = auctionBurst;
+        this.maxBuckets = maxBuckets;
+        this.userShed = Counter.builder("auction.admission.shed")
+                .description("Offers rejected by rate limiting")
+                .tag("limit", "user")
+                .register(registry);
+        this.auctionShed = Counter.builder("auction.admission.shed")
+                .description("Offers rejected by rate limiting")
+                .tag("limit", "auction")
+                .register(registry);
+    }
+
+    /**
+     * Admit an offer by a user on an auction.
+     *
+     * @param userId    the user id, or null if unknown
+     * @param auctionId the auction id
+     * @return zero if the offer is admitted, otherwise the milliseconds the client should wait
+     */
+    public long admit(String userId, String auctionId) {
+        long now = System.nanoTime();
+
+        // Check the user's limit first, so one user's burst does not use up the auction's
+        if (userId != null) {
+            long wait = bucket(this.userBuckets, userId, this.userRate, this.userBurst, now).tryAcquire(now);
+            if (wait > 0) {
+                this.userShed.increment();
+                return toMillis(wait);
+            }
+        }
+
+        // Check the auction's limit
+        long wait = bucket(this.auctionBuckets, auctionId, this.auctionRate, this.auctionBurst, now).tryAcquire(now);
+        if (wait > 0) {
+            this.auctionShed.increment();
+            return toMillis(wait);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get or create a bucket, keeping the map bounded.
+     *
+     * @param buckets the buckets by key
+     * @param key     the key
+     * @param rate    the tokens refilled per second
+     * @param burst   the capacity of the bucket
+     * @param now     the current time in nanoseconds
+     * @return the bucket
+     */
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, String key, double rate, int burst, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        // Make room before adding a new bucket
+        if (buckets.size() >= this.maxBuckets) {
+            evict(buckets, now);
+        }
+
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, burst, now));
+    }
+
+    /**
+     * Drop refilled buckets, then arbitrary buckets if the map is still over its bound.
+     *
+     * @param buckets the buckets by key
+     * @param now     the current time in nanoseconds
+     */
+    private void evict(Map<String, TokenBucket> buckets, long now) {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+        // Every bucket is in use, forgive some rather than grow without bound
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (buckets.size() >= this.maxBuckets * 9 / 10 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Periodically drop buckets that have refilled.
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void sweep() {
+        long now = System.nanoTime();
+        this.userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        this.auctionBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Convert a wait to milliseconds, rounding up.
+     *
+     * @param nanos the wait in nanoseconds
+     * @return the wait in milliseconds
+     */
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+    }
+}
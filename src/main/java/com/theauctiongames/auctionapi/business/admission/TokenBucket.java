@@ -0,0 +1,74 @@
+package com.theauctiongames.auctionapi.business.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ * The bucket is kept as a single theoretical arrival time: the time at which it will be full again. Taking
+ * a token pushes that time forward by one refill interval, and the request is rejected when it would be
+ * pushed more than a full burst ahead of now. This needs one compare-and-set per request.
+ */
+final class TokenBucket {
+
+    /**
+     * The nanoseconds it takes to refill one token.
+     */
+    private final long intervalNanos;
+
+    /**
+     * The nanoseconds it takes to refill a full burst.
+     */
+    private final long burstNanos;
+
+    /**
+     * The time at which the bucket is full again.
+     */
+    private final AtomicLong fullAt;
+
+    /**
+     * Construct a full token bucket.
+     *
+     * @param ratePerSecond the number of tokens refilled per second
+     * @param burst         the capacity of the bucket
+     * @param now           the current time in nanoseconds
+     */
+    TokenBucket(double ratePerSecond, int burst, long now) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = this.intervalNanos * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Try to take a token.
+     *
+     * @param now the current time in nanoseconds
+     * @return zero if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = this.fullAt.get();
+            long next = Math.max(current, now) + this.intervalNanos;
+
+            // Reject if the bucket is empty
+            long wait = next - now - this.burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+
+            if (this.fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Check whether the bucket has refilled, in which case dropping it loses nothing.
+     *
+     * @param now the current time in nanoseconds
+     * @return true if the bucket is full, false otherwise
+     */
+    boolean isFull(long now) {
+        return this.fullAt.get() <= now;
+    }
+}
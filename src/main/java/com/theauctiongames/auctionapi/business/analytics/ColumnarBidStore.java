@@ -0,0 +1,488 @@
+package com.theauctiongames.auctionapi.business.analytics;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.models.BidStatisticsModel;
+import com.theauctiongames.auctionapi.business.models.BidVolumeModel;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory, append-only columnar store of every accepted bid, for price analytics.
+ * <p>
+ * Bids are stored in parallel primitive arrays with bidder and auction ids dictionary encoded, and each bid
+ * links to the previous bid of the same auction, so per-auction queries only walk that auction's bids.
+ * Queries allocate a fixed amount of memory regardless of the number of bids they walk.
+ * <p>
+ * Each replica keeps its own store. Bids accepted here are appended from the local auction events, and
+ * auctions written by other replicas are loaded again when their invalidation arrives, which only appends
+ * the bids not stored yet.
+ */
+@Component
+public class ColumnarBidStore {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarBidStore.class);
+
+    /**
+     * The initial capacity of the columns.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The injected auction DAO, used to read archived bids and auctions written by other replicas.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The lock guarding the columns.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The price of each bid.
+     */
+    private double[] prices = new double[INITIAL_CAPACITY];
+
+    /**
+     * The timestamp of each bid.
+     */
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+
+    /**
+     * The encoded bidder of each bid.
+     */
+    private int[] bidders = new int[INITIAL_CAPACITY];
+
+    /**
+     * The encoded auction of each bid.
+     */
+    private int[] auctions = new int[INITIAL_CAPACITY];
+
+    /**
+     * The index of the previous bid on the same auction, or -1 for an auction's first bid.
+     */
+    private int[] previous = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of bids stored.
+     */
+    private int size;
+
+    /**
+     * The dictionary of bidder ids.
+     */
+    private final Map<String, Integer> bidderIds = new HashMap<>();
+
+    /**
+     * The dictionary of live auction ids, a recreated auction gets a new encoding.
+     */
+    private final Map<String, Integer> auctionIds = new HashMap<>();
+
+    /**
+     * The index of each encoded auction's latest bid, or -1 if it has none.
+     */
+    private int[] auctionLast = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of bids stored for each encoded auction.
+     */
+    private int[] auctionCounts = new int[INITIAL_CAPACITY];
+
+    /**
+     * Whether each encoded auction has been deleted.
+     */
+    private boolean[] auctionDeleted = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * The number of encoded auctions.
+     */
+    private int auctionSize;
+
+    /**
+     * Construct the columnar bid store.
+     *
+     * @param auctionDao the auction DAO
+     */
+    public ColumnarBidStore(AuctionDao auctionDao) {
+        this.auctionDao = auctionDao;
+    }
+
+    /**
+     * Feed the store from auction events.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case LOADED, CREATED, UPDATED -> load(event.getAuction());
+            case BID -> append(event.getAuctionId(), List.of(event.getOffer()), -1);
+            case DELETED, ARCHIVED -> delete(event.getAuctionId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Feed the store from an auction written by another replica, which published no auction event here.
+     *
+     * @param event the invalidated event
+     */
+    @EventListener
+    public void onAuctionInvalidated(AuctionInvalidatedEvent event) {
+        try {
+            // Read the auction again, it is gone if it was deleted or archived
+            Optional<AuctionEntity> auction = event.getVersion() < 0 ? Optional.empty()
+                    : this.auctionDao.getAuctionById(event.getAuctionId());
+            if (auction.isPresent()) {
+                load(auction.get());
+            } else {
+                delete(event.getAuctionId());
+            }
+        } catch (RuntimeException exception) {
+            // Keep the other listeners of the invalidation running, the next write loads the auction again
+            LOGGER.warn("Failed to load the bids of auction {} written by another replica", event.getAuctionId(), exception);
+        }
+    }
+
+    /**
+     * Store the bids of an auction that have not been stored yet.
+     * <p>
+     * Bids are numbered from the oldest, including archived bids, so loading an auction again only appends
+     * the bids accepted since it was last seen.
+     *
+     * @param auction the auction
+     */
+    private void load(AuctionEntity auction) {
+        // Find how many bids are already stored
+        int stored = getStoredCount(auction.getId());
+        int archived = auction.getArchivedBidCount();
+        List<OfferEntity> missing = new ArrayList<>();
+
+        // Read the missing archived bids outside the lock
+        if (stored < archived && auction.getBidChunkSize() > 0) {
+            int chunkSize = auction.getBidChunkSize();
+            for (int index = stored / chunkSize; index < archived / chunkSize; index++) {
+                Optional<BidChunkEntity> chunk = this.auctionDao.getBidChunk(auction.getId(), index);
+                if (chunk.isEmpty()) {
+                    // Stop at a missing chunk rather than misnumber the remaining bids
+                    return;
+                }
+
+                // Add the bids of the chunk that are not stored
+                int first = Math.max(0, stored - index * chunkSize);
+                missing.addAll(chunk.get().getBids().subList(first, chunk.get().getBids().size()));
+            }
+        }
+
+        // Add the missing inline bids
+        List<OfferEntity> inline = auction.getBids();
+        missing.addAll(inline.subList(Math.min(inline.size(), Math.max(0, stored - archived)), inline.size()));
+
+        // Append, skipping any bids stored concurrently
+        append(auction.getId(), missing, stored);
+    }
+
+    /**
+     * Get the number of bids stored for an auction.
+     *
+     * @param auctionId the auction id
+     * @return the number of bids stored
+     */
+    private int getStoredCount(String auctionId) {
+        this.lock.readLock().lock();
+        try {
+            Integer auction = this.auctionIds.get(auctionId);
+            return auction == null ? 0 : this.auctionCounts[auction];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Append bids to an auction.
+     *
+     * @param auctionId the auction id
+     * @param offers    the bids, oldest first
+     * @param firstBid  the number of the first bid, or -1 to append them all unconditionally
+     */
+    private void append(String auctionId, List<OfferEntity> offers, int firstBid) {
+        this.lock.writeLock().lock();
+        try {
+            int auction = encodeAuction(auctionId);
+
+            // Skip bids stored since the caller counted
+            int skip = firstBid < 0 ? 0 : Math.max(0, this.auctionCounts[auction] - firstBid);
+            for (int i = skip; i < offers.size(); i++) {
+                OfferEntity offer = offers.get(i);
+                ensureCapacity(this.size + 1);
+
+                // Write the bid columns
+                this.prices[this.size] = offer.getPrice();
+                this.timestamps[this.size] = offer.getCreationTimestamp();
+                this.bidders[this.size] = this.bidderIds.computeIfAbsent(offer.getUserId(), id -> this.bidderIds.size());
+                this.auctions[this.size] = auction;
+
+                // Link the bid into its auction
+                this.previous[this.size] = this.auctionLast[auction];
+                this.auctionLast[auction] = this.size;
+                this.auctionCounts[auction]++;
+                this.size++;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mark an auction's bids as deleted.
+     *
+     * @param auctionId the auction id
+     */
+    private void delete(String auctionId) {
+        this.lock.writeLock().lock();
+        try {
+            Integer auction = this.auctionIds.remove(auctionId);
+            if (auction != null) {
+                this.auctionDeleted[auction] = true;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get or assign the encoding of an auction, must be called holding the write lock.
+     *
+     * @param auctionId the auction id
+     * @return the encoded auction
+     */
+    private int encodeAuction(String auctionId) {
+        Integer auction = this.auctionIds.get(auctionId);
+        if (auction != null) {
+            return auction;
+        }
+
+        // Grow the auction columns
+        if (this.auctionSize == this.auctionLast.length) {
+            int capacity = this.auctionSize * 2;
+            this.auctionLast = Arrays.copyOf(this.auctionLast, capacity);
+            this.auctionCounts = Arrays.copyOf(this.auctionCounts, capacity);
+            this.auctionDeleted = Arrays.copyOf(this.auctionDeleted, capacity);
+        }
+
+        // Assign the next encoding
+        this.auctionLast[this.auctionSize] = -1;
+        this.auctionIds.put(auctionId, this.auctionSize);
+        return this.auctionSize++;
+    }
+
+    /**
+     * Grow the bid columns, must be called holding the write lock.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.prices.length) {
+            return;
+        }
+
+        int grown = Math.max(capacity, this.prices.length * 2);
+        this.prices = Arrays.copyOf(this.prices, grown);
+        this.timestamps = Arrays.copyOf(this.timestamps, grown);
+        this.bidders = Arrays.copyOf(this.bidders, grown);
+        this.auctions = Arrays.copyOf(this.auctions, grown);
+        this.previous = Arrays.copyOf(this.previous, grown);
+    }
+
+    /**
+     * Get the bid statistics of a single auction.
+     *
+     * @param auctionId the auction id
+     * @return the statistics, or empty if no bids were stored for the auction
+     */
+    public Optional<BidStatisticsModel> getAuctionStatistics(String auctionId) {
+        this.lock.readLock().lock();
+        try {
+            Integer auction = this.auctionIds.get(auctionId);
+            if (auction == null) {
+                return Optional.empty();
+            }
+
+            // Walk the auction's bids from the latest
+            Statistics statistics = new Statistics(this.bidderIds.size());
+            for (int i = this.auctionLast[auction]; i >= 0; i = this.previous[i]) {
+                statistics.add(i);
+            }
+
+            return Optional.of(statistics.toModel());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the bid statistics across all live auctions.
+     *
+     * @return the statistics
+     */
+    public BidStatisticsModel getGlobalStatistics() {
+        this.lock.readLock().lock();
+        try {
+            // Scan every bid of a live auction
+            Statistics statistics = new Statistics(this.bidderIds.size());
+            for (int i = 0; i < this.size; i++) {
+                if (!this.auctionDeleted[this.auctions[i]]) {
+                    statistics.add(i);
+                }
+            }
+
+            return statistics.toModel();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the bid volume over consecutive time buckets, for a single auction or all live auctions.
+     *
+     * @param auctionId    the auction id, or null for all live auctions
+     * @param from         the timestamp the first bucket starts at
+     * @param bucketMillis the length of each bucket in milliseconds
+     * @param buckets      the number of buckets
+     * @return the volume, or empty if the auction has no stored bids
+     */
+    public Optional<BidVolumeModel> getVolume(String auctionId, long from, long bucketMillis, int buckets) {
+        long[] counts = new long[buckets];
+        double[] totals = new double[buckets];
+
+        this.lock.readLock().lock();
+        try {
+            if (auctionId == null) {
+                // Scan every bid of a live auction
+                for (int i = 0; i < this.size; i++) {
+                    if (!this.auctionDeleted[this.auctions[i]]) {
+                        addToBucket(i, from, bucketMillis, counts, totals);
+                    }
+                }
+            } else {
+                // Walk the auction's bids from the latest
+                Integer auction = this.auctionIds.get(auctionId);
+                if (auction == null) {
+                    return Optional.empty();
+                }
+
+                for (int i = this.auctionLast[auction]; i >= 0; i = this.previous[i]) {
+                    addToBucket(i, from, bucketMillis, counts, totals);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        return Optional.of(new BidVolumeModel(from, bucketMillis, counts, totals));
+    }
+
+    /**
+     * Add a bid to the bucket covering its timestamp, if any.
+     *
+     * @param bid          the bid index
+     * @param from         the timestamp the first bucket starts at
+     * @param bucketMillis the length of each bucket in milliseconds
+     * @param counts       the bid counts per bucket
+     * @param totals       the price sums per bucket
+     */
+    private void addToBucket(int bid, long from, long bucketMillis, long[] counts, double[] totals) {
+        long offset = this.timestamps[bid] - from;
+        if (offset < 0) {
+            return;
+        }
+
+        long bucket = offset / bucketMillis;
+        if (bucket < counts.length) {
+            counts[(int) bucket]++;
+            totals[(int) bucket] += this.prices[bid];
+        }
+    }
+
+    /**
+     * An accumulator of bid statistics over bid indexes.
+     */
+    private class Statistics {
+
+        /**
+         * The bidders seen, as a bit set over the bidder encodings.
+         */
+        private final long[] seen;
+
+        private long count;
+        private double maxPrice;
+        private double totalPrice;
+        private int uniqueBidders;
+        private long firstTimestamp = Long.MAX_VALUE;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        /**
+         * Construct the accumulator.
+         *
+         * @param bidders the number of encoded bidders
+         */
+        private Statistics(int bidders) {
+            this.seen = new long[(bidders + 63) / 64];
+        }
+
+        /**
+         * Add a bid.
+         *
+         * @param bid the bid index
+         */
+        private void add(int bid) {
+            double price = prices[bid];
+            long timestamp = timestamps[bid];
+
+            this.count++;
+            this.maxPrice = Math.max(this.maxPrice, price);
+            this.totalPrice += price;
+            this.firstTimestamp = Math.min(this.firstTimestamp, timestamp);
+            this.lastTimestamp = Math.max(this.lastTimestamp, timestamp);
+
+            // Count the bidder the first time it is seen
+            int bidder = bidders[bid];
+            long mask = 1L << bidder;
+            if ((this.seen[bidder >>> 6] & mask) == 0) {
+                this.seen[bidder >>> 6] |= mask;
+                this.uniqueBidders++;
+            }
+        }
+
+        /**
+         * Convert the accumulated statistics to a model.
+         *
+         * @return the statistics model
+         */
+        private BidStatisticsModel toModel() {
+            return this.count == 0
+                    ? new BidStatisticsModel(0, 0, 0, 0, 0, 0)
+                    : new BidStatisticsModel(this.count, this.maxPrice, this.totalPrice, this.uniqueBidders,
+                    this.firstTimestamp, this.lastTimestamp);
+        }
+    }
+}
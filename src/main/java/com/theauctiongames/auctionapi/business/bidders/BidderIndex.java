@@ -0,0 +1,273 @@
+package com.theauctiongames.auctionapi.business.bidders;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.UserBidModel;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An in-memory index of the auctions each user has bid on, maintained from auction events.
+ * <p>
+ * Each user maps to their highest offer per auction, and each auction maps to its current leader, so a
+ * user's standing across all their auctions is one lookup instead of a scan of every auction's bids.
+ * <p>
+ * Offers only ever raise a user's highest offer and an auction's leading price, so loading an auction
+ * again adds to its entries, and its archived bids are only read the first time they are seen.
+ */
+@Component
+public class BidderIndex {
+
+    /**
+     * The injected auction DAO, used to read archived bids when auctions are loaded.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The highest offer of each user per auction id.
+     */
+    private final Map<String, Map<String, UserBid>> users = new HashMap<>();
+
+    /**
+     * The current leader of each auction.
+     */
+    private final Map<String, Leader> leaders = new HashMap<>();
+
+    /**
+     * Construct the bidder index.
+     *
+     * @param auctionDao the auction DAO
+     */
+    public BidderIndex(AuctionDao auctionDao) {
+        this.auctionDao = auctionDao;
+    }
+
+    /**
+     * Update the index from auction events.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case LOADED, CREATED, UPDATED -> load(event.getAuction());
+            case BID, PURCHASED -> {
+                synchronized (this) {
+                    offer(event.getAuction(), event.getOffer(), event.getType() == AuctionEventType.PURCHASED);
+                }
+            }
+            case DELETED, ARCHIVED -> {
+                synchronized (this) {
+                    remove(event.getAuctionId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an auction's bids to the index, including archived bids that were not indexed yet.
+     *
+     * @param auction the auction
+     */
+    private void load(AuctionEntity auction) {
+        // Find how many archived bids are already indexed
+        int indexed;
+        synchronized (this) {
+            Leader leader = this.leaders.get(auction.getId());
+            indexed = leader == null ? 0 : leader.archivedBidCount;
+        }
+
+        // Read the missing archived bids outside the lock
+        int archived = indexed;
+        List<OfferEntity> archivedBids = new ArrayList<>();
+        if (indexed < auction.getArchivedBidCount() && auction.getBidChunkSize() > 0) {
+            int chunkSize = auction.getBidChunkSize();
+            for (int index = indexed / chunkSize; index < auction.getArchivedBidCount() / chunkSize; index++) {
+                Optional<BidChunkEntity> chunk = this.auctionDao.getBidChunk(auction.getId(), index);
+                if (chunk.isEmpty()) {
+                    // Stop at a missing chunk, it is read again the next time the auction is loaded
+                    break;
+                }
+
+                // Add the bids of the chunk that are not indexed
+                List<OfferEntity> bids = chunk.get().getBids();
+                archivedBids.addAll(bids.subList(Math.max(0, indexed - index * chunkSize), bids.size()));
+                archived = (index + 1) * chunkSize;
+            }
+        }
+
+        synchronized (this) {
+            // Index the archived bids and every inline bid, offers already indexed change nothing
+            Leader leader = getLeader(auction);
+            leader.expirationTimestamp = auction.getExpirationTimestamp();
+            for (OfferEntity bid : archivedBids) {
+                offer(auction, bid, false);
+            }
+            leader.archivedBidCount = Math.max(leader.archivedBidCount, archived);
+            for (OfferEntity bid : auction.getBids()) {
+                offer(auction, bid, false);
+            }
+
+            // Index the purchase
+            if (auction.getPurchase() != null) {
+                offer(auction, auction.getPurchase(), true);
+            }
+        }
+    }
+
+    /**
+     * Record an offer on an auction, must be called holding the index's lock.
+     *
+     * @param auction  the auction
+     * @param offer    the offer
+     * @param purchase whether the offer is a purchase
+     */
+    private void offer(AuctionEntity auction, OfferEntity offer, boolean purchase) {
+        // Record the user's highest offer
+        this.users.computeIfAbsent(offer.getUserId(), id -> new HashMap<>())
+                .merge(auction.getId(), new UserBid(auction.getId(), offer.getPrice(), offer.getCreationTimestamp()),
+                        (existing, latest) -> new UserBid(latest.auctionId, Math.max(existing.highestBid, latest.highestBid),
+                                Math.max(existing.lastBidTimestamp, latest.lastBidTimestamp)));
+
+        // Record the auction's leader, a purchase always wins
+        Leader leader = getLeader(auction);
+        if (purchase || (!leader.purchased && offer.getPrice() >= leader.price)) {
+            leader.userId = offer.getUserId();
+            leader.price = offer.getPrice();
+            leader.purchased = purchase;
+        }
+        leader.bidders.add(offer.getUserId());
+    }
+
+    /**
+     * Get an auction's leader entry, creating it if the auction is new, must be called holding the index's lock.
+     *
+     * @param auction the auction
+     * @return the leader entry
+     */
+    private Leader getLeader(AuctionEntity auction) {
+        return this.leaders.computeIfAbsent(auction.getId(), id -> new Leader(auction.getExpirationTimestamp()));
+    }
+
+    /**
+     * Remove an auction from the index, must be called holding the index's lock.
+     *
+     * @param auctionId the auction id
+     */
+    private void remove(String auctionId) {
+        Leader leader = this.leaders.remove(auctionId);
+        if (leader == null) {
+            return;
+        }
+
+        // Remove the auction from each of its bidders
+        for (String userId : leader.bidders) {
+            Map<String, UserBid> bids = this.users.get(userId);
+            if (bids != null) {
+                bids.remove(auctionId);
+                if (bids.isEmpty()) {
+                    this.users.remove(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a page of the auctions a user has bid on, most recently bid first.
+     *
+     * @param userId      the user id
+     * @param winningOnly whether to only include auctions the user is winning
+     * @param offset      the number of auctions to skip
+     * @param limit       the maximum number of auctions
+     * @return the user's bids
+     */
+    public synchronized List<UserBidModel> getUserBids(String userId, boolean winningOnly, int offset, int limit) {
+        Map<String, UserBid> bids = this.users.get(userId);
+        if (bids == null) {
+            return List.of();
+        }
+
+        // Order the user's auctions by their latest offer
+        List<UserBid> ordered = new ArrayList<>(bids.values());
+        ordered.sort(Comparator.comparingLong((UserBid bid) -> bid.lastBidTimestamp).reversed());
+
+        // Select the page
+        long now = System.currentTimeMillis();
+        List<UserBidModel> page = new ArrayList<>();
+        int skipped = 0;
+        for (UserBid bid : ordered) {
+            Leader leader = this.leaders.get(bid.auctionId);
+            boolean winning = userId.equals(leader.userId);
+            if (winningOnly && !winning) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+
+            page.add(new UserBidModel(bid.auctionId, bid.highestBid, bid.lastBidTimestamp, winning,
+                    !leader.purchased && leader.expirationTimestamp >= now));
+            if (page.size() == limit) {
+                break;
+            }
+        }
+
+        return page;
+    }
+
+    /**
+     * A user's highest offer on an auction.
+     */
+    private static final class UserBid {
+        private final String auctionId;
+        private final double highestBid;
+        private final long lastBidTimestamp;
+
+        /**
+         * Construct a user's bid entry.
+         *
+         * @param auctionId        the auction id
+         * @param highestBid       the highest offer
+         * @param lastBidTimestamp the timestamp of the latest offer
+         */
+        private UserBid(String auctionId, double highestBid, long lastBidTimestamp) {
+            this.auctionId = auctionId;
+            this.highestBid = highestBid;
+            this.lastBidTimestamp = lastBidTimestamp;
+        }
+    }
+
+    /**
+     * The current leader of an auction and everyone who bid on it.
+     */
+    private static final class Leader {
+        private long expirationTimestamp;
+        private final Set<String> bidders = new HashSet<>();
+        private String userId;
+        private double price = Double.NEGATIVE_INFINITY;
+        private boolean purchased;
+        private int archivedBidCount;
+
+        /**
+         * Construct an auction's leader entry.
+         *
+         * @param expirationTimestamp the auction's expiration timestamp
+         */
+        private Leader(long expirationTimestamp) {
+            this.expirationTimestamp = expirationTimestamp;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.theauctiongames.auctionapi.business.changes;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.models.AuctionChangeModel;
+import com.theauctiongames.auctionapi.business.models.AuctionChangesModel;
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A bounded feed of the changes to the auction catalog, so clients mirroring the catalog can download the
+ * changes since their last sync instead of the whole catalog.
+ * <p>
+ * Every change gets the next sequence number and is kept in a ring buffer. A client asking for changes that
+ * already left the buffer is told to resync: to reload the catalog and continue from the returned cursor.
+ * Clients get opaque cursors holding the sequence and a random epoch picked on startup, so a cursor from
+ * before a restart or from another replica is recognized as unknown rather than silently skipping changes.
+ */
+@Component
+public class AuctionChangeFeed {
+
+    /**
+     * The buffered changes, indexed by sequence modulo the capacity.
+     */
+    private final AuctionChangeModel[] buffer;
+
+    /**
+     * The random epoch of this feed's cursors.
+     */
+    private final long epoch;
+
+    /**
+     * The sequence number of the next change, guarded by the feed.
+     */
+    private long nextSequence;
+
+    /**
+     * Construct the auction change feed.
+     *
+     * @param capacity the maximum number of buffered changes
+     */
+    @Autowired
+    public AuctionChangeFeed(@Value("${auction.changes.capacity:10000}") int capacity) {
+        this(capacity, new SecureRandom().nextLong());
+    }
+
+    /**
+     * Construct the auction change feed with an epoch.
+     *
+     * @param capacity the maximum number of buffered changes
+     * @param epoch    the epoch of the feed's cursors
+     */
+    AuctionChangeFeed(int capacity, long epoch) {
+        this.buffer = new AuctionChangeModel[capacity];
+        this.epoch = epoch;
+    }
+
+    /**
+     * Record auction changes, skipping auctions loaded on startup or archived since they are not changes.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> append(event.getType().name(), event.getAuctionId(), AuctionModel.fromEntity(event.getAuction()), null);
+            case BID, PURCHASED -> append(event.getType().name(), event.getAuctionId(), null, OfferModel.fromEntity(event.getOffer()));
+            case DELETED -> append(event.getType().name(), event.getAuctionId(), null, null);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Append a change with the next sequence number.
+     *
+     * @param type      the kind of change
+     * @param auctionId the auction id
+     * @param auction   the auction, or null
+     * @param offer     the offer, or null
+     */
+    synchronized void append(String type, String auctionId, AuctionModel auction, OfferModel offer) {
+        long sequence = this.nextSequence++;
+        this.buffer[(int) (sequence % this.buffer.length)] = new AuctionChangeModel(cursor(sequence), type, auctionId, auction, offer);
+    }
+
+    /**
+     * Get the cursor of the latest change, to continue from after loading the catalog.
+     *
+     * @return the cursor
+     */
+    public synchronized String getCursor() {
+        return cursor(this.nextSequence - 1);
+    }
+
+    /**
+     * Get the changes after a cursor.
+     *
+     * @param since the cursor of the last change the client has, or null
+     * @param limit the maximum number of changes
+     * @return the changes, or a resync if they are no longer available
+     */
+    public synchronized AuctionChangesModel getChangesSince(String since, int limit) {
+        long latest = this.nextSequence - 1;
+        long oldest = Math.max(0, this.nextSequence - this.buffer.length);
+
+        // The client must resync if it missed changes that left the buffer, or has an unknown cursor
+        OptionalLong sequence = sequenceOf(since);
+        if (sequence.isEmpty() || sequence.getAsLong() < oldest - 1 || sequence.getAsLong() > latest) {
+            return new AuctionChangesModel(cursor(latest), true, false, List.of());
+        }
+
+        // Copy the changes after the client's sequence
+        long start = sequence.getAsLong();
+        long end = Math.min(latest, start + limit);
+        List<AuctionChangeModel> changes = new ArrayList<>((int) (end - start));
+        for (long next = start + 1; next <= end; next++) {
+            changes.add(this.buffer[(int) (next % this.buffer.length)]);
+        }
+
+        return new AuctionChangesModel(cursor(end), false, end < latest, changes);
+    }
+
+    /**
+     * Create the cursor of a sequence number in this feed.
+     *
+     * @param sequence the sequence number
+     * @return the cursor
+     */
+    private String cursor(long sequence) {
+        byte[] bytes = ByteBuffer.allocate(2 * Long.BYTES).putLong(this.epoch).putLong(sequence).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Get the sequence number of a cursor created by this feed.
+     *
+     * @param cursor the cursor, or null
+     * @return the sequence number, or empty if the cursor is malformed or from another epoch
+     */
+    private OptionalLong sequenceOf(String cursor) {
+        if (cursor == null) {
+            return OptionalLong.empty();
+        }
+
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            if (bytes.remaining() != 2 * Long.BYTES || bytes.getLong() != this.epoch) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(bytes.getLong());
+        } catch (IllegalArgumentException exception) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.analytics.ColumnarBidStore;
+import com.theauctiongames.auctionapi.business.models.BidStatisticsModel;
+import com.theauctiongames.auctionapi.business.models.BidVolumeModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * The rest controller for providing bid analytics.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsRestController {
+
+    /**
+     * The maximum number of buckets in a volume query.
+     */
+    private static final int MAX_BUCKETS = 10_000;
+
+    /**
+     * The injected columnar bid store.
+     */
+    private final ColumnarBidStore bidStore;
+
+    /**
+     * Construct the analytics rest controller.
+     *
+     * @param bidStore the injected columnar bid store
+     */
+    public AnalyticsRestController(ColumnarBidStore bidStore) {
+        this.bidStore = bidStore;
+    }
+
+    /**
+     * The API endpoint for getting the bid statistics across all auctions.
+     *
+     * @return the bid statistics
+     */
+    @GetMapping(path = "/bids", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getGlobalStatistics() {
+        try {
+            // Return the statistics
+            return new ResponseEntity<>(this.bidStore.getGlobalStatistics(), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The API endpoint for getting the bid statistics of an auction.
+     *
+     * @param id the auction id
+     * @return the bid statistics
+     */
+    @GetMapping(path = "/auctions/{id}/bids", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getAuctionStatistics(@PathVariable String id) {
+        try {
+            // Get the statistics for the auction
+            Optional<BidStatisticsModel> statistics = this.bidStore.getAuctionStatistics(id);
+
+            // Check if the auction has bids
+            if (statistics.isPresent()) {
+                // Return the statistics
+                return new ResponseEntity<>(statistics.get(), HttpStatus.OK);
+            } else {
+                // No bids were stored for the auction, return not found
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The API endpoint for getting the bid volume over time, for an auction or all auctions.
+     *
+     * @param auctionId    the auction id, or none for all auctions
+     * @param from         the timestamp the first bucket starts at
+     * @param bucketMillis the length of each bucket in milliseconds
+     * @param buckets      the number of buckets
+     * @return the bid volume
+     */
+    @GetMapping(path = "/bids/volume", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getVolume(@RequestParam(required = false) String auctionId,
+                                       @RequestParam long from,
+                                       @RequestParam(defaultValue = "3600000") long bucketMillis,
+                                       @RequestParam(defaultValue = "24") int buckets) {
+        try {
+            // Validate the buckets
+            if (bucketMillis <= 0 || buckets <= 0 || buckets > MAX_BUCKETS) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+
+            // Get the volume
+            Optional<BidVolumeModel> volume = this.bidStore.getVolume(auctionId, from, bucketMillis, buckets);
+
+            // Check if the auction has bids
+            if (volume.isPresent()) {
+                // Return the volume
+                return new ResponseEntity<>(volume.get(), HttpStatus.OK);
+            } else {
+                // No bids were stored for the auction, return not found
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.changes.AuctionChangeFeed;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The rest controller for syncing a mirror of the auction catalog.
+ */
+@RestController
+@RequestMapping("/api/v1/auctions/changes")
+public class AuctionChangeRestController {
+
+    /**
+     * The maximum number of changes in a response.
+     */
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * The injected auction change feed.
+     */
+    private final AuctionChangeFeed changeFeed;
+
+    /**
+     * Construct the auction change rest controller.
+     *
+     * @param changeFeed the injected auction change feed
+     */
+    public AuctionChangeRestController(AuctionChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * The API endpoint for getting the changes to the catalog since a cursor.
+     * <p>
+     * Without a cursor, only the latest cursor is returned with a resync, so a client should call this
+     * before loading the catalog and then poll for the changes since the returned cursor.
+     *
+     * @param since the cursor of the last change the client has
+     * @param limit the maximum number of changes
+     * @return the changes, oldest first
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(defaultValue = "" + MAX_LIMIT) int limit) {
+        try {
+            // Return the changes
+            return new ResponseEntity<>(this.changeFeed.getChangesSince(since, Math.max(1, Math.min(limit, MAX_LIMIT))), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.rankings.AuctionRankings;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The rest controller for providing ranked auction lists.
+ */
+@RestController
+@RequestMapping("/api/v1/auctions/top")
+public class AuctionRankingRestController {
+
+    /**
+     * The maximum number of auctions in a ranking response.
+     */
+    private static final int MAX_LIMIT = 100;
+
+    /**
+     * The injected auction rankings.
+     */
+    private final AuctionRankings rankings;
+
+    /**
+     * Construct the auction ranking rest controller.
+     *
+     * @param rankings the injected auction rankings
+     */
+    public AuctionRankingRestController(AuctionRankings rankings) {
+        this.rankings = rankings;
+    }
+
+    /**
+     * The API endpoint for getting the active auctions ending soonest.
+     *
+     * @param limit the maximum number of auctions
+     * @return a list of ranked auctions
+     */
+    @GetMapping(path = "/ending-soon", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getEndingSoon(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            // Return the ranking
+            return new ResponseEntity<>(this.rankings.getEndingSoon(clamp(limit)), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The API endpoint for getting the active auctions with the most recent bids.
+     *
+     * @param limit the maximum number of auctions
+     * @return a list of ranked auctions
+     */
+    @GetMapping(path = "/hottest", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getHottest(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            // Return the ranking
+            return new ResponseEntity<>(this.rankings.getHottest(clamp(limit)), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The API endpoint for getting the active auctions with the highest current price.
+     *
+     * @param limit the maximum number of auctions
+     * @return a list of ranked auctions
+     */
+    @GetMapping(path = "/highest-price", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getHighestPrice(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            // Return the ranking
+            return new ResponseEntity<>(this.rankings.getHighestPrice(clamp(limit)), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Clamp a requested limit to the allowed range.
+     *
+     * @param limit the requested limit
+     * @return the clamped limit
+     */
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,15 +1,28 @@
 package com.theauctiongames.auctionapi.business.controllers;
 
+import com.theauctiongames.auctionapi.business.admission.AdmissionControl;
+import com.theauctiongames.auctionapi.business.images.InvalidImageException;
 import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
 import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
+import com.theauctiongames.auctionapi.business.ownership.AuctionForwarder;
+import com.theauctiongames.auctionapi.business.ownership.AuctionOwnership;
 import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.IdempotencyCache;
+import com.theauctiongames.auctionapi.business.services.IdempotencyKeyInUseException;
+import com.theauctiongames.auctionapi.business.services.IdempotencyKeyReusedException;
+import com.theauctiongames.auctionapi.business.services.OfferResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * The rest controller for providing the front-facing auction API.
@@ -18,18 +31,57 @@ import java.util.Optional;
 @RequestMapping("/api/v1")
 public class AuctionRestController {
 
+    /**
+     * The header carrying the client's idempotency key.
+     */
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * The prefix reserved for the keys of values stored alongside auctions, never valid in an auction id.
+     */
+    private static final String RESERVED_ID_PREFIX = "_";
+
     /**
      * The injected auction service.
      */
     private final AuctionService service;
 
+    /**
+     * The injected idempotency cache.
+     */
+    private final IdempotencyCache idempotencyCache;
+
+    /**
+     * The injected admission control.
+     */
+    private final AdmissionControl admissionControl;
+
+    /**
+     * The injected auction ownership.
+     */
+    private final AuctionOwnership ownership;
+
+    /**
+     * The injected auction forwarder.
+     */
+    private final AuctionForwarder forwarder;
+
     /**
      * Construct the auction rest controller.
      *
-     * @param service the injected auction service
+     * @param service          the injected auction service
+     * @param idempotencyCache the injected idempotency cache
+     * @param admissionControl the injected admission control
+     * @param ownership        the injected auction ownership
+     * @param forwarder        the injected auction forwarder
      */
-    public AuctionRestController(AuctionService service) {
+    public AuctionRestController(AuctionService service, IdempotencyCache idempotencyCache, AdmissionControl admissionControl,
+                                 AuctionOwnership ownership, AuctionForwarder forwarder) {
         this.service = service;
+        this.idempotencyCache = idempotencyCache;
+        this.admissionControl = admissionControl;
+        this.ownership = ownership;
+        this.forwarder = forwarder;
     }
 
     /**
@@ -39,44 +91,35 @@ public class AuctionRestController {
      */
     @GetMapping(path = "/auctions", produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<?> getAuctions() {
-        try {
-            // Return the list of auctions
-            return new ResponseEntity<>(this.service.getAllAuctions(), HttpStatus.OK);
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
-
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        // Return the list of auctions
+        return new ResponseEntity<>(this.service.getAllAuctions(), HttpStatus.OK);
     }
 
     /**
      * The API endpoint for getting an auction by its ID.
      *
-     * @param id the id
+     * @param id          the id
+     * @param ifNoneMatch the entity tags the client already has
      * @return the auction
      */
     @GetMapping(path = "/auctions/{id}", produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<?> getAuctionById(@PathVariable String id) {
-        try {
-            // Try to get the auction by id
-            Optional<AuctionModel> auction = this.service.getAuctionById(id);
+    public ResponseEntity<?> getAuctionById(@PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(id)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            // if auction is present, return it
-            if (auction.isPresent()) {
-                // Auction found
-                return new ResponseEntity<>(auction.get(), HttpStatus.OK);
-            } else {
-                // Auction not found
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
+        // Try to get the auction by id
+        Optional<Versioned<AuctionModel>> auction = this.service.getVersionedAuctionById(id);
 
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        // if auction is present, return it
+        if (auction.isPresent()) {
+            // Auction found
+            return versionedResponse(auction.get(), ifNoneMatch);
+        } else {
+            // Auction not found
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
@@ -88,6 +131,11 @@ public class AuctionRestController {
      */
     @PostMapping(path = "/auctions", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<?> createAuction(@RequestBody AuctionModel auction) {
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(auction.getId())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         try {
             // Try to create the auction
             boolean created = this.service.createAuction(auction);
@@ -100,12 +148,9 @@ public class AuctionRestController {
                 // Account already exists, return conflict
                 return new ResponseEntity<>(HttpStatus.CONFLICT);
             }
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
-
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (InvalidImageException exception) {
+            // The image was rejected, return bad request
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -117,6 +162,11 @@ public class AuctionRestController {
      */
     @PutMapping(path = "/auctions", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<?> updateAuction(@RequestBody AuctionModel auction) {
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(auction.getId())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         try {
             // Try to update the auction
             boolean updated = this.service.updateAuction(auction);
@@ -129,12 +179,9 @@ public class AuctionRestController {
                 // Account not found, return not found
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
-
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (InvalidImageException exception) {
+            // The image was rejected, return bad request
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -146,113 +193,296 @@ public class AuctionRestController {
      */
     @DeleteMapping(path = "/auctions/{id}", produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<?> deleteAuctionById(@PathVariable String id) {
-        try {
-            // Try to delete the auction
-            boolean deleted = this.service.deleteAuctionById(id);
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(id)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            // Check if the auction was deleted
-            if (deleted) {
-                // Return success
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-            } else {
-                // Account not found, return not found
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            }
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
+        // Try to delete the auction
+        boolean deleted = this.service.deleteAuctionById(id);
 
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        // Check if the auction was deleted
+        if (deleted) {
+            // Return success
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } else {
+            // Account not found, return not found
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     /**
-     * The API endpoint for getting all bids for an auction.
+     * The API endpoint for getting a page of bids for an auction, most recent bids first.
      *
-     * @param id the id
-     * @return a list of bids
+     * @param id          the id
+     * @param limit       the maximum number of bids to return
+     * @param before      the cursor from the previous page's next link, or none for the most recent bids
+     * @param ifNoneMatch the entity tags the client already has
+     * @return a list of bids, oldest first, with a link to the page of older bids
      */
     @GetMapping(path = "/auctions/{id}/bids", produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<?> getBidsForAuction(@PathVariable String id) {
-        try {
-            // Get the bids for the auction
-            Optional<List<OfferModel>> bids = this.service.getBidsForAuction(id);
+    public ResponseEntity<?> getBidsForAuction(@PathVariable String id,
+                                               @RequestParam(defaultValue = "100") int limit,
+                                               @RequestParam(required = false) Integer before,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(id)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            // Check if bids are present
-            if (bids.isPresent()) {
-                // Return the bids
-                return new ResponseEntity<>(bids.get(), HttpStatus.OK);
-            } else {
-                // The auction was not found, return not found
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        // Get the bids for the auction
+        Optional<Versioned<BidPageModel>> bids = this.service.getVersionedBidsForAuction(id, limit, before);
+
+        // Check if bids are present
+        if (bids.isPresent()) {
+            // Check if the client already has the bids
+            if (isNotModified(bids.get(), ifNoneMatch)) {
+                return notModified(bids.get());
+            }
+
+            // Link to the page of older bids
+            BidPageModel page = bids.get().get();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(bids.get().getETag());
+            if (page.getNextBefore() != null) {
+                response.header(HttpHeaders.LINK, "</api/v1/auctions/" + id + "/bids?limit=" + limit
+                        + "&before=" + page.getNextBefore() + ">; rel=\"next\"");
             }
-        } catch (Exception exception) {
-            // Output error
-            exception.printStackTrace();
 
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            // Return the bids
+            return response.body(page.getBids());
+        } else {
+            // The auction was not found, return not found
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     /**
      * The API endpoint for creating a new bid for an auction.
      *
-     * @param id  the id
-     * @param bid the bid
+     * @param id             the id
+     * @param bid            the bid
+     * @param idempotencyKey the client's key for safely retrying the request, if any
+     * @param headers        the request headers, telling if another replica forwarded the request
      * @return an http status code signifying success or failure
      */
     @PostMapping(path = "/auctions/{id}/bids", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<?> addBidToAuction(@PathVariable String id, @RequestBody OfferModel bid) {
-        try {
-            // Add bid to auction & get response
-            HttpStatus status = switch (this.service.addBidToAuction(id, bid)) {
-                case NOT_FOUND -> HttpStatus.NOT_FOUND;
-                case EXPIRED -> HttpStatus.NOT_ACCEPTABLE;
-                case ALREADY_PURCHASED -> HttpStatus.BAD_REQUEST;
-                case TOO_LOW, TOO_HIGH -> HttpStatus.CONFLICT;
-                case SUCCESS -> HttpStatus.CREATED;
-                case SERVER_ERROR -> HttpStatus.INTERNAL_SERVER_ERROR;
-            };
+    public ResponseEntity<?> addBidToAuction(@PathVariable String id, @RequestBody OfferModel bid,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                             @RequestHeader HttpHeaders headers) {
+        return submitOffer(id, "bids", bid.getUserId(), bid, idempotencyKey, headers, HttpStatus.CREATED,
+                () -> this.service.addBidToAuction(id, bid));
+    }
 
-            // Return the response
-            return new ResponseEntity<>(status);
-        } catch (Exception exception) {
-            // Print the error
-            exception.printStackTrace();
+    /**
+     * The API Endpoint for purchasing an auction.
+     *
+     * @param id             the auction id
+     * @param purchase       the purchase offer
+     * @param idempotencyKey the client's key for safely retrying the request, if any
+     * @param headers        the request headers, telling if another replica forwarded the request
+     * @return an http status code signifying success or failure
+     */
+    @PostMapping(path = "/auctions/{id}/purchase", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> purchaseAuction(@PathVariable String id, @RequestBody OfferModel purchase,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                             @RequestHeader HttpHeaders headers) {
+        return submitOffer(id, "purchase", purchase.getUserId(), purchase, idempotencyKey, headers, HttpStatus.NO_CONTENT,
+                () -> this.service.purchaseAuction(id, purchase));
+    }
 
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    /**
+     * The API endpoint for placing a proxy bid on an auction, which bids on the user's behalf up to its
+     * maximum whenever another user bids.
+     *
+     * @param id             the auction id
+     * @param proxyBid       the proxy bid
+     * @param idempotencyKey the client's key for safely retrying the request, if any
+     * @param headers        the request headers, telling if another replica forwarded the request
+     * @return an http status code signifying success or failure
+     */
+    @PostMapping(path = "/auctions/{id}/proxy-bids", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> placeProxyBid(@PathVariable String id, @RequestBody ProxyBidModel proxyBid,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                           @RequestHeader HttpHeaders headers) {
+        // Check the proxy bid can raise the price
+        if (proxyBid.getIncrement() <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+
+        // Proxy bids are always placed now, clients cannot backdate them to win ties
+        proxyBid.setCreationTimestamp(0);
+
+        return submitOffer(id, "proxy-bids", proxyBid.getUserId(), proxyBid, idempotencyKey, headers, HttpStatus.CREATED,
+                () -> this.service.placeProxyBid(id, proxyBid));
     }
 
     /**
-     * The API Endpoint for purchasing an auction.
+     * Submit an offer on an auction: replay it if it already completed here, otherwise rate limit it, forward
+     * it to the auction's owner or run it here one offer per auction at a time, once per idempotency key, and
+     * map the outcome to a response.
      *
-     * @param id the auction id
+     * @param id             the auction id
+     * @param operation      the offer's path below the auction, also scoping its idempotency key
+     * @param userId         the id of the user making the offer
+     * @param offer          the offer
+     * @param idempotencyKey the client's key for safely retrying the request, if any
+     * @param headers        the request headers, telling if another replica forwarded the request
+     * @param success        the status of a successful offer
+     * @param submit         the call submitting the offer to the service
+     * @return the response
      */
-    @PostMapping(path = "/auctions/{id}/purchase", produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<?> purchaseAuction(@PathVariable String id, @RequestBody OfferModel purchase) {
+    private ResponseEntity<?> submitOffer(String id, String operation, String userId, Object offer, String idempotencyKey,
+                                          HttpHeaders headers, HttpStatus success, Supplier<OfferResponse> submit) {
+        // Reject ids reserved for values stored alongside auctions
+        if (isReservedId(id)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         try {
-            // Purchase the auction
-            HttpStatus status = switch (this.service.purchaseAuction(id, purchase)) {
-                case NOT_FOUND -> HttpStatus.NOT_FOUND;
-                case EXPIRED -> HttpStatus.NOT_ACCEPTABLE;
-                case ALREADY_PURCHASED -> HttpStatus.BAD_REQUEST;
-                case TOO_LOW, TOO_HIGH -> HttpStatus.CONFLICT;
-                case SUCCESS -> HttpStatus.NO_CONTENT;
-                case SERVER_ERROR -> HttpStatus.INTERNAL_SERVER_ERROR;
-            };
+            // Replay a completed offer before rate limiting, a retry adds no load
+            Optional<OfferResponse> replayed = idempotencyKey == null ? Optional.empty()
+                    : this.idempotencyCache.getCompleted(idempotencyKey, operation + ":" + id, offer);
+            if (replayed.isPresent()) {
+                return offerResponse(replayed.get(), success);
+            }
+
+            // Shed the offer if the user or auction is over its rate limit, forwarded offers were already checked
+            boolean fromReplica = this.forwarder.isForwarded(headers);
+            if (!fromReplica) {
+                long retryAfter = this.admissionControl.admit(userId, id);
+                if (retryAfter > 0) {
+                    return tooManyRequests(retryAfter);
+                }
+            }
+
+            // Forward the offer to the auction's owner, handling it here if it could not be sent
+            String owner = this.ownership.getRemoteOwner(id);
+            if (owner != null && !fromReplica) {
+                Optional<ResponseEntity<?>> forwarded = this.forwarder.forward(owner, this.ownership.getSelf(), id, operation, offer, idempotencyKey);
+                if (forwarded.isPresent()) {
+                    return forwarded.get();
+                }
+            }
+
+            // Run the offer one at a time per auction, once per idempotency key
+            OfferResponse response = this.ownership.runExclusively(id, () -> idempotencyKey == null
+                    ? submit.get()
+                    : this.idempotencyCache.execute(idempotencyKey, operation + ":" + id, offer, submit));
 
             // Return the response
-            return new ResponseEntity<>(status);
-        } catch (Exception exception) {
-            // Print the error
-            exception.printStackTrace();
+            return offerResponse(response, success);
+        } catch (IdempotencyKeyReusedException exception) {
+            // The key belongs to a different request, return unprocessable entity
+            return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+        } catch (IdempotencyKeyInUseException exception) {
+            // The original request is still running elsewhere, return conflict
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Map the outcome of an offer to a response.
+     *
+     * @param response the outcome of the offer
+     * @param success  the status of a successful offer
+     * @return the response
+     */
+    private ResponseEntity<?> offerResponse(OfferResponse response, HttpStatus success) {
+        // Get the response status
+        HttpStatus status = switch (response) {
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case EXPIRED -> HttpStatus.NOT_ACCEPTABLE;
+            case ALREADY_PURCHASED -> HttpStatus.BAD_REQUEST;
+            case TOO_LOW, TOO_HIGH -> HttpStatus.CONFLICT;
+            case SUCCESS -> success;
+            case SERVER_ERROR -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+
+        // Return the response
+        return new ResponseEntity<>(status);
+    }
+
+    /**
+     * Check if an auction id is reserved for values stored alongside auctions.
+     *
+     * @param id the auction id
+     * @return true if the id is reserved, false otherwise
+     */
+    private static boolean isReservedId(String id) {
+        return id != null && id.startsWith(RESERVED_ID_PREFIX);
+    }
 
-            // Return internal server error
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    /**
+     * Build the response for a versioned value, answering not modified if the client already has it.
+     * <p>
+     * The value is only mapped and serialized when the client's copy is out of date.
+     *
+     * @param value       the versioned value
+     * @param ifNoneMatch the entity tags the client already has
+     * @return the response
+     */
+    private ResponseEntity<?> versionedResponse(Versioned<?> value, String ifNoneMatch) {
+        // Check if the client already has this version
+        if (isNotModified(value, ifNoneMatch)) {
+            return notModified(value);
         }
+
+        // Return the mapped value
+        return ResponseEntity.ok().eTag(value.getETag()).body(value.get());
+    }
+
+    /**
+     * Check if the client already has the current version of a value.
+     *
+     * @param value       the versioned value
+     * @param ifNoneMatch the entity tags the client already has
+     * @return true if the client is up to date, false otherwise
+     */
+    private boolean isNotModified(Versioned<?> value, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        String current = opaqueTag(value.getETag());
+        for (String tag : ifNoneMatch.split(",")) {
+            // Compare weakly as required for If-None-Match
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || opaqueTag(trimmed).equals(current)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the opaque part of an entity tag, for weak comparison.
+     *
+     * @param tag the entity tag
+     * @return the tag without its weakness indicator
+     */
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Build the not modified response for a versioned value.
+     *
+     * @param value the versioned value
+     * @return the response
+     */
+    private ResponseEntity<?> notModified(Versioned<?> value) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(value.getETag()).build();
+    }
+
+    /**
+     * Build a response asking the client to retry later.
+     *
+     * @param retryAfterMillis the milliseconds the client should wait
+     * @return the response
+     */
+    private ResponseEntity<?> tooManyRequests(long retryAfterMillis) {
+        long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds)).build();
     }
 }
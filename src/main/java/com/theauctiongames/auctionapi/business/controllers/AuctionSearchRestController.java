@@ -0,0 +1,55 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.search.AuctionSearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The rest controller for providing auction search.
+ */
+@RestController
+@RequestMapping("/api/v1/auctions/search")
+public class AuctionSearchRestController {
+
+    /**
+     * The maximum number of results in a search response.
+     */
+    private static final int MAX_LIMIT = 100;
+
+    /**
+     * The injected auction search index.
+     */
+    private final AuctionSearchIndex searchIndex;
+
+    /**
+     * Construct the auction search rest controller.
+     *
+     * @param searchIndex the injected auction search index
+     */
+    public AuctionSearchRestController(AuctionSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * The API endpoint for searching auction titles and descriptions.
+     *
+     * @param q     the query text, the last word also matches as a prefix
+     * @param limit the maximum number of results
+     * @return a list of matching auctions, most relevant first
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        try {
+            // Return the results
+            return new ResponseEntity<>(this.searchIndex.search(q, Math.max(1, Math.min(limit, MAX_LIMIT))), HttpStatus.OK);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
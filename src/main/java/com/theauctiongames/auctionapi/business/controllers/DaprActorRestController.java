@@ -0,0 +1,117 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.services.ActorAuctionService;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The rest controller the Dapr actor runtime uses to host auction actors on this replica.
+ */
+@RestController
+@ConditionalOnProperty(name = "auction.service", havingValue = "actor")
+public class DaprActorRestController {
+
+    /**
+     * The injected actor auction service.
+     */
+    private final ActorAuctionService service;
+
+    /**
+     * How long an actor may be idle before Dapr deactivates it.
+     */
+    private final String idleTimeout;
+
+    /**
+     * Construct the dapr actor rest controller.
+     *
+     * @param service     the injected actor auction service
+     * @param idleTimeout how long an actor may be idle before Dapr deactivates it
+     */
+    public DaprActorRestController(ActorAuctionService service,
+                                   @Value("${auction.actors.idle-timeout:1h}") String idleTimeout) {
+        this.service = service;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * The endpoint Dapr reads the hosted actor types from on startup.
+     *
+     * @return the actor configuration
+     */
+    @GetMapping(path = "/dapr/config", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getConfig() {
+        JSONObject config = new JSONObject()
+                .put("entities", List.of(ActorAuctionService.ACTOR_TYPE))
+                .put("actorIdleTimeout", this.idleTimeout)
+                .put("drainOngoingCallTimeout", "30s")
+                .put("drainRebalancedActors", true);
+        return new ResponseEntity<>(config.toString(), HttpStatus.OK);
+    }
+
+    /**
+     * The endpoint Dapr checks the actor host's health on.
+     *
+     * @return an http status code signifying the host is healthy
+     */
+    @GetMapping(path = "/healthz")
+    public ResponseEntity<?> getHealth() {
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * The endpoint Dapr delivers actor method calls to.
+     *
+     * @param id     the auction id
+     * @param method the actor method
+     * @param body   the json body
+     * @return the json result
+     */
+    @PutMapping(path = "/actors/" + ActorAuctionService.ACTOR_TYPE + "/{id}/method/{method}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> onMethod(@PathVariable String id, @PathVariable String method, @RequestBody(required = false) String body) {
+        try {
+            return new ResponseEntity<>(this.service.onActorMethod(id, method, body), HttpStatus.OK);
+        } catch (IllegalArgumentException exception) {
+            // Unknown method or malformed body, return bad request
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IOException exception) {
+            // Print the error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * The endpoint Dapr delivers actor reminders to.
+     *
+     * @param id       the auction id
+     * @param reminder the reminder name
+     * @return an http status code signifying success
+     */
+    @PutMapping(path = "/actors/" + ActorAuctionService.ACTOR_TYPE + "/{id}/method/remind/{reminder}")
+    public ResponseEntity<?> onReminder(@PathVariable String id, @PathVariable String reminder) {
+        this.service.onActorReminder(id, reminder);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * The endpoint Dapr deactivates actors through.
+     *
+     * @param id the auction id
+     * @return an http status code signifying success
+     */
+    @DeleteMapping(path = "/actors/" + ActorAuctionService.ACTOR_TYPE + "/{id}")
+    public ResponseEntity<?> onDeactivate(@PathVariable String id) {
+        this.service.onActorDeactivated(id);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
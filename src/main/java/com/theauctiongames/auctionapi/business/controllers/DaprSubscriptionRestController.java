@@ -0,0 +1,84 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidationBus;
+import com.theauctiongames.auctionapi.data.cache.InvalidationMessage;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * The rest controller Dapr uses to discover and deliver pub/sub subscriptions.
+ */
+@RestController
+@RequestMapping("/dapr")
+public class DaprSubscriptionRestController {
+
+    /**
+     * The route invalidations are delivered to.
+     */
+    private static final String INVALIDATIONS_ROUTE = "/dapr/invalidations";
+
+    /**
+     * The injected auction invalidation bus.
+     */
+    private final AuctionInvalidationBus invalidationBus;
+
+    /**
+     * Construct the dapr subscription rest controller.
+     *
+     * @param invalidationBus the injected auction invalidation bus
+     */
+    public DaprSubscriptionRestController(AuctionInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * A private inner class to map the cloud event envelope of a delivered message to.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    private static class InvalidationEvent {
+        private InvalidationMessage data;
+    }
+
+    /**
+     * The endpoint Dapr reads the subscriptions from on startup.
+     *
+     * @return the subscriptions
+     */
+    @GetMapping(path = "/subscribe", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getSubscriptions() {
+        return new ResponseEntity<>(this.invalidationBus.getSubscriptions(INVALIDATIONS_ROUTE), HttpStatus.OK);
+    }
+
+    /**
+     * The endpoint Dapr delivers auction invalidations to.
+     *
+     * @param event the delivered event
+     * @return an http status code signifying success or failure
+     */
+    @PostMapping(path = "/invalidations")
+    public ResponseEntity<?> onInvalidation(@RequestBody InvalidationEvent event) {
+        try {
+            // Drop malformed messages rather than have them redelivered
+            if (event.getData() == null || event.getData().getAuctionId() == null) {
+                return new ResponseEntity<>(HttpStatus.OK);
+            }
+
+            // Apply the invalidation
+            this.invalidationBus.onMessage(event.getData());
+            return new ResponseEntity<>(HttpStatus.OK);
+        } catch (Exception exception) {
+            // Print the error
+            exception.printStackTrace();
+
+            // Return internal server error so Dapr redelivers
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
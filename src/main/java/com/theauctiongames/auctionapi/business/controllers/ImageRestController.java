@@ -0,0 +1,114 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.images.ImageVariant;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The rest controller for serving auction images and their thumbnails.
+ * <p>
+ * Images are stored under the hash of their content, so a stored variant never changes and can be cached
+ * indefinitely. Thumbnails that are not generated yet are served from the original, briefly cached.
+ * <p>
+ * Images are only served as an accepted image format and browsers are told not to guess another one, so
+ * stored data can never be rendered as a page.
+ */
+@RestController
+@RequestMapping("/api/v1/images")
+public class ImageRestController {
+
+    /**
+     * The cache lifetime of a stored variant.
+     */
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
+    /**
+     * The cache lifetime of an original served in place of a thumbnail.
+     */
+    private static final Duration FALLBACK_MAX_AGE = Duration.ofMinutes(1);
+
+    /**
+     * The injected image pipeline.
+     */
+    private final ImagePipeline imagePipeline;
+
+    /**
+     * Construct the image rest controller.
+     *
+     * @param imagePipeline the injected image pipeline
+     */
+    public ImageRestController(ImagePipeline imagePipeline) {
+        this.imagePipeline = imagePipeline;
+    }
+
+    /**
+     * The API endpoint for getting an image as uploaded.
+     *
+     * @param hash the image hash
+     * @return the image data
+     */
+    @GetMapping(path = "/{hash}")
+    public ResponseEntity<?> getImage(@PathVariable String hash) {
+        return serve(hash, ImageVariant.ORIGINAL);
+    }
+
+    /**
+     * The API endpoint for getting a thumbnail of an image.
+     *
+     * @param hash the image hash
+     * @param size the thumbnail size, small or medium
+     * @return the thumbnail data
+     */
+    @GetMapping(path = "/{hash}/thumbnails/{size}")
+    public ResponseEntity<?> getThumbnail(@PathVariable String hash, @PathVariable String size) {
+        // Find the thumbnail variant
+        Optional<ImageVariant> variant = ImageVariant.thumbnail(size);
+        if (variant.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return serve(hash, variant.get());
+    }
+
+    /**
+     * Serve a stored image variant, falling back to the original for thumbnails.
+     *
+     * @param hash    the image hash
+     * @param variant the variant
+     * @return the image data
+     */
+    private ResponseEntity<?> serve(String hash, ImageVariant variant) {
+        // Get the variant, or the original while the thumbnail is generated
+        Optional<ImageEntity> image = this.imagePipeline.getImage(hash, variant);
+        Duration maxAge = IMMUTABLE_MAX_AGE;
+        if (image.isEmpty() && variant != ImageVariant.ORIGINAL) {
+            image = this.imagePipeline.getImage(hash, ImageVariant.ORIGINAL);
+            maxAge = FALLBACK_MAX_AGE;
+        }
+
+        // Image not found, return not found
+        if (image.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        // Serve anything stored before uploads were checked as plain data
+        MediaType contentType = ImagePipeline.isAcceptedContentType(image.get().getContentType())
+                ? MediaType.parseMediaType(image.get().getContentType()) : MediaType.APPLICATION_OCTET_STREAM;
+
+        // Return the image
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header("X-Content-Type-Options", "nosniff")
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .eTag("\"" + hash + "-" + image.get().getVariant() + "\"")
+                .body(image.get().getData());
+    }
+}
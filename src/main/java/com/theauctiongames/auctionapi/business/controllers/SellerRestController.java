@@ -0,0 +1,70 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * The rest controller for providing seller dashboards.
+ */
+@RestController
+@RequestMapping("/api/v1/sellers")
+public class SellerRestController {
+
+    /**
+     * The maximum number of auctions in a single page.
+     */
+    private static final int MAX_LIMIT = 100;
+
+    /**
+     * The injected auction service.
+     */
+    private final AuctionService service;
+
+    /**
+     * Construct the seller rest controller.
+     *
+     * @param service the injected auction service
+     */
+    public SellerRestController(AuctionService service) {
+        this.service = service;
+    }
+
+    /**
+     * The API endpoint for getting a page of a seller's auctions, newest first.
+     *
+     * @param id     the seller id
+     * @param offset the number of auctions to skip
+     * @param limit  the maximum number of auctions
+     * @return a list of auctions, with a link to the next page if there may be more
+     */
+    @GetMapping(path = "/{id}/auctions", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getAuctionsBySeller(@PathVariable String id,
+                                                 @RequestParam(defaultValue = "0") int offset,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        // Validate the page
+        if (offset < 0 || limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // Get the page of auctions
+        int pageSize = Math.min(limit, MAX_LIMIT);
+        List<AuctionModel> auctions = this.service.getAuctionsBySeller(id, offset, pageSize);
+
+        // Link to the next page if this one is full
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (auctions.size() == pageSize) {
+            response.header(HttpHeaders.LINK, "</api/v1/sellers/" + id + "/auctions?offset=" + (offset + pageSize)
+                    + "&limit=" + pageSize + ">; rel=\"next\"");
+        }
+
+        // Return the auctions
+        return response.body(auctions);
+    }
+}
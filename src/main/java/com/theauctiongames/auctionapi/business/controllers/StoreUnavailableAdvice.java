@@ -0,0 +1,26 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers every request that failed because the state store is unavailable with a temporary failure, so
+ * clients retry instead of treating the value as missing.
+ */
+@RestControllerAdvice
+public class StoreUnavailableAdvice {
+
+    /**
+     * Map an unavailable store to service unavailable.
+     *
+     * @param exception the exception
+     * @return an http status code signifying a temporary failure
+     */
+    @ExceptionHandler(StoreUnavailableException.class)
+    public ResponseEntity<?> onStoreUnavailable(StoreUnavailableException exception) {
+        return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
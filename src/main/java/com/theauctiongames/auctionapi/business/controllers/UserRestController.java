@@ -0,0 +1,80 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.bidders.BidderIndex;
+import com.theauctiongames.auctionapi.business.models.UserBidModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * The rest controller for providing a user's bidding activity.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+public class UserRestController {
+
+    /**
+     * The maximum number of auctions in a single page.
+     */
+    private static final int MAX_LIMIT = 100;
+
+    /**
+     * The injected bidder index.
+     */
+    private final BidderIndex bidderIndex;
+
+    /**
+     * Construct the user rest controller.
+     *
+     * @param bidderIndex the injected bidder index
+     */
+    public UserRestController(BidderIndex bidderIndex) {
+        this.bidderIndex = bidderIndex;
+    }
+
+    /**
+     * The API endpoint for getting a page of the auctions a user has bid on, most recently bid first.
+     *
+     * @param id          the user id
+     * @param winningOnly whether to only include auctions the user is winning
+     * @param offset      the number of auctions to skip
+     * @param limit       the maximum number of auctions
+     * @return a list of the user's bids, with a link to the next page if there may be more
+     */
+    @GetMapping(path = "/{id}/bids", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getUserBids(@PathVariable String id,
+                                         @RequestParam(defaultValue = "false") boolean winningOnly,
+                                         @RequestParam(defaultValue = "0") int offset,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            // Validate the page
+            if (offset < 0 || limit < 1) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+
+            // Get the page of bids
+            int pageSize = Math.min(limit, MAX_LIMIT);
+            List<UserBidModel> bids = this.bidderIndex.getUserBids(id, winningOnly, offset, pageSize);
+
+            // Link to the next page if this one is full
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (bids.size() == pageSize) {
+                response.header(HttpHeaders.LINK, "</api/v1/users/" + id + "/bids?winningOnly=" + winningOnly
+                        + "&offset=" + (offset + pageSize) + "&limit=" + pageSize + ">; rel=\"next\"");
+            }
+
+            // Return the bids
+            return response.body(bids);
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+
+            // Return internal server error
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.theauctiongames.auctionapi.business.events;
+
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.snapshots.AuctionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads the auction catalog once on startup and publishes a loaded event for every auction, so in-memory
+ * views of the catalog are built before the application reports it is ready.
+ * <p>
+ * When a recent local snapshot exists, the catalog is loaded from it instead of the store, and reconciled
+ * with the store in the background after a random delay, so replicas restarted together do not all read
+ * the catalog at once. Reconciling only publishes the auctions that changed while the replica was down.
+ * <p>
+ * Auctions keep changing while the store is read, so every published event is recorded first, under the
+ * lock the reconcile checks and publishes under. A reconciled auction is then either published before a
+ * concurrent change reaches the other listeners, or skipped because that change is newer.
+ * <p>
+ * The views only hold copies of the store, so no failure to load or reconcile the catalog stops the
+ * application from starting. The failure is logged and the replica starts with partial views, which later
+ * writes fill in; only errors of the virtual machine itself propagate.
+ */
+@Component
+@Order(AuctionCatalogLoader.ORDER)
+public class AuctionCatalogLoader implements ApplicationRunner {
+
+    /**
+     * The order of the loader among the startup runners, before anything that reads the in-memory views.
+     */
+    public static final int ORDER = 0;
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionCatalogLoader.class);
+
+    /**
+     * The marker of an auction deleted or archived while reconciling.
+     */
+    private static final AuctionEntity REMOVED = new AuctionEntity();
+
+    /**
+     * The injected auction DAO.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The injected event publisher.
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * The injected auction snapshotter.
+     */
+    private final AuctionSnapshotter snapshotter;
+
+    /**
+     * The longest random delay in milliseconds before a snapshot is reconciled with the store.
+     */
+    private final long reconcileJitterMillis;
+
+    /**
+     * The lock ordering reconciled auctions with concurrent changes.
+     */
+    private final Object reconcileLock = new Object();
+
+    /**
+     * The latest published state of each auction until the snapshot is reconciled, guarded by the reconcile
+     * lock, or null if there is nothing to reconcile.
+     */
+    private Map<String, AuctionEntity> published;
+
+    /**
+     * Construct the auction catalog loader.
+     *
+     * @param auctionDao            the auction DAO
+     * @param publisher             the event publisher
+     * @param snapshotter           the auction snapshotter
+     * @param reconcileJitterMillis the longest random delay in milliseconds before a snapshot is reconciled
+     */
+    public AuctionCatalogLoader(AuctionDao auctionDao, ApplicationEventPublisher publisher, AuctionSnapshotter snapshotter,
+                                @Value("${auction.snapshot.reconcile-jitter-millis:10000}") long reconcileJitterMillis) {
+        this.auctionDao = auctionDao;
+        this.publisher = publisher;
+        this.snapshotter = snapshotter;
+        this.reconcileJitterMillis = reconcileJitterMillis;
+    }
+
+    /**
+     * Load the catalog on startup.
+     *
+     * @param args the application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        // Load the snapshot if there is a recent one, skipping auctions already written since, e.g. by the replay
+        Optional<AuctionSnapshot> snapshot = this.snapshotter.load();
+        if (snapshot.isPresent()) {
+            synchronized (this.reconcileLock) {
+                this.published = new HashMap<>();
+            }
+            Map<String, AuctionEntity> loaded = new HashMap<>();
+            for (AuctionEntity auction : snapshot.get().getAuctions()) {
+                loaded.put(auction.getId(), auction);
+                Optional<AuctionEntity> known = this.snapshotter.getKnown(auction.getId());
+                if (known.isEmpty() || isNewer(auction, known.get())) {
+                    this.publisher.publishEvent(new AuctionEvent(AuctionEventType.LOADED, auction.getId(), auction, null));
+                } else {
+                    synchronized (this.reconcileLock) {
+                        this.published.put(auction.getId(), known.get());
+                    }
+                }
+            }
+            LOGGER.info("Loaded {} auctions from the snapshot", loaded.size());
+
+            // Reconcile off the startup thread so serving is never delayed
+            Thread thread = new Thread(() -> reconcile(loaded), "auction-reconcile");
+            thread.setDaemon(true);
+            thread.start();
+            return;
+        }
+
+        try {
+            for (AuctionEntity auction : this.auctionDao.getAllAuctions()) {
+                this.publisher.publishEvent(new AuctionEvent(AuctionEventType.LOADED, auction.getId(), auction, null));
+            }
+        } catch (RuntimeException exception) {
+            // Start degraded rather than not at all, later writes fill the views in
+            LOGGER.error("Failed to load the auction catalog, starting with partial views", exception);
+        }
+    }
+
+    /**
+     * Record every published auction event until the snapshot is reconciled, before the other listeners
+     * see it.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onAuctionEvent(AuctionEvent event) {
+        synchronized (this.reconcileLock) {
+            if (this.published == null) {
+                return;
+            }
+
+            boolean removed = event.getType() == AuctionEventType.DELETED || event.getType() == AuctionEventType.ARCHIVED;
+            this.published.put(event.getAuctionId(), removed ? REMOVED : event.getAuction());
+        }
+    }
+
+    /**
+     * Reconcile the auctions loaded from the snapshot with the store, after a random delay.
+     *
+     * @param loaded the auctions loaded from the snapshot by id
+     */
+    private void reconcile(Map<String, AuctionEntity> loaded) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(this.reconcileJitterMillis + 1));
+
+            // Publish the auctions that changed since the snapshot, unless a newer change was already published
+            int changed = 0;
+            for (AuctionEntity auction : this.auctionDao.getAllAuctions()) {
+                loaded.remove(auction.getId());
+                synchronized (this.reconcileLock) {
+                    AuctionEntity latest = this.published.get(auction.getId());
+                    if (latest == null || (latest != REMOVED && isNewer(auction, latest))) {
+                        this.publisher.publishEvent(new AuctionEvent(AuctionEventType.LOADED, auction.getId(), auction, null));
+                        changed++;
+                    }
+                }
+            }
+
+            // Drop the auctions deleted since the snapshot, unless they were written since
+            for (AuctionEntity auction : loaded.values()) {
+                synchronized (this.reconcileLock) {
+                    AuctionEntity latest = this.published.get(auction.getId());
+                    if (latest != null && latest != REMOVED && latest.getVersion() == auction.getVersion()
+                            && latest.getCreationTimestamp() == auction.getCreationTimestamp()) {
+                        this.publisher.publishEvent(new AuctionEvent(AuctionEventType.DELETED, auction.getId(), null, null));
+                        changed++;
+                    }
+                }
+            }
+
+            LOGGER.info("Reconciled the snapshot with the store, {} auctions changed", changed);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException exception) {
+            // Log the error, later writes keep the views up to date
+            LOGGER.error("Failed to reconcile the snapshot with the store", exception);
+        } finally {
+            // Stop recording events
+            synchronized (this.reconcileLock) {
+                this.published = null;
+            }
+        }
+    }
+
+    /**
+     * Check if an auction is newer than a known state of it.
+     *
+     * @param auction the auction
+     * @param known   the known state
+     * @return true if the auction is newer, false otherwise
+     */
+    private static boolean isNewer(AuctionEntity auction, AuctionEntity known) {
+        return auction.getCreationTimestamp() != known.getCreationTimestamp() || auction.getVersion() > known.getVersion();
+    }
+}
@@ -0,0 +1,36 @@
+package com.theauctiongames.auctionapi.business.events;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An event published after an auction was successfully loaded or changed.
+ * <p>
+ * Listeners must treat the auction and offer as read only.
+ */
+@Getter
+@AllArgsConstructor
+public class AuctionEvent {
+
+    /**
+     * The kind of event.
+     */
+    private final AuctionEventType type;
+
+    /**
+     * The id of the auction.
+     */
+    private final String auctionId;
+
+    /**
+     * The auction as stored after the change, or null if it was deleted.
+     */
+    private final AuctionEntity auction;
+
+    /**
+     * The bid or purchase offer, or null for other events.
+     */
+    private final OfferEntity offer;
+}
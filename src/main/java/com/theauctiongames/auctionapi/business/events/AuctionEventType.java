@@ -0,0 +1,41 @@
+package com.theauctiongames.auctionapi.business.events;
+
+/**
+ * The kinds of auction events published by the auction service.
+ */
+public enum AuctionEventType {
+    /**
+     * An existing auction was loaded from the state store, e.g. on startup, and is not a new change.
+     */
+    LOADED,
+
+    /**
+     * An auction was created.
+     */
+    CREATED,
+
+    /**
+     * An auction was updated.
+     */
+    UPDATED,
+
+    /**
+     * A bid was added to an auction.
+     */
+    BID,
+
+    /**
+     * An auction was purchased.
+     */
+    PURCHASED,
+
+    /**
+     * An auction was deleted.
+     */
+    DELETED,
+
+    /**
+     * A closed auction was moved to the archive, it can still be read by id but leaves the live catalog.
+     */
+    ARCHIVED
+}
@@ -0,0 +1,137 @@
+package com.theauctiongames.auctionapi.business.events;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.snapshots.AuctionSnapshot;
+import com.theauctiongames.auctionapi.data.snapshots.AuctionSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the latest state of every auction seen through auction events and periodically writes it to a
+ * local snapshot, so a restarted replica can build its in-memory views without reading the whole catalog
+ * from the store first.
+ * <p>
+ * The in-memory views are derived from auction events, so only the auctions are snapshotted and the views
+ * are rebuilt from them on startup.
+ */
+@Component
+public class AuctionSnapshotter {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionSnapshotter.class);
+
+    /**
+     * The injected auction snapshot store.
+     */
+    private final AuctionSnapshotStore snapshotStore;
+
+    /**
+     * Whether snapshots are written and loaded.
+     */
+    private final boolean enabled;
+
+    /**
+     * The age in milliseconds after which a snapshot is no longer loaded.
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * The latest state of each auction by id.
+     */
+    private final Map<String, AuctionEntity> auctions = new ConcurrentHashMap<>();
+
+    /**
+     * Whether an auction changed since the last snapshot.
+     */
+    private volatile boolean dirty;
+
+    /**
+     * Construct the auction snapshotter.
+     *
+     * @param snapshotStore the auction snapshot store
+     * @param enabled       whether snapshots are written and loaded
+     * @param maxAgeMinutes the age in minutes after which a snapshot is no longer loaded
+     */
+    public AuctionSnapshotter(AuctionSnapshotStore snapshotStore,
+                              @Value("${auction.snapshot.enabled:false}") boolean enabled,
+                              @Value("${auction.snapshot.max-age-minutes:60}") long maxAgeMinutes) {
+        this.snapshotStore = snapshotStore;
+        this.enabled = enabled;
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+
+    /**
+     * Keep the latest state of each auction.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        if (!this.enabled) {
+            return;
+        }
+
+        if (event.getType() == AuctionEventType.DELETED || event.getType() == AuctionEventType.ARCHIVED) {
+            this.auctions.remove(event.getAuctionId());
+        } else {
+            this.auctions.put(event.getAuctionId(), event.getAuction());
+        }
+        this.dirty = true;
+    }
+
+    /**
+     * Get the latest known state of an auction.
+     *
+     * @param id the auction id
+     * @return an optional auction
+     */
+    public Optional<AuctionEntity> getKnown(String id) {
+        return Optional.ofNullable(this.auctions.get(id));
+    }
+
+    /**
+     * Load the snapshot, unless snapshots are disabled or it is too old to be worth reconciling.
+     *
+     * @return an optional snapshot
+     */
+    public Optional<AuctionSnapshot> load() {
+        if (!this.enabled) {
+            return Optional.empty();
+        }
+
+        return this.snapshotStore.read()
+                .filter(snapshot -> System.currentTimeMillis() - snapshot.getCreationTimestamp() <= this.maxAgeMillis);
+    }
+
+    /**
+     * Periodically write a snapshot if any auction changed.
+     */
+    @Scheduled(initialDelayString = "${auction.snapshot.interval-millis:60000}", fixedDelayString = "${auction.snapshot.interval-millis:60000}")
+    public void snapshot() {
+        if (!this.enabled || !this.dirty) {
+            return;
+        }
+
+        try {
+            this.dirty = false;
+            long start = System.currentTimeMillis();
+            int written = this.snapshotStore.write(this.auctions.values());
+            LOGGER.info("Snapshotted {} auctions in {}ms", written, System.currentTimeMillis() - start);
+        } catch (Exception exception) {
+            // Print the error and retry on the next run
+            this.dirty = true;
+            exception.printStackTrace();
+        }
+    }
+}
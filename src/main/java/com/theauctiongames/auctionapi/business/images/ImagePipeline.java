@@ -0,0 +1,363 @@
+package com.theauctiongames.auctionapi.business.images;
+
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves uploaded auction images out of the auction and into separately stored, content addressed variants.
+ * <p>
+ * The upload is decoded and stored as is on the request thread, so the image exists once the auction does,
+ * while the thumbnails are generated on a bounded worker pool. Identical uploads share one hash and are only
+ * stored and scaled once. The small thumbnail is stored last and marks a fully processed image.
+ * <p>
+ * Only PNG, JPEG, GIF and WebP images are accepted, recognized from their leading bytes. The media type of a
+ * data URL is ignored, so an upload can never be served as anything but one of these raster formats.
+ */
+@Component
+public class ImagePipeline {
+
+    /**
+     * The prefix of a data URL, up to the media type.
+     */
+    private static final String DATA_URL_PREFIX = "data:";
+
+    /**
+     * The separator between a data URL's media type and its base64 payload.
+     */
+    private static final String BASE64_SEPARATOR = ";base64,";
+
+    /**
+     * The media types of the accepted image formats.
+     */
+    private static final Set<String> CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    /**
+     * The leading bytes of a PNG image.
+     */
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The leading bytes of a JPEG image.
+     */
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+
+    /**
+     * The injected auction DAO.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The maximum size of a decoded upload in bytes.
+     */
+    private final int maxBytes;
+
+    /**
+     * The maximum number of pixels of an image that is scaled.
+     */
+    private final long maxPixels;
+
+    /**
+     * The executor generating thumbnails.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The number of images whose thumbnails were generated.
+     */
+    private final Counter processed;
+
+    /**
+     * The number of uploads that matched an already processed image.
+     */
+    private final Counter deduplicated;
+
+    /**
+     * The number of images whose thumbnails were skipped because the pool was full.
+     */
+    private final Counter rejected;
+
+    /**
+     * Construct the image pipeline.
+     *
+     * @param auctionDao    the auction DAO
+     * @param registry      the meter registry
+     * @param threads       the number of threads generating thumbnails
+     * @param queueCapacity the maximum number of images waiting for thumbnails
+     * @param maxBytes      the maximum size of a decoded upload in bytes
+     * @param maxPixels     the maximum number of pixels of an image that is scaled
+     */
+    public ImagePipeline(AuctionDao auctionDao, MeterRegistry registry,
+                         @Value("${auction.images.threads:2}") int threads,
+                         @Value("${auction.images.queue-capacity:256}") int queueCapacity,
+                         @Value("${auction.images.max-bytes:5242880}") int maxBytes,
+                         @Value("${auction.images.max-pixels:40000000}") long maxPixels) {
+        this.auctionDao = auctionDao;
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+
+        // Generate thumbnails on daemon threads, dropping work when the queue is full
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-pipeline-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        // Set up the meters
+        this.processed = Counter.builder("auction.images.processed")
+                .description("Auction images whose thumbnails were generated")
+                .register(registry);
+        this.deduplicated = Counter.builder("auction.images.deduplicated")
+                .description("Auction image uploads matching an already processed image")
+                .register(registry);
+        this.rejected = Counter.builder("auction.images.rejected")
+                .description("Auction images whose thumbnails were skipped because the pipeline was full")
+                .register(registry);
+    }
+
+    /**
+     * Store an auction's uploaded image and replace it with a reference to the stored image.
+     *
+     * @param auction the auction, with the upload in its base64 image
+     * @throws InvalidImageException if the upload is not valid base64, is too large or is not an accepted image format
+     */
+    public void attach(AuctionEntity auction) throws InvalidImageException {
+        String upload = auction.getBase64Image();
+        if (upload == null || upload.isBlank()) {
+            return;
+        }
+
+        // Split off the header of a data URL, its claimed media type is not trusted
+        String payload = upload.trim();
+        if (payload.startsWith(DATA_URL_PREFIX) && payload.contains(BASE64_SEPARATOR)) {
+            payload = payload.substring(payload.indexOf(BASE64_SEPARATOR) + BASE64_SEPARATOR.length());
+        }
+
+        // Decode the upload, rejecting anything too large before decoding it
+        if (payload.length() / 4L * 3 > this.maxBytes + 3L) {
+            throw new InvalidImageException("Image exceeds " + this.maxBytes + " bytes");
+        }
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidImageException("Image is not valid base64");
+        }
+        if (data.length == 0) {
+            return;
+        }
+        if (data.length > this.maxBytes) {
+            throw new InvalidImageException("Image exceeds " + this.maxBytes + " bytes");
+        }
+
+        // Recognize the image format from the data itself
+        String contentType = sniffContentType(data)
+                .orElseThrow(() -> new InvalidImageException("Image must be a PNG, JPEG, GIF or WebP image"));
+
+        // Point the auction at the image instead of carrying it
+        String hash = hash(data);
+        auction.setImageHash(hash);
+        auction.setBase64Image(null);
+
+        // Skip images that were already processed
+        if (this.auctionDao.getImage(hash, ImageVariant.SMALL.key()).isPresent()) {
+            this.deduplicated.increment();
+            return;
+        }
+
+        // Store the original now, and generate the thumbnails in the background
+        this.auctionDao.storeImage(new ImageEntity(hash, ImageVariant.ORIGINAL.key(), contentType, data));
+        try {
+            this.executor.execute(() -> generateThumbnails(hash, data));
+        } catch (RejectedExecutionException exception) {
+            // Thumbnails are served from the original until the image is uploaded again
+            this.rejected.increment();
+        }
+    }
+
+    /**
+     * Get a stored image variant.
+     *
+     * @param hash    the image hash
+     * @param variant the variant
+     * @return an optional image
+     */
+    public Optional<ImageEntity> getImage(String hash, ImageVariant variant) {
+        return this.auctionDao.getImage(hash, variant.key());
+    }
+
+    /**
+     * Generate and store the thumbnails of an image.
+     *
+     * @param hash the image hash
+     * @param data the image data
+     */
+    private void generateThumbnails(String hash, byte[] data) {
+        try {
+            // Read the image, unless it is not an image or too large to scale
+            BufferedImage image = read(data);
+            if (image == null) {
+                return;
+            }
+
+            // Store the small thumbnail last, so it marks a fully processed image
+            for (ImageVariant variant : new ImageVariant[]{ImageVariant.MEDIUM, ImageVariant.SMALL}) {
+                BufferedImage scaled = scale(image, variant.getMaxSize());
+                boolean alpha = scaled.getColorModel().hasAlpha();
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ImageIO.write(scaled, alpha ? "png" : "jpg", output);
+                this.auctionDao.storeImage(new ImageEntity(hash, variant.key(), alpha ? "image/png" : "image/jpeg", output.toByteArray()));
+            }
+
+            this.processed.increment();
+        } catch (Exception exception) {
+            // Output error
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Read an image, checking its dimensions before decoding its pixels.
+     *
+     * @param data the image data
+     * @return the image, or null if it is not a readable image or has too many pixels
+     * @throws IOException if the image could not be read
+     */
+    private BufferedImage read(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > this.maxPixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale an image down to fit a square, keeping its aspect ratio.
+     *
+     * @param image   the image
+     * @param maxSize the maximum width and height in pixels
+     * @return the scaled image, in an RGB or ARGB image
+     */
+    static BufferedImage scale(BufferedImage image, int maxSize) {
+        // Fit the longest side, never scaling up
+        double ratio = Math.min(1, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // Draw the image into a type every image writer supports
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return scaled;
+    }
+
+    /**
+     * Hash image data.
+     *
+     * @param data the image data
+     * @return the SHA-256 hash in hex
+     */
+    static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Check if a media type is one of the accepted image formats.
+     *
+     * @param contentType the media type
+     * @return true if the media type is accepted, false otherwise
+     */
+    public static boolean isAcceptedContentType(String contentType) {
+        return CONTENT_TYPES.contains(contentType);
+    }
+
+    /**
+     * Recognize the format of image data from its leading bytes.
+     *
+     * @param data the image data
+     * @return the media type, or empty if the data is not an accepted image format
+     */
+    static Optional<String> sniffContentType(byte[] data) {
+        if (startsWith(data, 0, PNG_SIGNATURE)) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(data, 0, JPEG_SIGNATURE)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(data, 0, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(data, 0, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.of("image/gif");
+        }
+        if (startsWith(data, 0, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                && startsWith(data, 8, "WEBP".getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.of("image/webp");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Check if data contains a signature at an offset.
+     *
+     * @param data      the data
+     * @param offset    the offset
+     * @param signature the signature
+     * @return true if the data contains the signature, false otherwise
+     */
+    private static boolean startsWith(byte[] data, int offset, byte[] signature) {
+        return data.length >= offset + signature.length
+                && Arrays.equals(data, offset, offset + signature.length, signature, 0, signature.length);
+    }
+}
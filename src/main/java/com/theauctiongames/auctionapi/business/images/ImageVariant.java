@@ -0,0 +1,72 @@
+package com.theauctiongames.auctionapi.business.images;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The stored variants of an auction image.
+ */
+public enum ImageVariant {
+
+    /**
+     * The image exactly as uploaded.
+     */
+    ORIGINAL(0),
+
+    /**
+     * A thumbnail for catalog pages.
+     */
+    SMALL(160),
+
+    /**
+     * A thumbnail for auction pages.
+     */
+    MEDIUM(480);
+
+    /**
+     * The maximum width and height of the variant in pixels, or 0 if it is not scaled.
+     */
+    private final int maxSize;
+
+    /**
+     * Construct an image variant.
+     *
+     * @param maxSize the maximum width and height in pixels, or 0 if it is not scaled
+     */
+    ImageVariant(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the maximum width and height of the variant in pixels.
+     *
+     * @return the maximum size, or 0 if the variant is not scaled
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Get the name the variant is stored and served under.
+     *
+     * @return the lower case name
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find a thumbnail variant by the name it is served under.
+     *
+     * @param key the lower case name
+     * @return an optional thumbnail variant
+     */
+    public static Optional<ImageVariant> thumbnail(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant != ORIGINAL && variant.key().equals(key)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
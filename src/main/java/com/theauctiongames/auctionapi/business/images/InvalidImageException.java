@@ -0,0 +1,16 @@
+package com.theauctiongames.auctionapi.business.images;
+
+/**
+ * An exception thrown when an uploaded auction image cannot be accepted.
+ */
+public class InvalidImageException extends RuntimeException {
+
+    /**
+     * Construct the exception.
+     *
+     * @param message the reason the image was rejected
+     */
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
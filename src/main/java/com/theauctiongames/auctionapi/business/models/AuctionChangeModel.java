@@ -0,0 +1,41 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for a single change to the auction catalog.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionChangeModel {
+
+    /**
+     * The opaque cursor of the change.
+     */
+    private String cursor;
+
+    /**
+     * The kind of change, e.g. CREATED or BID.
+     */
+    private String type;
+
+    /**
+     * The id of the changed auction.
+     */
+    private String auctionId;
+
+    /**
+     * The auction after a create or update, or null for other changes.
+     */
+    private AuctionModel auction;
+
+    /**
+     * The bid or purchase offer, or null for other changes.
+     */
+    private OfferModel offer;
+}
@@ -0,0 +1,38 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A business model object for the changes to the auction catalog since a cursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionChangesModel {
+
+    /**
+     * The opaque cursor to request the next changes since.
+     */
+    private String cursor;
+
+    /**
+     * Whether the requested changes are no longer available, so the client must reload the catalog.
+     */
+    private boolean resync;
+
+    /**
+     * Whether more changes are available after these.
+     */
+    private boolean more;
+
+    /**
+     * The changes, oldest first.
+     */
+    private List<AuctionChangeModel> changes;
+}
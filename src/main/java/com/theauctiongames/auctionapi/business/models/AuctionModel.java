@@ -19,6 +19,11 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class AuctionModel {
 
+    /**
+     * The path images are served from.
+     */
+    private static final String IMAGES_PATH = "/api/v1/images/";
+
     /**
      * Construct an auction model from an auction entity.
      *
@@ -39,7 +44,9 @@ public class AuctionModel {
                 entity.getPurchase() != null ? OfferModel.fromEntity(entity.getPurchase()) : null,
                 entity.getBase64Image(),
                 entity.getCreationTimestamp(),
-                entity.getExpirationTimestamp()
+                entity.getExpirationTimestamp(),
+                entity.getImageHash() != null ? IMAGES_PATH + entity.getImageHash() : null,
+                entity.getImageHash() != null ? IMAGES_PATH + entity.getImageHash() + "/thumbnails/small" : null
         );
     }
 
@@ -84,7 +91,8 @@ public class AuctionModel {
     private OfferModel purchase;
 
     /**
-     * The auction's image encoded in base64.
+     * The auction's image encoded in base64 when creating or updating it, later only set for auctions
+     * stored before images were stored apart from auctions.
      */
     private String base64Image;
 
@@ -97,4 +105,14 @@ public class AuctionModel {
      * The timestamp of the auction's expiration.
      */
     private long expirationTimestamp;
+
+    /**
+     * The path of the auction's full size image, or null if it has none.
+     */
+    private String imageUrl;
+
+    /**
+     * The path of the auction's small thumbnail, or null if it has none.
+     */
+    private String thumbnailUrl;
 }
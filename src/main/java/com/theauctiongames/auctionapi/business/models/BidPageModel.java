@@ -0,0 +1,28 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A business model object for a page of an auction's bid history.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidPageModel {
+
+    /**
+     * The bids on the page, oldest first.
+     */
+    private List<OfferModel> bids;
+
+    /**
+     * The cursor for the page of older bids, or null if this is the oldest page.
+     */
+    private Integer nextBefore;
+}
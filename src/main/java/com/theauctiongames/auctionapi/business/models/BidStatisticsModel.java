@@ -0,0 +1,46 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for aggregate bid statistics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidStatisticsModel {
+
+    /**
+     * The number of bids.
+     */
+    private long count;
+
+    /**
+     * The highest bid price, or zero if there are no bids.
+     */
+    private double maxPrice;
+
+    /**
+     * The sum of all bid prices.
+     */
+    private double totalPrice;
+
+    /**
+     * The number of distinct bidders.
+     */
+    private int uniqueBidders;
+
+    /**
+     * The timestamp of the earliest bid, or zero if there are no bids.
+     */
+    private long firstTimestamp;
+
+    /**
+     * The timestamp of the latest bid, or zero if there are no bids.
+     */
+    private long lastTimestamp;
+}
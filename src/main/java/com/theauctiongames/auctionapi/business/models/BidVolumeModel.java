@@ -0,0 +1,36 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for bid volume over consecutive time buckets.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidVolumeModel {
+
+    /**
+     * The timestamp the first bucket starts at.
+     */
+    private long from;
+
+    /**
+     * The length of each bucket in milliseconds.
+     */
+    private long bucketMillis;
+
+    /**
+     * The number of bids in each bucket.
+     */
+    private long[] counts;
+
+    /**
+     * The sum of the bid prices in each bucket.
+     */
+    private double[] totals;
+}
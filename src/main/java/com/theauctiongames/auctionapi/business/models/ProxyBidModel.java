@@ -0,0 +1,36 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for a user's standing maximum bid on an auction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProxyBidModel {
+
+    /**
+     * The user id responsible for the proxy bid.
+     */
+    private String userId;
+
+    /**
+     * The most the user is willing to bid.
+     */
+    private double maxPrice;
+
+    /**
+     * The amount the user outbids others by.
+     */
+    private double increment;
+
+    /**
+     * When the proxy bid was placed, or zero to place it now, only set when replaying a logged proxy bid.
+     */
+    private long creationTimestamp;
+}
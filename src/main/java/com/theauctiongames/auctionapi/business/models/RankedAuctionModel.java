@@ -0,0 +1,46 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object summarizing an auction in a ranking.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedAuctionModel {
+
+    /**
+     * The auction's id.
+     */
+    private String id;
+
+    /**
+     * The auction's title.
+     */
+    private String title;
+
+    /**
+     * The auction's current price, the highest bid or the starting bid if there are no bids.
+     */
+    private double currentPrice;
+
+    /**
+     * The total number of bids on the auction.
+     */
+    private int bidCount;
+
+    /**
+     * The number of bids on the auction within the hot window.
+     */
+    private int recentBidCount;
+
+    /**
+     * The timestamp of the auction's expiration.
+     */
+    private long expirationTimestamp;
+}
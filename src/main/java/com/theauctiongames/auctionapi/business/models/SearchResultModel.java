@@ -0,0 +1,31 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for an auction matching a search.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultModel {
+
+    /**
+     * The auction's id.
+     */
+    private String id;
+
+    /**
+     * The auction's title.
+     */
+    private String title;
+
+    /**
+     * The relevance score of the auction, higher is more relevant.
+     */
+    private double score;
+}
@@ -0,0 +1,41 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A business model object for a user's standing in an auction they bid on.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBidModel {
+
+    /**
+     * The auction's id.
+     */
+    private String auctionId;
+
+    /**
+     * The user's highest offer on the auction.
+     */
+    private double highestBid;
+
+    /**
+     * The timestamp of the user's latest offer on the auction.
+     */
+    private long lastBidTimestamp;
+
+    /**
+     * Whether the user currently holds the highest bid or purchased the auction.
+     */
+    private boolean winning;
+
+    /**
+     * Whether the auction is still open, neither expired nor purchased.
+     */
+    private boolean active;
+}
@@ -0,0 +1,62 @@
+package com.theauctiongames.auctionapi.business.models;
+
+import java.util.function.Supplier;
+
+/**
+ * A versioned business value that is only mapped when it is actually needed.
+ *
+ * @param <T> the value type
+ */
+public class Versioned<T> {
+
+    /**
+     * The version tag of the value.
+     */
+    private final String version;
+
+    /**
+     * The supplier mapping the value.
+     */
+    private final Supplier<T> supplier;
+
+    /**
+     * Construct a versioned value.
+     *
+     * @param version  the version tag
+     * @param supplier the supplier mapping the value
+     */
+    public Versioned(String version, Supplier<T> supplier) {
+        this.version = version;
+        this.supplier = supplier;
+    }
+
+    /**
+     * Get the version tag of the value.
+     *
+     * @return the version tag
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Get the weak entity tag for the value.
+     * <p>
+     * The tag is weak because the body is compressed on the fly, which Tomcat skips for responses with a
+     * strong entity tag.
+     *
+     * @return the weak entity tag
+     */
+    public String getETag() {
+        return "W/\"" + this.version + "\"";
+    }
+
+    /**
+     * Map and get the value.
+     *
+     * @return the value
+     */
+    public T get() {
+        return this.supplier.get();
+    }
+}
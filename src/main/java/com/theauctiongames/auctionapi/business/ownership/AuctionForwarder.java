@@ -0,0 +1,184 @@
+package com.theauctiongames.auctionapi.business.ownership;
+
+import com.theauctiongames.auctionapi.tracing.SidecarTracingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Forwards offers to the replica owning their auction over Dapr service invocation.
+ * <p>
+ * A forwarded offer skips rate limiting and is never forwarded again, so the owner only trusts the
+ * forwarded header on requests the sidecar delivered from another replica, and carrying the shared
+ * forwarding secret if one is configured. Any client can set the header, so on other requests it is ignored.
+ */
+@Component
+public class AuctionForwarder {
+
+    /**
+     * The header marking a forwarded request with the replica that forwarded it, so it is never
+     * forwarded again if the replicas disagree on the owner.
+     */
+    public static final String FORWARDED_BY = "X-Auction-Forwarded-By";
+
+    /**
+     * The header carrying the secret shared by the replicas, proving a request was forwarded by one of them.
+     */
+    private static final String FORWARD_SECRET = "X-Auction-Forward-Secret";
+
+    /**
+     * The header the sidecar sets to the app id of the app invoking this one.
+     */
+    private static final String CALLER_APP_ID = "dapr-caller-app-id";
+
+    /**
+     * The header carrying the client's idempotency key.
+     */
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * The service invocation URL.
+     */
+    private final String invokeUrl;
+
+    /**
+     * The timeout of a forwarded request in milliseconds.
+     */
+    private final int timeoutMillis;
+
+    /**
+     * The interceptor tracing calls to the sidecar.
+     */
+    private final SidecarTracingInterceptor tracingInterceptor;
+
+    /**
+     * The injected auction ownership.
+     */
+    private final AuctionOwnership ownership;
+
+    /**
+     * The secret shared by the replicas, or empty to trust the sidecar's caller app id alone.
+     */
+    private final String secret;
+
+    /**
+     * Construct the auction forwarder.
+     *
+     * @param timeoutMillis      the timeout of a forwarded request in milliseconds
+     * @param tracingInterceptor the interceptor tracing calls to the sidecar
+     * @param ownership          the injected auction ownership
+     * @param secret             the secret shared by the replicas, or empty
+     */
+    public AuctionForwarder(@Value("${auction.ownership.forward-timeout-millis:2000}") int timeoutMillis,
+                            SidecarTracingInterceptor tracingInterceptor, AuctionOwnership ownership,
+                            @Value("${auction.ownership.forward-secret:}") String secret) {
+        this.invokeUrl = "http://localhost:" + System.getenv("SIDECAR_PORT") + "/v1.0/invoke/";
+        this.timeoutMillis = timeoutMillis;
+        this.tracingInterceptor = tracingInterceptor;
+        this.ownership = ownership;
+        this.secret = secret;
+    }
+
+    /**
+     * Check if a request was forwarded by another replica.
+     * <p>
+     * The request must come through the sidecar from the member named in the forwarded header, and carry the
+     * shared secret if one is configured.
+     *
+     * @param headers the request headers
+     * @return true if the request was forwarded by a replica, false otherwise
+     */
+    public boolean isForwarded(HttpHeaders headers) {
+        String forwardedBy = headers.getFirst(FORWARDED_BY);
+        if (forwardedBy == null || !forwardedBy.equals(headers.getFirst(CALLER_APP_ID)) || !this.ownership.isMember(forwardedBy)) {
+            return false;
+        }
+
+        // Compare the secret in constant time
+        String presented = headers.getFirst(FORWARD_SECRET);
+        return this.secret.isEmpty() || (presented != null && MessageDigest.isEqual(
+                presented.getBytes(StandardCharsets.UTF_8), this.secret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Forward an offer to the owner of its auction.
+     *
+     * @param owner          the owner's Dapr app id
+     * @param self           this replica's Dapr app id
+     * @param auctionId      the auction id
+     * @param operation      the offer's path below the auction, e.g. bids or purchase
+     * @param offer          the offer, serialized as the request body
+     * @param idempotencyKey the client's idempotency key, or null
+     * @return the owner's response, or empty if the sidecar could not be connected to, so the offer never left
+     */
+    public Optional<ResponseEntity<?>> forward(String owner, String self, String auctionId, String operation,
+                                               Object offer, String idempotencyKey) {
+        // Create the template
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(this.timeoutMillis);
+        factory.setReadTimeout(this.timeoutMillis);
+        RestTemplate template = new RestTemplate(factory);
+        template.getInterceptors().add(this.tracingInterceptor);
+
+        // Set request headers
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(FORWARDED_BY, self);
+        if (!this.secret.isEmpty()) {
+            headers.set(FORWARD_SECRET, this.secret);
+        }
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY, idempotencyKey);
+        }
+
+        try {
+            // Send request and relay the owner's status
+            String url = this.invokeUrl + owner + "/method/api/v1/auctions/" + auctionId + "/" + operation;
+            ResponseEntity<String> response = template.postForEntity(url, new HttpEntity<>(offer, headers), String.class);
+            return Optional.of(ResponseEntity.status(response.getStatusCode()).headers(relayed(response.getHeaders())).build());
+        } catch (HttpStatusCodeException exception) {
+            // Relay the owner's rejection
+            return Optional.of(ResponseEntity.status(exception.getStatusCode()).headers(relayed(exception.getResponseHeaders())).build());
+        } catch (ResourceAccessException exception) {
+            exception.printStackTrace();
+
+            // The offer was never sent, let the caller handle it
+            Throwable cause = exception.getCause();
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException || cause instanceof UnknownHostException) {
+                return Optional.empty();
+            }
+
+            // The offer may have run on the owner, so running it here could run it twice
+            return Optional.of(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+        }
+    }
+
+    /**
+     * Pick the owner's response headers worth relaying to the client.
+     *
+     * @param headers the owner's response headers
+     * @return the relayed headers
+     */
+    private static HttpHeaders relayed(HttpHeaders headers) {
+        HttpHeaders relayed = new HttpHeaders();
+        if (headers != null && headers.containsKey(HttpHeaders.RETRY_AFTER)) {
+            relayed.put(HttpHeaders.RETRY_AFTER, headers.get(HttpHeaders.RETRY_AFTER));
+        }
+        return relayed;
+    }
+}
@@ -0,0 +1,134 @@
+package com.theauctiongames.auctionapi.business.ownership;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Assigns every auction to one replica, so bids for an auction are serialized in one place instead of
+ * conflicting in the state store.
+ * <p>
+ * Replicas are identified by their Dapr app ids and placed on a consistent hash ring. Offers for an
+ * auction owned by another replica are forwarded to it, and the owner runs the offers for each auction
+ * one at a time. With no members configured every replica owns every auction.
+ */
+@Component
+public class AuctionOwnership {
+
+    /**
+     * The number of locks offers are striped over.
+     */
+    private static final int LOCK_STRIPES = 1024;
+
+    /**
+     * This replica's Dapr app id.
+     */
+    private final String self;
+
+    /**
+     * The number of ring points per replica.
+     */
+    private final int virtualPoints;
+
+    /**
+     * The locks serializing offers, striped by auction id.
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * The current ring, replaced as a whole on membership changes.
+     */
+    private volatile HashRing ring;
+
+    /**
+     * The Dapr app ids of all replicas.
+     */
+    private volatile Set<String> members;
+
+    /**
+     * Construct the auction ownership.
+     *
+     * @param self          this replica's Dapr app id
+     * @param members       the comma separated Dapr app ids of all replicas, or empty to own every auction
+     * @param virtualPoints the number of ring points per replica
+     */
+    public AuctionOwnership(@Value("${auction.ownership.self:}") String self,
+                            @Value("${auction.ownership.members:}") String members,
+                            @Value("${auction.ownership.virtual-points:128}") int virtualPoints) {
+        this.self = self;
+        this.virtualPoints = virtualPoints;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+        setMembers(Arrays.stream(members.split(",")).map(String::trim).filter(member -> !member.isEmpty()).toList());
+    }
+
+    /**
+     * Replace the replicas sharing the auctions.
+     *
+     * @param members the Dapr app ids of all replicas
+     */
+    public void setMembers(Collection<String> members) {
+        this.members = Set.copyOf(members);
+        this.ring = new HashRing(List.copyOf(members), this.virtualPoints);
+    }
+
+    /**
+     * Check if an app id is one of the replicas sharing the auctions.
+     *
+     * @param appId the Dapr app id
+     * @return true if the app id is a member, false otherwise
+     */
+    public boolean isMember(String appId) {
+        return appId != null && this.members.contains(appId);
+    }
+
+    /**
+     * Get this replica's Dapr app id.
+     *
+     * @return the app id
+     */
+    public String getSelf() {
+        return this.self;
+    }
+
+    /**
+     * Get the replica owning an auction.
+     *
+     * @param auctionId the auction id
+     * @return the owner's Dapr app id, or null if this replica owns the auction
+     */
+    public String getRemoteOwner(String auctionId) {
+        HashRing current = this.ring;
+        if (current.isEmpty()) {
+            return null;
+        }
+
+        String owner = current.ownerOf(auctionId);
+        return owner.equals(this.self) ? null : owner;
+    }
+
+    /**
+     * Run an offer while holding its auction's lock, so offers for one auction never race each other.
+     *
+     * @param auctionId the auction id
+     * @param offer     the offer
+     * @param <T>       the type of the result
+     * @return the result of the offer
+     */
+    public <T> T runExclusively(String auctionId, Supplier<T> offer) {
+        ReentrantLock lock = this.locks[Math.floorMod(auctionId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return offer.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
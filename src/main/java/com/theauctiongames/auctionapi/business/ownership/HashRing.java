@@ -0,0 +1,82 @@
+package com.theauctiongames.auctionapi.business.ownership;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable consistent hash ring assigning keys to members.
+ * <p>
+ * Every member is placed on the ring at many virtual points and a key belongs to the first point at or
+ * after its hash. Adding or removing a member only moves the keys between its points and their
+ * neighbours, about one member's share of all keys, and the virtual points spread that share evenly.
+ */
+public final class HashRing {
+
+    /**
+     * The ring's points, mapping hashes to members.
+     */
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    /**
+     * Construct a hash ring.
+     *
+     * @param members       the members
+     * @param virtualPoints the number of points per member
+     */
+    public HashRing(Collection<String> members, int virtualPoints) {
+        for (String member : members) {
+            for (int point = 0; point < virtualPoints; point++) {
+                this.points.put(hash(member + "#" + point), member);
+            }
+        }
+    }
+
+    /**
+     * Check whether the ring has no members.
+     *
+     * @return true if the ring is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.points.isEmpty();
+    }
+
+    /**
+     * Get the member owning a key.
+     *
+     * @param key the key
+     * @return the owning member, or null if the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (this.points.isEmpty()) {
+            return null;
+        }
+
+        // Take the next point clockwise, wrapping around
+        Map.Entry<Long, String> point = this.points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : this.points.firstEntry().getValue();
+    }
+
+    /**
+     * Hash a string to a point on the ring.
+     *
+     * @param value the string
+     * @return the 64 bit hash
+     */
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
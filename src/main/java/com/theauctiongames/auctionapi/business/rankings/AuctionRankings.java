@@ -0,0 +1,323 @@
+package com.theauctiongames.auctionapi.business.rankings;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.models.RankedAuctionModel;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked indexes of the active auctions, maintained incrementally from auction events.
+ * <p>
+ * Each ranking is a skip list of immutable entries that is updated by replacing an auction's entry, so
+ * reading the top k auctions walks k entries without locking. Auctions that expire are removed lazily
+ * by readers and periodically by a sweep.
+ */
+@Component
+public class AuctionRankings {
+
+    /**
+     * Active auctions ordered by soonest expiration.
+     */
+    private static final Comparator<Entry> ENDING_SOON = Comparator
+            .comparingLong((Entry entry) -> entry.expirationTimestamp)
+            .thenComparing(entry -> entry.id);
+
+    /**
+     * Active auctions ordered by highest current price.
+     */
+    private static final Comparator<Entry> HIGHEST_PRICE = Comparator
+            .comparingDouble((Entry entry) -> -entry.currentPrice)
+            .thenComparing(entry -> entry.id);
+
+    /**
+     * Active auctions with recent bids ordered by most recent bids.
+     */
+    private static final Comparator<Entry> HOTTEST = Comparator
+            .comparingInt((Entry entry) -> -entry.recentBidCount)
+            .thenComparing(entry -> entry.id);
+
+    /**
+     * The length of the hot window in milliseconds.
+     */
+    private final long hotWindowMillis;
+
+    /**
+     * The current entry of every ranked auction.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The timestamps of each auction's bids within the hot window, oldest first, guarded by the rankings.
+     */
+    private final Map<String, Deque<Long>> recentBids = new HashMap<>();
+
+    /**
+     * The ending soon ranking.
+     */
+    private final NavigableSet<Entry> endingSoon = new ConcurrentSkipListSet<>(ENDING_SOON);
+
+    /**
+     * The highest price ranking.
+     */
+    private final NavigableSet<Entry> highestPrice = new ConcurrentSkipListSet<>(HIGHEST_PRICE);
+
+    /**
+     * The hottest ranking.
+     */
+    private final NavigableSet<Entry> hottest = new ConcurrentSkipListSet<>(HOTTEST);
+
+    /**
+     * Construct the auction rankings.
+     *
+     * @param hotWindowMinutes the length of the hot window in minutes
+     */
+    public AuctionRankings(@Value("${auction.rankings.hot-window-minutes:15}") long hotWindowMinutes) {
+        this.hotWindowMillis = TimeUnit.MINUTES.toMillis(hotWindowMinutes);
+    }
+
+    /**
+     * Update the rankings from auction events.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public synchronized void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case LOADED, CREATED -> {
+                // Seed the hot window from the auction's bids
+                Deque<Long> recent = new ArrayDeque<>();
+                for (OfferEntity bid : event.getAuction().getBids()) {
+                    recent.addLast(bid.getCreationTimestamp());
+                }
+                this.recentBids.put(event.getAuctionId(), recent);
+                rank(event.getAuction());
+            }
+            case BID -> {
+                this.recentBids.computeIfAbsent(event.getAuctionId(), id -> new ArrayDeque<>())
+                        .addLast(event.getOffer().getCreationTimestamp());
+                rank(event.getAuction());
+            }
+            case UPDATED -> rank(event.getAuction());
+            case PURCHASED, DELETED, ARCHIVED -> unrank(event.getAuctionId());
+        }
+    }
+
+    /**
+     * Replace an auction's entry in the rankings, must be called holding the rankings' lock.
+     *
+     * @param auction the auction
+     */
+    private void rank(AuctionEntity auction) {
+        unrank(auction.getId());
+
+        // Only active auctions are ranked
+        long now = System.currentTimeMillis();
+        if (auction.getPurchase() != null || auction.getExpirationTimestamp() < now) {
+            return;
+        }
+
+        // Find the current price
+        List<OfferEntity> bids = auction.getBids();
+        double currentPrice = bids.isEmpty() ? auction.getStartBid() : bids.get(bids.size() - 1).getPrice();
+
+        // Create and index the entry
+        Entry entry = new Entry(auction.getId(), auction.getTitle(), currentPrice,
+                auction.getArchivedBidCount() + bids.size(), countRecentBids(auction.getId(), now),
+                auction.getExpirationTimestamp());
+        this.entries.put(entry.id, entry);
+        this.endingSoon.add(entry);
+        this.highestPrice.add(entry);
+        if (entry.recentBidCount > 0) {
+            this.hottest.add(entry);
+        }
+    }
+
+    /**
+     * Remove an auction from the rankings, must be called holding the rankings' lock.
+     *
+     * @param auctionId the auction id
+     */
+    private void unrank(String auctionId) {
+        Entry entry = this.entries.remove(auctionId);
+        if (entry != null) {
+            this.endingSoon.remove(entry);
+            this.highestPrice.remove(entry);
+            this.hottest.remove(entry);
+        }
+    }
+
+    /**
+     * Count an auction's bids within the hot window, dropping older ones, must be called holding the lock.
+     *
+     * @param auctionId the auction id
+     * @param now       the current timestamp
+     * @return the number of recent bids
+     */
+    private int countRecentBids(String auctionId, long now) {
+        Deque<Long> recent = this.recentBids.get(auctionId);
+        if (recent == null) {
+            return 0;
+        }
+
+        // Drop bids that left the window
+        while (!recent.isEmpty() && recent.peekFirst() < now - this.hotWindowMillis) {
+            recent.pollFirst();
+        }
+
+        return recent.size();
+    }
+
+    /**
+     * Periodically drop expired auctions and decay the hot window.
+     */
+    @Scheduled(fixedDelayString = "${auction.rankings.sweep-millis:5000}")
+    public synchronized void sweep() {
+        long now = System.currentTimeMillis();
+
+        // Drop expired auctions from the front of the ending soon ranking
+        while (!this.endingSoon.isEmpty() && this.endingSoon.first().expirationTimestamp < now) {
+            Entry expired = this.endingSoon.first();
+            unrank(expired.id);
+            this.recentBids.remove(expired.id);
+        }
+
+        // Re-rank auctions whose recent bids left the window
+        for (Entry entry : new ArrayList<>(this.hottest)) {
+            int recentBidCount = countRecentBids(entry.id, now);
+            if (recentBidCount != entry.recentBidCount) {
+                this.hottest.remove(entry);
+                Entry decayed = entry.withRecentBidCount(recentBidCount);
+                this.entries.put(decayed.id, decayed);
+                this.endingSoon.remove(entry);
+                this.endingSoon.add(decayed);
+                this.highestPrice.remove(entry);
+                this.highestPrice.add(decayed);
+                if (recentBidCount > 0) {
+                    this.hottest.add(decayed);
+                }
+            }
+        }
+
+        // Forget bid windows of auctions that are no longer ranked
+        this.recentBids.keySet().removeIf(id -> !this.entries.containsKey(id));
+    }
+
+    /**
+     * Get the active auctions ending soonest.
+     *
+     * @param limit the maximum number of auctions
+     * @return the ranked auctions
+     */
+    public List<RankedAuctionModel> getEndingSoon(int limit) {
+        return top(this.endingSoon, limit);
+    }
+
+    /**
+     * Get the active auctions with the most bids within the hot window.
+     *
+     * @param limit the maximum number of auctions
+     * @return the ranked auctions
+     */
+    public List<RankedAuctionModel> getHottest(int limit) {
+        return top(this.hottest, limit);
+    }
+
+    /**
+     * Get the active auctions with the highest current price.
+     *
+     * @param limit the maximum number of auctions
+     * @return the ranked auctions
+     */
+    public List<RankedAuctionModel> getHighestPrice(int limit) {
+        return top(this.highestPrice, limit);
+    }
+
+    /**
+     * Read the top auctions of a ranking, skipping auctions that expired since the last sweep.
+     *
+     * @param ranking the ranking
+     * @param limit   the maximum number of auctions
+     * @return the ranked auctions
+     */
+    private List<RankedAuctionModel> top(NavigableSet<Entry> ranking, int limit) {
+        long now = System.currentTimeMillis();
+        List<RankedAuctionModel> top = new ArrayList<>(limit);
+
+        for (Iterator<Entry> iterator = ranking.iterator(); iterator.hasNext() && top.size() < limit; ) {
+            Entry entry = iterator.next();
+            if (entry.expirationTimestamp >= now) {
+                top.add(entry.toModel());
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * An immutable ranking entry for an auction.
+     */
+    private static final class Entry {
+        private final String id;
+        private final String title;
+        private final double currentPrice;
+        private final int bidCount;
+        private final int recentBidCount;
+        private final long expirationTimestamp;
+
+        /**
+         * Construct a ranking entry.
+         *
+         * @param id                  the auction id
+         * @param title               the auction title
+         * @param currentPrice        the current price
+         * @param bidCount            the total number of bids
+         * @param recentBidCount      the number of bids within the hot window
+         * @param expirationTimestamp the expiration timestamp
+         */
+        private Entry(String id, String title, double currentPrice, int bidCount, int recentBidCount, long expirationTimestamp) {
+            this.id = id;
+            this.title = title;
+            this.currentPrice = currentPrice;
+            this.bidCount = bidCount;
+            this.recentBidCount = recentBidCount;
+            this.expirationTimestamp = expirationTimestamp;
+        }
+
+        /**
+         * Copy the entry with a new number of recent bids.
+         *
+         * @param recentBidCount the number of bids within the hot window
+         * @return the new entry
+         */
+        private Entry withRecentBidCount(int recentBidCount) {
+            return new Entry(this.id, this.title, this.currentPrice, this.bidCount, recentBidCount, this.expirationTimestamp);
+        }
+
+        /**
+         * Convert the entry to a model.
+         *
+         * @return the ranked auction model
+         */
+        private RankedAuctionModel toModel() {
+            return new RankedAuctionModel(this.id, this.title, this.currentPrice, this.bidCount,
+                    this.recentBidCount, this.expirationTimestamp);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.theauctiongames.auctionapi.business.search;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.models.SearchResultModel;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index over auction titles and descriptions, ranked with BM25.
+ * <p>
+ * Terms are kept sorted so the last query term also matches every indexed term it prefixes, which lets
+ * clients search as the user types. Title terms are counted twice so title matches rank higher.
+ * <p>
+ * Each replica keeps its own index. Auctions written here are indexed from the local auction events, and
+ * auctions written by other replicas are read again when their invalidation arrives, so every replica
+ * converges on the same results once the invalidations are delivered.
+ */
+@Component
+public class AuctionSearchIndex {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionSearchIndex.class);
+
+    /**
+     * The BM25 term frequency saturation.
+     */
+    private static final double K1 = 1.2;
+
+    /**
+     * The BM25 length normalization.
+     */
+    private static final double B = 0.75;
+
+    /**
+     * The weight of a prefix match relative to an exact match.
+     */
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    /**
+     * The maximum number of indexed terms a prefix expands to.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * The injected auction DAO, used to read auctions written by other replicas.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The lock guarding the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The postings of each term, mapping auction ids to term frequencies.
+     */
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+
+    /**
+     * The indexed auctions.
+     */
+    private final Map<String, Document> documents = new HashMap<>();
+
+    /**
+     * The sum of all document lengths.
+     */
+    private long totalLength;
+
+    /**
+     * Construct the auction search index.
+     *
+     * @param auctionDao the auction DAO
+     */
+    public AuctionSearchIndex(AuctionDao auctionDao) {
+        this.auctionDao = auctionDao;
+    }
+
+    /**
+     * Update the index from auction events.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case LOADED, CREATED, UPDATED -> index(event.getAuction());
+            case DELETED, ARCHIVED -> remove(event.getAuctionId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Update the index from an auction written by another replica, which published no auction event here.
+     *
+     * @param event the invalidated event
+     */
+    @EventListener
+    public void onAuctionInvalidated(AuctionInvalidatedEvent event) {
+        try {
+            // Read the auction again, it is gone if it was deleted or archived
+            Optional<AuctionEntity> auction = event.getVersion() < 0 ? Optional.empty()
+                    : this.auctionDao.getAuctionById(event.getAuctionId());
+            if (auction.isPresent()) {
+                index(auction.get());
+            } else {
+                remove(event.getAuctionId());
+            }
+        } catch (RuntimeException exception) {
+            // Keep the other listeners of the invalidation running, the next write indexes the auction again
+            LOGGER.warn("Failed to index auction {} written by another replica", event.getAuctionId(), exception);
+        }
+    }
+
+    /**
+     * Split text into lower case terms.
+     *
+     * @param text the text
+     * @return the terms
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+
+        return terms;
+    }
+
+    /**
+     * Index or re-index an auction.
+     *
+     * @param auction the auction
+     */
+    private void index(AuctionEntity auction) {
+        // Count the terms outside the lock, with title terms counted twice
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(auction.getTitle())) {
+            frequencies.merge(term, 2, Integer::sum);
+        }
+        for (String term : tokenize(auction.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        Document document = new Document(auction.getTitle(), frequencies, length);
+
+        this.lock.writeLock().lock();
+        try {
+            // Skip re-indexing unchanged text
+            Document existing = this.documents.get(auction.getId());
+            if (existing != null && existing.frequencies.equals(frequencies)) {
+                this.documents.put(auction.getId(), document);
+                return;
+            }
+
+            // Replace the auction's postings
+            removeLocked(auction.getId());
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                this.postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(auction.getId(), entry.getValue());
+            }
+            this.documents.put(auction.getId(), document);
+            this.totalLength += length;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an auction from the index.
+     *
+     * @param auctionId the auction id
+     */
+    private void remove(String auctionId) {
+        this.lock.writeLock().lock();
+        try {
+            removeLocked(auctionId);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an auction from the index, must be called holding the write lock.
+     *
+     * @param auctionId the auction id
+     */
+    private void removeLocked(String auctionId) {
+        Document document = this.documents.remove(auctionId);
+        if (document == null) {
+            return;
+        }
+
+        // Remove the auction from its postings, dropping empty terms
+        for (String term : document.frequencies.keySet()) {
+            Map<String, Integer> posting = this.postings.get(term);
+            if (posting != null) {
+                posting.remove(auctionId);
+                if (posting.isEmpty()) {
+                    this.postings.remove(term);
+                }
+            }
+        }
+        this.totalLength -= document.length;
+    }
+
+    /**
+     * Search the index.
+     *
+     * @param query the query text
+     * @param limit the maximum number of results
+     * @return the matching auctions, most relevant first
+     */
+    public List<SearchResultModel> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+
+        this.lock.readLock().lock();
+        try {
+            if (this.documents.isEmpty()) {
+                return List.of();
+            }
+
+            double averageLength = (double) this.totalLength / this.documents.size();
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+
+                // Score the exact term
+                score(term, 1, averageLength, scores);
+
+                // Expand the last term to the indexed terms it prefixes
+                if (i == terms.size() - 1) {
+                    int expansions = 0;
+                    for (String expansion : this.postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        score(expansion, PREFIX_WEIGHT, averageLength, scores);
+                    }
+                }
+            }
+
+            // Select the top results
+            PriorityQueue<Map.Entry<String, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                top.add(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            // Return the results, most relevant first
+            List<SearchResultModel> results = new ArrayList<>(top.size());
+            for (Map.Entry<String, Double> entry : top) {
+                results.add(new SearchResultModel(entry.getKey(), this.documents.get(entry.getKey()).title, entry.getValue()));
+            }
+            results.sort(Comparator.comparingDouble(SearchResultModel::getScore).reversed());
+            return results;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add the BM25 scores of a term to the matching auctions, must be called holding the read lock.
+     *
+     * @param term          the indexed term
+     * @param weight        the weight of the term
+     * @param averageLength the average document length
+     * @param scores        the scores by auction id
+     */
+    private void score(String term, double weight, double averageLength, Map<String, Double> scores) {
+        Map<String, Integer> posting = this.postings.get(term);
+        if (posting == null) {
+            return;
+        }
+
+        // Rarer terms weigh more
+        int documentCount = this.documents.size();
+        double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+
+        for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+            double frequency = entry.getValue();
+            double length = this.documents.get(entry.getKey()).length;
+            double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+            scores.merge(entry.getKey(), weight * score, Double::sum);
+        }
+    }
+
+    /**
+     * An indexed auction.
+     */
+    private static final class Document {
+        private final String title;
+        private final Map<String, Integer> frequencies;
+        private final int length;
+
+        /**
+         * Construct an indexed auction.
+         *
+         * @param title       the auction title
+         * @param frequencies the term frequencies
+         * @param length      the number of terms, with title terms counted twice
+         */
+        private Document(String title, Map<String, Integer> frequencies, int length) {
+            this.title = title;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+    }
+}
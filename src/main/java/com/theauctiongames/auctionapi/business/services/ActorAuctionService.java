@@ -0,0 +1,474 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import com.theauctiongames.auctionapi.tracing.SidecarTracingInterceptor;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The auction service implementation running every auction as a Dapr virtual actor.
+ * <p>
+ * Writes to an auction are sent to its actor, which Dapr places on exactly one replica and runs one call
+ * at a time, so bids are serialized without conflicts. The actor keeps its auction in memory between
+ * calls and stores every accepted change, so reads go straight to the store. Offers change a copy of the
+ * auction that replaces it only once it is stored, and a failed write reloads it. A reminder deactivates the
+ * actor once the auction expires. The offer rules are shared with {@link DaprAuctionService}.
+ */
+@Service
+@ConditionalOnProperty(name = "auction.service", havingValue = "actor")
+public class ActorAuctionService implements AuctionService {
+
+    /**
+     * The actor type.
+     */
+    public static final String ACTOR_TYPE = "AuctionActor";
+
+    /**
+     * The name of the expiration reminder.
+     */
+    public static final String EXPIRATION_REMINDER = "expire";
+
+    /**
+     * The store backed implementation, for reads and for running actor calls.
+     */
+    private final DaprAuctionService local;
+
+    /**
+     * The injected auction DAO.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The injected bid fast path.
+     */
+    private final BidFastPath fastPath;
+
+    /**
+     * The injected json object mapper.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * The template for calls to the sidecar.
+     */
+    private final RestTemplate template;
+
+    /**
+     * The actors URL.
+     */
+    private final String actorsUrl;
+
+    /**
+     * The state of the actors active on this replica.
+     */
+    private final Map<String, ActorState> actors = new ConcurrentHashMap<>();
+
+    /**
+     * Construct the actor auction service.
+     *
+     * @param auctionDao         the auction DAO
+     * @param compactionPolicy   the bid compaction policy
+     * @param publisher          the event publisher
+     * @param mapper             the json object mapper
+     * @param fastPath           the bid fast path
+     * @param imagePipeline      the image pipeline
+     * @param tracingInterceptor the interceptor tracing calls to the sidecar
+     */
+    @Autowired
+    public ActorAuctionService(AuctionDao auctionDao, BidCompactionPolicy compactionPolicy,
+                               ApplicationEventPublisher publisher, ObjectMapper mapper, BidFastPath fastPath,
+                               ImagePipeline imagePipeline, SidecarTracingInterceptor tracingInterceptor) {
+        this(auctionDao, compactionPolicy, publisher, mapper, fastPath, imagePipeline, new RestTemplate());
+        this.template.getInterceptors().add(tracingInterceptor);
+    }
+
+    /**
+     * Construct the actor auction service calling the sidecar with a template.
+     *
+     * @param auctionDao       the auction DAO
+     * @param compactionPolicy the bid compaction policy
+     * @param publisher        the event publisher
+     * @param mapper           the json object mapper
+     * @param fastPath         the bid fast path
+     * @param imagePipeline    the image pipeline
+     * @param template         the template for calls to the sidecar
+     */
+    ActorAuctionService(AuctionDao auctionDao, BidCompactionPolicy compactionPolicy, ApplicationEventPublisher publisher,
+                        ObjectMapper mapper, BidFastPath fastPath, ImagePipeline imagePipeline, RestTemplate template) {
+        this.local = new DaprAuctionService(auctionDao, compactionPolicy, publisher, fastPath, imagePipeline);
+        this.auctionDao = auctionDao;
+        this.fastPath = fastPath;
+        this.mapper = mapper;
+        this.template = template;
+        this.actorsUrl = "http://localhost:" + System.getenv("SIDECAR_PORT") + "/v1.0/actors/" + ACTOR_TYPE + "/";
+    }
+
+    /**
+     * Get all auctions.
+     *
+     * @return a list of auctions
+     */
+    @Override
+    public List<AuctionModel> getAllAuctions() {
+        return this.local.getAllAuctions();
+    }
+
+    /**
+     * Get an auction by id.
+     *
+     * @param id the id
+     * @return an optional auction
+     */
+    @Override
+    public Optional<AuctionModel> getAuctionById(String id) {
+        return this.local.getAuctionById(id);
+    }
+
+    /**
+     * Get an auction by id along with its version.
+     *
+     * @param id the id
+     * @return an optional versioned auction
+     */
+    @Override
+    public Optional<Versioned<AuctionModel>> getVersionedAuctionById(String id) {
+        return this.local.getVersionedAuctionById(id);
+    }
+
+    /**
+     * Get a page of a seller's auctions, newest first.
+     *
+     * @param sellerId the seller id
+     * @param offset   the number of auctions to skip
+     * @param limit    the maximum number of auctions
+     * @return the page of auctions
+     */
+    @Override
+    public List<AuctionModel> getAuctionsBySeller(String sellerId, int offset, int limit) {
+        return this.local.getAuctionsBySeller(sellerId, offset, limit);
+    }
+
+    /**
+     * Create an auction and schedule its actor's expiration.
+     *
+     * @param auction the auction model
+     * @return true if the auction was created, false otherwise
+     */
+    @Override
+    public boolean createAuction(AuctionModel auction) {
+        if (!this.local.createAuction(auction)) {
+            return false;
+        }
+
+        scheduleExpiration(auction.getId(), auction.getExpirationTimestamp());
+        return true;
+    }
+
+    /**
+     * Update an auction through its actor.
+     *
+     * @param auction the auction model
+     * @return true if the auction was updated, false otherwise
+     */
+    @Override
+    public boolean updateAuction(AuctionModel auction) {
+        try {
+            return invoke(auction.getId(), "update", this.mapper.writeValueAsString(auction)).getBoolean("result");
+        } catch (IOException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
+    /**
+     * Delete an auction through its actor.
+     *
+     * @param id the id
+     * @return true if the auction was deleted, false otherwise
+     */
+    @Override
+    public boolean deleteAuctionById(String id) {
+        return invoke(id, "delete", "{}").getBoolean("result");
+    }
+
+    /**
+     * Get the recent bids kept in an auction, excluding archived bids.
+     *
+     * @param id the auction id
+     * @return a list of bids
+     */
+    @Override
+    public Optional<List<OfferModel>> getBidsForAuction(String id) {
+        return this.local.getBidsForAuction(id);
+    }
+
+    /**
+     * Get a page of an auction's bids along with the auction's version.
+     *
+     * @param id     the auction id
+     * @param limit  the maximum number of bids
+     * @param before the exclusive bid number to page back from, or null for the latest bids
+     * @return an optional versioned page of bids
+     */
+    @Override
+    public Optional<Versioned<BidPageModel>> getVersionedBidsForAuction(String id, int limit, Integer before) {
+        return this.local.getVersionedBidsForAuction(id, limit, before);
+    }
+
+    /**
+     * Add a bid to an auction through its actor.
+     *
+     * @param id  the auction id
+     * @param bid the bid model
+     * @return the bid response
+     */
+    @Override
+    public OfferResponse addBidToAuction(String id, OfferModel bid) {
+        // Reject losing bids without calling the actor
+        OfferResponse fastResponse = this.fastPath.check(id, bid.getPrice());
+        if (fastResponse != OfferResponse.SUCCESS) {
+            return fastResponse;
+        }
+
+        return offer(id, "bid", bid);
+    }
+
+    /**
+     * Purchase an auction through its actor.
+     *
+     * @param id       the auction id
+     * @param purchase the purchase offer
+     * @return the purchase response
+     */
+    @Override
+    public OfferResponse purchaseAuction(String id, OfferModel purchase) {
+        return offer(id, "purchase", purchase);
+    }
+
+    /**
+     * Place a proxy bid through the auction's actor.
+     *
+     * @param id       the auction id
+     * @param proxyBid the proxy bid model
+     * @return the offer response
+     */
+    @Override
+    public OfferResponse placeProxyBid(String id, ProxyBidModel proxyBid) {
+        return offer(id, "proxy-bid", proxyBid);
+    }
+
+    /**
+     * Send an offer to an auction's actor.
+     *
+     * @param id     the auction id
+     * @param method the actor method
+     * @param offer  the offer
+     * @return the offer response
+     */
+    private OfferResponse offer(String id, String method, Object offer) {
+        try {
+            return OfferResponse.valueOf(invoke(id, method, this.mapper.writeValueAsString(offer)).getString("response"));
+        } catch (IOException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
+    /**
+     * Invoke a method on an auction's actor through the sidecar.
+     *
+     * @param id     the auction id
+     * @param method the actor method
+     * @param body   the json body
+     * @return the json result
+     * @throws StoreUnavailableException if the actor runtime could not be reached
+     */
+    private JSONObject invoke(String id, String method, String body) {
+        // Set request header
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            // Send request
+            String response = this.template.postForObject(this.actorsUrl + id + "/method/" + method,
+                    new HttpEntity<>(body, headers), String.class);
+            return new JSONObject(response);
+        } catch (HttpClientErrorException exception) {
+            throw exception;
+        } catch (RestClientException exception) {
+            throw new StoreUnavailableException("Actor runtime unavailable", exception);
+        }
+    }
+
+    /**
+     * Register a reminder that deactivates an auction's actor once the auction expires.
+     *
+     * @param id                  the auction id
+     * @param expirationTimestamp the expiration timestamp
+     */
+    private void scheduleExpiration(String id, long expirationTimestamp) {
+        // Set request header
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Set request body
+        long dueMillis = Math.max(0, expirationTimestamp - System.currentTimeMillis());
+        JSONObject json = new JSONObject().put("dueTime", dueMillis + "ms").put("period", "");
+
+        try {
+            // Send request
+            this.template.postForEntity(this.actorsUrl + id + "/reminders/" + EXPIRATION_REMINDER,
+                    new HttpEntity<>(json.toString(), headers), String.class);
+        } catch (Exception exception) {
+            // Print the error, the actor is still deactivated when idle
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Cancel an auction's expiration reminder.
+     *
+     * @param id the auction id
+     */
+    private void cancelExpiration(String id) {
+        try {
+            this.template.delete(this.actorsUrl + id + "/reminders/" + EXPIRATION_REMINDER);
+        } catch (Exception exception) {
+            // Print the error, the reminder fires once and finds nothing to do
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Run an actor method on this replica, as called by the Dapr actor runtime.
+     *
+     * @param id     the auction id
+     * @param method the actor method
+     * @param body   the json body
+     * @return the json result
+     * @throws IOException if the body could not be read
+     */
+    public String onActorMethod(String id, String method, String body) throws IOException {
+        ActorState actor = this.actors.computeIfAbsent(id, ActorState::new);
+
+        // Dapr runs one call per actor at a time, the lock guards against a rebalance overlapping calls
+        synchronized (actor) {
+            switch (method) {
+                case "bid", "purchase", "proxy-bid" -> {
+                    // Run the offer against a copy of the in-memory auction, loading it on the first call
+                    Optional<AuctionEntity> auction = actor.load().map(loaded -> this.mapper.convertValue(loaded, AuctionEntity.class));
+                    OfferResponse response = OfferResponse.SERVER_ERROR;
+                    try {
+                        response = switch (method) {
+                            case "bid" -> this.local.addBid(auction, this.mapper.readValue(body, OfferModel.class));
+                            case "purchase" -> this.local.purchase(auction, this.mapper.readValue(body, OfferModel.class));
+                            default -> this.local.proxyBid(auction, this.mapper.readValue(body, ProxyBidModel.class));
+                        };
+                    } finally {
+                        // Keep the copy once it is stored, and reload after a failed write, which may have been stored anyway
+                        if (response == OfferResponse.SUCCESS) {
+                            actor.auction = auction.get();
+                        } else if (response == OfferResponse.SERVER_ERROR) {
+                            actor.auction = null;
+                        }
+                    }
+                    return new JSONObject().put("response", response.name()).toString();
+                }
+                case "update" -> {
+                    AuctionModel auction = this.mapper.readValue(body, AuctionModel.class);
+                    boolean updated = this.local.updateAuction(auction);
+
+                    // Reload the stored auction on the next call and move the expiration
+                    actor.auction = null;
+                    if (updated) {
+                        scheduleExpiration(id, auction.getExpirationTimestamp());
+                    }
+                    return new JSONObject().put("result", updated).toString();
+                }
+                case "delete" -> {
+                    boolean deleted = this.local.deleteAuctionById(id);
+                    this.actors.remove(id);
+                    if (deleted) {
+                        cancelExpiration(id);
+                    }
+                    return new JSONObject().put("result", deleted).toString();
+                }
+                default -> throw new IllegalArgumentException("Unknown actor method: " + method);
+            }
+        }
+    }
+
+    /**
+     * Handle a reminder, as called by the Dapr actor runtime.
+     *
+     * @param id       the auction id
+     * @param reminder the reminder name
+     */
+    public void onActorReminder(String id, String reminder) {
+        if (EXPIRATION_REMINDER.equals(reminder)) {
+            // The auction is over, free its state and stop the reminder
+            this.actors.remove(id);
+            cancelExpiration(id);
+        }
+    }
+
+    /**
+     * Deactivate an actor, as called by the Dapr actor runtime when it is idle or moved to another replica.
+     *
+     * @param id the auction id
+     */
+    public void onActorDeactivated(String id) {
+        this.actors.remove(id);
+    }
+
+    /**
+     * The in-memory state of an active actor.
+     */
+    private final class ActorState {
+        private final String id;
+        private AuctionEntity auction;
+
+        /**
+         * Construct the state of a newly activated actor.
+         *
+         * @param id the auction id
+         */
+        private ActorState(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Get the actor's auction, loading it from the store if it is not in memory.
+         *
+         * @return the auction, or empty if it does not exist
+         */
+        private Optional<AuctionEntity> load() {
+            if (this.auction == null) {
+                this.auction = ActorAuctionService.this.auctionDao.getAuctionById(this.id).orElse(null);
+            }
+            return Optional.ofNullable(this.auction);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.theauctiongames.auctionapi.business.services;
 
 import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
 import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +29,24 @@ public interface AuctionService {
      */
     Optional<AuctionModel> getAuctionById(String id);
 
+    /**
+     * Get a versioned auction by id, deferring the mapping to a model until it is needed.
+     *
+     * @param id the id
+     * @return an optional versioned auction
+     */
+    Optional<Versioned<AuctionModel>> getVersionedAuctionById(String id);
+
+    /**
+     * Get a page of a seller's auctions, newest first.
+     *
+     * @param sellerId the seller id
+     * @param offset   the number of auctions to skip
+     * @param limit    the maximum number of auctions
+     * @return a list of auctions
+     */
+    List<AuctionModel> getAuctionsBySeller(String sellerId, int offset, int limit);
+
     /**
      * Create an auction.
      *
@@ -51,13 +72,23 @@ public interface AuctionService {
     boolean deleteAuctionById(String id);
 
     /**
-     * Get all bids for an auction.
+     * Get the recent bids kept in an auction, excluding archived bids.
      *
      * @param id the auction id
      * @return a list of bids
      */
     Optional<List<OfferModel>> getBidsForAuction(String id);
 
+    /**
+     * Get a versioned page of an auction's bid history, deferring the mapping to models until it is needed.
+     *
+     * @param id     the auction id
+     * @param limit  the maximum number of bids on the page
+     * @param before the cursor of the page, or null for the most recent bids
+     * @return an optional versioned page of bids
+     */
+    Optional<Versioned<BidPageModel>> getVersionedBidsForAuction(String id, int limit, Integer before);
+
     /**
      * Create a bid for an auction.
      *
@@ -75,4 +106,13 @@ public interface AuctionService {
      * @return the offer response
      */
     OfferResponse purchaseAuction(String id, OfferModel purchase);
+
+    /**
+     * Place a proxy bid, a maximum the user is willing to bid, which bids on the user's behalf.
+     *
+     * @param id       the auction id
+     * @param proxyBid the proxy bid model
+     * @return the offer response
+     */
+    OfferResponse placeProxyBid(String id, ProxyBidModel proxyBid);
 }
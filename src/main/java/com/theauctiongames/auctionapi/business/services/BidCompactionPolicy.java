@@ -0,0 +1,63 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The policy deciding when an auction's older bids are moved out of the auction into archived chunks.
+ * <p>
+ * An auction keeps at least the inline limit of its most recent bids. Once a full chunk of bids has
+ * accumulated beyond that, the oldest chunk is archived, so an auction never holds more than the inline
+ * limit plus one chunk of bids regardless of how long it runs.
+ */
+@Component
+public class BidCompactionPolicy {
+
+    /**
+     * The minimum number of recent bids kept in the auction.
+     */
+    private final int inlineLimit;
+
+    /**
+     * The number of bids in each newly archived chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Construct the bid compaction policy.
+     *
+     * @param inlineLimit the minimum number of recent bids kept in the auction
+     * @param chunkSize   the number of bids in each newly archived chunk
+     */
+    public BidCompactionPolicy(@Value("${auction.bids.inline-limit:50}") int inlineLimit,
+                               @Value("${auction.bids.chunk-size:200}") int chunkSize) {
+        // The highest bid must always stay in the auction for bid validation
+        if (inlineLimit < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Bid inline limit and chunk size must be positive");
+        }
+
+        this.inlineLimit = inlineLimit;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Get the chunk size of an auction, which is fixed once its first chunk is archived.
+     *
+     * @param auction the auction
+     * @return the chunk size
+     */
+    public int getChunkSize(AuctionEntity auction) {
+        return auction.getBidChunkSize() > 0 ? auction.getBidChunkSize() : this.chunkSize;
+    }
+
+    /**
+     * Check if the oldest chunk of an auction's bids should be archived.
+     *
+     * @param auction the auction
+     * @return true if a chunk should be archived, false otherwise
+     */
+    public boolean shouldCompact(AuctionEntity auction) {
+        return auction.getBids().size() >= this.inlineLimit + getChunkSize(auction);
+    }
+}
@@ -0,0 +1,253 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A compact in-memory copy of each auction's bidding state, for rejecting losing bids without reading the
+ * auction from the state store.
+ * <p>
+ * Only rejections are answered here, every bid that might win is still validated against the store. A
+ * rejection is safe because the state only ever lags the store: bids and purchases only raise the bar, and
+ * changes that lower it, updates and deletes, replace the state here when they are made locally and when
+ * another replica reports a write over the invalidation bus. A reported write leaves a marker with its
+ * version, so a store read that started before it cannot bring the older state back.
+ * <p>
+ * Reports can be lost, so a state is only trusted for a maximum age before the auction is read again.
+ * <p>
+ * Without the invalidation bus, writes on other replicas go unnoticed, and since an update replaces every
+ * field a rejection depends on, including the bids, no rejection is answered here at all.
+ */
+@Component
+public class BidFastPath {
+
+    /**
+     * How long the state of an expired auction is kept, to keep rejecting late bids without a read.
+     */
+    private static final long EXPIRED_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * The maximum number of auctions with a kept state.
+     */
+    private final int maxEntries;
+
+    /**
+     * The time in milliseconds a learned state is trusted.
+     */
+    private final long maxAgeMillis;
+
+    /**
+     * Whether other replicas report their writes, so rejections from the kept state are safe.
+     */
+    private final boolean writesReported;
+
+    /**
+     * The bidding state of each known auction.
+     */
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * The counters of bids rejected without a read, by response.
+     */
+    private final Map<OfferResponse, Counter> rejected = new EnumMap<>(OfferResponse.class);
+
+    /**
+     * Construct the bid fast path.
+     *
+     * @param maxEntries     the maximum number of auctions with a kept state
+     * @param maxAgeMillis   the time in milliseconds a learned state is trusted
+     * @param writesReported whether other replicas report their writes over the invalidation bus
+     * @param registry       the meter registry
+     */
+    public BidFastPath(@Value("${auction.fast-path.max-entries:100000}") int maxEntries,
+                       @Value("${auction.fast-path.max-age-millis:30000}") long maxAgeMillis,
+                       @Value("${auction.invalidation.enabled:true}") boolean writesReported, MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+        this.writesReported = writesReported;
+        for (OfferResponse response : List.of(OfferResponse.EXPIRED, OfferResponse.ALREADY_PURCHASED,
+                OfferResponse.TOO_LOW, OfferResponse.TOO_HIGH)) {
+            this.rejected.put(response, Counter.builder("auction.bids.fast-rejected")
+                    .description("Bids rejected from the in-memory auction state without reading the store")
+                    .tag("response", response.name())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Check a bid against the known state of its auction, in the order the service validates it.
+     *
+     * @param auctionId the auction id
+     * @param price     the bid price
+     * @return the rejection, or success if the bid might win and must be validated against the store
+     */
+    public OfferResponse check(String auctionId, double price) {
+        State state = this.writesReported ? this.states.get(auctionId) : null;
+        if (state == null || state.invalidated || isExpired(state)) {
+            return OfferResponse.SUCCESS;
+        }
+
+        // Find the rejection, if any
+        OfferResponse response;
+        if (System.currentTimeMillis() > state.expirationTimestamp) {
+            response = OfferResponse.EXPIRED;
+        } else if (state.purchased) {
+            response = OfferResponse.ALREADY_PURCHASED;
+        } else if (price < state.startBid) {
+            response = OfferResponse.TOO_LOW;
+        } else if (price >= state.binPrice) {
+            response = OfferResponse.TOO_HIGH;
+        } else if (price <= state.highPrice) {
+            response = OfferResponse.TOO_LOW;
+        } else {
+            return OfferResponse.SUCCESS;
+        }
+
+        this.rejected.get(response).increment();
+        return response;
+    }
+
+    /**
+     * Learn the state of an auction read from the store or changed here, unless a newer version is known.
+     *
+     * @param auction the auction
+     */
+    public void learn(AuctionEntity auction) {
+        keep(auction.getId(), State.of(auction));
+    }
+
+    /**
+     * Keep the state of an auction, unless a newer version is known and has not expired.
+     * <p>
+     * A marker is replaced by the version it was left for, a state only by a newer one.
+     *
+     * @param auctionId the auction id
+     * @param state     the state or marker
+     */
+    private void keep(String auctionId, State state) {
+        // Keep the states bounded, unknown auctions are simply validated against the store
+        if (this.states.size() >= this.maxEntries && !this.states.containsKey(auctionId)) {
+            return;
+        }
+
+        this.states.merge(auctionId, state, (current, kept) -> isExpired(current) || kept.version > current.version
+                || (kept.version == current.version && current.invalidated) ? kept : current);
+    }
+
+    /**
+     * Keep the states up to date with auction changes.
+     *
+     * @param event the auction event
+     */
+    @EventListener
+    public void onAuctionEvent(AuctionEvent event) {
+        switch (event.getType()) {
+            case DELETED, ARCHIVED -> this.states.put(event.getAuctionId(), State.marker(Long.MAX_VALUE));
+            default -> learn(event.getAuction());
+        }
+    }
+
+    /**
+     * Replace the state of an auction written by another replica with a marker of the written version, the
+     * next bid reads it from the store again.
+     *
+     * @param event the invalidated event
+     */
+    @EventListener
+    public void onAuctionInvalidated(AuctionInvalidatedEvent event) {
+        keep(event.getAuctionId(), State.marker(event.getVersion() < 0 ? Long.MAX_VALUE : event.getVersion()));
+    }
+
+    /**
+     * Periodically drop the states of auctions that expired long ago, and states and markers past their
+     * maximum age.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long expiredBefore = System.currentTimeMillis() - EXPIRED_RETENTION_MILLIS;
+        this.states.values().removeIf(state -> isExpired(state) || (!state.invalidated && state.expirationTimestamp < expiredBefore));
+    }
+
+    /**
+     * Check if a state or marker is older than the maximum age.
+     *
+     * @param state the state or marker
+     * @return true if it is no longer trusted, false otherwise
+     */
+    private boolean isExpired(State state) {
+        return System.currentTimeMillis() - state.learnedTimestamp > this.maxAgeMillis;
+    }
+
+    /**
+     * The immutable bidding state of an auction, or a marker of a version written elsewhere.
+     */
+    private static final class State {
+        private final long version;
+        private final double startBid;
+        private final double highPrice;
+        private final double binPrice;
+        private final long expirationTimestamp;
+        private final boolean purchased;
+        private final boolean invalidated;
+        private final long learnedTimestamp = System.currentTimeMillis();
+
+        /**
+         * Construct an auction's bidding state.
+         *
+         * @param version             the stored version of the auction
+         * @param startBid            the starting price
+         * @param highPrice           the highest bid, or negative infinity without bids
+         * @param binPrice            the buy it now price
+         * @param expirationTimestamp the expiration timestamp
+         * @param purchased           whether the auction was purchased
+         * @param invalidated         whether this is a marker without a state
+         */
+        private State(long version, double startBid, double highPrice, double binPrice, long expirationTimestamp,
+                      boolean purchased, boolean invalidated) {
+            this.version = version;
+            this.startBid = startBid;
+            this.highPrice = highPrice;
+            this.binPrice = binPrice;
+            this.expirationTimestamp = expirationTimestamp;
+            this.purchased = purchased;
+            this.invalidated = invalidated;
+        }
+
+        /**
+         * Create a marker refusing states older than a version written elsewhere.
+         *
+         * @param version the written version, or the maximum for a deleted auction
+         * @return the marker
+         */
+        private static State marker(long version) {
+            return new State(version, 0, 0, 0, Long.MAX_VALUE, false, true);
+        }
+
+        /**
+         * Capture the bidding state of an auction.
+         *
+         * @param auction the auction
+         * @return the state
+         */
+        private static State of(AuctionEntity auction) {
+            List<OfferEntity> bids = auction.getBids();
+            double highPrice = bids.isEmpty() ? Double.NEGATIVE_INFINITY : bids.get(bids.size() - 1).getPrice();
+            return new State(auction.getVersion(), auction.getStartBid(), highPrice, auction.getBinPrice(),
+                    auction.getExpirationTimestamp(), auction.getPurchase() != null, false);
+        }
+    }
+}
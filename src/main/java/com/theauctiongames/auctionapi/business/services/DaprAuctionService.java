@@ -1,12 +1,23 @@
 package com.theauctiongames.auctionapi.business.services;
 
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
 import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
 import com.theauctiongames.auctionapi.data.daos.AuctionDao;
 import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
 import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
 import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import com.theauctiongames.auctionapi.data.entities.ProxyBidEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -15,20 +26,55 @@ import java.util.stream.Collectors;
  * The auction service implementation utilizing Dapr's sidecar.
  */
 @Service
+@ConditionalOnProperty(name = "auction.service", havingValue = "dapr", matchIfMissing = true)
 public class DaprAuctionService implements AuctionService {
 
+    /**
+     * The maximum number of bids returned in a single page.
+     */
+    private static final int MAX_BID_PAGE_SIZE = 1000;
+
     /**
      * The injected auction DAO.
      */
     private final AuctionDao auctionDao;
 
+    /**
+     * The injected bid compaction policy.
+     */
+    private final BidCompactionPolicy compactionPolicy;
+
+    /**
+     * The injected event publisher.
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * The injected bid fast path.
+     */
+    private final BidFastPath fastPath;
+
+    /**
+     * The injected image pipeline.
+     */
+    private final ImagePipeline imagePipeline;
+
     /**
      * Construct the dapr auction service.
      *
-     * @param auctionDao the auction DAO
+     * @param auctionDao       the auction DAO
+     * @param compactionPolicy the bid compaction policy
+     * @param publisher        the event publisher
+     * @param fastPath         the bid fast path
+     * @param imagePipeline    the image pipeline
      */
-    public DaprAuctionService(AuctionDao auctionDao) {
+    public DaprAuctionService(AuctionDao auctionDao, BidCompactionPolicy compactionPolicy, ApplicationEventPublisher publisher,
+                              BidFastPath fastPath, ImagePipeline imagePipeline) {
         this.auctionDao = auctionDao;
+        this.compactionPolicy = compactionPolicy;
+        this.publisher = publisher;
+        this.fastPath = fastPath;
+        this.imagePipeline = imagePipeline;
     }
 
     /**
@@ -57,6 +103,44 @@ public class DaprAuctionService implements AuctionService {
                 .map(AuctionModel::fromEntity);
     }
 
+    /**
+     * Get a versioned auction by id.
+     *
+     * @param id the id
+     * @return an optional versioned auction
+     */
+    @Override
+    public Optional<Versioned<AuctionModel>> getVersionedAuctionById(String id) {
+        // Get the auction from the dao and defer the mapping
+        return this.auctionDao.getAuctionById(id)
+                .map(entity -> new Versioned<>(versionOf(entity), () -> AuctionModel.fromEntity(entity)));
+    }
+
+    /**
+     * Get a page of a seller's auctions, newest first.
+     *
+     * @param sellerId the seller id
+     * @param offset   the number of auctions to skip
+     * @param limit    the maximum number of auctions
+     * @return a list of auctions
+     */
+    @Override
+    public List<AuctionModel> getAuctionsBySeller(String sellerId, int offset, int limit) {
+        // Get the seller's auction ids, oldest first
+        List<String> ids = this.auctionDao.getAuctionIdsBySeller(sellerId);
+
+        // Select the page, newest first
+        List<String> page = new ArrayList<>();
+        for (int i = ids.size() - 1 - offset; i >= 0 && page.size() < limit; i--) {
+            page.add(ids.get(i));
+        }
+
+        // Get the page's auctions and map to models
+        return this.auctionDao.getAuctionsByIds(page).stream()
+                .map(AuctionModel::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Create an auction.
      *
@@ -65,8 +149,18 @@ public class DaprAuctionService implements AuctionService {
      */
     @Override
     public boolean createAuction(AuctionModel auction) {
+        // Store the uploaded image apart from the auction
+        AuctionEntity entity = AuctionEntity.fromModel(auction);
+        this.imagePipeline.attach(entity);
+
         // Call the create method on the dao
-        return this.auctionDao.createAuction(AuctionEntity.fromModel(auction));
+        if (!this.auctionDao.createAuction(entity)) {
+            return false;
+        }
+
+        // Publish the change
+        publish(AuctionEventType.CREATED, entity, null);
+        return true;
     }
 
     /**
@@ -77,8 +171,34 @@ public class DaprAuctionService implements AuctionService {
      */
     @Override
     public boolean updateAuction(AuctionModel auction) {
+        // Get the existing auction
+        Optional<AuctionEntity> existing = this.auctionDao.getAuctionById(auction.getId());
+        if (existing.isEmpty()) {
+            return false;
+        }
+
+        // Keep the archived bid history and proxy bids, which models do not carry
+        AuctionEntity entity = AuctionEntity.fromModel(auction);
+        entity.setArchivedBidCount(existing.get().getArchivedBidCount());
+        entity.setBidChunkSize(existing.get().getBidChunkSize());
+        entity.setProxyBids(existing.get().getProxyBids());
+
+        // Keep the existing image unless a new one was uploaded
+        if (entity.getBase64Image() == null || entity.getBase64Image().isBlank()) {
+            entity.setImageHash(existing.get().getImageHash());
+            entity.setBase64Image(existing.get().getBase64Image());
+        } else {
+            this.imagePipeline.attach(entity);
+        }
+
         // Call the update method on the dao
-        return this.auctionDao.updateAuction(AuctionEntity.fromModel(auction));
+        if (!this.auctionDao.updateAuction(entity)) {
+            return false;
+        }
+
+        // Publish the change
+        publish(AuctionEventType.UPDATED, entity, null);
+        return true;
     }
 
     /**
@@ -90,11 +210,17 @@ public class DaprAuctionService implements AuctionService {
     @Override
     public boolean deleteAuctionById(String id) {
         // Call the delete method on the dao
-        return this.auctionDao.deleteAuctionById(id);
+        if (!this.auctionDao.deleteAuctionById(id)) {
+            return false;
+        }
+
+        // Publish the change
+        this.publisher.publishEvent(new AuctionEvent(AuctionEventType.DELETED, id, null, null));
+        return true;
     }
 
     /**
-     * Get all bids for an auction.
+     * Get the recent bids kept in an auction, excluding archived bids.
      *
      * @param id the auction id
      * @return a list of bids
@@ -115,6 +241,71 @@ public class DaprAuctionService implements AuctionService {
                 .collect(Collectors.toList()));
     }
 
+    /**
+     * Get a versioned page of an auction's bid history.
+     *
+     * @param id     the auction id
+     * @param limit  the maximum number of bids on the page
+     * @param before the cursor of the page, or null for the most recent bids
+     * @return an optional versioned page of bids
+     */
+    @Override
+    public Optional<Versioned<BidPageModel>> getVersionedBidsForAuction(String id, int limit, Integer before) {
+        // Keep the page size bounded
+        int pageSize = Math.max(1, Math.min(limit, MAX_BID_PAGE_SIZE));
+
+        // Get the auction from the dao and defer reading the page
+        return this.auctionDao.getAuctionById(id)
+                .map(entity -> new Versioned<>(versionOf(entity), () -> readBidPage(entity, pageSize, before)));
+    }
+
+    /**
+     * Read a page of an auction's bid history.
+     * <p>
+     * Bids are numbered from zero for the oldest bid, and the cursor is the number of the first bid after
+     * the page. Only the archived chunks overlapping the page are read.
+     *
+     * @param auction the auction
+     * @param limit   the maximum number of bids on the page
+     * @param before  the cursor of the page, or null for the most recent bids
+     * @return the page of bids
+     */
+    private BidPageModel readBidPage(AuctionEntity auction, int limit, Integer before) {
+        // Find the range of bids on the page
+        int archived = auction.getArchivedBidCount();
+        int total = archived + auction.getBids().size();
+        int end = before == null ? total : Math.max(0, Math.min(before, total));
+        int start = Math.max(0, end - limit);
+
+        List<OfferModel> bids = new ArrayList<>(end - start);
+        int index = start;
+
+        // Read the archived part of the page chunk by chunk
+        int chunkSize = this.compactionPolicy.getChunkSize(auction);
+        while (index < Math.min(end, archived)) {
+            int chunkStart = index - index % chunkSize;
+            int chunkEnd = Math.min(chunkStart + chunkSize, Math.min(end, archived));
+
+            // Add the overlapping bids of the chunk
+            Optional<BidChunkEntity> chunk = this.auctionDao.getBidChunk(auction.getId(), chunkStart / chunkSize);
+            if (chunk.isPresent()) {
+                for (int i = index; i < chunkEnd; i++) {
+                    bids.add(OfferModel.fromEntity(chunk.get().getBids().get(i - chunkStart)));
+                }
+            }
+
+            index = chunkEnd;
+        }
+
+        // Read the inline part of the page
+        for (; index < end; index++) {
+            bids.add(OfferModel.fromEntity(auction.getBids().get(index - archived)));
+        }
+
+        // Return the page with the cursor for older bids
+        return new BidPageModel(bids, start > 0 ? start : null);
+    }
+
     /**
      * Add a bid to an auction.
      *
@@ -124,9 +315,26 @@ public class DaprAuctionService implements AuctionService {
      */
     @Override
     public OfferResponse addBidToAuction(String id, OfferModel bid) {
-        // Get the auction
+        // Reject losing bids without reading the auction
+        OfferResponse fastResponse = this.fastPath.check(id, bid.getPrice());
+        if (fastResponse != OfferResponse.SUCCESS) {
+            return fastResponse;
+        }
+
+        // Validate the bid against the stored auction, remembering its state for the next bids
         Optional<AuctionEntity> auction = this.auctionDao.getAuctionById(id);
+        auction.ifPresent(this.fastPath::learn);
+        return addBid(auction, bid);
+    }
 
+    /**
+     * Add a bid to a loaded auction, storing the auction if the bid is accepted.
+     *
+     * @param auction the auction, or empty if it was not found
+     * @param bid     the bid model
+     * @return the bid response
+     */
+    OfferResponse addBid(Optional<AuctionEntity> auction, OfferModel bid) {
         // Check if the auction can receive an offer
         OfferResponse initialResponse = checkAuction(auction);
         if (initialResponse != OfferResponse.SUCCESS) {
@@ -160,11 +368,103 @@ public class DaprAuctionService implements AuctionService {
             }
         }
 
-        // Add the bid
-        auction.get().getBids().add(OfferEntity.fromModel(bid));
+        // Add the bid and let standing proxy bids answer it
+        OfferEntity offer = OfferEntity.fromModel(bid);
+        auction.get().getBids().add(offer);
+        List<OfferEntity> added = new ArrayList<>();
+        added.add(offer);
+        added.addAll(ProxyBidEngine.resolve(withProxyBids(auction.get()), System.currentTimeMillis()));
 
-        // Save the auction with the new bid
-        return this.auctionDao.updateAuction(auction.get()) ? OfferResponse.SUCCESS : OfferResponse.SERVER_ERROR;
+        // Save the auction with the new bids
+        return storeBids(auction.get(), added);
+    }
+
+    /**
+     * Place a proxy bid on an auction.
+     *
+     * @param id       the auction id
+     * @param proxyBid the proxy bid model
+     * @return the offer response
+     */
+    @Override
+    public OfferResponse placeProxyBid(String id, ProxyBidModel proxyBid) {
+        return proxyBid(this.auctionDao.getAuctionById(id), proxyBid);
+    }
+
+    /**
+     * Place a proxy bid on a loaded auction, resolving it against the other proxy bids and storing the
+     * outcome in one write.
+     *
+     * @param auction  the auction, or empty if it was not found
+     * @param proxyBid the proxy bid model
+     * @return the offer response
+     */
+    OfferResponse proxyBid(Optional<AuctionEntity> auction, ProxyBidModel proxyBid) {
+        // Check if the auction can receive an offer
+        OfferResponse initialResponse = checkAuction(auction);
+        if (initialResponse != OfferResponse.SUCCESS) {
+            return initialResponse;
+        }
+
+        // Check the maximum is at least the starting price and above the current highest bid
+        List<OfferEntity> bids = auction.get().getBids();
+        if (proxyBid.getMaxPrice() < auction.get().getStartBid()
+                || (!bids.isEmpty() && proxyBid.getMaxPrice() <= bids.get(bids.size() - 1).getPrice())) {
+            return OfferResponse.TOO_LOW;
+        }
+
+        // Check the maximum is below the buy it now price
+        if (proxyBid.getMaxPrice() >= auction.get().getBinPrice()) {
+            return OfferResponse.TOO_HIGH;
+        }
+
+        // Replace the user's standing proxy bid and resolve the proxies, at the logged time when replayed
+        long placed = proxyBid.getCreationTimestamp() > 0 ? proxyBid.getCreationTimestamp() : System.currentTimeMillis();
+        List<ProxyBidEntity> proxies = withProxyBids(auction.get()).getProxyBids();
+        proxies.removeIf(proxy -> proxy.getUserId().equals(proxyBid.getUserId()));
+        proxies.add(ProxyBidEntity.fromModel(proxyBid, placed));
+        List<OfferEntity> added = ProxyBidEngine.resolve(auction.get(), placed);
+
+        // Save the auction with the proxy bid and its outcome
+        return storeBids(auction.get(), added);
+    }
+
+    /**
+     * Store an auction after bids were added to it, in one write, and publish every added bid.
+     *
+     * @param auction the auction
+     * @param added   the added bids, oldest first
+     * @return the offer response
+     */
+    private OfferResponse storeBids(AuctionEntity auction, List<OfferEntity> added) {
+        // Archive the oldest bids if the auction has grown too large
+        if (this.compactionPolicy.shouldCompact(auction)) {
+            compactBids(auction);
+        }
+
+        // Save the auction
+        if (!this.auctionDao.updateAuction(auction)) {
+            return OfferResponse.SERVER_ERROR;
+        }
+
+        // Publish the changes
+        for (OfferEntity offer : added) {
+            publish(AuctionEventType.BID, auction, offer);
+        }
+        return OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Make sure an auction stored before proxy bids has a list of them.
+     *
+     * @param auction the auction
+     * @return the auction
+     */
+    private static AuctionEntity withProxyBids(AuctionEntity auction) {
+        if (auction.getProxyBids() == null) {
+            auction.setProxyBids(new ArrayList<>());
+        }
+        return auction;
     }
 
     /**
@@ -176,9 +476,17 @@ public class DaprAuctionService implements AuctionService {
      */
     @Override
     public OfferResponse purchaseAuction(String id, OfferModel purchase) {
-        // Get the auction
-        Optional<AuctionEntity> auction = this.auctionDao.getAuctionById(id);
+        return purchase(this.auctionDao.getAuctionById(id), purchase);
+    }
 
+    /**
+     * Purchase a loaded auction, storing the auction if the purchase is accepted.
+     *
+     * @param auction  the auction, or empty if it was not found
+     * @param purchase the purchase offer
+     * @return the purchase response
+     */
+    OfferResponse purchase(Optional<AuctionEntity> auction, OfferModel purchase) {
         // Check if the auction can receive an offer
         OfferResponse initialResponse = checkAuction(auction);
         if (initialResponse != OfferResponse.SUCCESS) {
@@ -195,10 +503,53 @@ public class DaprAuctionService implements AuctionService {
         }
 
         // Set the purchase
-        auction.get().setPurchase(OfferEntity.fromModel(purchase));
+        OfferEntity offer = OfferEntity.fromModel(purchase);
+        auction.get().setPurchase(offer);
+
+        // Save the auction with the purchase
+        if (!this.auctionDao.updateAuction(auction.get())) {
+            return OfferResponse.SERVER_ERROR;
+        }
 
-        // Save the auction with the new bid
-        return this.auctionDao.updateAuction(auction.get()) ? OfferResponse.SUCCESS : OfferResponse.SERVER_ERROR;
+        // Publish the change
+        publish(AuctionEventType.PURCHASED, auction.get(), offer);
+        return OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Publish an auction event for a stored auction.
+     *
+     * @param type    the event type
+     * @param auction the auction as stored
+     * @param offer   the bid or purchase offer, or null
+     */
+    private void publish(AuctionEventType type, AuctionEntity auction, OfferEntity offer) {
+        this.publisher.publishEvent(new AuctionEvent(type, auction.getId(), auction, offer));
+    }
+
+    /**
+     * Move the oldest chunk of an auction's bids into an archived chunk.
+     * <p>
+     * The chunk is stored before the auction, so a failure at worst leaves an orphaned chunk that the next
+     * compaction overwrites, and never loses bids.
+     *
+     * @param auction the auction
+     */
+    private void compactBids(AuctionEntity auction) {
+        // Take the oldest bids
+        int chunkSize = this.compactionPolicy.getChunkSize(auction);
+        List<OfferEntity> oldest = auction.getBids().subList(0, chunkSize);
+
+        // Store the chunk, keeping the bids inline if that fails
+        BidChunkEntity chunk = new BidChunkEntity(auction.getId(), auction.getArchivedBidCount() / chunkSize, new ArrayList<>(oldest));
+        if (!this.auctionDao.storeBidChunk(chunk)) {
+            return;
+        }
+
+        // Remove the archived bids from the auction
+        oldest.clear();
+        auction.setArchivedBidCount(auction.getArchivedBidCount() + chunkSize);
+        auction.setBidChunkSize(chunkSize);
     }
 
     /**
@@ -229,4 +580,16 @@ public class DaprAuctionService implements AuctionService {
         // Successfully passed
         return OfferResponse.SUCCESS;
     }
+
+    /**
+     * Get the version tag of an auction.
+     * <p>
+     * The creation timestamp is included so a deleted and recreated auction never reuses a tag.
+     *
+     * @param auction the auction
+     * @return the version tag
+     */
+    private String versionOf(AuctionEntity auction) {
+        return auction.getVersion() + "-" + Long.toHexString(auction.getCreationTimestamp());
+    }
 }
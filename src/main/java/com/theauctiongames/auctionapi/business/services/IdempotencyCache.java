@@ -0,0 +1,313 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.IdempotencyRecordEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, time-to-live cache of completed offer results by idempotency key.
+ * <p>
+ * A retried request with the same key gets the original result instead of repeating the offer, and a
+ * retry that arrives while the original is still running waits for it. Server errors are not cached, so
+ * they can be retried. A key is bound to a fingerprint of the request it was first used with, and reusing
+ * it for a different request is rejected.
+ * <p>
+ * Results can optionally be persisted to the state store so retries that land on another replica are
+ * deduplicated too. The key is claimed in the store before the offer runs, so only one replica runs it.
+ */
+@Component
+public class IdempotencyCache {
+
+    /**
+     * The time to live in seconds of a claim on a key whose request is still running, so a replica that
+     * crashes mid-request does not hold the key for the full time to live.
+     */
+    private static final long CLAIM_TTL_SECONDS = 60;
+
+    /**
+     * The injected auction DAO.
+     */
+    private final AuctionDao auctionDao;
+
+    /**
+     * The injected object mapper, used to fingerprint requests.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * The time to live of a result in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * The maximum number of cached results.
+     */
+    private final int maxEntries;
+
+    /**
+     * Whether results are persisted to the state store.
+     */
+    private final boolean persist;
+
+    /**
+     * The cached results by scoped key.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Construct the idempotency cache.
+     *
+     * @param auctionDao the auction DAO
+     * @param mapper     the object mapper
+     * @param ttlSeconds the time to live of a result in seconds
+     * @param maxEntries the maximum number of cached results
+     * @param persist    whether results are persisted to the state store
+     */
+    public IdempotencyCache(AuctionDao auctionDao, ObjectMapper mapper,
+                            @Value("${auction.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                            @Value("${auction.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${auction.idempotency.persist:false}") boolean persist) {
+        this.auctionDao = auctionDao;
+        this.mapper = mapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.persist = persist;
+    }
+
+    /**
+     * Get the result of a completed offer with an idempotency key from this replica's cache, without
+     * waiting for one still running or reading the store.
+     *
+     * @param key     the client's idempotency key
+     * @param scope   the scope of the key, e.g. the operation and auction id
+     * @param request the request's payload, which must be the same on every retry
+     * @return the result of the original offer, or empty if it has not completed here
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     */
+    public Optional<OfferResponse> getCompleted(String key, String scope, Object request) {
+        Entry existing = this.entries.get(scope + ":" + key);
+        if (existing == null || existing.expiresAt <= System.currentTimeMillis() || !existing.result.isDone()
+                || existing.result.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(await(existing, key, fingerprint(request)));
+    }
+
+    /**
+     * Run an offer once per idempotency key.
+     *
+     * @param key     the client's idempotency key
+     * @param scope   the scope of the key, e.g. the operation and auction id
+     * @param request the request's payload, which must be the same on every retry
+     * @param offer   the offer to run
+     * @return the result of the original offer
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws IdempotencyKeyInUseException  if the original request is still running on another replica
+     */
+    public OfferResponse execute(String key, String scope, Object request, Supplier<OfferResponse> offer) {
+        String scopedKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+
+        // Return the cached or in-flight result
+        Entry existing = this.entries.get(scopedKey);
+        if (existing != null && existing.expiresAt > now) {
+            return await(existing, key, fingerprint);
+        }
+
+        // Claim the key, or wait for whoever claimed it first
+        Entry entry = new Entry(new CompletableFuture<>(), fingerprint, now + this.ttlMillis);
+        Entry claimed = this.entries.compute(scopedKey, (k, current) ->
+                current != null && current.expiresAt > now ? current : entry);
+        if (claimed != entry) {
+            return await(claimed, key, fingerprint);
+        }
+
+        // Keep the cache bounded
+        if (this.entries.size() > this.maxEntries) {
+            evict();
+        }
+
+        boolean claimedInStore = false;
+        try {
+            // Claim the key in the store, or take the result of the replica that claimed it
+            OfferResponse result = null;
+            if (this.persist) {
+                claimedInStore = this.auctionDao.claimIdempotencyRecord(
+                        new IdempotencyRecordEntity(scopedKey, fingerprint, null, now), CLAIM_TTL_SECONDS);
+                if (!claimedInStore) {
+                    result = findPersisted(scopedKey, key, fingerprint);
+                }
+            }
+
+            // Run the offer
+            if (result == null) {
+                result = offer.get();
+            }
+
+            // Let server errors be retried
+            if (result == OfferResponse.SERVER_ERROR) {
+                this.entries.remove(scopedKey, entry);
+                if (claimedInStore) {
+                    this.auctionDao.deleteIdempotencyRecord(scopedKey);
+                }
+            } else if (claimedInStore) {
+                this.auctionDao.storeIdempotencyRecord(
+                        new IdempotencyRecordEntity(scopedKey, fingerprint, result.name(), now),
+                        TimeUnit.MILLISECONDS.toSeconds(this.ttlMillis));
+            }
+
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException exception) {
+            // Release the key so the request can be retried
+            this.entries.remove(scopedKey, entry);
+            if (claimedInStore) {
+                releaseClaim(scopedKey);
+            }
+            entry.result.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Release a key claimed in the store, leaving the claim to expire if the store cannot be reached.
+     *
+     * @param scopedKey the scoped key
+     */
+    private void releaseClaim(String scopedKey) {
+        try {
+            this.auctionDao.deleteIdempotencyRecord(scopedKey);
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Fingerprint a request's payload.
+     *
+     * @param request the request's payload
+     * @return the SHA-256 hash of its json in hex
+     */
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(this.mapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Wait for the result of another request with the same key, failing the same way it failed.
+     *
+     * @param entry       the cached or in-flight result
+     * @param key         the client's idempotency key
+     * @param fingerprint the fingerprint of the retried request
+     * @return the result
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     */
+    private static OfferResponse await(Entry entry, String key, String fingerprint) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+
+        try {
+            return entry.result.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Find the result of a request that claimed the key on another replica.
+     *
+     * @param scopedKey   the scoped key
+     * @param key         the client's idempotency key
+     * @param fingerprint the fingerprint of the retried request
+     * @return the persisted result
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws IdempotencyKeyInUseException  if the request has not completed, or its claim was just released
+     */
+    private OfferResponse findPersisted(String scopedKey, String key, String fingerprint) {
+        Optional<IdempotencyRecordEntity> record = this.auctionDao.getIdempotencyRecord(scopedKey);
+        if (record.isPresent() && !fingerprint.equals(record.get().getFingerprint())) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        if (record.isEmpty() || record.get().getResult() == null) {
+            throw new IdempotencyKeyInUseException(key);
+        }
+
+        return OfferResponse.valueOf(record.get().getResult());
+    }
+
+    /**
+     * Drop expired results, then the oldest results until the cache is back under its bound.
+     */
+    private synchronized void evict() {
+        long now = System.currentTimeMillis();
+        this.entries.values().removeIf(entry -> entry.expiresAt <= now && entry.result.isDone());
+
+        // Drop the oldest completed results, leaving some headroom
+        int excess = this.entries.size() - this.maxEntries * 9 / 10;
+        if (excess > 0) {
+            this.entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().result.isDone())
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this.entries::remove);
+        }
+    }
+
+    /**
+     * Periodically drop expired results.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        this.entries.values().removeIf(entry -> entry.expiresAt <= now && entry.result.isDone());
+    }
+
+    /**
+     * A cached or in-flight result.
+     */
+    private static final class Entry {
+        private final CompletableFuture<OfferResponse> result;
+        private final String fingerprint;
+        private final long expiresAt;
+
+        /**
+         * Construct a cache entry.
+         *
+         * @param result      the result
+         * @param fingerprint the fingerprint of the request
+         * @param expiresAt   the timestamp the result expires at
+         */
+        private Entry(CompletableFuture<OfferResponse> result, String fingerprint, long expiresAt) {
+            this.result = result;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.theauctiongames.auctionapi.business.services;
+
+/**
+ * An exception thrown when the original request with an idempotency key is still running on another replica.
+ */
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    /**
+     * Construct the exception.
+     *
+     * @param key the idempotency key in use
+     */
+    public IdempotencyKeyInUseException(String key) {
+        super("Idempotency key " + key + " is in use by a request that has not completed");
+    }
+}
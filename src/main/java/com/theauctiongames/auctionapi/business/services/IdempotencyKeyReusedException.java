@@ -0,0 +1,16 @@
+package com.theauctiongames.auctionapi.business.services;
+
+/**
+ * An exception thrown when an idempotency key is reused for a different request.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Construct the exception.
+     *
+     * @param key the reused idempotency key
+     */
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key " + key + " was used for a different request");
+    }
+}
@@ -0,0 +1,94 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import com.theauctiongames.auctionapi.data.entities.ProxyBidEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves the standing proxy bids on an auction in memory.
+ * <p>
+ * Rather than replaying a bidding war one increment at a time, the engine jumps straight to its outcome:
+ * the strongest other proxy bids its maximum, and the strongest proxy outbids that by its increment,
+ * capped at its own maximum. Equal maximums go to the proxy placed first. The caller stores the resulting
+ * bids with the auction in a single write.
+ */
+final class ProxyBidEngine {
+
+    /**
+     * The order proxies compete in, highest maximum first, then earliest.
+     */
+    private static final Comparator<ProxyBidEntity> STRONGEST = Comparator
+            .comparingDouble((ProxyBidEntity proxy) -> -proxy.getMaxPrice())
+            .thenComparingLong(ProxyBidEntity::getCreationTimestamp);
+
+    /**
+     * Prevent instantiation.
+     */
+    private ProxyBidEngine() {
+    }
+
+    /**
+     * Resolve an auction's proxy bids against its current bids, appending the resulting bids to the auction
+     * and dropping proxies that have been outbid.
+     *
+     * @param auction the auction
+     * @param now     the timestamp of the resulting bids
+     * @return the bids added to the auction, oldest first
+     */
+    static List<OfferEntity> resolve(AuctionEntity auction, long now) {
+        List<OfferEntity> added = new ArrayList<>();
+        List<ProxyBidEntity> proxies = auction.getProxyBids();
+        if (proxies == null || proxies.isEmpty()) {
+            return added;
+        }
+
+        // Find the current price and leader
+        List<OfferEntity> bids = auction.getBids();
+        OfferEntity last = bids.isEmpty() ? null : bids.get(bids.size() - 1);
+        String leader = last == null ? null : last.getUserId();
+
+        // Only proxies that can still place a valid bid compete
+        List<ProxyBidEntity> active = new ArrayList<>();
+        for (ProxyBidEntity proxy : proxies) {
+            if (last == null ? proxy.getMaxPrice() >= auction.getStartBid() : proxy.getMaxPrice() > last.getPrice()) {
+                active.add(proxy);
+            }
+        }
+        active.sort(STRONGEST);
+
+        if (!active.isEmpty()) {
+            ProxyBidEntity top = active.get(0);
+            ProxyBidEntity challenger = active.stream()
+                    .filter(proxy -> !proxy.getUserId().equals(top.getUserId()))
+                    .findFirst()
+                    .orElse(null);
+
+            if (challenger != null) {
+                // The challenger bids its maximum, unless it ties the top proxy, which was placed first
+                if (challenger.getMaxPrice() < top.getMaxPrice()) {
+                    added.add(new OfferEntity(challenger.getUserId(), challenger.getMaxPrice(), now));
+                }
+                added.add(new OfferEntity(top.getUserId(), Math.min(top.getMaxPrice(), challenger.getMaxPrice() + top.getIncrement()), now));
+            } else if (last == null) {
+                // Open the auction at the starting price
+                added.add(new OfferEntity(top.getUserId(), auction.getStartBid(), now));
+            } else if (!top.getUserId().equals(leader)) {
+                // Outbid the current leader
+                added.add(new OfferEntity(top.getUserId(), Math.min(top.getMaxPrice(), last.getPrice() + top.getIncrement()), now));
+            }
+        }
+
+        // Append the bids and drop the proxies they outbid
+        bids.addAll(added);
+        if (!bids.isEmpty()) {
+            OfferEntity result = bids.get(bids.size() - 1);
+            proxies.removeIf(proxy -> proxy.getMaxPrice() <= result.getPrice() && !proxy.getUserId().equals(result.getUserId()));
+        }
+
+        return added;
+    }
+}
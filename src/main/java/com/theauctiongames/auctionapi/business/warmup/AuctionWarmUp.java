@@ -0,0 +1,161 @@
+package com.theauctiongames.auctionapi.business.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.business.models.RankedAuctionModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
+import com.theauctiongames.auctionapi.business.rankings.AuctionRankings;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Warms up the request paths on startup, before the application reports it is ready.
+ * <p>
+ * Runs after the catalog is loaded, reading the auctions that end soonest, which are the ones about to
+ * get the most traffic, through the same service, DAO, codec and JSON paths a request takes. This fills
+ * the connection pool and the JIT's profiles, and any read-through caches, so the first real requests do
+ * not pay for it. Failures are printed and never stop the application from starting.
+ */
+@Component
+@Order(AuctionWarmUp.ORDER)
+public class AuctionWarmUp implements ApplicationRunner {
+
+    /**
+     * The order of the warm-up among the startup runners, after the catalog loader.
+     */
+    public static final int ORDER = 100;
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionWarmUp.class);
+
+    /**
+     * The number of bids read per auction.
+     */
+    private static final int BID_PAGE_SIZE = 100;
+
+    /**
+     * The injected auction service.
+     */
+    private final AuctionService service;
+
+    /**
+     * The injected auction rankings.
+     */
+    private final AuctionRankings rankings;
+
+    /**
+     * The injected json object mapper.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Whether to warm up on startup.
+     */
+    private final boolean enabled;
+
+    /**
+     * The number of soon to expire auctions to read.
+     */
+    private final int auctions;
+
+    /**
+     * The number of passes over the auctions.
+     */
+    private final int rounds;
+
+    /**
+     * The longest the warm-up may take in milliseconds.
+     */
+    private final long maxMillis;
+
+    /**
+     * Construct the auction warm-up.
+     *
+     * @param service   the auction service
+     * @param rankings  the auction rankings
+     * @param mapper    the json object mapper
+     * @param enabled   whether to warm up on startup
+     * @param auctions  the number of soon to expire auctions to read
+     * @param rounds    the number of passes over the auctions
+     * @param maxMillis the longest the warm-up may take in milliseconds
+     */
+    public AuctionWarmUp(AuctionService service, AuctionRankings rankings, ObjectMapper mapper,
+                         @Value("${auction.warmup.enabled:true}") boolean enabled,
+                         @Value("${auction.warmup.auctions:50}") int auctions,
+                         @Value("${auction.warmup.rounds:3}") int rounds,
+                         @Value("${auction.warmup.max-millis:20000}") long maxMillis) {
+        this.service = service;
+        this.rankings = rankings;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.auctions = auctions;
+        this.rounds = rounds;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Warm up on startup.
+     *
+     * @param args the application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!this.enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = start + this.maxMillis;
+        int reads = 0;
+
+        try {
+            // Read the auctions about to get the most traffic
+            List<RankedAuctionModel> endingSoon = this.rankings.getEndingSoon(this.auctions);
+            for (int round = 0; round < this.rounds; round++) {
+                for (RankedAuctionModel auction : endingSoon) {
+                    if (System.currentTimeMillis() > deadline) {
+                        break;
+                    }
+                    warm(auction.getId());
+                    reads++;
+                }
+            }
+
+            // Exercise the listing path
+            this.mapper.writeValueAsBytes(endingSoon);
+        } catch (Exception exception) {
+            // Print the error, serving cold is better than not serving
+            exception.printStackTrace();
+        }
+
+        LOGGER.info("Warmed up {} auction reads in {}ms", reads, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Read an auction and its latest bids and serialize them as a request would.
+     *
+     * @param id the auction id
+     * @throws Exception if a read or serialization failed
+     */
+    private void warm(String id) throws Exception {
+        Optional<? extends Versioned<?>> auction = this.service.getVersionedAuctionById(id);
+        if (auction.isPresent()) {
+            this.mapper.writeValueAsBytes(auction.get().get());
+        }
+
+        Optional<? extends Versioned<?>> bids = this.service.getVersionedBidsForAuction(id, BID_PAGE_SIZE, null);
+        if (bids.isPresent()) {
+            this.mapper.writeValueAsBytes(bids.get().get());
+        }
+    }
+}
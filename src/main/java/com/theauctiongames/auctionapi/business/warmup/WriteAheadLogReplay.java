@@ -0,0 +1,121 @@
+package com.theauctiongames.auctionapi.business.warmup;
+
+import com.theauctiongames.auctionapi.business.events.AuctionCatalogLoader;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.OfferResponse;
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import com.theauctiongames.auctionapi.data.wal.WalRecord;
+import com.theauctiongames.auctionapi.data.wal.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replays the offers the previous run logged but never heard back from the store about, before the catalog
+ * is loaded and the application reports it is ready.
+ * <p>
+ * Offers are replayed through the auction service, so each is validated again against the stored auction:
+ * an offer that was stored before the crash is rejected as too low or already purchased, and one the
+ * auction can no longer take is dropped. Offers keep the time they were logged at, so replayed bids and
+ * proxy bids are ordered as they were accepted. If the store is unavailable, the log is kept for the next
+ * start.
+ */
+@Component
+@Order(WriteAheadLogReplay.ORDER)
+public class WriteAheadLogReplay implements ApplicationRunner {
+
+    /**
+     * The order of the replay among the startup runners, before the catalog loader.
+     */
+    public static final int ORDER = AuctionCatalogLoader.ORDER - 100;
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLogReplay.class);
+
+    /**
+     * The injected auction service.
+     */
+    private final AuctionService service;
+
+    /**
+     * The injected write-ahead log.
+     */
+    private final WriteAheadLog writeAheadLog;
+
+    /**
+     * Construct the write-ahead log replay.
+     *
+     * @param service       the auction service
+     * @param writeAheadLog the write-ahead log
+     */
+    public WriteAheadLogReplay(AuctionService service, WriteAheadLog writeAheadLog) {
+        this.service = service;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    /**
+     * Replay the previous run's unconfirmed offers on startup.
+     *
+     * @param args the application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        List<WalRecord> records = this.writeAheadLog.getRecovered();
+        if (records.isEmpty()) {
+            return;
+        }
+
+        int stored = 0;
+        try {
+            // Replay the offers in the order they were accepted
+            for (WalRecord record : records) {
+                if (replay(record) == OfferResponse.SUCCESS) {
+                    stored++;
+                }
+            }
+
+            // Every offer was answered, the previous run's log is no longer needed
+            this.writeAheadLog.discardRecovered();
+        } catch (StoreUnavailableException exception) {
+            // Keep the log, start degraded rather than not at all
+            exception.printStackTrace();
+        }
+
+        LOGGER.info("Replayed {} logged offers, {} were not yet stored", records.size(), stored);
+    }
+
+    /**
+     * Replay a logged offer.
+     *
+     * @param record the logged offer
+     * @return the offer response
+     */
+    private OfferResponse replay(WalRecord record) {
+        try {
+            return switch (record.getType()) {
+                case BID -> this.service.addBidToAuction(record.getAuctionId(),
+                        new OfferModel(record.getUserId(), record.getPrice(), record.getTimestamp()));
+                case PURCHASE -> this.service.purchaseAuction(record.getAuctionId(),
+                        new OfferModel(record.getUserId(), record.getPrice(), record.getTimestamp()));
+                case PROXY_BID -> this.service.placeProxyBid(record.getAuctionId(),
+                        new ProxyBidModel(record.getUserId(), record.getPrice(), record.getIncrement(), record.getTimestamp()));
+                case CONFIRM -> OfferResponse.SUCCESS;
+            };
+        } catch (StoreUnavailableException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            // Print the error and move on to the next offer
+            exception.printStackTrace();
+            return OfferResponse.SERVER_ERROR;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.theauctiongames.auctionapi.config;
+
+import com.theauctiongames.auctionapi.business.models.AuctionChangeModel;
+import com.theauctiongames.auctionapi.business.models.AuctionChangesModel;
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
+import com.theauctiongames.auctionapi.business.models.BidStatisticsModel;
+import com.theauctiongames.auctionapi.business.models.BidVolumeModel;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.models.RankedAuctionModel;
+import com.theauctiongames.auctionapi.business.models.SearchResultModel;
+import com.theauctiongames.auctionapi.business.models.UserBidModel;
+import com.theauctiongames.auctionapi.data.daos.DaprAuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.IdempotencyRecordEntity;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import com.theauctiongames.auctionapi.data.entities.ProxyBidEntity;
+import com.theauctiongames.auctionapi.data.entities.SellerIndexEntity;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image.
+ * <p>
+ * Entities are read and written by the codecs and models by the controllers, all through Jackson, which
+ * the ahead-of-time processing cannot see through since the controllers return wildcard responses.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * The classes serialized with Jackson.
+     */
+    private static final List<Class<?>> SERIALIZED = List.of(
+            AuctionEntity.class, OfferEntity.class, BidChunkEntity.class, SellerIndexEntity.class,
+            IdempotencyRecordEntity.class, ProxyBidEntity.class, ImageEntity.class, AuctionModel.class,
+            OfferModel.class, ProxyBidModel.class, AuctionChangeModel.class, AuctionChangesModel.class,
+            BidPageModel.class, BidStatisticsModel.class, BidVolumeModel.class, RankedAuctionModel.class,
+            SearchResultModel.class, UserBidModel.class);
+
+    /**
+     * The private sidecar response classes of the DAO.
+     */
+    private static final List<String> SIDECAR_RESPONSES = List.of("DaprResponse", "ResponseEntry", "BulkEntry");
+
+    /**
+     * Register the hints.
+     *
+     * @param hints       the runtime hints
+     * @param classLoader the class loader
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : SERIALIZED) {
+            hints.reflection().registerType(type, MemberCategory.values());
+        }
+        for (String response : SIDECAR_RESPONSES) {
+            hints.reflection().registerType(TypeReference.of(DaprAuctionDao.class.getName() + "$" + response), MemberCategory.values());
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.theauctiongames.auctionapi.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -8,6 +11,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * The spring configuration class.
  */
 @Configuration
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class SpringConfig implements WebMvcConfigurer {
 
     /**
@@ -20,6 +25,7 @@ public class SpringConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins("*")
                 .allowedMethods("*")
-                .allowedHeaders("*");
+                .allowedHeaders("*")
+                .exposedHeaders(HttpHeaders.ETAG, HttpHeaders.LINK, HttpHeaders.RETRY_AFTER);
     }
 }
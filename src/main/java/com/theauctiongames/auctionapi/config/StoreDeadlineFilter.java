@@ -0,0 +1,64 @@
+package com.theauctiongames.auctionapi.config;
+
+import com.theauctiongames.auctionapi.data.resilience.StoreLane;
+import com.theauctiongames.auctionapi.data.resilience.StoreRequestContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives every request a deadline for its state store calls and puts bids and purchases in their own lane.
+ */
+@Component
+public class StoreDeadlineFilter extends OncePerRequestFilter {
+
+    /**
+     * The time budget of a request in milliseconds.
+     */
+    private final long deadlineMillis;
+
+    /**
+     * Construct the store deadline filter.
+     *
+     * @param deadlineMillis the time budget of a request in milliseconds
+     */
+    public StoreDeadlineFilter(@Value("${auction.store.request-deadline-millis:3000}") long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Run the request within its deadline and lane.
+     *
+     * @param request  the request
+     * @param response the response
+     * @param chain    the filter chain
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StoreRequestContext.begin(this.deadlineMillis, isOffer(request) ? StoreLane.OFFER : StoreLane.READ);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StoreRequestContext.end();
+        }
+    }
+
+    /**
+     * Check whether a request is a bid or a purchase.
+     *
+     * @param request the request
+     * @return true if the request is a bid or a purchase, false otherwise
+     */
+    private static boolean isOffer(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return HttpMethod.POST.matches(request.getMethod()) && (uri.endsWith("/bids") || uri.endsWith("/purchase"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.theauctiongames.auctionapi.data.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bounded, in-process cache of encoded auctions by id.
+ * <p>
+ * Values are kept encoded so every read decodes its own copy that callers are free to change. Every entry
+ * carries the auction's version and is only ever replaced by a newer version, so a slow read cannot overwrite
+ * a newer write. Versions are written with the etag they were read at, so each is stored once, and a cached
+ * version is never replaced by other contents under the same number. An invalidation leaves a marker with the newer version behind, so the
+ * auction is read from the store again and older values are refused until the newer one is seen.
+ * <p>
+ * Invalidations can be lost, so entries and markers are only kept for a maximum staleness. An auction
+ * written elsewhere is then served stale for at most that long, and an id deleted and created again is
+ * cached again once the deletion marker expires.
+ */
+@Component
+public class AuctionCache {
+
+    /**
+     * Whether the cache is enabled.
+     */
+    private final boolean enabled;
+
+    /**
+     * The time in milliseconds an entry is kept before it is read from the store again.
+     */
+    private final long maxStalenessMillis;
+
+    /**
+     * The cached entries by auction id, least recently used first, guarded by the cache.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Construct the auction cache.
+     *
+     * @param enabled            whether the cache is enabled
+     * @param maxEntries         the maximum number of cached auctions
+     * @param maxStalenessMillis the time in milliseconds an entry is kept before it is read again
+     */
+    public AuctionCache(@Value("${auction.cache.enabled:false}") boolean enabled,
+                        @Value("${auction.cache.max-entries:10000}") int maxEntries,
+                        @Value("${auction.cache.max-staleness-millis:30000}") long maxStalenessMillis) {
+        this.enabled = enabled;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Check whether the cache is enabled.
+     *
+     * @return true if the cache is enabled, false otherwise
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Get a cached auction.
+     *
+     * @param id the auction id
+     * @return the encoded auction, or empty if it is not cached or was invalidated
+     */
+    public synchronized Optional<byte[]> get(String id) {
+        Entry entry = getFresh(id);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.value);
+    }
+
+    /**
+     * Cache an auction, unless the same or a newer version is already cached or a newer one is known.
+     *
+     * @param id      the auction id
+     * @param version the auction's version
+     * @param value   the encoded auction
+     */
+    public synchronized void put(String id, long version, byte[] value) {
+        if (!this.enabled) {
+            return;
+        }
+
+        Entry entry = getFresh(id);
+        if (entry == null || version > entry.version || (version == entry.version && entry.value == null)) {
+            this.entries.put(id, new Entry(version, value));
+        }
+    }
+
+    /**
+     * Invalidate an auction once a newer version was written elsewhere.
+     *
+     * @param id      the auction id
+     * @param version the newer version
+     * @return true if the cached auction was older and was invalidated, false if the message was stale
+     */
+    public synchronized boolean invalidate(String id, long version) {
+        if (!this.enabled) {
+            return false;
+        }
+
+        // Ignore messages that arrive after a newer version was already seen
+        Entry entry = getFresh(id);
+        if (entry != null && entry.version >= version) {
+            return false;
+        }
+
+        // Leave a marker so older values are refused
+        this.entries.put(id, new Entry(version, null));
+        return true;
+    }
+
+    /**
+     * Remove a deleted auction.
+     *
+     * @param id the auction id
+     */
+    public synchronized void remove(String id) {
+        this.entries.remove(id);
+    }
+
+    /**
+     * Get an entry, dropping it if it is older than the maximum staleness.
+     *
+     * @param id the auction id
+     * @return the entry, or null if there is none or it expired
+     */
+    private Entry getFresh(String id) {
+        Entry entry = this.entries.get(id);
+        if (entry != null && System.currentTimeMillis() - entry.cachedTimestamp > this.maxStalenessMillis) {
+            this.entries.remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * A cached auction, or an invalidation marker if the value is null.
+     */
+    private static final class Entry {
+        private final long version;
+        private final byte[] value;
+        private final long cachedTimestamp = System.currentTimeMillis();
+
+        /**
+         * Construct a cache entry.
+         *
+         * @param version the auction's version
+         * @param value   the encoded auction, or null for an invalidation marker
+         */
+        private Entry(long version, byte[] value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.theauctiongames.auctionapi.data.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A local application event for an auction written by another replica.
+ */
+@Getter
+@AllArgsConstructor
+public class AuctionInvalidatedEvent {
+
+    /**
+     * The auction id.
+     */
+    private final String auctionId;
+
+    /**
+     * The version that was written, or -1 if the auction was deleted.
+     */
+    private final long version;
+}
@@ -0,0 +1,201 @@
+package com.theauctiongames.auctionapi.data.cache;
+
+import com.theauctiongames.auctionapi.tracing.SidecarTracingInterceptor;
+import io.opentelemetry.context.Context;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-memory auction state of all replicas consistent over Dapr pub/sub.
+ * <p>
+ * Every auction write publishes the auction id and its new version, and every replica invalidates its
+ * cached copy if it is older and drops any other state it keeps of the auction, e.g. the bid fast path's.
+ * Invalidations are sent whether or not the cache is enabled. Messages are small and published off the
+ * request thread; if the sidecar falls behind the oldest unsent messages are dropped. Delivery is not
+ * guaranteed either, so a replica that misses a message serves its stale copy until the maximum staleness
+ * of the cache, or the maximum age of the bid fast path's state, passes, or the next write.
+ */
+@Component
+public class AuctionInvalidationBus {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionInvalidationBus.class);
+
+    /**
+     * The timeout of a publish in milliseconds.
+     */
+    private static final int PUBLISH_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * The id of this replica, so it can skip its own messages.
+     */
+    private final String replicaId = UUID.randomUUID().toString();
+
+    /**
+     * The injected auction cache.
+     */
+    private final AuctionCache cache;
+
+    /**
+     * Whether invalidations are sent and received.
+     */
+    private final boolean enabled;
+
+    /**
+     * The injected event publisher.
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * The pub/sub component name.
+     */
+    private final String pubsubName;
+
+    /**
+     * The topic invalidations are published on.
+     */
+    private final String topic;
+
+    /**
+     * The publish URL.
+     */
+    private final String publishUrl;
+
+    /**
+     * The interceptor tracing calls to the sidecar.
+     */
+    private final SidecarTracingInterceptor tracingInterceptor;
+
+    /**
+     * The executor sending messages.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Construct the auction invalidation bus.
+     *
+     * @param cache              the auction cache
+     * @param enabled            whether invalidations are sent and received
+     * @param publisher          the event publisher
+     * @param pubsubName         the pub/sub component name
+     * @param topic              the topic invalidations are published on
+     * @param tracingInterceptor the interceptor tracing calls to the sidecar
+     */
+    public AuctionInvalidationBus(AuctionCache cache, @Value("${auction.invalidation.enabled:true}") boolean enabled,
+                                  ApplicationEventPublisher publisher,
+                                  @Value("${auction.invalidation.pubsub-name:auction-pubsub}") String pubsubName,
+                                  @Value("${auction.invalidation.topic:auction-invalidations}") String topic,
+                                  SidecarTracingInterceptor tracingInterceptor) {
+        this.cache = cache;
+        this.enabled = enabled;
+        this.publisher = publisher;
+        this.pubsubName = pubsubName;
+        this.topic = topic;
+        this.tracingInterceptor = tracingInterceptor;
+        this.publishUrl = "http://localhost:" + System.getenv("SIDECAR_PORT") + "/v1.0/publish/" + pubsubName + "/" + topic;
+
+        // Send on a single daemon thread, dropping the oldest messages when the queue is full
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10_000), runnable -> {
+            Thread thread = new Thread(runnable, "auction-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy() {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                LOGGER.warn("Invalidation queue is full, dropping the oldest unsent invalidation");
+                super.rejectedExecution(runnable, executor);
+            }
+        });
+    }
+
+    /**
+     * Get the subscriptions for Dapr to deliver invalidations to.
+     *
+     * @param route the route invalidations are delivered to
+     * @return the subscriptions, empty if invalidations are disabled
+     */
+    public List<Map<String, String>> getSubscriptions(String route) {
+        if (!this.enabled) {
+            return List.of();
+        }
+        return List.of(Map.of("pubsubname", this.pubsubName, "topic", this.topic, "route", route));
+    }
+
+    /**
+     * Tell the other replicas an auction was written.
+     *
+     * @param auctionId the auction id
+     * @param version   the version written
+     * @param deleted   whether the auction was deleted
+     */
+    public void publish(String auctionId, long version, boolean deleted) {
+        if (!this.enabled) {
+            return;
+        }
+
+        JSONObject message = new JSONObject()
+                .put("auctionId", auctionId)
+                .put("version", version)
+                .put("deleted", deleted)
+                .put("origin", this.replicaId);
+
+        this.executor.execute(Context.current().wrap(() -> {
+            try {
+                // Create the template
+                SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+                factory.setConnectTimeout(PUBLISH_TIMEOUT_MILLIS);
+                factory.setReadTimeout(PUBLISH_TIMEOUT_MILLIS);
+                RestTemplate template = new RestTemplate(factory);
+                template.getInterceptors().add(this.tracingInterceptor);
+
+                // Set request header
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+
+                // Send request
+                template.postForEntity(this.publishUrl, new HttpEntity<>(message.toString(), headers), String.class);
+            } catch (Exception exception) {
+                // Log the error, the other replicas' copies expire after their maximum staleness
+                LOGGER.warn("Failed to publish the invalidation of auction {} at version {}", auctionId, version, exception);
+            }
+        }));
+    }
+
+    /**
+     * Apply an invalidation from another replica.
+     *
+     * @param message the invalidation message
+     */
+    public void onMessage(InvalidationMessage message) {
+        // Skip this replica's own writes, they are already cached
+        if (this.replicaId.equals(message.getOrigin())) {
+            return;
+        }
+
+        // Invalidate older cached copies, refusing every copy of a deleted auction
+        long version = message.isDeleted() ? Long.MAX_VALUE : message.getVersion();
+        this.cache.invalidate(message.getAuctionId(), version);
+
+        // Let the other in-memory state check the version itself, it does not depend on the cache
+        this.publisher.publishEvent(new AuctionInvalidatedEvent(message.getAuctionId(), message.isDeleted() ? -1 : version));
+    }
+}
@@ -0,0 +1,36 @@
+package com.theauctiongames.auctionapi.data.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A message telling other replicas that an auction was written.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidationMessage {
+
+    /**
+     * The auction id.
+     */
+    private String auctionId;
+
+    /**
+     * The version that was written.
+     */
+    private long version;
+
+    /**
+     * Whether the auction was deleted.
+     */
+    private boolean deleted;
+
+    /**
+     * The id of the replica that wrote the auction.
+     */
+    private String origin;
+}
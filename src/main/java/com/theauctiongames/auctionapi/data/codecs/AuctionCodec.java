@@ -0,0 +1,37 @@
+package com.theauctiongames.auctionapi.data.codecs;
+
+import java.io.IOException;
+
+/**
+ * A codec for encoding auction entities, and the other values stored alongside them, to and from their
+ * stored binary form.
+ */
+public interface AuctionCodec {
+
+    /**
+     * Get the name of the codec, used to tag stored values.
+     *
+     * @return the codec name
+     */
+    String getName();
+
+    /**
+     * Encode a stored value.
+     *
+     * @param value the value
+     * @return the encoded bytes
+     * @throws IOException if the value could not be encoded
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decode a stored value.
+     *
+     * @param bytes the encoded bytes
+     * @param type  the value type
+     * @param <T>   the value type
+     * @return the value
+     * @throws IOException if the value could not be decoded
+     */
+    <T> T decode(byte[] bytes, Class<T> type) throws IOException;
+}
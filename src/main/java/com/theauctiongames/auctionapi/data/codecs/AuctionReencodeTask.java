@@ -0,0 +1,71 @@
+package com.theauctiongames.auctionapi.data.codecs;
+
+import com.theauctiongames.auctionapi.data.daos.DaprAuctionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * A background task for migrating stored auctions to the configured codec.
+ */
+@Component
+public class AuctionReencodeTask {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionReencodeTask.class);
+
+    /**
+     * The injected dapr auction DAO.
+     */
+    private final DaprAuctionDao auctionDao;
+
+    /**
+     * Whether to re-encode stored auctions once the application is ready.
+     */
+    private final boolean enabled;
+
+    /**
+     * Construct the auction re-encode task.
+     *
+     * @param auctionDao the dapr auction DAO
+     * @param enabled    whether to re-encode on startup
+     */
+    public AuctionReencodeTask(DaprAuctionDao auctionDao,
+                               @Value("${auction.codec.reencode-on-startup:false}") boolean enabled) {
+        this.auctionDao = auctionDao;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start re-encoding in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!this.enabled) {
+            return;
+        }
+
+        // Re-encode off the startup thread so serving is never delayed
+        Thread thread = new Thread(this::run, "auction-reencode");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Re-encode all stored auctions.
+     */
+    public void run() {
+        try {
+            int reencoded = this.auctionDao.reencodeAuctions();
+            LOGGER.info("Re-encoded {} auctions", reencoded);
+        } catch (Exception exception) {
+            // Print the error, the next startup will retry
+            exception.printStackTrace();
+        }
+    }
+}
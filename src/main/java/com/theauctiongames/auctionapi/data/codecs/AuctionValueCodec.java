@@ -0,0 +1,225 @@
+package com.theauctiongames.auctionapi.data.codecs;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Encodes auction entities, and the values stored alongside them, into state store values using the
+ * configured codec.
+ * <p>
+ * Values written with the json codec are stored as the plain entity, exactly as before codecs existed.
+ * Values written with a binary codec are stored as a small envelope tagged with the codec name, so reads
+ * can decode any value regardless of which codec was configured when it was written.
+ * <p>
+ * The sidecar's state API only accepts json values, so the envelope carries the binary payload in base64.
+ * When that costs more than the binary codec saves, e.g. for values dominated by image data, the value is
+ * stored as plain json instead.
+ */
+@Component
+public class AuctionValueCodec {
+
+    /**
+     * The envelope field holding the codec name.
+     */
+    public static final String CODEC_FIELD = "_codec";
+
+    /**
+     * The envelope field holding the base64 encoded payload.
+     */
+    public static final String DATA_FIELD = "_data";
+
+    /**
+     * The available codecs by name.
+     */
+    private final Map<String, AuctionCodec> codecs;
+
+    /**
+     * The codec used for writing.
+     */
+    private final AuctionCodec writeCodec;
+
+    /**
+     * The json codec, used for plain values.
+     */
+    private final AuctionCodec jsonCodec;
+
+    /**
+     * The mapper used for reading plain json values.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Construct the auction value codec.
+     *
+     * @param codecName the name of the codec used for writing
+     */
+    public AuctionValueCodec(@Value("${auction.codec:json}") String codecName) {
+        // Register the available codecs
+        JacksonAuctionCodec json = JacksonAuctionCodec.json();
+        this.codecs = Map.of(
+                JacksonAuctionCodec.JSON, json,
+                JacksonAuctionCodec.SMILE, JacksonAuctionCodec.smile(),
+                JacksonAuctionCodec.CBOR, JacksonAuctionCodec.cbor()
+        );
+
+        this.jsonCodec = json;
+
+        // Confirm the configured codec exists
+        this.writeCodec = this.codecs.get(codecName.toLowerCase());
+        if (this.writeCodec == null) {
+            throw new IllegalArgumentException("Unknown auction codec: " + codecName);
+        }
+
+        // Set up the mapper for plain values, tolerating fields written by newer versions of the entity
+        this.mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Get the name of the codec used for writing.
+     *
+     * @return the codec name
+     */
+    public String getWriteCodecName() {
+        return this.writeCodec.getName();
+    }
+
+    /**
+     * Get a codec by name.
+     *
+     * @param name the codec name
+     * @return the codec
+     * @throws IOException if there is no codec with the name
+     */
+    public AuctionCodec getCodec(String name) throws IOException {
+        AuctionCodec codec = this.codecs.get(name);
+        if (codec == null) {
+            throw new IOException("Unknown auction codec: " + name);
+        }
+        return codec;
+    }
+
+    /**
+     * Encode a value into the json text of a state store value.
+     *
+     * @param value the value, usually an auction entity
+     * @return the json text of the value
+     * @throws IOException if the value could not be encoded
+     */
+    public String encode(Object value) throws IOException {
+        // Plain json is stored untagged for compatibility
+        String json = new String(this.jsonCodec.encode(value));
+        if (this.writeCodec == this.jsonCodec) {
+            return json;
+        }
+
+        // Keep the plain json if the base64 encoded payload would not be smaller
+        String payload = smallerPayload(value, json);
+        if (payload == null) {
+            return json;
+        }
+
+        // Wrap the binary payload in a tagged envelope
+        JSONObject envelope = new JSONObject();
+        envelope.put(CODEC_FIELD, this.writeCodec.getName());
+        envelope.put(DATA_FIELD, payload);
+        return envelope.toString();
+    }
+
+    /**
+     * Decode a state store value into an auction entity.
+     *
+     * @param value the state store value
+     * @return the auction entity
+     * @throws IOException if the auction could not be decoded
+     */
+    public AuctionEntity decode(JsonNode value) throws IOException {
+        return decode(value, AuctionEntity.class);
+    }
+
+    /**
+     * Decode a state store value.
+     *
+     * @param value the state store value
+     * @param type  the value type
+     * @param <T>   the value type
+     * @return the value
+     * @throws IOException if the value could not be decoded
+     */
+    public <T> T decode(JsonNode value, Class<T> type) throws IOException {
+        // Untagged values are plain json
+        if (!value.has(CODEC_FIELD)) {
+            return this.mapper.treeToValue(value, type);
+        }
+
+        // Look up the codec the value was written with
+        AuctionCodec codec = this.codecs.get(value.get(CODEC_FIELD).asText());
+        if (codec == null) {
+            throw new IOException("Unknown auction codec: " + value.get(CODEC_FIELD).asText());
+        }
+
+        // Decode the payload
+        return codec.decode(Base64.getDecoder().decode(value.get(DATA_FIELD).asText()), type);
+    }
+
+    /**
+     * Decode the raw bytes of a state store value into an auction entity.
+     *
+     * @param value the raw state store value
+     * @return the auction entity
+     * @throws IOException if the auction could not be decoded
+     */
+    public AuctionEntity decode(byte[] value) throws IOException {
+        return decode(value, AuctionEntity.class);
+    }
+
+    /**
+     * Decode the raw bytes of a state store value.
+     *
+     * @param value the raw state store value
+     * @param type  the value type
+     * @param <T>   the value type
+     * @return the value
+     * @throws IOException if the value could not be decoded
+     */
+    public <T> T decode(byte[] value, Class<T> type) throws IOException {
+        return decode(this.mapper.readTree(value), type);
+    }
+
+    /**
+     * Check if a state store value is stored the way the codec currently used for writing would store it.
+     *
+     * @param value the state store value
+     * @return true if the value is already in the write codec, or plain json the write codec would keep
+     * @throws IOException if the value could not be encoded
+     */
+    public boolean isWriteCodec(JsonNode value) throws IOException {
+        if (value.has(CODEC_FIELD)) {
+            return value.get(CODEC_FIELD).asText().equals(this.writeCodec.getName());
+        }
+
+        // Plain json is current if writing it again would keep it plain
+        return this.writeCodec == this.jsonCodec || smallerPayload(value, value.toString()) == null;
+    }
+
+    /**
+     * Encode a value with the write codec, if the base64 encoded payload is smaller than its plain json.
+     *
+     * @param value the value
+     * @param json  the plain json of the value
+     * @return the base64 encoded payload, or null if the plain json is not larger
+     * @throws IOException if the value could not be encoded
+     */
+    private String smallerPayload(Object value, String json) throws IOException {
+        String payload = Base64.getEncoder().encodeToString(this.writeCodec.encode(value));
+        return payload.length() < json.length() ? payload : null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.theauctiongames.auctionapi.data.codecs;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.IOException;
+
+/**
+ * An auction codec backed by a Jackson object mapper for a given data format.
+ */
+public class JacksonAuctionCodec implements AuctionCodec {
+
+    /**
+     * The name of the plain json codec.
+     */
+    public static final String JSON = "json";
+
+    /**
+     * The name of the smile codec.
+     */
+    public static final String SMILE = "smile";
+
+    /**
+     * The name of the cbor codec.
+     */
+    public static final String CBOR = "cbor";
+
+    /**
+     * Create the json codec.
+     *
+     * @return the json codec
+     */
+    public static JacksonAuctionCodec json() {
+        return new JacksonAuctionCodec(JSON, new ObjectMapper());
+    }
+
+    /**
+     * Create the smile codec.
+     *
+     * @return the smile codec
+     */
+    public static JacksonAuctionCodec smile() {
+        return new JacksonAuctionCodec(SMILE, new SmileMapper());
+    }
+
+    /**
+     * Create the cbor codec.
+     *
+     * @return the cbor codec
+     */
+    public static JacksonAuctionCodec cbor() {
+        return new JacksonAuctionCodec(CBOR, new CBORMapper());
+    }
+
+    /**
+     * The codec name.
+     */
+    private final String name;
+
+    /**
+     * The object mapper for the codec's data format.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Construct a jackson auction codec.
+     *
+     * @param name   the codec name
+     * @param mapper the object mapper
+     */
+    public JacksonAuctionCodec(String name, ObjectMapper mapper) {
+        this.name = name;
+
+        // Tolerate fields written by newer versions of the entity
+        this.mapper = mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Get the name of the codec.
+     *
+     * @return the codec name
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Encode a stored value.
+     *
+     * @param value the value
+     * @return the encoded bytes
+     * @throws IOException if the value could not be encoded
+     */
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return this.mapper.writeValueAsBytes(value);
+    }
+
+    /**
+     * Decode a stored value.
+     *
+     * @param bytes the encoded bytes
+     * @param type  the value type
+     * @param <T>   the value type
+     * @return the value
+     * @throws IOException if the value could not be decoded
+     */
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+        return this.mapper.readValue(bytes, type);
+    }
+}
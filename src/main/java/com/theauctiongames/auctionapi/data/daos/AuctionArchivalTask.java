@@ -0,0 +1,96 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A background task for moving closed auctions out of the live state store.
+ */
+@Component
+public class AuctionArchivalTask {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuctionArchivalTask.class);
+
+    /**
+     * The injected dapr auction DAO.
+     */
+    private final DaprAuctionDao auctionDao;
+
+    /**
+     * The injected event publisher.
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * Whether closed auctions are archived.
+     */
+    private final boolean enabled;
+
+    /**
+     * How long an auction stays live after closing, in milliseconds.
+     */
+    private final long graceMillis;
+
+    /**
+     * The maximum number of auctions per archive write.
+     */
+    private final int batchSize;
+
+    /**
+     * Construct the auction archival task.
+     *
+     * @param auctionDao   the dapr auction DAO
+     * @param publisher    the event publisher
+     * @param enabled      whether closed auctions are archived
+     * @param graceMinutes how long an auction stays live after closing, in minutes
+     * @param batchSize    the maximum number of auctions per archive write
+     */
+    public AuctionArchivalTask(DaprAuctionDao auctionDao, ApplicationEventPublisher publisher,
+                               @Value("${auction.archive.enabled:false}") boolean enabled,
+                               @Value("${auction.archive.grace-minutes:60}") long graceMinutes,
+                               @Value("${auction.archive.batch-size:100}") int batchSize) {
+        this.auctionDao = auctionDao;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.graceMillis = TimeUnit.MINUTES.toMillis(graceMinutes);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Periodically archive the auctions that closed before the grace period.
+     */
+    @Scheduled(initialDelayString = "${auction.archive.interval-millis:600000}", fixedDelayString = "${auction.archive.interval-millis:600000}")
+    public void run() {
+        if (!this.enabled) {
+            return;
+        }
+
+        try {
+            List<AuctionEntity> archived = this.auctionDao.archiveClosedAuctions(System.currentTimeMillis() - this.graceMillis, this.batchSize);
+
+            // Drop the archived auctions from the in-memory views of the live catalog
+            for (AuctionEntity auction : archived) {
+                this.publisher.publishEvent(new AuctionEvent(AuctionEventType.ARCHIVED, auction.getId(), auction, null));
+            }
+            if (!archived.isEmpty()) {
+                LOGGER.info("Archived {} closed auctions", archived.size());
+            }
+        } catch (Exception exception) {
+            // Print the error, the next run will retry
+            exception.printStackTrace();
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.theauctiongames.auctionapi.data.daos;
 
 import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.IdempotencyRecordEntity;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
  * The DAO object for auction manipulation.
+ * <p>
+ * Implementations throw a {@link com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException}
+ * when the underlying store cannot be reached, so a missing value is never confused with an outage.
  */
 public interface AuctionDao {
 
@@ -48,4 +54,87 @@ public interface AuctionDao {
      * @return true if the auction was deleted, false otherwise
      */
     boolean deleteAuctionById(String id);
+
+    /**
+     * Get an archived chunk of an auction's bids.
+     *
+     * @param auctionId the auction id
+     * @param index     the chunk index
+     * @return an optional bid chunk
+     */
+    Optional<BidChunkEntity> getBidChunk(String auctionId, int index);
+
+    /**
+     * Store an archived chunk of an auction's bids.
+     *
+     * @param chunk the bid chunk
+     * @return true if the chunk was stored, false otherwise
+     */
+    boolean storeBidChunk(BidChunkEntity chunk);
+
+    /**
+     * Get auctions by their ids, skipping ids that do not exist.
+     *
+     * @param ids the auction ids
+     * @return the auctions, in the order of the ids
+     */
+    List<AuctionEntity> getAuctionsByIds(List<String> ids);
+
+    /**
+     * Get the ids of a seller's auctions.
+     *
+     * @param sellerId the seller id
+     * @return the auction ids, oldest first
+     */
+    List<String> getAuctionIdsBySeller(String sellerId);
+
+    /**
+     * Get a stored image variant.
+     *
+     * @param hash    the image hash
+     * @param variant the variant
+     * @return an optional image
+     */
+    Optional<ImageEntity> getImage(String hash, String variant);
+
+    /**
+     * Store an image variant.
+     *
+     * @param image the image
+     * @return true if the image was stored, false otherwise
+     */
+    boolean storeImage(ImageEntity image);
+
+    /**
+     * Get the stored result of a completed idempotent request.
+     *
+     * @param key the scoped idempotency key
+     * @return an optional idempotency record
+     */
+    Optional<IdempotencyRecordEntity> getIdempotencyRecord(String key);
+
+    /**
+     * Store the result of a completed idempotent request, expiring after a time to live.
+     *
+     * @param record     the idempotency record
+     * @param ttlSeconds the time to live in seconds
+     * @return true if the record was stored, false otherwise
+     */
+    boolean storeIdempotencyRecord(IdempotencyRecordEntity record, long ttlSeconds);
+
+    /**
+     * Claim an idempotency key by storing its record only if no record exists, expiring after a time to live.
+     *
+     * @param record     the idempotency record of the request about to run
+     * @param ttlSeconds the time to live in seconds
+     * @return true if the key was claimed, false if another request holds it
+     */
+    boolean claimIdempotencyRecord(IdempotencyRecordEntity record, long ttlSeconds);
+
+    /**
+     * Delete an idempotency record, releasing its key.
+     *
+     * @param key the scoped idempotency key
+     */
+    void deleteIdempotencyRecord(String key);
 }
@@ -1,31 +1,64 @@
 package com.theauctiongames.auctionapi.data.daos;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.theauctiongames.auctionapi.data.cache.AuctionCache;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidationBus;
+import com.theauctiongames.auctionapi.data.codecs.AuctionValueCodec;
 import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.IdempotencyRecordEntity;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
+import com.theauctiongames.auctionapi.data.entities.SellerIndexEntity;
+import com.theauctiongames.auctionapi.data.resilience.HedgedReads;
+import com.theauctiongames.auctionapi.data.resilience.StoreGuard;
+import com.theauctiongames.auctionapi.data.resilience.StoreOperation;
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.json.JSONArray;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * The implementation for the Auction DAO utilizing Dapr's sidecar.
+ * <p>
+ * Every sidecar call goes through the {@link StoreGuard}. When the store is unavailable the DAO throws a
+ * {@link StoreUnavailableException} rather than reporting the value as missing.
  */
 @Service
 public class DaprAuctionDao implements AuctionDao {
 
+    /**
+     * The number of attempts at a conflicting seller index update.
+     */
+    private static final int INDEX_UPDATE_ATTEMPTS = 5;
+
     /**
      * The state store URL.
      */
@@ -36,17 +69,119 @@ public class DaprAuctionDao implements AuctionDao {
      */
     private final String queryUrl;
 
+    /**
+     * The URL of the state store closed auctions are archived to.
+     */
+    private final String archiveUrl;
+
+    /**
+     * Whether archived values share the live state store, under archive keys.
+     */
+    private final boolean archiveInLiveStore;
+
+    /**
+     * The codec for encoding and decoding stored auction values.
+     */
+    private final AuctionValueCodec codec;
+
+    /**
+     * The guard around sidecar calls.
+     */
+    private final StoreGuard guard;
+
+    /**
+     * The coalesced reads of single keys.
+     */
+    private final SingleFlight<Optional<byte[]>> stateReads;
+
+    /**
+     * The coalesced queries over the whole store.
+     */
+    private final SingleFlight<List<ResponseEntry>> queries;
+
+    /**
+     * The hedged reads of single auctions.
+     */
+    private final HedgedReads.Operation hedgedGets;
+
+    /**
+     * The hedged queries over the whole store.
+     */
+    private final HedgedReads.Operation hedgedQueries;
+
+    /**
+     * The in-process auction cache.
+     */
+    private final AuctionCache cache;
+
+    /**
+     * The bus keeping other replicas' caches consistent.
+     */
+    private final AuctionInvalidationBus invalidationBus;
+
+    /**
+     * The cached auction ids of each seller, oldest first.
+     * <p>
+     * Other replicas update the indexes without telling this one, so cached indexes expire.
+     */
+    private final Map<String, CachedSellerIndex> sellerIndexCache = new ConcurrentHashMap<>();
+
+    /**
+     * The time in milliseconds a cached seller index is served before it is read again.
+     */
+    private final long sellerIndexTtlMillis;
+
     /**
      * Construct the dapr auction DAO.
+     *
+     * @param codec           the auction value codec
+     * @param guard           the guard around sidecar calls
+     * @param hedgedReads     the hedged reads
+     * @param cache           the in-process auction cache
+     * @param invalidationBus the bus keeping other replicas' caches consistent
+     * @param registry        the meter registry
+     * @param sellerIndexTtl  the time in milliseconds a cached seller index is served
      */
-    public DaprAuctionDao() {
+    public DaprAuctionDao(AuctionValueCodec codec, StoreGuard guard, HedgedReads hedgedReads, AuctionCache cache,
+                          AuctionInvalidationBus invalidationBus, MeterRegistry registry,
+                          @Value("${auction.sellers.index-cache-ttl-millis:5000}") long sellerIndexTtl) {
+        this.codec = codec;
+        this.sellerIndexTtlMillis = sellerIndexTtl;
+        this.guard = guard;
+        this.cache = cache;
+        this.invalidationBus = invalidationBus;
+        this.stateReads = new SingleFlight<>(coalesced(registry, "get"));
+        this.queries = new SingleFlight<>(coalesced(registry, "query"));
+        this.hedgedGets = hedgedReads.forOperation("get");
+        this.hedgedQueries = hedgedReads.forOperation("query");
+
         // Get the environment variables
         String sidecarPort = System.getenv("SIDECAR_PORT");
         String stateStoreName = System.getenv("STATE_STORE_NAME");
+        String archiveStateStoreName = System.getenv("ARCHIVE_STATE_STORE_NAME");
 
         // Set the URLs
         this.stateUrl = "http://localhost:" + sidecarPort + "/v1.0/state/" + stateStoreName;
         this.queryUrl = "http://localhost:" + sidecarPort + "/v1.0-alpha1/state/" + stateStoreName + "/query";
+
+        // Archive to the cold state store, or under archive keys in the live store if there is none
+        this.archiveInLiveStore = archiveStateStoreName == null || archiveStateStoreName.isBlank();
+        this.archiveUrl = this.archiveInLiveStore ? this.stateUrl
+                : "http://localhost:" + sidecarPort + "/v1.0/state/" + archiveStateStoreName;
+    }
+
+    /**
+     * Register a counter of reads merged into one already in flight.
+     *
+     * @param registry  the meter registry
+     * @param operation the read operation
+     * @return the counter
+     */
+    private static Counter coalesced(MeterRegistry registry, String operation) {
+        return Counter.builder("auction.store.coalesced")
+                .description("State store reads merged into an identical read already in flight")
+                .tag("operation", operation)
+                .register(registry);
     }
 
     /**
@@ -68,7 +203,32 @@ public class DaprAuctionDao implements AuctionDao {
     @NoArgsConstructor
     @AllArgsConstructor
     private static class ResponseEntry {
-        private AuctionEntity data;
+        private String key;
+        private JsonNode data;
+        private String etag;
+    }
+
+    /**
+     * A private inner class for a cached seller index and when it stops being served.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class CachedSellerIndex {
+        private final List<String> auctionIds;
+        private final long expirationTimestamp;
+    }
+
+    /**
+     * A private inner class to map the response entries to from a bulk get.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class BulkEntry {
+        private String key;
+        private JsonNode data;
+        private String etag;
     }
 
     /**
@@ -79,39 +239,99 @@ public class DaprAuctionDao implements AuctionDao {
     @Override
     public List<AuctionEntity> getAllAuctions() {
         try {
-            // Create the template
-            RestTemplate template = new RestTemplate();
+            // Decode every queried auction, skipping the values stored alongside them
+            List<AuctionEntity> auctions = new ArrayList<>();
+            for (ResponseEntry entry : queryAll()) {
+                if (StateKeys.isAuction(entry.getKey())) {
+                    auctions.add(this.codec.decode(entry.getData()));
+                }
+            }
 
-            // Set request header
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            // Return list of auctions
+            return auctions;
+        } catch (IOException | RestClientException ignored) {
+        }
 
-            // Set request body
-            JSONObject json = new JSONObject();
-            json.put("filters", new JSONObject());
+        // Something went wrong, return empty list
+        return List.of();
+    }
 
-            // Create the request
-            HttpEntity<String> request = new HttpEntity<>(json.toString(), headers);
+    /**
+     * Query all raw entries from the state store, sharing a query already in flight.
+     *
+     * @return the raw entries
+     */
+    private List<ResponseEntry> queryAll() {
+        return this.queries.execute("all", () -> this.hedgedQueries.execute(this::sendQuery));
+    }
 
-            // Send request
-            ResponseEntity<DaprResponse> daprResponse = template.postForEntity(this.queryUrl, request, DaprResponse.class);
+    /**
+     * Send a query for all raw entries to the state store.
+     *
+     * @return the raw entries
+     */
+    private List<ResponseEntry> sendQuery() {
+        // Set request header
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
 
-            // Parse the response
-            List<AuctionEntity> auctions = Arrays.stream(daprResponse.getBody().results)
-                    .map(ResponseEntry::getData)
-                    .collect(Collectors.toList());
+        // Set request body
+        JSONObject json = new JSONObject();
+        json.put("filters", new JSONObject());
 
-            // Return list of auctions
-            return auctions;
-        } catch (Exception ignored) {
+        // Create the request
+        HttpEntity<String> request = new HttpEntity<>(json.toString(), headers);
+
+        // Send request
+        ResponseEntity<DaprResponse> daprResponse = this.guard.call(StoreOperation.QUERY,
+                template -> template.postForEntity(this.queryUrl, request, DaprResponse.class));
+
+        // Return the entries
+        return List.of(daprResponse.getBody().results);
+    }
+
+    /**
+     * Re-encode every stored value that was not written with the configured codec. Each value is written
+     * with the etag it was read with, so a value changed since the query, e.g. by a bid accepted while the
+     * migration runs, is skipped instead of overwritten by its older re-encoded copy.
+     *
+     * @return the number of values re-encoded
+     */
+    public int reencodeAuctions() {
+        int reencoded = 0;
+
+        for (ResponseEntry entry : queryAll()) {
+            try {
+                // Skip values already in the write codec, or that could not be written conditionally
+                if (this.codec.isWriteCodec(entry.getData()) || entry.getEtag() == null || entry.getEtag().isEmpty()) {
+                    continue;
+                }
+
+                // Decode with the original codec and store with the write codec, if unchanged since the query
+                if (StateKeys.isAuction(entry.getKey())) {
+                    storeAuction(this.codec.decode(entry.getData()), entry.getEtag());
+                } else {
+                    saveState(StateKeys.stripAppId(entry.getKey()),
+                            this.codec.encode(this.codec.decode(entry.getData(), JsonNode.class)), entry.getEtag());
+                }
+                reencoded++;
+            } catch (HttpStatusCodeException exception) {
+                // The value changed or was deleted since the query, a newer write already used the write codec
+                if (exception.getStatusCode() != HttpStatus.CONFLICT) {
+                    exception.printStackTrace();
+                }
+            } catch (IOException | RestClientException exception) {
+                // Print the error and move on to the next value
+                exception.printStackTrace();
+            }
         }
 
-        // Something went wrong, return empty list
-        return List.of();
+        // Return the number of values re-encoded
+        return reencoded;
     }
 
     /**
-     * Get an auction by id.
+     * Get an auction by id, reading through the in-process cache.
      *
      * @param id the id
      * @return an optional auction
@@ -119,20 +339,64 @@ public class DaprAuctionDao implements AuctionDao {
     @Override
     public Optional<AuctionEntity> getAuctionById(String id) {
         try {
-            // Create the template
-            RestTemplate template = new RestTemplate();
+            // Decode a private copy of the cached auction
+            Optional<byte[]> cached = this.cache.get(id);
+            if (cached.isPresent()) {
+                return Optional.of(this.codec.decode(cached.get()));
+            }
+        } catch (Exception ignored) {
+        }
 
-            // Set request header
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        // Fall back to the archive for closed auctions
+        Optional<AuctionEntity> auction = readAuction(id, true);
+        return auction.isPresent() ? auction : readArchivedAuction(id);
+    }
 
-            // Send request
-            String url = this.stateUrl + "/" + id;
-            ResponseEntity<AuctionEntity> auction = template.getForEntity(url, AuctionEntity.class);
+    /**
+     * Read an archived auction, caching it.
+     *
+     * @param id the id
+     * @return an optional auction
+     */
+    private Optional<AuctionEntity> readArchivedAuction(String id) {
+        try {
+            // Get and decode the auction
+            Optional<byte[]> value = readState(this.archiveUrl, archiveKey(id));
+            if (value.isEmpty()) {
+                return Optional.empty();
+            }
+            AuctionEntity auction = this.codec.decode(value.get());
 
-            // Return auction
-            return Optional.ofNullable(auction.getBody());
-        } catch (Exception ignored) {
+            // Cache the auction, archived auctions no longer change
+            this.cache.put(id, auction.getVersion(), value.get());
+            return Optional.of(auction);
+        } catch (IOException | RestClientException ignored) {
+        }
+
+        // Something went wrong, return empty
+        return Optional.empty();
+    }
+
+    /**
+     * Read an auction from the state store, caching it.
+     *
+     * @param id     the id
+     * @param hedged whether to hedge a slow read
+     * @return an optional auction
+     */
+    private Optional<AuctionEntity> readAuction(String id, boolean hedged) {
+        try {
+            // Get and decode the auction
+            Optional<byte[]> value = getState(id, hedged);
+            if (value.isEmpty()) {
+                return Optional.empty();
+            }
+            AuctionEntity auction = this.codec.decode(value.get());
+
+            // Cache the auction unless a newer version is known
+            this.cache.put(id, auction.getVersion(), value.get());
+            return Optional.of(auction);
+        } catch (IOException | RestClientException ignored) {
         }
 
         // Something went wrong, return empty
@@ -148,17 +412,29 @@ public class DaprAuctionDao implements AuctionDao {
     @Override
     public boolean createAuction(AuctionEntity auction) {
         // Confirm the auction is unique
-        if (getAuctionById(auction.getId()).isPresent()) {
+        if (readAuction(auction.getId(), false).isPresent()) {
             return false;
         }
 
         try {
-            // Store the auction in the state storage
-            storeAuction(auction);
+            // Start the version history, forgetting the deletion marker of an auction with the same id
+            auction.setVersion(1);
+            this.cache.remove(auction.getId());
+
+            // Store the auction in the state storage, unless another request created it first
+            storeAuction(auction, "");
+
+            // Index the auction under its seller
+            addToSellerIndex(auction.getSellerId(), auction.getId());
 
             // Return true
             return true;
-        } catch (Exception exception) {
+        } catch (HttpStatusCodeException exception) {
+            // Created concurrently, it is not unique
+            if (exception.getStatusCode() != HttpStatus.CONFLICT) {
+                exception.printStackTrace();
+            }
+        } catch (IOException | RestClientException exception) {
             // Print the error
             exception.printStackTrace();
         }
@@ -169,24 +445,47 @@ public class DaprAuctionDao implements AuctionDao {
 
     /**
      * Save an auction to the state store.
+     * <p>
+     * The auction is written with the etag of the version it replaces, so every version is stored once. If
+     * another write got there first, nothing is stored and the update fails.
      *
      * @param auction the auction entity
      * @return true if the auciton was saved, false otherwise
      */
     @Override
     public boolean updateAuction(AuctionEntity auction) {
-        // Confirm the auction exists
-        if (getAuctionById(auction.getId()).isEmpty()) {
-            return false;
-        }
-
+        Optional<AuctionEntity> existing = Optional.empty();
         try {
-            // Store the auction in the state storage
-            storeAuction(auction);
+            // Confirm the auction exists, reading past the cache and reads in flight so the version is never bumped from a stale copy
+            ResponseEntity<byte[]> response = this.guard.call(StoreOperation.READ,
+                    template -> template.getForEntity(this.stateUrl + "/" + auction.getId(), byte[].class));
+            if (response.getBody() == null || response.getBody().length == 0) {
+                return false;
+            }
+            existing = Optional.of(this.codec.decode(response.getBody()));
+
+            // Bump the version
+            auction.setVersion(existing.get().getVersion() + 1);
+
+            // Store the auction in the state storage if it was not written since it was read
+            storeAuction(auction, response.getHeaders().getETag());
+
+            // Move the auction to its new seller's index
+            if (!Objects.equals(existing.get().getSellerId(), auction.getSellerId())) {
+                removeFromSellerIndex(existing.get().getSellerId(), auction.getId());
+                addToSellerIndex(auction.getSellerId(), auction.getId());
+            }
 
             // Return true
             return true;
-        } catch (Exception exception) {
+        } catch (HttpStatusCodeException exception) {
+            if (exception.getStatusCode() != HttpStatus.CONFLICT) {
+                exception.printStackTrace();
+            } else if (existing.isPresent()) {
+                // Written since it was read, refuse the cached copy of the version that was read
+                this.cache.invalidate(auction.getId(), existing.get().getVersion() + 1);
+            }
+        } catch (IOException | RestClientException exception) {
             // Print the error
             exception.printStackTrace();
         }
@@ -199,62 +498,853 @@ public class DaprAuctionDao implements AuctionDao {
      * Store the auction in the state store.
      *
      * @param entity the auction entity
-     * @throws JsonProcessingException if the auction could not be serialized
-     * @throws RuntimeException        if the auction could not be stored
+     * @param etag   the etag the stored auction must still have, empty if it must not exist, or null to write unconditionally
+     * @throws IOException      if the auction could not be encoded
+     * @throws RuntimeException if the auction could not be stored, with a conflict if the etag no longer matched
      */
-    private void storeAuction(AuctionEntity entity) throws JsonProcessingException, RuntimeException {
-        // Create the template
-        RestTemplate template = new RestTemplate();
+    private void storeAuction(AuctionEntity entity, String etag) throws IOException, RuntimeException {
+        String value = this.codec.encode(entity);
+        saveState(entity.getId(), value, etag);
 
-        // Set request header
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        // Cache the written version and invalidate older copies on the other replicas
+        this.cache.put(entity.getId(), entity.getVersion(), value.getBytes(StandardCharsets.UTF_8));
+        this.invalidationBus.publish(entity.getId(), entity.getVersion(), false);
+    }
 
-        // create array of JSONObject
-        JSONObject json = new JSONObject();
-        json.put("key", entity.getId());
-        json.put("value", new JSONObject(new ObjectMapper().writeValueAsString(entity)));
+    /**
+     * Delete an auction by id.
+     *
+     * @param id the id
+     * @return true if the auction was deleted, false otherwise
+     */
+    @Override
+    public boolean deleteAuctionById(String id) {
+        // Check if auction exists, archived auctions are deleted from the archive
+        Optional<AuctionEntity> auction = readAuction(id, false);
+        if (auction.isEmpty()) {
+            return deleteArchivedAuction(id);
+        }
 
-        // Create the request
-        HttpEntity<String> request = new HttpEntity<>("[" + json + "]", headers);
+        try {
+            // Delete the archived bid chunks
+            for (int index = 0; index < chunkCount(auction.get()); index++) {
+                deleteState(StateKeys.bidChunk(id, index));
+            }
 
-        // Send request
-        ResponseEntity<String> response = template.postForEntity(this.stateUrl, request, String.class);
+            // Send the delete request
+            deleteState(id);
 
-        // Throw error if the status code is not 200
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Error storing auction: " + request.getBody());
+            // Refuse every older cached copy here and on the other replicas
+            this.cache.invalidate(id, Long.MAX_VALUE);
+            this.invalidationBus.publish(id, auction.get().getVersion(), true);
+
+            // Remove the auction from its seller's index
+            removeFromSellerIndex(auction.get().getSellerId(), id);
+
+            // Return if deleted
+            return readAuction(id, false).isEmpty();
+        } catch (RestClientException exception) {
+            exception.printStackTrace();
         }
+
+        // Something went wrong, return false
+        return false;
     }
 
     /**
-     * Delete an auction by id.
+     * Delete an archived auction by id.
      *
      * @param id the id
      * @return true if the auction was deleted, false otherwise
      */
-    @Override
-    public boolean deleteAuctionById(String id) {
-        // Check if auction exists
-        if (!getAuctionById(id).isPresent()) {
+    private boolean deleteArchivedAuction(String id) {
+        // Check if the auction was archived
+        Optional<AuctionEntity> auction = readArchivedAuction(id);
+        if (auction.isEmpty()) {
             return false;
         }
 
         try {
-            // Create the template
-            RestTemplate template = new RestTemplate();
+            // Delete the archived bid chunks and the auction
+            for (String key : archivedKeys(auction.get())) {
+                deleteState(this.archiveUrl, archiveKey(key));
+            }
 
-            // Send the delete request
-            String url = this.stateUrl + "/" + id;
-            template.delete(url);
+            // Refuse every older cached copy here and on the other replicas
+            this.cache.invalidate(id, Long.MAX_VALUE);
+            this.invalidationBus.publish(id, auction.get().getVersion(), true);
 
-            // Return if deleted
-            return getAuctionById(id).isEmpty();
-        } catch (Exception exception) {
+            // Remove the auction from its seller's index
+            removeFromSellerIndex(auction.get().getSellerId(), id);
+
+            // Return true
+            return true;
+        } catch (RestClientException exception) {
             exception.printStackTrace();
         }
 
         // Something went wrong, return false
         return false;
     }
+
+    /**
+     * Archive closed auctions and their bid chunks to the cold store in batches, so queries over the live
+     * store only touch active auctions.
+     *
+     * @param closedBefore the timestamp auctions must have expired or been purchased before
+     * @param batchSize    the maximum number of auctions per archive write
+     * @return the auctions archived
+     */
+    public List<AuctionEntity> archiveClosedAuctions(long closedBefore, int batchSize) {
+        // Find the closed auctions
+        List<AuctionEntity> closed = new ArrayList<>();
+        for (AuctionEntity auction : getAllAuctions()) {
+            if (isClosedBefore(auction, closedBefore)) {
+                closed.add(auction);
+            }
+        }
+
+        // Archive them
+        return archiveAuctions(closed, closedBefore, batchSize);
+    }
+
+    /**
+     * Archive auctions that are still closed before a timestamp when read again.
+     * <p>
+     * Each batch is copied to the archive with one bulk write before it is deleted from the live store, so
+     * an interrupted run leaves auctions readable and the next run finishes the move. An auction is only
+     * deleted if its etag still matches the copy that was archived, so a concurrent update, e.g. reopening
+     * it, keeps it live and its stale copy is dropped from the archive.
+     *
+     * @param candidates   the auctions found closed
+     * @param closedBefore the timestamp auctions must have expired or been purchased before
+     * @param batchSize    the maximum number of auctions per archive write
+     * @return the auctions archived
+     */
+    List<AuctionEntity> archiveAuctions(List<AuctionEntity> candidates, long closedBefore, int batchSize) {
+        List<AuctionEntity> archived = new ArrayList<>();
+        for (int start = 0; start < candidates.size(); start += batchSize) {
+            List<AuctionEntity> batch = candidates.subList(start, Math.min(start + batchSize, candidates.size()));
+
+            try {
+                // Copy the batch, with every auction's chunks, to the archive, skipping auctions reopened since the query
+                List<AuctionEntity> moved = new ArrayList<>();
+                Map<String, String> etags = new HashMap<>();
+                List<JSONObject> entries = new ArrayList<>();
+                for (AuctionEntity queried : batch) {
+                    ResponseEntity<byte[]> response = this.guard.call(StoreOperation.READ,
+                            template -> template.getForEntity(this.stateUrl + "/" + queried.getId(), byte[].class));
+                    if (response.getBody() == null || response.getBody().length == 0) {
+                        continue;
+                    }
+                    AuctionEntity auction = this.codec.decode(response.getBody());
+                    if (!isClosedBefore(auction, closedBefore)) {
+                        continue;
+                    }
+                    moved.add(auction);
+                    etags.put(auction.getId(), response.getHeaders().getETag());
+                    for (int index = 0; index < chunkCount(auction); index++) {
+                        String key = StateKeys.bidChunk(auction.getId(), index);
+                        Optional<byte[]> chunk = getState(key);
+                        if (chunk.isPresent()) {
+                            entries.add(stateEntry(archiveKey(key), new String(chunk.get(), StandardCharsets.UTF_8)));
+                        }
+                    }
+                    entries.add(stateEntry(archiveKey(auction.getId()), this.codec.encode(auction)));
+                }
+                if (moved.isEmpty()) {
+                    continue;
+                }
+                postState(this.archiveUrl, entries);
+
+                // Remove the batch from the live store, the auction before its chunks so it never refers to missing ones
+                for (AuctionEntity auction : moved) {
+                    try {
+                        deleteStateIfMatch(auction.getId(), etags.get(auction.getId()));
+                    } catch (HttpStatusCodeException exception) {
+                        if (exception.getStatusCode() != HttpStatus.CONFLICT) {
+                            throw exception;
+                        }
+
+                        // Written since it was read, keep it live and drop the stale copy
+                        for (String key : archivedKeys(auction)) {
+                            deleteState(this.archiveUrl, archiveKey(key));
+                        }
+                        continue;
+                    }
+                    for (int index = 0; index < chunkCount(auction); index++) {
+                        deleteState(StateKeys.bidChunk(auction.getId(), index));
+                    }
+
+                    // Refuse cached live copies here and on the other replicas
+                    this.cache.invalidate(auction.getId(), Long.MAX_VALUE);
+                    this.invalidationBus.publish(auction.getId(), auction.getVersion(), true);
+                    archived.add(auction);
+                }
+            } catch (IOException | RestClientException exception) {
+                // Print the error and stop, the next run retries the batch
+                exception.printStackTrace();
+                break;
+            }
+        }
+
+        // Return the auctions archived
+        return archived;
+    }
+
+    /**
+     * Check if an auction expired or was purchased before a timestamp.
+     *
+     * @param auction      the auction
+     * @param closedBefore the timestamp
+     * @return true if the auction is closed, false otherwise
+     */
+    private static boolean isClosedBefore(AuctionEntity auction, long closedBefore) {
+        return auction.getExpirationTimestamp() < closedBefore
+                || (auction.getPurchase() != null && auction.getPurchase().getCreationTimestamp() < closedBefore);
+    }
+
+    /**
+     * Get the number of an auction's archived bid chunks.
+     *
+     * @param auction the auction
+     * @return the number of chunks
+     */
+    private static int chunkCount(AuctionEntity auction) {
+        return auction.getBidChunkSize() > 0 ? auction.getArchivedBidCount() / auction.getBidChunkSize() : 0;
+    }
+
+    /**
+     * Get the live keys of an auction and its bid chunks, chunks first.
+     *
+     * @param auction the auction
+     * @return the keys
+     */
+    private static List<String> archivedKeys(AuctionEntity auction) {
+        List<String> keys = new ArrayList<>();
+        for (int index = 0; index < chunkCount(auction); index++) {
+            keys.add(StateKeys.bidChunk(auction.getId(), index));
+        }
+        keys.add(auction.getId());
+        return keys;
+    }
+
+    /**
+     * Get the key a value is archived under.
+     *
+     * @param key the value's live key
+     * @return the archive key
+     */
+    private String archiveKey(String key) {
+        return this.archiveInLiveStore ? StateKeys.archived(key) : key;
+    }
+
+    /**
+     * Get an archived chunk of an auction's bids, falling back to the archive for closed auctions.
+     *
+     * @param auctionId the auction id
+     * @param index     the chunk index
+     * @return an optional bid chunk
+     */
+    @Override
+    public Optional<BidChunkEntity> getBidChunk(String auctionId, int index) {
+        try {
+            // Get and decode the chunk
+            String key = StateKeys.bidChunk(auctionId, index);
+            Optional<byte[]> value = getState(key);
+            if (value.isEmpty()) {
+                value = readState(this.archiveUrl, archiveKey(key));
+            }
+            return value.isPresent() ? Optional.of(this.codec.decode(value.get(), BidChunkEntity.class)) : Optional.empty();
+        } catch (IOException | RestClientException ignored) {
+        }
+
+        // Something went wrong, return empty
+        return Optional.empty();
+    }
+
+    /**
+     * Store an archived chunk of an auction's bids.
+     *
+     * @param chunk the bid chunk
+     * @return true if the chunk was stored, false otherwise
+     */
+    @Override
+    public boolean storeBidChunk(BidChunkEntity chunk) {
+        try {
+            // Store the chunk in the state storage
+            saveState(StateKeys.bidChunk(chunk.getAuctionId(), chunk.getIndex()), this.codec.encode(chunk));
+
+            // Return true
+            return true;
+        } catch (IOException | RestClientException exception) {
+            // Print the error
+            exception.printStackTrace();
+        }
+
+        // Something went wrong, return false
+        return false;
+    }
+
+    /**
+     * Get a stored image variant.
+     *
+     * @param hash    the image hash
+     * @param variant the variant
+     * @return an optional image
+     */
+    @Override
+    public Optional<ImageEntity> getImage(String hash, String variant) {
+        try {
+            // Get and decode the image
+            Optional<byte[]> value = getState(StateKeys.image(hash, variant));
+            return value.isPresent() ? Optional.of(this.codec.decode(value.get(), ImageEntity.class)) : Optional.empty();
+        } catch (IOException | RestClientException ignored) {
+        }
+
+        // Something went wrong, return empty
+        return Optional.empty();
+    }
+
+    /**
+     * Store an image variant.
+     *
+     * @param image the image
+     * @return true if the image was stored, false otherwise
+     */
+    @Override
+    public boolean storeImage(ImageEntity image) {
+        try {
+            // Store the image in the state storage
+            saveState(StateKeys.image(image.getHash(), image.getVariant()), this.codec.encode(image));
+
+            // Return true
+            return true;
+        } catch (IOException | RestClientException exception) {
+            // Print the error
+            exception.printStackTrace();
+        }
+
+        // Something went wrong, return false
+        return false;
+    }
+
+    /**
+     * Get the stored result of a completed idempotent request.
+     *
+     * @param key the scoped idempotency key
+     * @return an optional idempotency record
+     */
+    @Override
+    public Optional<IdempotencyRecordEntity> getIdempotencyRecord(String key) {
+        try {
+            // Get and decode the record
+            Optional<byte[]> value = getState(StateKeys.idempotencyRecord(key));
+            return value.isPresent() ? Optional.of(this.codec.decode(value.get(), IdempotencyRecordEntity.class)) : Optional.empty();
+        } catch (IOException | RestClientException ignored) {
+        }
+
+        // Something went wrong, return empty
+        return Optional.empty();
+    }
+
+    /**
+     * Store the result of a completed idempotent request, expiring after a time to live.
+     *
+     * @param record     the idempotency record
+     * @param ttlSeconds the time to live in seconds
+     * @return true if the record was stored, false otherwise
+     */
+    @Override
+    public boolean storeIdempotencyRecord(IdempotencyRecordEntity record, long ttlSeconds) {
+        try {
+            // Store the record, letting the state store expire it
+            JSONObject metadata = new JSONObject().put("ttlInSeconds", String.valueOf(ttlSeconds));
+            saveState(StateKeys.idempotencyRecord(record.getKey()), this.codec.encode(record), null, metadata);
+
+            // Return true
+            return true;
+        } catch (IOException | RestClientException exception) {
+            // Print the error
+            exception.printStackTrace();
+        }
+
+        // Something went wrong, return false
+        return false;
+    }
+
+    /**
+     * Claim an idempotency key by storing its record only if no record exists, expiring after a time to live.
+     * <p>
+     * The record is written with first-write concurrency and no etag, which the state store only accepts
+     * when the key does not exist yet, so two replicas can never both claim the same key.
+     *
+     * @param record     the idempotency record of the request about to run
+     * @param ttlSeconds the time to live in seconds
+     * @return true if the key was claimed, false if another request holds it
+     */
+    @Override
+    public boolean claimIdempotencyRecord(IdempotencyRecordEntity record, long ttlSeconds) {
+        String key = StateKeys.idempotencyRecord(record.getKey());
+        try {
+            // Insert the record, letting the state store expire it
+            JSONObject json = stateEntry(key, this.codec.encode(record));
+            json.put("options", new JSONObject().put("concurrency", "first-write"));
+            json.put("metadata", new JSONObject().put("ttlInSeconds", String.valueOf(ttlSeconds)));
+            postState(this.stateUrl, List.of(json));
+
+            // Return true
+            return true;
+        } catch (HttpStatusCodeException exception) {
+            // Another request stored the record first
+            if (exception.getStatusCode() == HttpStatus.CONFLICT) {
+                return false;
+            }
+            throw exception;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            // Make later reads see the outcome
+            forgetReads(key);
+        }
+    }
+
+    /**
+     * Delete an idempotency record, releasing its key.
+     *
+     * @param key the scoped idempotency key
+     */
+    @Override
+    public void deleteIdempotencyRecord(String key) {
+        deleteState(StateKeys.idempotencyRecord(key));
+    }
+
+    /**
+     * Get auctions by their ids with a single bulk request.
+     *
+     * @param ids the auction ids
+     * @return the auctions, in the order of the ids
+     */
+    @Override
+    public List<AuctionEntity> getAuctionsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            // Get the live auctions
+            Map<String, AuctionEntity> auctions = new HashMap<>();
+            for (BulkEntry entry : getBulk(this.stateUrl, ids)) {
+                if (entry.getData() != null && !entry.getData().isNull()) {
+                    auctions.put(entry.getKey(), this.codec.decode(entry.getData()));
+                }
+            }
+
+            // Get the rest from the archive
+            List<String> missing = new ArrayList<>();
+            for (String id : ids) {
+                if (!auctions.containsKey(id)) {
+                    missing.add(archiveKey(id));
+                }
+            }
+            if (!missing.isEmpty()) {
+                for (BulkEntry entry : getBulk(this.archiveUrl, missing)) {
+                    if (entry.getData() != null && !entry.getData().isNull()) {
+                        AuctionEntity auction = this.codec.decode(entry.getData());
+                        auctions.put(auction.getId(), auction);
+                    }
+                }
+            }
+
+            // Return the auctions in the order of the ids
+            List<AuctionEntity> ordered = new ArrayList<>(auctions.size());
+            for (String id : ids) {
+                if (auctions.containsKey(id)) {
+                    ordered.add(auctions.get(id));
+                }
+            }
+            return ordered;
+        } catch (IOException | RestClientException exception) {
+            // Print the error
+            exception.printStackTrace();
+        }
+
+        // Something went wrong, return empty list
+        return List.of();
+    }
+
+    /**
+     * Get the raw values of several keys with a single bulk request.
+     *
+     * @param url  the state store URL
+     * @param keys the keys
+     * @return the bulk entries, with null data for keys that do not exist
+     */
+    private BulkEntry[] getBulk(String url, List<String> keys) {
+        // Set request header
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Set request body
+        JSONObject json = new JSONObject();
+        json.put("keys", keys);
+
+        // Send request
+        HttpEntity<String> request = new HttpEntity<>(json.toString(), headers);
+        return this.guard.call(StoreOperation.READ, template -> template.postForObject(url + "/bulk", request, BulkEntry[].class));
+    }
+
+    /**
+     * Get the ids of a seller's auctions, reading through the in-memory cache.
+     *
+     * @param sellerId the seller id
+     * @return the auction ids, oldest first
+     */
+    @Override
+    public List<String> getAuctionIdsBySeller(String sellerId) {
+        // Check the cache
+        CachedSellerIndex cached = this.sellerIndexCache.get(sellerId);
+        if (cached != null && cached.getExpirationTimestamp() > System.currentTimeMillis()) {
+            return cached.getAuctionIds();
+        }
+
+        try {
+            // Read and cache the index
+            Optional<byte[]> value = getState(StateKeys.sellerIndex(sellerId));
+            List<String> ids = value.isPresent()
+                    ? List.copyOf(this.codec.decode(value.get(), SellerIndexEntity.class).getAuctionIds())
+                    : List.of();
+            cacheSellerIndex(sellerId, ids);
+            return ids;
+        } catch (IOException | RestClientException ignored) {
+        }
+
+        // Something went wrong, return empty list
+        return List.of();
+    }
+
+    /**
+     * Rebuild every seller's index from the stored auctions, e.g. for auctions created before indexing.
+     * <p>
+     * Only live auctions are indexed, so this should run before any auctions are archived. Each index is
+     * written with the etag it was read with, keeping auctions indexed concurrently after the rebuilt ones.
+     *
+     * @return the number of seller indexes written
+     */
+    public int rebuildSellerIndexes() {
+        // Group the auction ids by seller
+        Map<String, List<String>> sellers = new HashMap<>();
+        List<AuctionEntity> auctions = new ArrayList<>(getAllAuctions());
+        auctions.sort(Comparator.comparingLong(AuctionEntity::getCreationTimestamp));
+        for (AuctionEntity auction : auctions) {
+            if (auction.getSellerId() != null) {
+                sellers.computeIfAbsent(auction.getSellerId(), id -> new ArrayList<>()).add(auction.getId());
+            }
+        }
+
+        // Write each seller's index
+        int written = 0;
+        for (Map.Entry<String, List<String>> seller : sellers.entrySet()) {
+            boolean updated = updateSellerIndex(seller.getKey(), ids -> {
+                List<String> indexed = new ArrayList<>(seller.getValue());
+                for (String id : ids) {
+                    if (!indexed.contains(id)) {
+                        indexed.add(id);
+                    }
+                }
+                ids.clear();
+                ids.addAll(indexed);
+            });
+            if (updated) {
+                written++;
+            }
+        }
+
+        // Return the number of indexes written
+        return written;
+    }
+
+    /**
+     * Add an auction to a seller's index.
+     *
+     * @param sellerId  the seller id
+     * @param auctionId the auction id
+     */
+    private void addToSellerIndex(String sellerId, String auctionId) {
+        updateSellerIndex(sellerId, ids -> {
+            if (!ids.contains(auctionId)) {
+                ids.add(auctionId);
+            }
+        });
+    }
+
+    /**
+     * Remove an auction from a seller's index.
+     *
+     * @param sellerId  the seller id
+     * @param auctionId the auction id
+     */
+    private void removeFromSellerIndex(String sellerId, String auctionId) {
+        updateSellerIndex(sellerId, ids -> ids.remove(auctionId));
+    }
+
+    /**
+     * Update a seller's index with optimistic concurrency, retrying when another writer got there first.
+     * <p>
+     * Index failures are printed rather than thrown, since the auction itself was already stored.
+     *
+     * @param sellerId the seller id
+     * @param update   the update to apply to the auction ids
+     * @return true if the index was written, false otherwise
+     */
+    private boolean updateSellerIndex(String sellerId, Consumer<List<String>> update) {
+        if (sellerId == null) {
+            return false;
+        }
+
+        String key = StateKeys.sellerIndex(sellerId);
+        for (int attempt = 0; attempt < INDEX_UPDATE_ATTEMPTS; attempt++) {
+            try {
+                // Read the current index and its etag
+                ResponseEntity<byte[]> response = this.guard.call(StoreOperation.READ,
+                        template -> template.getForEntity(this.stateUrl + "/" + key, byte[].class));
+                List<String> ids = response.getBody() == null || response.getBody().length == 0
+                        ? new ArrayList<>()
+                        : new ArrayList<>(this.codec.decode(response.getBody(), SellerIndexEntity.class).getAuctionIds());
+
+                // Apply the update and write it back if nothing changed in between
+                update.accept(ids);
+                saveState(key, this.codec.encode(new SellerIndexEntity(sellerId, ids)), response.getHeaders().getETag());
+
+                // Refresh the cache
+                cacheSellerIndex(sellerId, List.copyOf(ids));
+                return true;
+            } catch (HttpStatusCodeException exception) {
+                // Retry if the etag no longer matched
+                if (exception.getStatusCode() != HttpStatus.CONFLICT) {
+                    exception.printStackTrace();
+                    break;
+                }
+            } catch (Exception exception) {
+                exception.printStackTrace();
+                break;
+            }
+        }
+
+        // Drop the cached index so the next read sees the store
+        this.sellerIndexCache.remove(sellerId);
+        return false;
+    }
+
+    /**
+     * Cache a seller's index until its time to live passes.
+     *
+     * @param sellerId the seller id
+     * @param ids      the auction ids, oldest first
+     */
+    private void cacheSellerIndex(String sellerId, List<String> ids) {
+        this.sellerIndexCache.put(sellerId, new CachedSellerIndex(ids, System.currentTimeMillis() + this.sellerIndexTtlMillis));
+    }
+
+    /**
+     * Get the raw value of a key from the state store, sharing a read of the same key already in flight.
+     *
+     * @param key the key
+     * @return the raw value, or empty if the key does not exist
+     */
+    private Optional<byte[]> getState(String key) {
+        return getState(key, false);
+    }
+
+    /**
+     * Get the raw value of a key from the state store, sharing a read of the same key already in flight.
+     *
+     * @param key    the key
+     * @param hedged whether to hedge a slow read
+     * @return the raw value, or empty if the key does not exist
+     */
+    private Optional<byte[]> getState(String key, boolean hedged) {
+        return this.stateReads.execute(key, () -> hedged ? this.hedgedGets.execute(() -> readState(key)) : readState(key));
+    }
+
+    /**
+     * Read the raw value of a key from the state store.
+     *
+     * @param key the key
+     * @return the raw value, or empty if the key does not exist
+     */
+    private Optional<byte[]> readState(String key) {
+        return readState(this.stateUrl, key);
+    }
+
+    /**
+     * Read the raw value of a key from a state store.
+     *
+     * @param storeUrl the state store URL
+     * @param key      the key
+     * @return the raw value, or empty if the key does not exist
+     */
+    private Optional<byte[]> readState(String storeUrl, String key) {
+        // Send request
+        String url = storeUrl + "/" + key;
+        ResponseEntity<byte[]> value = this.guard.call(StoreOperation.READ, template -> template.getForEntity(url, byte[].class));
+
+        // Check if the value is missing
+        if (value.getBody() == null || value.getBody().length == 0) {
+            return Optional.empty();
+        }
+
+        // Return the value
+        return Optional.of(value.getBody());
+    }
+
+    /**
+     * Save a value to the state store.
+     *
+     * @param key   the key
+     * @param value the json text of the value
+     * @throws RuntimeException if the value could not be stored
+     */
+    private void saveState(String key, String value) throws RuntimeException {
+        saveState(key, value, null);
+    }
+
+    /**
+     * Save a value to the state store, only if its etag still matches.
+     *
+     * @param key   the key
+     * @param value the json text of the value
+     * @param etag  the etag the stored value must still have, empty if it must not exist, or null to write unconditionally
+     * @throws RuntimeException if the value could not be stored
+     */
+    private void saveState(String key, String value, String etag) throws RuntimeException {
+        saveState(key, value, etag, null);
+    }
+
+    /**
+     * Save a value to the state store with request metadata, only if its etag still matches.
+     *
+     * @param key      the key
+     * @param value    the json text of the value
+     * @param etag     the etag the stored value must still have, empty if it must not exist, or null to write unconditionally
+     * @param metadata the state store metadata, or null
+     * @throws RuntimeException if the value could not be stored
+     */
+    private void saveState(String key, String value, String etag, JSONObject metadata) throws RuntimeException {
+        JSONObject json = stateEntry(key, value);
+
+        // Require the etag to match, or the key to be missing without one
+        if (etag != null) {
+            if (!etag.isEmpty()) {
+                json.put("etag", etag.replace("\"", ""));
+            }
+            json.put("options", new JSONObject().put("concurrency", "first-write"));
+        }
+
+        // Pass the metadata
+        if (metadata != null) {
+            json.put("metadata", metadata);
+        }
+
+        // Send request
+        postState(this.stateUrl, List.of(json));
+
+        // Make later reads see the write instead of joining a read that started before it
+        forgetReads(key);
+    }
+
+    /**
+     * Create a state store entry.
+     *
+     * @param key   the key
+     * @param value the json text of the value
+     * @return the entry
+     */
+    private static JSONObject stateEntry(String key, String value) {
+        JSONObject json = new JSONObject();
+        json.put("key", key);
+        json.put("value", new JSONObject(value));
+        return json;
+    }
+
+    /**
+     * Save entries to a state store with a single request.
+     *
+     * @param url     the state store URL
+     * @param entries the entries
+     * @throws RuntimeException if the entries could not be stored
+     */
+    private void postState(String url, List<JSONObject> entries) throws RuntimeException {
+        // Set request header
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Create the request
+        HttpEntity<String> request = new HttpEntity<>(new JSONArray(entries).toString(), headers);
+
+        // Send request
+        ResponseEntity<String> response = this.guard.call(StoreOperation.WRITE,
+                template -> template.postForEntity(url, request, String.class));
+
+        // Throw error if the status code is not 200
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("Error storing value: " + request.getBody());
+        }
+    }
+
+    /**
+     * Delete a key from the state store.
+     *
+     * @param key the key
+     */
+    private void deleteState(String key) {
+        deleteState(this.stateUrl, key);
+    }
+
+    /**
+     * Delete a key from a state store.
+     *
+     * @param url the state store URL
+     * @param key the key
+     */
+    private void deleteState(String url, String key) {
+        // Send the delete request
+        this.guard.call(StoreOperation.WRITE, template -> {
+            template.delete(url + "/" + key);
+            return null;
+        });
+
+        // Make later reads see the delete instead of joining a read that started before it
+        forgetReads(key);
+    }
+
+    /**
+     * Delete a key from the state store, only if its etag still matches.
+     *
+     * @param key  the key
+     * @param etag the etag the stored value must still have
+     * @throws RuntimeException if the key could not be deleted, with a conflict if the etag no longer matched
+     */
+    private void deleteStateIfMatch(String key, String etag) throws RuntimeException {
+        // Require the etag to match
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MATCH, etag.replace("\"", ""));
+
+        // Send the delete request
+        this.guard.call(StoreOperation.WRITE, template -> template.exchange(this.stateUrl + "/" + key + "?concurrency=first-write",
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class));
+
+        // Make later reads see the delete instead of joining a read that started before it
+        forgetReads(key);
+    }
+
+    /**
+     * Stop later reads of a key from joining reads that started before it was written.
+     *
+     * @param key the key
+     */
+    private void forgetReads(String key) {
+        this.stateReads.forget(key);
+        this.queries.forget("all");
+    }
 }
@@ -0,0 +1,70 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * A background task for rebuilding the seller indexes from the stored auctions.
+ */
+@Component
+public class SellerIndexRebuildTask {
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SellerIndexRebuildTask.class);
+
+    /**
+     * The injected dapr auction DAO.
+     */
+    private final DaprAuctionDao auctionDao;
+
+    /**
+     * Whether to rebuild the seller indexes once the application is ready.
+     */
+    private final boolean enabled;
+
+    /**
+     * Construct the seller index rebuild task.
+     *
+     * @param auctionDao the dapr auction DAO
+     * @param enabled    whether to rebuild on startup
+     */
+    public SellerIndexRebuildTask(DaprAuctionDao auctionDao,
+                                  @Value("${auction.sellers.rebuild-index-on-startup:false}") boolean enabled) {
+        this.auctionDao = auctionDao;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start rebuilding in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!this.enabled) {
+            return;
+        }
+
+        // Rebuild off the startup thread so serving is never delayed
+        Thread thread = new Thread(this::run, "seller-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuild the seller indexes.
+     */
+    public void run() {
+        try {
+            int written = this.auctionDao.rebuildSellerIndexes();
+            LOGGER.info("Rebuilt {} seller indexes", written);
+        } catch (Exception exception) {
+            // Print the error, the next startup will retry
+            exception.printStackTrace();
+        }
+    }
+}
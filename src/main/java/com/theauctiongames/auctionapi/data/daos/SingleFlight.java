@@ -0,0 +1,94 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one.
+ * <p>
+ * The first caller for a key runs the call, and everyone who asks for the same key while it is in flight
+ * shares its result or its failure. Nothing is cached once the call completes.
+ *
+ * @param <V> the type of the result
+ */
+final class SingleFlight<V> {
+
+    /**
+     * The calls in flight by key.
+     */
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of calls merged into one already in flight.
+     */
+    private final Counter merged;
+
+    /**
+     * Construct a single flight group.
+     *
+     * @param merged the counter of merged calls
+     */
+    SingleFlight(Counter merged) {
+        this.merged = merged;
+    }
+
+    /**
+     * Run a call, or share the result of the same call already in flight.
+     *
+     * @param key  the key
+     * @param call the call
+     * @return the result
+     */
+    V execute(String key, Supplier<V> call) {
+        // Join the call in flight
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            this.merged.increment();
+            return await(existing);
+        }
+
+        // Lead the call
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException exception) {
+            flight.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stop later callers from joining the call in flight for a key, e.g. because the key was just written.
+     *
+     * @param key the key
+     */
+    void forget(String key) {
+        this.inFlight.remove(key);
+    }
+
+    /**
+     * Wait for a call in flight, failing the same way it failed.
+     *
+     * @param flight the call in flight
+     * @return the result
+     */
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+/**
+ * The keys used for values stored alongside auctions in the state store.
+ * <p>
+ * Auctions are stored under their own id. Every other value is stored under a key starting with an
+ * underscore, so queries over the store can tell auctions apart from everything else.
+ */
+final class StateKeys {
+
+    /**
+     * The separator Dapr places between the app id and the key.
+     */
+    private static final String APP_ID_SEPARATOR = "||";
+
+    /**
+     * The prefix of every key that is not an auction.
+     */
+    private static final String RESERVED_PREFIX = "_";
+
+    /**
+     * Prevent instantiation.
+     */
+    private StateKeys() {
+    }
+
+    /**
+     * Get the key of an archived bid chunk.
+     *
+     * @param auctionId the auction id
+     * @param index     the chunk index
+     * @return the key
+     */
+    static String bidChunk(String auctionId, int index) {
+        return RESERVED_PREFIX + "bids:" + auctionId + ":" + index;
+    }
+
+    /**
+     * Get the key of a seller's auction index.
+     *
+     * @param sellerId the seller id
+     * @return the key
+     */
+    static String sellerIndex(String sellerId) {
+        return RESERVED_PREFIX + "seller:" + sellerId;
+    }
+
+    /**
+     * Get the key of an image variant.
+     *
+     * @param hash    the image hash
+     * @param variant the variant
+     * @return the key
+     */
+    static String image(String hash, String variant) {
+        return RESERVED_PREFIX + "image:" + hash + ":" + variant;
+    }
+
+    /**
+     * Get the key of an idempotency record.
+     *
+     * @param key the scoped idempotency key
+     * @return the key
+     */
+    static String idempotencyRecord(String key) {
+        return RESERVED_PREFIX + "idempotency:" + key;
+    }
+
+    /**
+     * Get the key of an archived value, for archives kept in the live state store.
+     *
+     * @param key the value's live key
+     * @return the key
+     */
+    static String archived(String key) {
+        return RESERVED_PREFIX + "archive:" + key;
+    }
+
+    /**
+     * Check if a key returned by a state store query belongs to an auction.
+     *
+     * @param key the queried key
+     * @return true if the key is an auction, false otherwise
+     */
+    static boolean isAuction(String key) {
+        return key == null || !stripAppId(key).startsWith(RESERVED_PREFIX);
+    }
+
+    /**
+     * Strip the app id prefix Dapr may add to queried keys.
+     *
+     * @param key the queried key
+     * @return the key without the app id
+     */
+    static String stripAppId(String key) {
+        int separator = key.lastIndexOf(APP_ID_SEPARATOR);
+        return separator < 0 ? key : key.substring(separator + APP_ID_SEPARATOR.length());
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -39,7 +40,12 @@ public class AuctionEntity {
                 model.getPurchase() != null ? OfferEntity.fromModel(model.getPurchase()) : null,
                 model.getBase64Image(),
                 model.getCreationTimestamp(),
-                model.getExpirationTimestamp()
+                model.getExpirationTimestamp(),
+                0,
+                0,
+                0,
+                new ArrayList<>(),
+                null
         );
     }
 
@@ -69,7 +75,7 @@ public class AuctionEntity {
     private double startBid;
 
     /**
-     * A list of bids on the auction.
+     * A list of the most recent bids on the auction, older bids are archived in chunks.
      */
     private List<OfferEntity> bids;
 
@@ -84,7 +90,8 @@ public class AuctionEntity {
     private OfferEntity purchase;
 
     /**
-     * The base64 encoded image of the auction.
+     * The base64 encoded image of the auction, only kept for auctions stored before images were stored
+     * apart from auctions.
      */
     private String base64Image;
 
@@ -97,4 +104,29 @@ public class AuctionEntity {
      * The timestamp of the auction's expiration.
      */
     private long expirationTimestamp;
+
+    /**
+     * The auction's version, incremented every time the auction is stored.
+     */
+    private long version;
+
+    /**
+     * The number of older bids moved out of the auction into archived chunks.
+     */
+    private int archivedBidCount;
+
+    /**
+     * The number of bids in each archived chunk, or zero if no bids have been archived.
+     */
+    private int bidChunkSize;
+
+    /**
+     * The standing proxy bids on the auction, at most one per user, which are never exposed to clients.
+     */
+    private List<ProxyBidEntity> proxyBids;
+
+    /**
+     * The hash the auction's image is stored under, or null if it has none.
+     */
+    private String imageHash;
 }
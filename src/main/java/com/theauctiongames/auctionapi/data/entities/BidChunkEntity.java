@@ -0,0 +1,33 @@
+package com.theauctiongames.auctionapi.data.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A database entity object for a chunk of archived auction bids.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidChunkEntity {
+
+    /**
+     * The id of the auction the bids belong to.
+     */
+    private String auctionId;
+
+    /**
+     * The index of the chunk, starting at zero for the oldest bids.
+     */
+    private int index;
+
+    /**
+     * The archived bids, oldest first.
+     */
+    private List<OfferEntity> bids;
+}
@@ -0,0 +1,36 @@
+package com.theauctiongames.auctionapi.data.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A database entity object for the result of a completed idempotent request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecordEntity {
+
+    /**
+     * The scoped idempotency key.
+     */
+    private String key;
+
+    /**
+     * The fingerprint of the request's payload, so the key cannot be reused for a different request.
+     */
+    private String fingerprint;
+
+    /**
+     * The name of the request's result, or null while the request is still running.
+     */
+    private String result;
+
+    /**
+     * The timestamp the request started or completed at.
+     */
+    private long creationTimestamp;
+}
@@ -0,0 +1,37 @@
+package com.theauctiongames.auctionapi.data.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A database entity object for an auction image or one of its thumbnails, stored apart from the auction
+ * under the hash of the uploaded image.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageEntity {
+
+    /**
+     * The SHA-256 hash of the uploaded image, in hex.
+     */
+    private String hash;
+
+    /**
+     * The variant, e.g. original or a thumbnail size.
+     */
+    private String variant;
+
+    /**
+     * The media type of the image data.
+     */
+    private String contentType;
+
+    /**
+     * The image data.
+     */
+    private byte[] data;
+}
@@ -0,0 +1,48 @@
+package com.theauctiongames.auctionapi.data.entities;
+
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A database entity object for a user's standing maximum bid on an auction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProxyBidEntity {
+
+    /**
+     * Construct a proxy bid entity from a proxy bid model.
+     *
+     * @param model             the proxy bid model
+     * @param creationTimestamp the timestamp the proxy bid was placed at
+     * @return a proxy bid entity
+     */
+    public static ProxyBidEntity fromModel(ProxyBidModel model, long creationTimestamp) {
+        return new ProxyBidEntity(model.getUserId(), model.getMaxPrice(), model.getIncrement(), creationTimestamp);
+    }
+
+    /**
+     * The user id responsible for the proxy bid.
+     */
+    private String userId;
+
+    /**
+     * The most the user is willing to bid.
+     */
+    private double maxPrice;
+
+    /**
+     * The amount the user outbids others by.
+     */
+    private double increment;
+
+    /**
+     * The timestamp the proxy bid was placed at, earlier proxy bids win ties.
+     */
+    private long creationTimestamp;
+}
@@ -0,0 +1,28 @@
+package com.theauctiongames.auctionapi.data.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A database entity object for the index of a seller's auctions.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerIndexEntity {
+
+    /**
+     * The seller's id.
+     */
+    private String sellerId;
+
+    /**
+     * The ids of the seller's auctions, oldest first.
+     */
+    private List<String> auctionIds;
+}
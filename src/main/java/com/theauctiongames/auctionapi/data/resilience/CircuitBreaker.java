@@ -0,0 +1,105 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+/**
+ * A circuit breaker that fails fast after repeated failures.
+ * <p>
+ * After a number of consecutive failures the breaker opens and rejects every call for a cool-down. It then
+ * lets a single probe through: if the probe succeeds the breaker closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of the breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * The consecutive failures that open the breaker.
+     */
+    private final int failureThreshold;
+
+    /**
+     * The cool-down before probing, in nanoseconds.
+     */
+    private final long openNanos;
+
+    /**
+     * The current state.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * The consecutive failures while closed.
+     */
+    private int failures;
+
+    /**
+     * The time the breaker last opened, in nanoseconds.
+     */
+    private long openedAt;
+
+    /**
+     * Construct a closed circuit breaker.
+     *
+     * @param failureThreshold the consecutive failures that open the breaker
+     * @param openMillis       the cool-down before probing, in milliseconds
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    /**
+     * Check whether a call may proceed.
+     *
+     * @return true if the call may proceed, false if it should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        switch (this.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                // Let one probe through once the cool-down is over
+                if (System.nanoTime() - this.openedAt >= this.openNanos) {
+                    this.state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // A probe is already in flight
+                return false;
+        }
+    }
+
+    /**
+     * Record a successful call.
+     */
+    public synchronized void onSuccess() {
+        this.state = State.CLOSED;
+        this.failures = 0;
+    }
+
+    /**
+     * Record a failed call.
+     */
+    public synchronized void onFailure() {
+        if (this.state == State.HALF_OPEN || ++this.failures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = System.nanoTime();
+            this.failures = 0;
+        }
+    }
+
+    /**
+     * Get the current state.
+     *
+     * @return the state
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+}
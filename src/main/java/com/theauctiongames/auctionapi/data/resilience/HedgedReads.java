@@ -0,0 +1,276 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent reads against slow responses.
+ * <p>
+ * A read that has not answered within a tracked percentile of recent latencies is sent a second time, and
+ * whichever answer arrives first is used. Hedges are paid for from a budget that every read tops up by a
+ * fraction of a hedge, so hedging can never add more than that fraction of extra load, however slow the
+ * store gets. Only use this for reads that are safe to repeat.
+ */
+@Component
+public class HedgedReads {
+
+    /**
+     * One hedge, in budget units.
+     */
+    private static final long HEDGE_COST = 100;
+
+    /**
+     * The most hedges that can be saved up, in budget units.
+     */
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+    /**
+     * Whether reads are hedged.
+     */
+    private final boolean enabled;
+
+    /**
+     * The latency percentile after which a read is hedged, between 0 and 1.
+     */
+    private final double percentile;
+
+    /**
+     * The budget units each read adds, i.e. the percentage of reads that may be hedged.
+     */
+    private final long budgetPercent;
+
+    /**
+     * The saved up budget, in budget units.
+     */
+    private final AtomicLong budget = new AtomicLong(MAX_BUDGET);
+
+    /**
+     * The executor running hedged reads.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The meter registry.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Construct the hedged reads.
+     *
+     * @param registry      the meter registry
+     * @param enabled       whether reads are hedged
+     * @param percentile    the latency percentile after which a read is hedged, between 0 and 1
+     * @param budgetPercent the percentage of reads that may be hedged
+     * @param maxThreads    the maximum number of threads running reads
+     */
+    public HedgedReads(MeterRegistry registry,
+                       @Value("${auction.store.hedge.enabled:false}") boolean enabled,
+                       @Value("${auction.store.hedge.percentile:0.95}") double percentile,
+                       @Value("${auction.store.hedge.budget-percent:5}") long budgetPercent,
+                       @Value("${auction.store.hedge.max-threads:64}") int maxThreads) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.budgetPercent = budgetPercent;
+
+        // Run reads on daemon threads, falling back to the caller when every thread is busy
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "hedged-read-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Create a hedged read operation with its own latency tracking and meters.
+     *
+     * @param operation the operation name
+     * @return the hedged operation
+     */
+    public Operation forOperation(String operation) {
+        return new Operation(operation);
+    }
+
+    /**
+     * Take one hedge from the budget.
+     *
+     * @return true if the budget allowed a hedge, false otherwise
+     */
+    private boolean spend() {
+        while (true) {
+            long current = this.budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (this.budget.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Add one read's share to the budget.
+     */
+    private void earn() {
+        this.budget.accumulateAndGet(this.budgetPercent, (current, share) -> Math.min(MAX_BUDGET, current + share));
+    }
+
+    /**
+     * Wait for a read, failing the same way it failed.
+     *
+     * @param read the read
+     * @param <T>  the type of the result
+     * @return the result
+     */
+    private static <T> T await(CompletableFuture<T> read) {
+        try {
+            return read.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * A hedged read operation.
+     */
+    public final class Operation {
+
+        /**
+         * The latencies of the operation's reads.
+         */
+        private final LatencyTracker latencies = new LatencyTracker(HedgedReads.this.percentile);
+
+        /**
+         * The number of hedges sent.
+         */
+        private final Counter hedges;
+
+        /**
+         * The number of hedges that answered first.
+         */
+        private final Counter wins;
+
+        /**
+         * Construct a hedged read operation.
+         *
+         * @param operation the operation name
+         */
+        private Operation(String operation) {
+            this.hedges = Counter.builder("auction.store.hedge.sent")
+                    .description("Hedged state store reads sent")
+                    .tag("operation", operation)
+                    .register(HedgedReads.this.registry);
+            this.wins = Counter.builder("auction.store.hedge.wins")
+                    .description("Hedged state store reads that answered first")
+                    .tag("operation", operation)
+                    .register(HedgedReads.this.registry);
+        }
+
+        /**
+         * Run a read, hedging it if it is slow.
+         *
+         * @param read the read, which must be safe to repeat
+         * @param <T>  the type of the result
+         * @return the first answer
+         */
+        public <T> T execute(Supplier<T> read) {
+            if (!HedgedReads.this.enabled) {
+                return read.get();
+            }
+            earn();
+
+            // Send the read
+            Supplier<T> timed = timed(StoreRequestContext.propagate(read));
+            CompletableFuture<T> primary = CompletableFuture.supplyAsync(timed, HedgedReads.this.executor);
+
+            // Wait up to the tracked percentile for the answer
+            long delay = this.latencies.getNanos();
+            if (delay <= 0) {
+                return await(primary);
+            }
+            try {
+                return primary.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException exception) {
+                // Too slow, hedge below
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new CompletionException(exception.getCause());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new StoreUnavailableException("Interrupted waiting for the state store", exception);
+            }
+
+            // Keep waiting if the budget is spent
+            if (!spend()) {
+                return await(primary);
+            }
+
+            // Send the hedge and take the first answer
+            this.hedges.increment();
+            CompletableFuture<T> hedge = CompletableFuture.supplyAsync(timed, HedgedReads.this.executor);
+            CompletableFuture<T> first = new CompletableFuture<>();
+            AtomicInteger failures = new AtomicInteger();
+            primary.whenComplete(answer(first, failures, false));
+            hedge.whenComplete(answer(first, failures, true));
+            return await(first);
+        }
+
+        /**
+         * Complete with the first successful answer, or with a failure once both reads failed.
+         *
+         * @param first    the first answer
+         * @param failures the number of failed reads
+         * @param isHedge  whether the answer is from the hedge
+         * @param <T>      the type of the result
+         * @return the answer handler
+         */
+        private <T> BiConsumer<T, Throwable> answer(CompletableFuture<T> first, AtomicInteger failures, boolean isHedge) {
+            return (result, failure) -> {
+                if (failure == null) {
+                    if (first.complete(result) && isHedge) {
+                        this.wins.increment();
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    first.completeExceptionally(failure);
+                }
+            };
+        }
+
+        /**
+         * Record the latency of every successful read.
+         *
+         * @param read the read
+         * @param <T>  the type of the result
+         * @return the timed read
+         */
+        private <T> Supplier<T> timed(Supplier<T> read) {
+            return () -> {
+                long start = System.nanoTime();
+                T result = read.get();
+                this.latencies.record(System.nanoTime() - start);
+                return result;
+            };
+        }
+    }
+}
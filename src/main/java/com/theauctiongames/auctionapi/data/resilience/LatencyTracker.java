@@ -0,0 +1,91 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a percentile of recent call latencies.
+ * <p>
+ * Latencies are written into a fixed ring of samples without locking, and the percentile is recomputed
+ * from a copy of the ring every so many samples, so reading it is a single volatile read.
+ */
+public class LatencyTracker {
+
+    /**
+     * The number of recent samples kept.
+     */
+    private static final int SAMPLES = 512;
+
+    /**
+     * The number of samples between recomputing the percentile.
+     */
+    private static final int RECOMPUTE_EVERY = 64;
+
+    /**
+     * The tracked percentile, between 0 and 1.
+     */
+    private final double percentile;
+
+    /**
+     * The ring of recent latencies in nanoseconds.
+     */
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+
+    /**
+     * The total number of samples recorded, which does not wrap around in the lifetime of the process.
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The last computed percentile in nanoseconds, or zero if too few samples were recorded.
+     */
+    private volatile long value;
+
+    /**
+     * Construct a latency tracker.
+     *
+     * @param percentile the tracked percentile, between 0 and 1
+     */
+    public LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long index = this.count.getAndIncrement();
+        this.samples.set(Math.floorMod(index, SAMPLES), nanos);
+
+        // Recompute once enough new samples arrived
+        if ((index + 1) % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(index + 1, SAMPLES));
+        }
+    }
+
+    /**
+     * Recompute the percentile from the recorded samples.
+     *
+     * @param size the number of samples in the ring
+     */
+    private void recompute(int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = this.samples.get(i);
+        }
+        Arrays.sort(sorted);
+        this.value = sorted[Math.min(size - 1, (int) (size * this.percentile))];
+    }
+
+    /**
+     * Get the tracked percentile of recent latencies.
+     *
+     * @return the latency in nanoseconds, or zero if too few samples were recorded
+     */
+    public long getNanos() {
+        return this.value;
+    }
+}
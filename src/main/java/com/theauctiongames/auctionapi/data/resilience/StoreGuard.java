@@ -0,0 +1,212 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import com.theauctiongames.auctionapi.tracing.SidecarTracingInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Guards calls to the state store with deadlines, bulkheads and a circuit breaker.
+ * <p>
+ * Every call gets its operation's timeout, capped by what is left of the request's deadline. Calls made
+ * for bids and purchases and calls made for everything else wait on separate bulkheads, and a call that
+ * cannot get a permit quickly is shed. Timeouts and server errors count towards the circuit breaker, which
+ * fails every call fast while the store recovers. All of these surface as a
+ * {@link StoreUnavailableException}.
+ */
+@Component
+public class StoreGuard {
+
+    /**
+     * The timeout of each kind of operation in milliseconds.
+     */
+    private final Map<StoreOperation, Long> timeouts;
+
+    /**
+     * The bulkhead of each lane.
+     */
+    private final Map<StoreLane, Semaphore> bulkheads;
+
+    /**
+     * The longest a call waits for a bulkhead permit in milliseconds.
+     */
+    private final long bulkheadWaitMillis;
+
+    /**
+     * The circuit breaker.
+     */
+    private final CircuitBreaker breaker;
+
+    /**
+     * The interceptor tracing calls to the sidecar.
+     */
+    private final SidecarTracingInterceptor tracingInterceptor;
+
+    /**
+     * The number of calls failed fast by the circuit breaker.
+     */
+    private final Counter breakerRejections;
+
+    /**
+     * The number of calls shed by a full bulkhead.
+     */
+    private final Counter bulkheadRejections;
+
+    /**
+     * The number of calls rejected because their request's deadline had passed.
+     */
+    private final Counter deadlineRejections;
+
+    /**
+     * Construct the store guard.
+     *
+     * @param registry           the meter registry
+     * @param tracingInterceptor the interceptor tracing calls to the sidecar
+     * @param readTimeout        the timeout of a read in milliseconds
+     * @param writeTimeout       the timeout of a write in milliseconds
+     * @param queryTimeout       the timeout of a query in milliseconds
+     * @param readConcurrency    the concurrent calls allowed for reads
+     * @param offerConcurrency   the concurrent calls allowed for bids and purchases
+     * @param bulkheadWaitMillis the longest a call waits for a bulkhead permit in milliseconds
+     * @param failureThreshold   the consecutive failures that open the circuit breaker
+     * @param openMillis         the circuit breaker's cool-down in milliseconds
+     */
+    public StoreGuard(MeterRegistry registry, SidecarTracingInterceptor tracingInterceptor,
+                      @Value("${auction.store.read-timeout-millis:1000}") long readTimeout,
+                      @Value("${auction.store.write-timeout-millis:2000}") long writeTimeout,
+                      @Value("${auction.store.query-timeout-millis:5000}") long queryTimeout,
+                      @Value("${auction.store.read-concurrency:64}") int readConcurrency,
+                      @Value("${auction.store.offer-concurrency:32}") int offerConcurrency,
+                      @Value("${auction.store.bulkhead-wait-millis:50}") long bulkheadWaitMillis,
+                      @Value("${auction.store.breaker.failure-threshold:5}") int failureThreshold,
+                      @Value("${auction.store.breaker.open-millis:5000}") long openMillis) {
+        this.timeouts = Map.of(
+                StoreOperation.READ, readTimeout,
+                StoreOperation.WRITE, writeTimeout,
+                StoreOperation.QUERY, queryTimeout);
+        this.bulkheads = Map.of(
+                StoreLane.READ, new Semaphore(readConcurrency),
+                StoreLane.OFFER, new Semaphore(offerConcurrency));
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.breaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.tracingInterceptor = tracingInterceptor;
+
+        // Register the meters
+        this.breakerRejections = rejections(registry, "circuit-open");
+        this.bulkheadRejections = rejections(registry, "bulkhead-full");
+        this.deadlineRejections = rejections(registry, "deadline");
+        Gauge.builder("auction.store.breaker.open", this.breaker, breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("Whether the state store circuit breaker is open")
+                .register(registry);
+    }
+
+    /**
+     * Register a counter of rejected store calls.
+     *
+     * @param registry the meter registry
+     * @param reason   the reason calls were rejected
+     * @return the counter
+     */
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("auction.store.rejected")
+                .description("State store calls rejected without being sent")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Make a guarded call to the state store.
+     *
+     * @param operation the kind of operation
+     * @param call      the call, given a template with the call's timeout
+     * @param <T>       the type of the result
+     * @return the result of the call
+     * @throws StoreUnavailableException if the store is unavailable or the call was shed
+     * @throws HttpClientErrorException  if the store rejected the request, e.g. an etag conflict
+     */
+    public <T> T call(StoreOperation operation, Function<RestTemplate, T> call) {
+        // Give the call what is left of the request's deadline
+        long timeout = Math.min(this.timeouts.get(operation), StoreRequestContext.remainingMillis());
+        if (timeout <= 0) {
+            this.deadlineRejections.increment();
+            throw new StoreUnavailableException("Request deadline exceeded");
+        }
+
+        // Wait briefly for a permit in the request's lane
+        Semaphore bulkhead = this.bulkheads.get(StoreRequestContext.lane());
+        if (!acquire(bulkhead, Math.min(this.bulkheadWaitMillis, timeout))) {
+            this.bulkheadRejections.increment();
+            throw new StoreUnavailableException("State store bulkhead is full");
+        }
+
+        try {
+            // Fail fast while the store recovers
+            if (!this.breaker.tryAcquire()) {
+                this.breakerRejections.increment();
+                throw new StoreUnavailableException("State store circuit breaker is open");
+            }
+
+            try {
+                T result = call.apply(template(timeout));
+                this.breaker.onSuccess();
+                return result;
+            } catch (HttpClientErrorException exception) {
+                // The store answered, the request was at fault
+                this.breaker.onSuccess();
+                throw exception;
+            } catch (RestClientException exception) {
+                // Timeouts, connection failures and server errors
+                this.breaker.onFailure();
+                throw new StoreUnavailableException("State store " + operation.name().toLowerCase() + " failed", exception);
+            } catch (RuntimeException exception) {
+                // The store answered, the response could not be handled
+                this.breaker.onSuccess();
+                throw exception;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Try to acquire a bulkhead permit.
+     *
+     * @param bulkhead   the bulkhead
+     * @param waitMillis the longest to wait in milliseconds
+     * @return true if a permit was acquired, false otherwise
+     */
+    private static boolean acquire(Semaphore bulkhead, long waitMillis) {
+        try {
+            return bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Create a template with a timeout.
+     *
+     * @param timeoutMillis the connect and read timeout in milliseconds
+     * @return the template
+     */
+    private RestTemplate template(long timeoutMillis) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) Math.min(timeoutMillis, Integer.MAX_VALUE));
+        factory.setReadTimeout((int) Math.min(timeoutMillis, Integer.MAX_VALUE));
+        RestTemplate template = new RestTemplate(factory);
+        template.getInterceptors().add(this.tracingInterceptor);
+        return template;
+    }
+}
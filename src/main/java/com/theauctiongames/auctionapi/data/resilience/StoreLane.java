@@ -0,0 +1,9 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+/**
+ * The traffic lanes with separate bulkheads, so a flood of one kind of request cannot starve the other.
+ */
+public enum StoreLane {
+    READ,
+    OFFER
+}
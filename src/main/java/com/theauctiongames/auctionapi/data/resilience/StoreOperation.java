@@ -0,0 +1,10 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+/**
+ * The kinds of state store operation, each with its own timeout.
+ */
+public enum StoreOperation {
+    READ,
+    WRITE,
+    QUERY
+}
@@ -0,0 +1,103 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import java.util.function.Supplier;
+
+/**
+ * The deadline and lane of the request being served on the current thread.
+ * <p>
+ * Store calls made on behalf of a request are given whatever is left of its deadline, so a request that
+ * already waited is not kept waiting again by every call it makes. Threads without a request, e.g.
+ * background tasks, have no deadline and use the read lane.
+ */
+public final class StoreRequestContext {
+
+    /**
+     * The context of the current thread.
+     */
+    private static final ThreadLocal<StoreRequestContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The time the request must complete by, in nanoseconds.
+     */
+    private final long deadlineNanos;
+
+    /**
+     * The request's lane.
+     */
+    private final StoreLane lane;
+
+    /**
+     * Construct a request context.
+     *
+     * @param deadlineNanos the time the request must complete by, in nanoseconds
+     * @param lane          the request's lane
+     */
+    private StoreRequestContext(long deadlineNanos, StoreLane lane) {
+        this.deadlineNanos = deadlineNanos;
+        this.lane = lane;
+    }
+
+    /**
+     * Start a request on the current thread.
+     *
+     * @param timeoutMillis the request's time budget in milliseconds
+     * @param lane          the request's lane
+     */
+    public static void begin(long timeoutMillis, StoreLane lane) {
+        CURRENT.set(new StoreRequestContext(System.nanoTime() + timeoutMillis * 1_000_000L, lane));
+    }
+
+    /**
+     * End the request on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Get the milliseconds left until the current request's deadline.
+     *
+     * @return the remaining milliseconds, or Long.MAX_VALUE if there is no deadline
+     */
+    public static long remainingMillis() {
+        StoreRequestContext context = CURRENT.get();
+        if (context == null) {
+            return Long.MAX_VALUE;
+        }
+        return (context.deadlineNanos - System.nanoTime()) / 1_000_000L;
+    }
+
+    /**
+     * Get the current request's lane.
+     *
+     * @return the lane
+     */
+    public static StoreLane lane() {
+        StoreRequestContext context = CURRENT.get();
+        return context == null ? StoreLane.READ : context.lane;
+    }
+
+    /**
+     * Carry the current thread's request context and trace context over to a call run on another thread.
+     *
+     * @param call the call
+     * @param <T>  the type of the result
+     * @return the call, running within the current request context
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> call) {
+        StoreRequestContext context = CURRENT.get();
+        Context traceContext = Context.current();
+        return () -> {
+            StoreRequestContext previous = CURRENT.get();
+            CURRENT.set(context);
+            try (Scope ignored = traceContext.makeCurrent()) {
+                return call.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+/**
+ * Thrown when the state store cannot serve a request, e.g. it timed out, failed, or is being shed.
+ * <p>
+ * Callers should answer with a temporary failure rather than treating the value as missing.
+ */
+public class StoreUnavailableException extends RuntimeException {
+
+    /**
+     * Construct the exception.
+     *
+     * @param message the reason the store is unavailable
+     */
+    public StoreUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Construct the exception with its cause.
+     *
+     * @param message the reason the store is unavailable
+     * @param cause   the underlying failure
+     */
+    public StoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,25 @@
+package com.theauctiongames.auctionapi.data.snapshots;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The auctions held in memory at the time a snapshot was written.
+ */
+@Getter
+@AllArgsConstructor
+public class AuctionSnapshot {
+
+    /**
+     * The timestamp the snapshot was written at.
+     */
+    private final long creationTimestamp;
+
+    /**
+     * The auctions.
+     */
+    private final List<AuctionEntity> auctions;
+}
@@ -0,0 +1,178 @@
+package com.theauctiongames.auctionapi.data.snapshots;
+
+import com.theauctiongames.auctionapi.data.codecs.AuctionCodec;
+import com.theauctiongames.auctionapi.data.codecs.AuctionValueCodec;
+import com.theauctiongames.auctionapi.data.codecs.JacksonAuctionCodec;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes and reads local snapshot files of the auctions held in memory.
+ * <p>
+ * A snapshot is a header naming the codec, the auctions each encoded with that codec and prefixed by their
+ * length, an end marker, and a CRC32C of everything before it. Snapshots are written to a temporary file
+ * and moved into place, so a crash mid-write leaves the previous snapshot intact, and are read through a
+ * memory mapping.
+ */
+@Component
+public class AuctionSnapshotStore {
+
+    /**
+     * The magic number at the start of a snapshot file.
+     */
+    private static final int MAGIC = 0x41554353;
+
+    /**
+     * The version of the snapshot file format.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The length marking the end of the auctions.
+     */
+    private static final int END = -1;
+
+    /**
+     * The injected auction value codec.
+     */
+    private final AuctionValueCodec valueCodec;
+
+    /**
+     * The path of the snapshot file.
+     */
+    private final Path path;
+
+    /**
+     * Construct the auction snapshot store.
+     *
+     * @param valueCodec the auction value codec
+     * @param path       the path of the snapshot file
+     */
+    public AuctionSnapshotStore(AuctionValueCodec valueCodec,
+                                @Value("${auction.snapshot.path:snapshots/auctions.snapshot}") String path) {
+        this.valueCodec = valueCodec;
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Write a snapshot, replacing the previous one.
+     * <p>
+     * Auctions that fail to encode, e.g. because they changed while being written, are left out and are
+     * picked up again when the snapshot is reconciled with the store.
+     *
+     * @param auctions the auctions
+     * @return the number of auctions written
+     * @throws IOException if the snapshot could not be written
+     */
+    public int write(Collection<AuctionEntity> auctions) throws IOException {
+        AuctionCodec codec = this.valueCodec.getCodec(JacksonAuctionCodec.SMILE);
+        Path temporary = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+
+        int written = 0;
+        CRC32C crc = new CRC32C();
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+            // Write the header
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(codec.getName());
+            output.writeLong(System.currentTimeMillis());
+
+            // Write the auctions
+            for (AuctionEntity auction : auctions) {
+                byte[] data;
+                try {
+                    data = codec.encode(auction);
+                } catch (Exception exception) {
+                    continue;
+                }
+                output.writeInt(data.length);
+                output.write(data);
+                written++;
+            }
+            output.writeInt(END);
+
+            // Write the checksum and flush the file to disk
+            output.flush();
+            output.writeInt((int) crc.getValue());
+            output.flush();
+            file.getFD().sync();
+        }
+
+        // Replace the previous snapshot
+        Files.move(temporary, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return written;
+    }
+
+    /**
+     * Read the snapshot.
+     *
+     * @return an optional snapshot, empty if there is none or it is unreadable
+     */
+    public Optional<AuctionSnapshot> read() {
+        if (!Files.exists(this.path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            // Check the checksum
+            int bodyLength = buffer.limit() - Integer.BYTES;
+            if (bodyLength < 0) {
+                throw new IOException("Truncated auction snapshot");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Corrupt auction snapshot");
+            }
+
+            // Read the header
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown auction snapshot format");
+            }
+            byte[] codecName = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(codecName);
+            AuctionCodec codec = this.valueCodec.getCodec(new String(codecName, StandardCharsets.UTF_8));
+            long creationTimestamp = buffer.getLong();
+
+            // Read the auctions
+            List<AuctionEntity> auctions = new ArrayList<>();
+            for (int length = buffer.getInt(); length != END; length = buffer.getInt()) {
+                byte[] data = new byte[length];
+                buffer.get(data);
+                auctions.add(codec.decode(data, AuctionEntity.class));
+            }
+
+            return Optional.of(new AuctionSnapshot(creationTimestamp, auctions));
+        } catch (Exception exception) {
+            // Print the error, the catalog is loaded from the store instead
+            exception.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,104 @@
+package com.theauctiongames.auctionapi.data.wal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * An offer accepted for an auction, logged before it is written to the state store.
+ */
+@Getter
+@AllArgsConstructor
+public class WalRecord {
+
+    /**
+     * The record type.
+     */
+    private final WalRecordType type;
+
+    /**
+     * The auction id, or the confirmed sequence for confirmations.
+     */
+    private final String auctionId;
+
+    /**
+     * The id of the user making the offer.
+     */
+    private final String userId;
+
+    /**
+     * The offer price, or the maximum price of a proxy bid.
+     */
+    private final double price;
+
+    /**
+     * The increment of a proxy bid, otherwise 0.
+     */
+    private final double increment;
+
+    /**
+     * The timestamp of the offer.
+     */
+    private final long timestamp;
+
+    /**
+     * Create the confirmation of an earlier record.
+     *
+     * @param sequence the sequence of the confirmed record
+     * @return the confirmation record
+     */
+    static WalRecord confirm(long sequence) {
+        return new WalRecord(WalRecordType.CONFIRM, Long.toString(sequence), "", 0, 0, 0);
+    }
+
+    /**
+     * Get the sequence confirmed by a confirmation record.
+     *
+     * @return the confirmed sequence
+     */
+    long confirmedSequence() {
+        return Long.parseLong(this.auctionId);
+    }
+
+    /**
+     * Encode the record.
+     *
+     * @return the encoded record
+     * @throws IOException if the record could not be encoded
+     */
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(this.type.ordinal());
+        output.writeUTF(this.auctionId);
+        output.writeUTF(this.userId);
+        output.writeDouble(this.price);
+        output.writeDouble(this.increment);
+        output.writeLong(this.timestamp);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a record.
+     *
+     * @param data the encoded record
+     * @return the record
+     * @throws IOException if the record could not be decoded
+     */
+    static WalRecord decode(byte[] data) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+        return new WalRecord(
+                WalRecordType.values()[input.readUnsignedByte()],
+                input.readUTF(),
+                input.readUTF(),
+                input.readDouble(),
+                input.readDouble(),
+                input.readLong()
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.theauctiongames.auctionapi.data.wal;
+
+/**
+ * The types of write-ahead log records.
+ */
+public enum WalRecordType {
+
+    /**
+     * A bid on an auction.
+     */
+    BID,
+
+    /**
+     * A proxy bid on an auction.
+     */
+    PROXY_BID,
+
+    /**
+     * A buy it now purchase of an auction.
+     */
+    PURCHASE,
+
+    /**
+     * The store confirmed the write of an earlier record.
+     */
+    CONFIRM
+}
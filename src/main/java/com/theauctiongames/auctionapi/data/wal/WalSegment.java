@@ -0,0 +1,175 @@
+package com.theauctiongames.auctionapi.data.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * A memory-mapped, fixed size file of write-ahead log records.
+ * <p>
+ * Each record is its payload length, a CRC32C of its sequence and payload, its sequence and its payload.
+ * The file is zero filled when created, so a zero length marks the end of the records, and a record whose
+ * checksum does not match was torn by a crash and ends the records too.
+ */
+final class WalSegment {
+
+    /**
+     * The size of a record header: the payload length, checksum and sequence.
+     */
+    static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+
+    /**
+     * The path of the segment file.
+     */
+    final Path path;
+
+    /**
+     * The sequence of the first record in the segment.
+     */
+    final long firstSequence;
+
+    /**
+     * The mapped segment file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The number of records in the segment the store has not confirmed yet, guarded by the log.
+     */
+    int pending;
+
+    /**
+     * Whether the segment is full and no longer appended to, guarded by the log.
+     */
+    boolean sealed;
+
+    /**
+     * Construct a segment.
+     *
+     * @param path          the path of the segment file
+     * @param firstSequence the sequence of the first record
+     * @param buffer        the mapped segment file
+     */
+    private WalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create and map a new segment file.
+     *
+     * @param path          the path of the segment file
+     * @param firstSequence the sequence of the first record
+     * @param size          the size of the segment file in bytes
+     * @return the segment
+     * @throws IOException if the file could not be created or mapped
+     */
+    static WalSegment create(Path path, long firstSequence, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new WalSegment(path, firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Map an existing segment file for reading.
+     *
+     * @param path          the path of the segment file
+     * @param firstSequence the sequence of the first record
+     * @return the segment
+     * @throws IOException if the file could not be mapped
+     */
+    static WalSegment open(Path path, long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new WalSegment(path, firstSequence, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Append a record, must be called holding the log's append lock.
+     *
+     * @param sequence the record sequence
+     * @param payload  the encoded record
+     * @return true if the record was appended, false if the segment is full
+     */
+    boolean append(long sequence, byte[] payload) {
+        if (this.buffer.remaining() < HEADER_BYTES + payload.length) {
+            return false;
+        }
+
+        this.buffer.putInt(payload.length);
+        this.buffer.putInt(checksum(sequence, payload));
+        this.buffer.putLong(sequence);
+        this.buffer.put(payload);
+        return true;
+    }
+
+    /**
+     * Flush the segment's written records to disk.
+     */
+    void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Read the segment's intact records.
+     *
+     * @return the encoded records by sequence, in order
+     */
+    Map<Long, byte[]> read() {
+        Map<Long, byte[]> records = new LinkedHashMap<>();
+        ByteBuffer input = this.buffer.duplicate();
+
+        while (input.remaining() >= HEADER_BYTES) {
+            // Stop at the end of the records
+            int length = input.getInt();
+            if (length <= 0 || length > input.remaining() - Integer.BYTES - Long.BYTES) {
+                break;
+            }
+
+            // Stop at a torn record
+            int checksum = input.getInt();
+            long sequence = input.getLong();
+            byte[] payload = new byte[length];
+            input.get(payload);
+            if (checksum(sequence, payload) != checksum) {
+                break;
+            }
+
+            records.put(sequence, payload);
+        }
+
+        return records;
+    }
+
+    /**
+     * Delete the segment file.
+     *
+     * @throws IOException if the file could not be deleted
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+
+    /**
+     * Compute the checksum of a record.
+     *
+     * @param sequence the record sequence
+     * @param payload  the encoded record
+     * @return the checksum
+     */
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
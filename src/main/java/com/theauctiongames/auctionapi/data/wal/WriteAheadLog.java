@@ -0,0 +1,427 @@
+package com.theauctiongames.auctionapi.data.wal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A local write-ahead log of accepted offers, so offers that were being written to the state store when
+ * the replica crashed are not lost.
+ * <p>
+ * Offers are appended to memory-mapped segment files before they are written to the store. A record is in
+ * the page cache once appended, so it survives the process crashing, and is flushed to disk on an interval
+ * so only an operating system crash can lose the latest records. Offers are only acknowledged once the store
+ * has answered, which is their durable copy, so waiting for a flush on every offer buys little. With a zero
+ * interval every append waits for its flush instead, with concurrent appends sharing one flush.
+ * <p>
+ * Once the store has answered, a confirmation is appended without waiting for a flush, and segments are
+ * deleted from the oldest once every record in them is confirmed. On startup the unconfirmed records of the
+ * previous run are recovered for replay.
+ * <p>
+ * The offer path does not append to the log yet. Offers are acknowledged once the store answers, so a log
+ * append would only add to every offer, until offers can be acknowledged from the log on the replica owning
+ * their auction. Records logged by an earlier run are still replayed.
+ */
+@Component
+public class WriteAheadLog {
+
+    /**
+     * The prefix of segment file names.
+     */
+    private static final String SEGMENT_PREFIX = "wal-";
+
+    /**
+     * The suffix of segment file names.
+     */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Whether offers are logged.
+     */
+    private final boolean enabled;
+
+    /**
+     * The directory holding the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * The size of a segment file in bytes.
+     */
+    private final int segmentBytes;
+
+    /**
+     * The interval in milliseconds records are flushed on, or zero to flush every append before returning.
+     */
+    private final long syncIntervalMillis;
+
+    /**
+     * The lock guarding appends and the segments.
+     */
+    private final Object appendLock = new Object();
+
+    /**
+     * The segments of this run by first sequence, oldest first.
+     */
+    private final TreeMap<Long, WalSegment> segments = new TreeMap<>();
+
+    /**
+     * The segment appended to.
+     */
+    private WalSegment active;
+
+    /**
+     * The sequence of the next record.
+     */
+    private long nextSequence = 1;
+
+    /**
+     * The lock guarding flushes.
+     */
+    private final Object syncLock = new Object();
+
+    /**
+     * The sequence up to which every record is flushed.
+     */
+    private long durableSequence;
+
+    /**
+     * Whether a flush is running.
+     */
+    private boolean syncing;
+
+    /**
+     * The unconfirmed records of the previous run, oldest first.
+     */
+    private final List<WalRecord> recovered = new ArrayList<>();
+
+    /**
+     * The segment files of the previous run.
+     */
+    private final List<Path> recoveredFiles = new ArrayList<>();
+
+    /**
+     * The number of flushes.
+     */
+    private final Counter syncs;
+
+    /**
+     * The number of logged offers.
+     */
+    private final Counter appends;
+
+    /**
+     * Construct the write-ahead log, recovering the records of the previous run.
+     *
+     * @param registry     the meter registry
+     * @param enabled      whether offers are logged
+     * @param directory    the directory holding the segment files
+     * @param segmentBytes       the size of a segment file in bytes
+     * @param syncIntervalMillis the interval in milliseconds records are flushed on, or zero to flush every append
+     * @throws IOException if the log could not be recovered or created
+     */
+    public WriteAheadLog(MeterRegistry registry,
+                         @Value("${auction.wal.enabled:false}") boolean enabled,
+                         @Value("${auction.wal.directory:wal}") String directory,
+                         @Value("${auction.wal.segment-bytes:16777216}") int segmentBytes,
+                         @Value("${auction.wal.sync-interval-millis:100}") long syncIntervalMillis) throws IOException {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncs = Counter.builder("auction.wal.syncs")
+                .description("Flushes of the write-ahead log to disk")
+                .register(registry);
+        this.appends = Counter.builder("auction.wal.appends")
+                .description("Offers logged to the write-ahead log")
+                .register(registry);
+
+        if (!this.enabled) {
+            return;
+        }
+
+        // Recover the previous run and start a new segment after it
+        Files.createDirectories(this.directory);
+        recover();
+        this.active = WalSegment.create(segmentPath(this.nextSequence), this.nextSequence, this.segmentBytes);
+        this.segments.put(this.active.firstSequence, this.active);
+
+        // Flush on an interval on a daemon thread
+        if (this.syncIntervalMillis > 0) {
+            ScheduledThreadPoolExecutor flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "wal-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, this.syncIntervalMillis, this.syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Log an offer, waiting until it is flushed to disk unless records are flushed on an interval.
+     *
+     * @param record the offer
+     * @return the record sequence, or -1 if offers are not logged
+     */
+    public long append(WalRecord record) {
+        if (!this.enabled) {
+            return -1;
+        }
+
+        long sequence = write(record);
+        this.appends.increment();
+        if (this.syncIntervalMillis <= 0) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Confirm the store has answered for a logged offer, whether or not it was stored.
+     *
+     * @param sequence the record sequence, or -1 if it was not logged
+     */
+    public void confirm(long sequence) {
+        if (sequence < 0) {
+            return;
+        }
+
+        // The confirmation is flushed with the next flush, a lost one at worst replays an offer
+        write(WalRecord.confirm(sequence));
+
+        synchronized (this.appendLock) {
+            Map.Entry<Long, WalSegment> entry = this.segments.floorEntry(sequence);
+            if (entry != null) {
+                entry.getValue().pending--;
+                truncate();
+            }
+        }
+    }
+
+    /**
+     * Get the unconfirmed records of the previous run.
+     *
+     * @return the records, oldest first
+     */
+    public List<WalRecord> getRecovered() {
+        return List.copyOf(this.recovered);
+    }
+
+    /**
+     * Delete the segment files of the previous run, once its records were replayed.
+     */
+    public void discardRecovered() {
+        try {
+            for (Path path : this.recoveredFiles) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        this.recoveredFiles.clear();
+        this.recovered.clear();
+    }
+
+    /**
+     * Append a record to the active segment, starting a new segment when it is full.
+     *
+     * @param record the record
+     * @return the record sequence
+     */
+    private long write(WalRecord record) {
+        try {
+            // Encode outside the lock
+            byte[] payload = record.encode();
+            if (WalSegment.HEADER_BYTES + payload.length > this.segmentBytes) {
+                throw new IllegalArgumentException("Record exceeds the segment size");
+            }
+
+            synchronized (this.appendLock) {
+                long sequence = this.nextSequence++;
+
+                // Seal the full segment, flushing it so a flush only ever covers the active segment
+                if (!this.active.append(sequence, payload)) {
+                    this.active.force();
+                    this.active.sealed = true;
+                    this.active = WalSegment.create(segmentPath(sequence), sequence, this.segmentBytes);
+                    this.segments.put(sequence, this.active);
+                    this.active.append(sequence, payload);
+                    truncate();
+                }
+
+                if (record.getType() != WalRecordType.CONFIRM) {
+                    this.active.pending++;
+                }
+                return sequence;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Flush every record written so far, unless they already are.
+     */
+    private void flush() {
+        try {
+            long target;
+            synchronized (this.appendLock) {
+                target = this.nextSequence - 1;
+            }
+            awaitDurable(target);
+        } catch (RuntimeException exception) {
+            // Print the error and keep flushing, the next flush covers these records
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Wait until a record is flushed, flushing every record written so far unless another thread already is.
+     *
+     * @param sequence the record sequence
+     */
+    private void awaitDurable(long sequence) {
+        while (true) {
+            // Wait for a running flush, or become the thread that flushes
+            synchronized (this.syncLock) {
+                while (this.durableSequence < sequence && this.syncing) {
+                    try {
+                        this.syncLock.wait();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted waiting for the write-ahead log", exception);
+                    }
+                }
+                if (this.durableSequence >= sequence) {
+                    return;
+                }
+                this.syncing = true;
+            }
+
+            // Flush everything written so far, on behalf of every waiting thread
+            long target;
+            WalSegment segment;
+            synchronized (this.appendLock) {
+                target = this.nextSequence - 1;
+                segment = this.active;
+            }
+
+            boolean flushed = false;
+            try {
+                segment.force();
+                this.syncs.increment();
+                flushed = true;
+            } finally {
+                synchronized (this.syncLock) {
+                    if (flushed) {
+                        this.durableSequence = Math.max(this.durableSequence, target);
+                    }
+                    this.syncing = false;
+                    this.syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete the oldest sealed segments whose records are all confirmed, must be called holding the append
+     * lock.
+     * <p>
+     * Only the oldest segments are deleted, since a segment may hold the confirmations of an older one.
+     */
+    private void truncate() {
+        while (!this.segments.isEmpty()) {
+            WalSegment oldest = this.segments.firstEntry().getValue();
+            if (!oldest.sealed || oldest.pending > 0) {
+                return;
+            }
+
+            try {
+                oldest.delete();
+            } catch (IOException exception) {
+                // Print the error, the segment is deleted with the previous run after a restart
+                exception.printStackTrace();
+            }
+            this.segments.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Read the segment files of the previous run, keeping their unconfirmed records.
+     *
+     * @throws IOException if the files could not be read
+     */
+    private void recover() throws IOException {
+        // Find the segment files, oldest first
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(this.directory)) {
+            files = paths.filter(path -> segmentSequence(path) > 0)
+                    .sorted((first, second) -> Long.compare(segmentSequence(first), segmentSequence(second)))
+                    .toList();
+        }
+
+        // Read the records, dropping confirmed ones
+        Map<Long, WalRecord> records = new LinkedHashMap<>();
+        for (Path file : files) {
+            WalSegment segment = WalSegment.open(file, segmentSequence(file));
+            this.nextSequence = Math.max(this.nextSequence, segment.firstSequence + 1);
+
+            for (Map.Entry<Long, byte[]> entry : segment.read().entrySet()) {
+                WalRecord record = WalRecord.decode(entry.getValue());
+                if (record.getType() == WalRecordType.CONFIRM) {
+                    records.remove(record.confirmedSequence());
+                } else {
+                    records.put(entry.getKey(), record);
+                }
+                this.nextSequence = Math.max(this.nextSequence, entry.getKey() + 1);
+            }
+        }
+
+        this.recovered.addAll(records.values());
+        this.recoveredFiles.addAll(files);
+    }
+
+    /**
+     * Get the path of a segment file.
+     *
+     * @param firstSequence the sequence of the segment's first record
+     * @return the path
+     */
+    private Path segmentPath(long firstSequence) {
+        return this.directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Get the first sequence of a segment file from its name.
+     *
+     * @param path the path
+     * @return the first sequence, or -1 if the file is not a segment
+     */
+    private static long segmentSequence(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+}
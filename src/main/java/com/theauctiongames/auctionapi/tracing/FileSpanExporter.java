@@ -0,0 +1,120 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A span exporter appending finished spans to a local file, one json object per line.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    /**
+     * The file spans are appended to.
+     */
+    private final Path file;
+
+    /**
+     * The open file, or null until the first export, guarded by the exporter.
+     */
+    private Writer writer;
+
+    /**
+     * Construct the file span exporter.
+     *
+     * @param file the file spans are appended to
+     */
+    public FileSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Append finished spans to the file.
+     *
+     * @param batch the finished spans
+     * @return the result of the export
+     */
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        try {
+            // Open the file on the first export
+            if (this.writer == null) {
+                this.writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            // Write a line per span
+            for (SpanData span : batch) {
+                this.writer.write(toJson(span).toString());
+                this.writer.write('\n');
+            }
+            this.writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException exception) {
+            // Print the error, the spans are dropped
+            exception.printStackTrace();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Convert a span to json.
+     *
+     * @param span the span
+     * @return the json object
+     */
+    static JSONObject toJson(SpanData span) {
+        JSONObject attributes = new JSONObject();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+
+        return new JSONObject()
+                .put("traceId", span.getTraceId())
+                .put("spanId", span.getSpanId())
+                .put("parentSpanId", span.getParentSpanId())
+                .put("name", span.getName())
+                .put("kind", span.getKind().name())
+                .put("startEpochMicros", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()))
+                .put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                .put("status", span.getStatus().getStatusCode().name())
+                .put("attributes", attributes);
+    }
+
+    /**
+     * Nothing to flush, every export is flushed.
+     *
+     * @return success
+     */
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Close the file.
+     *
+     * @return the result of closing the file
+     */
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            if (this.writer != null) {
+                this.writer.close();
+                this.writer = null;
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A span exporter keeping finished spans in memory, for tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    /**
+     * The maximum number of kept spans, older spans are dropped.
+     */
+    private static final int MAX_SPANS = 10_000;
+
+    /**
+     * The finished spans, oldest first, guarded by the exporter.
+     */
+    private final List<SpanData> spans = new ArrayList<>();
+
+    /**
+     * Keep finished spans.
+     *
+     * @param batch the finished spans
+     * @return success
+     */
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        this.spans.addAll(batch);
+        if (this.spans.size() > MAX_SPANS) {
+            this.spans.subList(0, this.spans.size() - MAX_SPANS).clear();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Get the finished spans.
+     *
+     * @return a copy of the finished spans, oldest first
+     */
+    public synchronized List<SpanData> getFinishedSpans() {
+        return List.copyOf(this.spans);
+    }
+
+    /**
+     * Drop the finished spans.
+     */
+    public synchronized void reset() {
+        this.spans.clear();
+    }
+
+    /**
+     * Nothing to flush.
+     *
+     * @return success
+     */
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Nothing to release.
+     *
+     * @return success
+     */
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,106 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Opens a client span around every HTTP call to the Dapr sidecar and passes the W3C trace context on, so
+ * Dapr's own spans join the trace.
+ */
+@Component
+public class SidecarTracingInterceptor implements ClientHttpRequestInterceptor {
+
+    /**
+     * The number of leading path segments in a span name, e.g. /v1.0/state/store, keeping keys out of names.
+     */
+    private static final int NAME_SEGMENTS = 3;
+
+    /**
+     * The injected OpenTelemetry instance.
+     */
+    private final OpenTelemetry openTelemetry;
+
+    /**
+     * The injected tracer.
+     */
+    private final Tracer tracer;
+
+    /**
+     * Construct the sidecar tracing interceptor.
+     *
+     * @param openTelemetry the OpenTelemetry instance
+     * @param tracer        the tracer
+     */
+    public SidecarTracingInterceptor(OpenTelemetry openTelemetry, Tracer tracer) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Send a request within a client span.
+     *
+     * @param request   the request
+     * @param body      the request body
+     * @param execution the rest of the request execution
+     * @return the response
+     * @throws IOException if the request failed
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Span span = this.tracer.spanBuilder(request.getMethod() + " " + spanPath(request.getURI().getPath()))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("http.method", request.getMethod().name())
+                .setAttribute("http.url", request.getURI().toString())
+                .setAttribute("http.request_content_length", (long) body.length)
+                .startSpan();
+
+        try (Scope ignored = span.makeCurrent()) {
+            // Pass the trace context to the sidecar
+            this.openTelemetry.getPropagators().getTextMapPropagator()
+                    .inject(Context.current(), request.getHeaders(), (headers, key, value) -> headers.set(key, value));
+
+            // Send the request and record the response
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            span.setAttribute(AttributeKey.longKey("http.status_code"), (long) status);
+            span.setAttribute("http.response_content_length", response.getHeaders().getContentLength());
+            if (status >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            return response;
+        } catch (IOException | RuntimeException exception) {
+            span.recordException(exception);
+            span.setStatus(StatusCode.ERROR);
+            throw exception;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Shorten a sidecar path to its leading segments.
+     *
+     * @param path the request path
+     * @return the shortened path
+     */
+    static String spanPath(String path) {
+        int end = 0;
+        for (int segment = 0; segment < NAME_SEGMENTS && end >= 0; segment++) {
+            end = path.indexOf('/', end + 1);
+        }
+        return end < 0 ? path : path.substring(0, end);
+    }
+}
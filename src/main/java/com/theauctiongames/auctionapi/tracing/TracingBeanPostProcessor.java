@@ -0,0 +1,166 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.OfferResponse;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Wraps the auction service and DAO so every public call runs within a span, named after the interface
+ * and method, with the auction id and the outcome of the call as attributes.
+ * <p>
+ * Nothing is wrapped while tracing is off.
+ */
+@Component
+public class TracingBeanPostProcessor implements BeanPostProcessor {
+
+    /**
+     * The traced interfaces.
+     */
+    private static final Class<?>[] TRACED = {AuctionService.class, AuctionDao.class};
+
+    /**
+     * The attribute of the number of values a call returned.
+     */
+    private static final AttributeKey<Long> RESULT_COUNT = AttributeKey.longKey("auction.result_count");
+
+    /**
+     * Whether tracing is on.
+     */
+    private final boolean enabled;
+
+    /**
+     * The tracer, looked up once beans are wrapped.
+     */
+    private final ObjectProvider<Tracer> tracer;
+
+    /**
+     * Construct the tracing bean post processor.
+     *
+     * @param exporter the exporter, file, memory or none
+     * @param tracer   the tracer
+     */
+    public TracingBeanPostProcessor(@Value("${auction.tracing.exporter:none}") String exporter, ObjectProvider<Tracer> tracer) {
+        this.enabled = !exporter.equals("none");
+        this.tracer = tracer;
+    }
+
+    /**
+     * Wrap the traced beans.
+     *
+     * @param bean     the bean
+     * @param beanName the bean name
+     * @return the bean, or a tracing proxy of it
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!this.enabled) {
+            return bean;
+        }
+
+        for (Class<?> traced : TRACED) {
+            if (traced.isInstance(bean)) {
+                // Proxy the class, since some beans are injected by their implementation
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice(interceptor(traced.getSimpleName()));
+                return factory.getProxy();
+            }
+        }
+
+        return bean;
+    }
+
+    /**
+     * Create the interceptor opening a span around each call.
+     *
+     * @param prefix the span name prefix
+     * @return the interceptor
+     */
+    private MethodInterceptor interceptor(String prefix) {
+        return invocation -> {
+            Method method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+
+            Span span = this.tracer.getObject().spanBuilder(prefix + "." + method.getName()).startSpan();
+            String auctionId = auctionId(method.getParameters(), invocation.getArguments());
+            if (auctionId != null) {
+                span.setAttribute(TracingConfig.AUCTION_ID, auctionId);
+            }
+
+            try (Scope ignored = span.makeCurrent()) {
+                Object result = invocation.proceed();
+                if (result instanceof Collection<?> collection) {
+                    span.setAttribute(RESULT_COUNT, (long) collection.size());
+                } else if (result != null) {
+                    span.setAttribute(TracingConfig.OUTCOME, outcome(result));
+                }
+                return result;
+            } catch (Throwable exception) {
+                Throwable cause = exception instanceof InvocationTargetException target ? target.getCause() : exception;
+                span.recordException(cause);
+                span.setStatus(StatusCode.ERROR);
+                span.setAttribute(TracingConfig.OUTCOME, cause.getClass().getSimpleName());
+                throw exception;
+            } finally {
+                span.end();
+            }
+        };
+    }
+
+    /**
+     * Find the auction a call works on.
+     *
+     * @param parameters the method parameters
+     * @param arguments  the call arguments
+     * @return the auction id, or null if the call is not about a single auction
+     */
+    private static String auctionId(Parameter[] parameters, Object[] arguments) {
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] instanceof AuctionEntity auction) {
+                return auction.getId();
+            } else if (arguments[i] instanceof AuctionModel auction) {
+                return auction.getId();
+            } else if (arguments[i] instanceof String id
+                    && (parameters[i].getName().equals("id") || parameters[i].getName().equals("auctionId"))) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Describe the outcome of a call.
+     *
+     * @param result the call's result
+     * @return the outcome
+     */
+    private static String outcome(Object result) {
+        if (result instanceof OfferResponse response) {
+            return response.name();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? "found" : "empty";
+        }
+        return String.valueOf(result);
+    }
+}
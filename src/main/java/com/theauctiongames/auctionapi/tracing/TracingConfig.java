@@ -0,0 +1,111 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * The OpenTelemetry tracing configuration.
+ * <p>
+ * Spans are exported to a local file of json lines or kept in memory, depending on the configured exporter.
+ * With no exporter, nothing is sampled, so spans cost next to nothing.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * The instrumentation name of the spans.
+     */
+    public static final String INSTRUMENTATION_NAME = "auction-api";
+
+    /**
+     * The attribute of the auction a span worked on, for finding hot auctions.
+     */
+    public static final AttributeKey<String> AUCTION_ID = AttributeKey.stringKey("auction.id");
+
+    /**
+     * The attribute of a span's outcome, e.g. an offer response or whether a value was found.
+     */
+    public static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("auction.outcome");
+
+    /**
+     * Create the span exporter.
+     *
+     * @param exporter the exporter, file, memory or none
+     * @param file     the file spans are written to by the file exporter
+     * @return the span exporter
+     */
+    @Bean
+    public SpanExporter spanExporter(@Value("${auction.tracing.exporter:none}") String exporter,
+                                     @Value("${auction.tracing.file:traces.jsonl}") String file) {
+        return switch (exporter) {
+            case "file" -> new FileSpanExporter(Path.of(file));
+            case "memory" -> new InMemorySpanExporter();
+            default -> SpanExporter.composite();
+        };
+    }
+
+    /**
+     * Create the tracer provider, flushing the exporter when the application stops.
+     *
+     * @param spanExporter the span exporter
+     * @param exporter     the exporter, file, memory or none
+     * @param sampleRatio  the ratio of traces sampled
+     * @return the tracer provider
+     */
+    @Bean(destroyMethod = "close")
+    public SdkTracerProvider tracerProvider(SpanExporter spanExporter,
+                                            @Value("${auction.tracing.exporter:none}") String exporter,
+                                            @Value("${auction.tracing.sample-ratio:1.0}") double sampleRatio) {
+        // Sample nothing without an exporter, and follow the caller's decision otherwise
+        Sampler sampler = exporter.equals("none")
+                ? Sampler.alwaysOff()
+                : Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio));
+
+        // Export in memory right away for tests, and in batches off the request path otherwise
+        return SdkTracerProvider.builder()
+                .setSampler(sampler)
+                .addSpanProcessor(exporter.equals("memory")
+                        ? SimpleSpanProcessor.create(spanExporter)
+                        : BatchSpanProcessor.builder(spanExporter).build())
+                .build();
+    }
+
+    /**
+     * Create the OpenTelemetry instance, propagating W3C trace context.
+     *
+     * @param tracerProvider the tracer provider
+     * @return the OpenTelemetry instance
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(SdkTracerProvider tracerProvider) {
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    /**
+     * Create the tracer.
+     *
+     * @param openTelemetry the OpenTelemetry instance
+     * @return the tracer
+     */
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+}
@@ -0,0 +1,117 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Opens a server span around every request, continuing the caller's W3C trace context.
+ * <p>
+ * The span covers reading and binding the request, so time before the first service span is time spent
+ * in the controller and in Jackson.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    /**
+     * Reads trace context headers from a request.
+     */
+    private static final TextMapGetter<HttpServletRequest> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request == null ? null : request.getHeader(key);
+        }
+    };
+
+    /**
+     * The injected OpenTelemetry instance.
+     */
+    private final OpenTelemetry openTelemetry;
+
+    /**
+     * The injected tracer.
+     */
+    private final Tracer tracer;
+
+    /**
+     * Construct the tracing filter.
+     *
+     * @param openTelemetry the OpenTelemetry instance
+     * @param tracer        the tracer
+     */
+    public TracingFilter(OpenTelemetry openTelemetry, Tracer tracer) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Run the request within a server span.
+     *
+     * @param request  the request
+     * @param response the response
+     * @param chain    the filter chain
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Continue the caller's trace
+        Context parent = this.openTelemetry.getPropagators().getTextMapPropagator()
+                .extract(Context.current(), request, GETTER);
+        Span span = this.tracer.spanBuilder(request.getMethod())
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("http.method", request.getMethod())
+                .setAttribute("http.target", request.getRequestURI())
+                .setAttribute("http.request_content_length", request.getContentLengthLong())
+                .startSpan();
+
+        try (Scope ignored = span.makeCurrent()) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException exception) {
+            span.recordException(exception);
+            span.setStatus(StatusCode.ERROR);
+            throw exception;
+        } finally {
+            // Name the span after the matched route, and record the auction and outcome
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.updateName(request.getMethod() + " " + route);
+                span.setAttribute("http.route", route.toString());
+            }
+            if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                    && variables.get("id") instanceof String id) {
+                span.setAttribute(TracingConfig.AUCTION_ID, id);
+            }
+            span.setAttribute(AttributeKey.longKey("http.status_code"), (long) response.getStatus());
+            if (response.getStatus() >= 500) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+        }
+    }
+}
@@ -80,7 +80,9 @@ class AuctionApiApplicationTests {
                 null,
                 "",
                 System.currentTimeMillis() - 50_000,
-                System.currentTimeMillis() + 100_000_000
+                System.currentTimeMillis() + 100_000_000,
+                null,
+                null
         );
 
         // Create the auction
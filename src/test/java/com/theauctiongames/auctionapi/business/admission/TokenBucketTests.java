@@ -0,0 +1,33 @@
+package com.theauctiongames.auctionapi.business.admission;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The testing class for the token bucket.
+ */
+class TokenBucketTests {
+
+    /**
+     * Test bursting, rejection and refilling.
+     */
+    @Test
+    public void tryAcquire() {
+        // Ten tokens per second with a burst of three
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        // The full burst is admitted, then the bucket is empty for one refill interval
+        assert bucket.tryAcquire(0) == 0;
+        assert bucket.tryAcquire(0) == 0;
+        assert bucket.tryAcquire(0) == 0;
+        assert bucket.tryAcquire(0) == 100_000_000L;
+        assert !bucket.isFull(0);
+
+        // One token refills after 100ms
+        assert bucket.tryAcquire(100_000_000L) == 0;
+        assert bucket.tryAcquire(100_000_000L) > 0;
+
+        // The bucket is full again once every token has refilled
+        assert bucket.isFull(400_000_000L);
+        assert bucket.tryAcquire(400_000_000L) == 0;
+    }
+}
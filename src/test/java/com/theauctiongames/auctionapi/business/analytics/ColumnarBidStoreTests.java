@@ -0,0 +1,115 @@
+package com.theauctiongames.auctionapi.business.analytics;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.BidStatisticsModel;
+import com.theauctiongames.auctionapi.business.models.BidVolumeModel;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the columnar bid store.
+ */
+class ColumnarBidStoreTests {
+
+    /**
+     * Create an auction entity with the given bids.
+     *
+     * @param id   the auction id
+     * @param bids the bids
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(String id, List<OfferEntity> bids) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setSellerId("seller");
+        auction.setTitle("Test Auction");
+        auction.setStartBid(100);
+        auction.setBids(new ArrayList<>(bids));
+        auction.setBinPrice(19_000);
+        auction.setExpirationTimestamp(Long.MAX_VALUE);
+        return auction;
+    }
+
+    /**
+     * Test the per-auction and global aggregates.
+     */
+    @Test
+    public void aggregates() {
+        ColumnarBidStore store = new ColumnarBidStore(null);
+
+        // Load two auctions and bid on one
+        AuctionEntity first = createAuction("first", List.of(
+                new OfferEntity("a", 100, 1_000),
+                new OfferEntity("b", 200, 2_000)));
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "first", first, null));
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "second", createAuction("second", List.of(
+                new OfferEntity("a", 500, 1_500))), null));
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.BID, "first", first, new OfferEntity("c", 300, 3_500)));
+
+        // Loading the same auction again must not duplicate its bids
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "first", first, null));
+
+        // Assert the auction statistics
+        BidStatisticsModel auction = store.getAuctionStatistics("first").orElseThrow();
+        assert auction.getCount() == 3;
+        assert auction.getMaxPrice() == 300;
+        assert auction.getUniqueBidders() == 3;
+        assert auction.getFirstTimestamp() == 1_000;
+        assert auction.getLastTimestamp() == 3_500;
+
+        // Assert the global statistics
+        BidStatisticsModel global = store.getGlobalStatistics();
+        assert global.getCount() == 4;
+        assert global.getMaxPrice() == 500;
+        assert global.getUniqueBidders() == 3;
+
+        // Assert the volume buckets
+        BidVolumeModel volume = store.getVolume(null, 1_000, 1_000, 3).orElseThrow();
+        assert volume.getCounts()[0] == 2;
+        assert volume.getCounts()[1] == 1;
+        assert volume.getCounts()[2] == 1;
+        assert volume.getTotals()[0] == 600;
+
+        // Assert deleted auctions are excluded
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.DELETED, "second", null, null));
+        assert store.getAuctionStatistics("second").isEmpty();
+        assert store.getGlobalStatistics().getCount() == 3;
+    }
+
+    /**
+     * Test that auctions written by other replicas are loaded again from their invalidations.
+     */
+    @Test
+    public void loadsInvalidatedAuctions() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        ColumnarBidStore store = new ColumnarBidStore(auctionDao);
+        store.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "remote", createAuction("remote", List.of(
+                new OfferEntity("a", 100, 1_000))), null));
+
+        // Assert a bid accepted on another replica is appended once
+        Mockito.when(auctionDao.getAuctionById("remote")).thenReturn(Optional.of(createAuction("remote", List.of(
+                new OfferEntity("a", 100, 1_000),
+                new OfferEntity("b", 200, 2_000)))));
+        store.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 2));
+        store.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 2));
+        assert store.getAuctionStatistics("remote").orElseThrow().getCount() == 2;
+
+        // Assert a failed read is skipped
+        Mockito.when(auctionDao.getAuctionById("remote")).thenThrow(new IllegalStateException("Unavailable"));
+        store.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 3));
+        assert store.getAuctionStatistics("remote").orElseThrow().getCount() == 2;
+
+        // Assert a deletion on another replica is applied
+        store.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", -1));
+        assert store.getAuctionStatistics("remote").isEmpty();
+    }
+}
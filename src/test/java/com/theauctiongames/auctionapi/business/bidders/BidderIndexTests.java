@@ -0,0 +1,113 @@
+package com.theauctiongames.auctionapi.business.bidders;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.UserBidModel;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the bidder index.
+ */
+class BidderIndexTests {
+
+    /**
+     * Create an auction entity with the given bids.
+     *
+     * @param id   the auction id
+     * @param bids the bids
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(String id, List<OfferEntity> bids) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setSellerId("seller");
+        auction.setTitle("Test Auction");
+        auction.setStartBid(100);
+        auction.setBids(new ArrayList<>(bids));
+        auction.setBinPrice(19_000);
+        auction.setExpirationTimestamp(Long.MAX_VALUE);
+        return auction;
+    }
+
+    /**
+     * Test a user's standing across auctions, ordering and paging.
+     */
+    @Test
+    public void userBids() {
+        BidderIndex index = new BidderIndex(null);
+
+        // Load two auctions and bid on one
+        AuctionEntity first = createAuction("first", List.of(
+                new OfferEntity("a", 100, 1_000),
+                new OfferEntity("b", 200, 2_000)));
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "first", first, null));
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "second", createAuction("second", List.of(
+                new OfferEntity("a", 500, 1_500))), null));
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.BID, "first", first, new OfferEntity("a", 300, 3_000)));
+
+        // Assert the user's auctions, most recently bid first
+        List<UserBidModel> bids = index.getUserBids("a", false, 0, 10);
+        assert bids.size() == 2;
+        assert bids.get(0).getAuctionId().equals("first");
+        assert bids.get(0).getHighestBid() == 300;
+        assert bids.get(0).isWinning();
+        assert bids.get(0).isActive();
+        assert bids.get(1).getAuctionId().equals("second");
+
+        // Assert the outbid user is not winning
+        assert index.getUserBids("b", true, 0, 10).isEmpty();
+        assert !index.getUserBids("b", false, 0, 10).get(0).isWinning();
+
+        // Assert paging
+        assert index.getUserBids("a", false, 1, 10).get(0).getAuctionId().equals("second");
+        assert index.getUserBids("a", false, 0, 1).size() == 1;
+
+        // Assert a purchase wins and ends the auction
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.PURCHASED, "first", first, new OfferEntity("b", 19_000, 4_000)));
+        UserBidModel purchase = index.getUserBids("b", true, 0, 10).get(0);
+        assert purchase.getHighestBid() == 19_000;
+        assert !purchase.isActive();
+
+        // Assert deleted auctions are removed
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.DELETED, "second", null, null));
+        assert index.getUserBids("a", false, 0, 10).size() == 1;
+    }
+
+    /**
+     * Test that archived bids are indexed, and only read the first time the auction is loaded.
+     */
+    @Test
+    public void archivedBids() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        Mockito.when(auctionDao.getBidChunk("auction", 0)).thenReturn(Optional.of(new BidChunkEntity("auction", 0, List.of(
+                new OfferEntity("archived", 100, 1_000),
+                new OfferEntity("b", 200, 2_000)))));
+        BidderIndex index = new BidderIndex(auctionDao);
+
+        // Load an auction with one archived chunk, twice
+        AuctionEntity auction = createAuction("auction", List.of(new OfferEntity("c", 300, 3_000)));
+        auction.setArchivedBidCount(2);
+        auction.setBidChunkSize(2);
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "auction", auction, null));
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.UPDATED, "auction", auction, null));
+
+        // Assert the archived bidder is indexed and the inline bidder leads
+        List<UserBidModel> archived = index.getUserBids("archived", false, 0, 10);
+        assert archived.size() == 1;
+        assert archived.get(0).getHighestBid() == 100;
+        assert !archived.get(0).isWinning();
+        assert index.getUserBids("c", true, 0, 10).size() == 1;
+
+        // Assert the chunk was read once
+        Mockito.verify(auctionDao, Mockito.times(1)).getBidChunk("auction", 0);
+    }
+}
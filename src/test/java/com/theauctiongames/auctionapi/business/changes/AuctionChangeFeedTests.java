@@ -0,0 +1,59 @@
+package com.theauctiongames.auctionapi.business.changes;
+
+import com.theauctiongames.auctionapi.business.models.AuctionChangesModel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The testing class for the auction change feed.
+ */
+class AuctionChangeFeedTests {
+
+    /**
+     * Test that clients get the changes since their cursor, in pages, and resync once changes were dropped.
+     */
+    @Test
+    public void changesSince() {
+        AuctionChangeFeed feed = new AuctionChangeFeed(4, 100);
+        String start = feed.getCursor();
+        for (int i = 0; i < 3; i++) {
+            feed.append("BID", "auction-" + i, null, null);
+        }
+
+        // Page through the changes
+        AuctionChangesModel first = feed.getChangesSince(start, 2);
+        assert !first.isResync() && first.isMore();
+        assert first.getChanges().size() == 2 && first.getChanges().get(0).getAuctionId().equals("auction-0");
+        AuctionChangesModel second = feed.getChangesSince(first.getCursor(), 2);
+        assert !second.isMore() && second.getChanges().size() == 1 && second.getChanges().get(0).getAuctionId().equals("auction-2");
+        assert second.getChanges().get(0).getCursor().equals(second.getCursor());
+        assert feed.getChangesSince(second.getCursor(), 2).getChanges().isEmpty();
+
+        // Overflow the buffer, dropping the first change
+        String afterFirst = first.getChanges().get(0).getCursor();
+        feed.append("BID", "auction-3", null, null);
+        feed.append("BID", "auction-4", null, null);
+        assert feed.getChangesSince(start, 10).isResync();
+        assert feed.getChangesSince(afterFirst, 10).getChanges().size() == 4;
+
+        // Missing and malformed cursors resync to the latest
+        AuctionChangesModel missing = feed.getChangesSince(null, 10);
+        assert missing.isResync() && missing.getCursor().equals(feed.getCursor());
+        assert feed.getChangesSince("not-a-cursor", 10).isResync();
+    }
+
+    /**
+     * Test that a cursor from another replica or from before a restart is never taken for one of this feed.
+     */
+    @Test
+    public void rejectsOtherEpochs() {
+        AuctionChangeFeed feed = new AuctionChangeFeed(4, 100);
+        AuctionChangeFeed other = new AuctionChangeFeed(4, 200);
+        feed.append("BID", "auction-0", null, null);
+        other.append("BID", "auction-1", null, null);
+
+        // Assert the other feed's cursor at the same sequence is unknown here
+        AuctionChangesModel changes = feed.getChangesSince(other.getCursor(), 10);
+        assert changes.isResync() && changes.getChanges().isEmpty();
+        assert changes.getCursor().equals(feed.getCursor());
+    }
+}
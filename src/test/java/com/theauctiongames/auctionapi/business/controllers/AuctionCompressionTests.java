@@ -0,0 +1,72 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.data.daos.DaprAuctionDao;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for compressing versioned auction responses on a running server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "auction.warmup.enabled=false")
+class AuctionCompressionTests {
+
+    /**
+     * The mocked auction service.
+     */
+    @MockBean
+    private AuctionService service;
+
+    /**
+     * The mocked auction DAO, so no sidecar is needed.
+     */
+    @MockBean
+    private DaprAuctionDao auctionDao;
+
+    /**
+     * The port of the running server.
+     */
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Test that a large auction is gzipped and carries a weak entity tag the client can revalidate with.
+     */
+    @Test
+    public void compressesLargeAuction() throws Exception {
+        AuctionModel auction = new AuctionModel("auction", "seller", "Test Auction", "Description ".repeat(1000), 100,
+                List.of(), 19_000, null, null, 0, Long.MAX_VALUE, null, null);
+        Mockito.when(this.service.getVersionedAuctionById("auction"))
+                .thenReturn(Optional.of(new Versioned<>("1-abc", () -> auction)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + this.port + "/api/v1/auctions/auction");
+
+        // Assert the response is compressed
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assert response.statusCode() == 200;
+        assert response.headers().firstValue("Content-Encoding").orElse("").equals("gzip");
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assert etag.startsWith("W/");
+
+        // Assert the weak tag revalidates, with or without its weakness indicator
+        for (String tag : List.of(etag, etag.substring(2))) {
+            HttpResponse<byte[]> revalidated = client.send(HttpRequest.newBuilder(uri).header("If-None-Match", tag).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assert revalidated.statusCode() == 304;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.admission.AdmissionControl;
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.ownership.AuctionForwarder;
+import com.theauctiongames.auctionapi.business.ownership.AuctionOwnership;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.IdempotencyCache;
+import com.theauctiongames.auctionapi.business.services.OfferResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the auction rest controller.
+ */
+class AuctionRestControllerTests {
+
+    /**
+     * Test that ids reserved for values stored alongside auctions are rejected before reaching the service.
+     */
+    @Test
+    public void rejectsReservedIds() {
+        AuctionService service = Mockito.mock(AuctionService.class);
+        AuctionRestController controller = new AuctionRestController(service, Mockito.mock(IdempotencyCache.class),
+                Mockito.mock(AdmissionControl.class), Mockito.mock(AuctionOwnership.class), Mockito.mock(AuctionForwarder.class));
+        String id = "_idempotency:key";
+        AuctionModel auction = new AuctionModel(id, "seller", "Test Auction", "Description", 100,
+                List.of(), 1_000, null, null, 0, Long.MAX_VALUE, null, null);
+        OfferModel offer = new OfferModel("user", 200, 0);
+
+        // Assert every endpoint taking an auction id rejects it
+        assert controller.getAuctionById(id, null).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.createAuction(auction).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.updateAuction(auction).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.deleteAuctionById(id).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.getBidsForAuction(id, 100, null, null).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.addBidToAuction(id, offer, null, new HttpHeaders()).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.purchaseAuction(id, offer, null, new HttpHeaders()).getStatusCode() == HttpStatus.BAD_REQUEST;
+
+        // Assert the service was never asked
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test that a retry of a completed offer is replayed without being rate limited.
+     */
+    @Test
+    public void replaysBeforeAdmission() {
+        IdempotencyCache idempotencyCache = Mockito.mock(IdempotencyCache.class);
+        AdmissionControl admissionControl = Mockito.mock(AdmissionControl.class);
+        AuctionRestController controller = new AuctionRestController(Mockito.mock(AuctionService.class), idempotencyCache,
+                admissionControl, Mockito.mock(AuctionOwnership.class), Mockito.mock(AuctionForwarder.class));
+        OfferModel bid = new OfferModel("user", 200, 0);
+        Mockito.when(idempotencyCache.getCompleted("key", "bids:auction", bid)).thenReturn(Optional.of(OfferResponse.SUCCESS));
+        Mockito.when(admissionControl.admit("user", "auction")).thenReturn(1_000L);
+
+        // Assert the retry succeeds although the user is over their rate limit
+        assert controller.addBidToAuction("auction", bid, "key", new HttpHeaders()).getStatusCode() == HttpStatus.CREATED;
+        Mockito.verifyNoInteractions(admissionControl);
+
+        // Assert a new offer is still rate limited
+        assert controller.addBidToAuction("auction", bid, null, new HttpHeaders()).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
@@ -0,0 +1,47 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * The testing class for the seller rest controller.
+ */
+class SellerRestControllerTests {
+
+    /**
+     * Test paging through a seller's auctions.
+     */
+    @Test
+    public void pagesSellerAuctions() {
+        AuctionService service = Mockito.mock(AuctionService.class);
+        SellerRestController controller = new SellerRestController(service);
+        Mockito.when(service.getAuctionsBySeller("seller", 0, 2)).thenReturn(List.of(new AuctionModel(), new AuctionModel()));
+        Mockito.when(service.getAuctionsBySeller("seller", 2, 2)).thenReturn(List.of(new AuctionModel()));
+
+        // Assert a full page links to the next one
+        ResponseEntity<?> first = controller.getAuctionsBySeller("seller", 0, 2);
+        assert first.getStatusCode() == HttpStatus.OK;
+        assert ((List<?>) first.getBody()).size() == 2;
+        assert first.getHeaders().getFirst(HttpHeaders.LINK).equals("</api/v1/sellers/seller/auctions?offset=2&limit=2>; rel=\"next\"");
+
+        // Assert the last page has no link
+        ResponseEntity<?> last = controller.getAuctionsBySeller("seller", 2, 2);
+        assert ((List<?>) last.getBody()).size() == 1;
+        assert last.getHeaders().getFirst(HttpHeaders.LINK) == null;
+
+        // Assert the page size is capped
+        controller.getAuctionsBySeller("seller", 0, 1_000);
+        Mockito.verify(service).getAuctionsBySeller("seller", 0, 100);
+
+        // Assert invalid pages are rejected
+        assert controller.getAuctionsBySeller("seller", -1, 2).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.getAuctionsBySeller("seller", 0, 0).getStatusCode() == HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,60 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.data.daos.DaprAuctionDao;
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * The testing class for answering requests with service unavailable when the store is unavailable.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "auction.warmup.enabled=false")
+class StoreUnavailableAdviceTests {
+
+    /**
+     * The mocked auction service.
+     */
+    @MockBean
+    private AuctionService service;
+
+    /**
+     * The mocked auction DAO, so no sidecar is needed.
+     */
+    @MockBean
+    private DaprAuctionDao auctionDao;
+
+    /**
+     * The port of the running server.
+     */
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Test that an unavailable store is answered with service unavailable, and any other failure with an error.
+     */
+    @Test
+    public void mapsStoreUnavailable() throws Exception {
+        Mockito.when(this.service.getAllAuctions()).thenThrow(new StoreUnavailableException("State store circuit breaker is open"));
+        Mockito.when(this.service.getVersionedAuctionById("auction")).thenThrow(new IllegalStateException("Unexpected"));
+        HttpClient client = HttpClient.newHttpClient();
+
+        // Assert the unavailable store is a temporary failure
+        HttpResponse<String> unavailable = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + this.port + "/api/v1/auctions")).build(), HttpResponse.BodyHandlers.ofString());
+        assert unavailable.statusCode() == 503;
+
+        // Assert other failures are still server errors
+        HttpResponse<String> failed = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + this.port + "/api/v1/auctions/auction")).build(), HttpResponse.BodyHandlers.ofString());
+        assert failed.statusCode() == 500;
+    }
+}
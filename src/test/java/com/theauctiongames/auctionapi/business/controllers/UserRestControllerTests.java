@@ -0,0 +1,56 @@
+package com.theauctiongames.auctionapi.business.controllers;
+
+import com.theauctiongames.auctionapi.business.bidders.BidderIndex;
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.UserBidModel;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The testing class for the user rest controller.
+ */
+class UserRestControllerTests {
+
+    /**
+     * Test paging through a user's bids.
+     */
+    @Test
+    public void pagesUserBids() {
+        BidderIndex index = new BidderIndex(null);
+        UserRestController controller = new UserRestController(index);
+
+        // Bid on three auctions
+        for (int i = 0; i < 3; i++) {
+            AuctionEntity auction = new AuctionEntity();
+            auction.setId("auction-" + i);
+            auction.setBids(new ArrayList<>(List.of(new OfferEntity("user", 100, 1_000 + i))));
+            auction.setExpirationTimestamp(Long.MAX_VALUE);
+            index.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, auction.getId(), auction, null));
+        }
+
+        // Assert a full page links to the next one
+        ResponseEntity<?> first = controller.getUserBids("user", false, 0, 2);
+        assert first.getStatusCode() == HttpStatus.OK;
+        assert ((List<?>) first.getBody()).size() == 2;
+        assert first.getHeaders().getFirst(HttpHeaders.LINK).contains("offset=2&limit=2");
+
+        // Assert the last page has no link
+        ResponseEntity<?> last = controller.getUserBids("user", false, 2, 2);
+        List<?> bids = (List<?>) last.getBody();
+        assert bids.size() == 1;
+        assert ((UserBidModel) bids.get(0)).getAuctionId().equals("auction-0");
+        assert last.getHeaders().getFirst(HttpHeaders.LINK) == null;
+
+        // Assert invalid pages are rejected
+        assert controller.getUserBids("user", false, -1, 2).getStatusCode() == HttpStatus.BAD_REQUEST;
+        assert controller.getUserBids("user", false, 0, 0).getStatusCode() == HttpStatus.BAD_REQUEST;
+    }
+}
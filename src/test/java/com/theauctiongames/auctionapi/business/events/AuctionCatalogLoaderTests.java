@@ -0,0 +1,97 @@
+package com.theauctiongames.auctionapi.business.events;
+
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.snapshots.AuctionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The testing class for the auction catalog loader.
+ */
+class AuctionCatalogLoaderTests {
+
+    /**
+     * Create an auction.
+     *
+     * @param id      the auction id
+     * @param version the auction version
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(String id, long version) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setCreationTimestamp(1_000);
+        auction.setVersion(version);
+        return auction;
+    }
+
+    /**
+     * Wait for the background reconcile to finish.
+     */
+    private void awaitReconcile() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("auction-reconcile")) {
+                thread.join(5_000);
+            }
+        }
+    }
+
+    /**
+     * Test that the reconcile never publishes a store read older than a change published meanwhile, nor
+     * brings back an auction deleted meanwhile.
+     */
+    @Test
+    public void skipsChangesPublishedWhileReading() throws Exception {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        AuctionSnapshotter snapshotter = Mockito.mock(AuctionSnapshotter.class);
+        List<AuctionEvent> events = new CopyOnWriteArrayList<>();
+        AuctionCatalogLoader[] loader = new AuctionCatalogLoader[1];
+        ApplicationEventPublisher publisher = event -> {
+            loader[0].onAuctionEvent((AuctionEvent) event);
+            events.add((AuctionEvent) event);
+        };
+        loader[0] = new AuctionCatalogLoader(auctionDao, publisher, snapshotter, 0);
+        Mockito.when(snapshotter.getKnown(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(snapshotter.load()).thenReturn(Optional.of(new AuctionSnapshot(0,
+                List.of(createAuction("bid", 3), createAuction("deleted", 3), createAuction("stale", 3)))));
+
+        // Change two auctions after the store was read but before the reconcile checks them
+        Mockito.when(auctionDao.getAllAuctions()).thenAnswer(invocation -> {
+            publisher.publishEvent(new AuctionEvent(AuctionEventType.BID, "bid", createAuction("bid", 5), null));
+            publisher.publishEvent(new AuctionEvent(AuctionEventType.DELETED, "deleted", null, null));
+            return List.of(createAuction("bid", 4), createAuction("deleted", 4), createAuction("stale", 4));
+        });
+
+        loader[0].run(null);
+        awaitReconcile();
+
+        // Assert only the auction not changed meanwhile was reconciled
+        List<AuctionEvent> reconciled = events.subList(5, events.size());
+        assert reconciled.size() == 1;
+        assert reconciled.get(0).getType() == AuctionEventType.LOADED;
+        assert reconciled.get(0).getAuction().getId().equals("stale");
+        assert reconciled.get(0).getAuction().getVersion() == 4;
+    }
+
+    /**
+     * Test that a failure to load the catalog does not stop the application from starting.
+     */
+    @Test
+    public void startsWhenLoadFails() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        AuctionSnapshotter snapshotter = Mockito.mock(AuctionSnapshotter.class);
+        ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+        Mockito.when(snapshotter.load()).thenReturn(Optional.empty());
+        Mockito.when(auctionDao.getAllAuctions()).thenThrow(new IllegalStateException("The port must be an integer: null"));
+
+        // Assert the loader returns without publishing anything
+        new AuctionCatalogLoader(auctionDao, publisher, snapshotter, 0).run(null);
+        Mockito.verifyNoInteractions(publisher);
+    }
+}
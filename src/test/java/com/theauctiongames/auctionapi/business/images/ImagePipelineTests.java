@@ -0,0 +1,93 @@
+package com.theauctiongames.auctionapi.business.images;
+
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.ImageEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The testing class for the image pipeline.
+ */
+class ImagePipelineTests {
+
+    /**
+     * Test that images are scaled to fit, keeping their aspect ratio and never scaled up.
+     */
+    @Test
+    public void scalesToFit() {
+        BufferedImage wide = ImagePipeline.scale(new BufferedImage(1000, 500, BufferedImage.TYPE_3BYTE_BGR), 160);
+        assert wide.getWidth() == 160 && wide.getHeight() == 80;
+        assert wide.getType() == BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage tall = ImagePipeline.scale(new BufferedImage(300, 1200, BufferedImage.TYPE_INT_ARGB), 480);
+        assert tall.getWidth() == 120 && tall.getHeight() == 480;
+        assert tall.getColorModel().hasAlpha();
+
+        BufferedImage small = ImagePipeline.scale(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), 160);
+        assert small.getWidth() == 40 && small.getHeight() == 30;
+    }
+
+    /**
+     * Test that identical content hashes the same.
+     */
+    @Test
+    public void hashesContent() {
+        String hash = ImagePipeline.hash("image".getBytes(StandardCharsets.UTF_8));
+        assert hash.length() == 64;
+        assert hash.equals(ImagePipeline.hash("image".getBytes(StandardCharsets.UTF_8)));
+        assert !hash.equals(ImagePipeline.hash("other".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test that only raster formats are recognized, from their leading bytes.
+     */
+    @Test
+    public void sniffsContentType() {
+        assert ImagePipeline.sniffContentType(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0}).orElseThrow().equals("image/png");
+        assert ImagePipeline.sniffContentType(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}).orElseThrow().equals("image/jpeg");
+        assert ImagePipeline.sniffContentType("GIF89a...".getBytes(StandardCharsets.US_ASCII)).orElseThrow().equals("image/gif");
+        assert ImagePipeline.sniffContentType("RIFF....WEBPVP8 ".getBytes(StandardCharsets.US_ASCII)).orElseThrow().equals("image/webp");
+        assert ImagePipeline.sniffContentType("<svg onload=alert(1)>".getBytes(StandardCharsets.US_ASCII)).isEmpty();
+        assert ImagePipeline.sniffContentType("<html>".getBytes(StandardCharsets.US_ASCII)).isEmpty();
+        assert ImagePipeline.sniffContentType(new byte[]{(byte) 0x89, 'P'}).isEmpty();
+    }
+
+    /**
+     * Test that the media type claimed by a data URL is never stored.
+     */
+    @Test
+    public void ignoresClaimedContentType() throws Exception {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        ImagePipeline pipeline = new ImagePipeline(auctionDao, new SimpleMeterRegistry(), 1, 1, 1_000_000, 1_000_000);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        // Assert an image claimed to be a page is stored as what it is
+        AuctionEntity auction = new AuctionEntity();
+        auction.setBase64Image("data:text/html;base64," + Base64.getEncoder().encodeToString(png.toByteArray()));
+        pipeline.attach(auction);
+        ArgumentCaptor<ImageEntity> stored = ArgumentCaptor.forClass(ImageEntity.class);
+        Mockito.verify(auctionDao, Mockito.atLeastOnce()).storeImage(stored.capture());
+        assert stored.getAllValues().get(0).getContentType().equals("image/png");
+
+        // Assert a page claimed to be an image is rejected
+        AuctionEntity page = new AuctionEntity();
+        page.setBase64Image("data:image/png;base64," + Base64.getEncoder().encodeToString(
+                "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8)));
+        try {
+            pipeline.attach(page);
+            assert false;
+        } catch (InvalidImageException expected) {
+        }
+        assert page.getImageHash() == null;
+    }
+}
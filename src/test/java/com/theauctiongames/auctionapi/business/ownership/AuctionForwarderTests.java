@@ -0,0 +1,58 @@
+package com.theauctiongames.auctionapi.business.ownership;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The testing class for the auction forwarder.
+ */
+class AuctionForwarderTests {
+
+    /**
+     * Create request headers.
+     *
+     * @param forwardedBy the forwarded header, or null
+     * @param caller      the sidecar's caller app id, or null
+     * @param secret      the forwarding secret, or null
+     * @return the headers
+     */
+    private HttpHeaders headers(String forwardedBy, String caller, String secret) {
+        HttpHeaders headers = new HttpHeaders();
+        if (forwardedBy != null) {
+            headers.set(AuctionForwarder.FORWARDED_BY, forwardedBy);
+        }
+        if (caller != null) {
+            headers.set("dapr-caller-app-id", caller);
+        }
+        if (secret != null) {
+            headers.set("X-Auction-Forward-Secret", secret);
+        }
+        return headers;
+    }
+
+    /**
+     * Test that only requests from a replica through the sidecar are trusted as forwarded.
+     */
+    @Test
+    public void trustsReplicasOnly() {
+        AuctionForwarder forwarder = new AuctionForwarder(2000, null, new AuctionOwnership("a", "a,b", 16), "");
+
+        assert forwarder.isForwarded(headers("b", "b", null));
+        assert !forwarder.isForwarded(headers(null, "b", null));
+        assert !forwarder.isForwarded(headers("b", null, null));
+        assert !forwarder.isForwarded(headers("b", "client", null));
+        assert !forwarder.isForwarded(headers("client", "client", null));
+    }
+
+    /**
+     * Test that a configured secret must be presented.
+     */
+    @Test
+    public void requiresSecret() {
+        AuctionForwarder forwarder = new AuctionForwarder(2000, null, new AuctionOwnership("a", "a,b", 16), "secret");
+
+        assert forwarder.isForwarded(headers("b", "b", "secret"));
+        assert !forwarder.isForwarded(headers("b", "b", null));
+        assert !forwarder.isForwarded(headers("b", "b", "guess"));
+    }
+}
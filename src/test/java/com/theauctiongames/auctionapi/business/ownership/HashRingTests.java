@@ -0,0 +1,44 @@
+package com.theauctiongames.auctionapi.business.ownership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The testing class for the consistent hash ring.
+ */
+class HashRingTests {
+
+    /**
+     * Test that keys spread evenly and that a new member only takes over its share.
+     */
+    @Test
+    public void rebalance() {
+        HashRing three = new HashRing(List.of("a", "b", "c"), 128);
+        HashRing four = new HashRing(List.of("a", "b", "c", "d"), 128);
+        int keys = 10_000;
+
+        Map<String, Integer> shares = new HashMap<>();
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String key = "auction-" + i;
+            String before = three.ownerOf(key);
+            String after = four.ownerOf(key);
+            shares.merge(before, 1, Integer::sum);
+
+            // Keys only ever move to the new member
+            if (!before.equals(after)) {
+                assert after.equals("d");
+                moved++;
+            }
+        }
+
+        // Each member owns roughly a third, and about a quarter moves to the new member
+        for (int share : shares.values()) {
+            assert share > keys / 3 * 0.8 && share < keys / 3 * 1.2 : shares;
+        }
+        assert moved > keys / 4 * 0.8 && moved < keys / 4 * 1.2 : moved;
+    }
+}
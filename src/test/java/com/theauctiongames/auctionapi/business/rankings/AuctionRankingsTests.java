@@ -0,0 +1,117 @@
+package com.theauctiongames.auctionapi.business.rankings;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.RankedAuctionModel;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The testing class for the auction rankings.
+ */
+class AuctionRankingsTests {
+
+    /**
+     * Create an auction entity with the given bids.
+     *
+     * @param id                  the auction id
+     * @param expirationTimestamp the expiration timestamp
+     * @param bids                the bids
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(String id, long expirationTimestamp, List<OfferEntity> bids) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setSellerId("seller");
+        auction.setTitle("Test Auction " + id);
+        auction.setStartBid(100);
+        auction.setBids(new ArrayList<>(bids));
+        auction.setBinPrice(19_000);
+        auction.setExpirationTimestamp(expirationTimestamp);
+        return auction;
+    }
+
+    /**
+     * Get the ids of ranked auctions, in order.
+     *
+     * @param ranked the ranked auctions
+     * @return the ids
+     */
+    private List<String> ids(List<RankedAuctionModel> ranked) {
+        return ranked.stream().map(RankedAuctionModel::getId).toList();
+    }
+
+    /**
+     * Test the ending soon, hottest and highest price orderings.
+     */
+    @Test
+    public void orderings() {
+        AuctionRankings rankings = new AuctionRankings(15);
+        long now = System.currentTimeMillis();
+
+        // Load three auctions with different expirations, prices and recent bids
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "first", createAuction("first", now + 30_000, List.of(
+                new OfferEntity("a", 500, now - 1_000))), null));
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "second", createAuction("second", now + 10_000, List.of()), null));
+        AuctionEntity third = createAuction("third", now + 20_000, List.of(
+                new OfferEntity("a", 200, now - 2_000),
+                new OfferEntity("b", 300, now - 1_000)));
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, "third", third, null));
+
+        // Assert the orderings, only auctions with recent bids are hot
+        assert ids(rankings.getEndingSoon(10)).equals(List.of("second", "third", "first"));
+        assert ids(rankings.getHighestPrice(10)).equals(List.of("first", "third", "second"));
+        assert ids(rankings.getHottest(10)).equals(List.of("third", "first"));
+        assert ids(rankings.getEndingSoon(2)).equals(List.of("second", "third"));
+
+        // Bid on the third auction, taking the lead in price
+        OfferEntity bid = new OfferEntity("c", 600, now);
+        third.getBids().add(bid);
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.BID, "third", third, bid));
+
+        // Assert the bid moved the auction up and is counted
+        assert ids(rankings.getHighestPrice(10)).equals(List.of("third", "first", "second"));
+        RankedAuctionModel hottest = rankings.getHottest(1).get(0);
+        assert hottest.getId().equals("third");
+        assert hottest.getRecentBidCount() == 3;
+        assert hottest.getBidCount() == 3;
+        assert hottest.getCurrentPrice() == 600;
+    }
+
+    /**
+     * Test that purchased, deleted and expired auctions are evicted from every ranking.
+     */
+    @Test
+    public void eviction() {
+        AuctionRankings rankings = new AuctionRankings(15);
+        long now = System.currentTimeMillis();
+
+        // Load three auctions with recent bids
+        for (String id : List.of("first", "second", "third")) {
+            rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.LOADED, id, createAuction(id, now + 60_000, List.of(
+                    new OfferEntity("a", 200, now))), null));
+        }
+
+        // Purchase one and delete another
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.PURCHASED, "first", null, null));
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.DELETED, "second", null, null));
+
+        // Assert only the remaining auction is ranked
+        assert ids(rankings.getEndingSoon(10)).equals(List.of("third"));
+        assert ids(rankings.getHighestPrice(10)).equals(List.of("third"));
+        assert ids(rankings.getHottest(10)).equals(List.of("third"));
+
+        // Update the remaining auction so it has already expired
+        rankings.onAuctionEvent(new AuctionEvent(AuctionEventType.UPDATED, "third", createAuction("third", now - 1, List.of()), null));
+        rankings.sweep();
+
+        // Assert nothing is ranked
+        assert rankings.getEndingSoon(10).isEmpty();
+        assert rankings.getHighestPrice(10).isEmpty();
+        assert rankings.getHottest(10).isEmpty();
+    }
+}
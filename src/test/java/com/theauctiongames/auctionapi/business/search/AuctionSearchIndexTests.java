@@ -0,0 +1,95 @@
+package com.theauctiongames.auctionapi.business.search;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.business.models.SearchResultModel;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the auction search index.
+ */
+class AuctionSearchIndexTests {
+
+    /**
+     * Publish an auction event for an auction with the given text.
+     *
+     * @param index       the search index
+     * @param type        the event type
+     * @param id          the auction id
+     * @param title       the auction title
+     * @param description the auction description
+     */
+    private void publish(AuctionSearchIndex index, AuctionEventType type, String id, String title, String description) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setTitle(title);
+        auction.setDescription(description);
+        auction.setBids(List.of());
+        index.onAuctionEvent(new AuctionEvent(type, id, auction, null));
+    }
+
+    /**
+     * Test ranking, prefix matching and incremental updates.
+     */
+    @Test
+    public void search() {
+        AuctionSearchIndex index = new AuctionSearchIndex(null);
+        publish(index, AuctionEventType.LOADED, "lamp", "Vintage Lamp", "A brass desk lamp");
+        publish(index, AuctionEventType.LOADED, "desk", "Oak Desk", "Solid oak, fits a lamp");
+        publish(index, AuctionEventType.CREATED, "chair", "Desk Chair", "Vintage leather");
+
+        // Assert title matches rank first
+        List<SearchResultModel> results = index.search("lamp", 10);
+        assert results.size() == 2;
+        assert results.get(0).getId().equals("lamp");
+
+        // Assert the last term matches as a prefix
+        results = index.search("vint", 10);
+        assert results.size() == 2;
+        assert results.get(0).getId().equals("lamp") || results.get(0).getId().equals("chair");
+
+        // Assert updates and deletes are applied
+        publish(index, AuctionEventType.UPDATED, "desk", "Pine Desk", "Solid pine");
+        assert index.search("oak", 10).isEmpty();
+        index.onAuctionEvent(new AuctionEvent(AuctionEventType.DELETED, "chair", null, null));
+        assert index.search("leather", 10).isEmpty();
+        assert index.search("desk", 10).size() == 2;
+    }
+
+    /**
+     * Test that auctions written by other replicas are indexed from their invalidations.
+     */
+    @Test
+    public void indexesInvalidatedAuctions() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        AuctionSearchIndex index = new AuctionSearchIndex(auctionDao);
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("remote");
+        auction.setTitle("Vintage Lamp");
+        auction.setBids(List.of());
+        Mockito.when(auctionDao.getAuctionById("remote")).thenReturn(Optional.of(auction));
+
+        // Assert an auction created on another replica is found
+        index.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 1));
+        assert index.search("lamp", 10).size() == 1;
+
+        // Assert a deletion on another replica is applied without reading the auction
+        index.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", -1));
+        assert index.search("lamp", 10).isEmpty();
+        Mockito.verify(auctionDao, Mockito.times(1)).getAuctionById("remote");
+
+        // Assert an auction gone from the store is removed
+        index.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 2));
+        assert index.search("lamp", 10).size() == 1;
+        Mockito.when(auctionDao.getAuctionById("remote")).thenReturn(Optional.empty());
+        index.onAuctionInvalidated(new AuctionInvalidatedEvent("remote", 3));
+        assert index.search("lamp", 10).isEmpty();
+    }
+}
@@ -0,0 +1,148 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.resilience.StoreUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * The testing class for the actor auction service.
+ */
+class ActorAuctionServiceTests {
+
+    /**
+     * The mocked auction DAO.
+     */
+    private final AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+
+    /**
+     * The mocked template the sidecar is called with.
+     */
+    private final RestTemplate template = Mockito.mock(RestTemplate.class);
+
+    /**
+     * The json object mapper.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Create a service over the mocked DAO and template.
+     *
+     * @return the actor auction service
+     */
+    private ActorAuctionService createService() {
+        return new ActorAuctionService(this.auctionDao, new BidCompactionPolicy(50, 200),
+                Mockito.mock(ApplicationEventPublisher.class), this.mapper, new BidFastPath(10, 60_000, true, new SimpleMeterRegistry()),
+                Mockito.mock(ImagePipeline.class), this.template);
+    }
+
+    /**
+     * Store an open auction without bids in the mocked store, returning a fresh copy on every read.
+     */
+    private void storeAuction() {
+        Mockito.when(this.auctionDao.getAuctionById("auction")).thenAnswer(invocation -> {
+            AuctionEntity auction = new AuctionEntity();
+            auction.setId("auction");
+            auction.setStartBid(10);
+            auction.setBinPrice(100);
+            auction.setExpirationTimestamp(System.currentTimeMillis() + 60_000);
+            auction.setBids(new ArrayList<>());
+            auction.setVersion(1);
+            return Optional.of(auction);
+        });
+    }
+
+    /**
+     * Send a bid to the auction's actor.
+     *
+     * @param service the actor auction service
+     * @param price   the bid price
+     * @return the offer response
+     */
+    private OfferResponse bid(ActorAuctionService service, double price) throws Exception {
+        String body = this.mapper.writeValueAsString(new OfferModel("user", price, 0));
+        return OfferResponse.valueOf(new JSONObject(service.onActorMethod("auction", "bid", body)).getString("response"));
+    }
+
+    /**
+     * Test that offers run against the auction kept in memory, which only holds stored changes.
+     */
+    @Test
+    public void keepsStoredOffers() throws Exception {
+        ActorAuctionService service = createService();
+        storeAuction();
+        Mockito.when(this.auctionDao.updateAuction(Mockito.any())).thenReturn(true);
+
+        // Assert the bids are checked against each other without reading the auction again
+        assert bid(service, 20) == OfferResponse.SUCCESS;
+        assert bid(service, 20) == OfferResponse.TOO_LOW;
+        assert bid(service, 30) == OfferResponse.SUCCESS;
+        Mockito.verify(this.auctionDao, Mockito.times(1)).getAuctionById("auction");
+        Mockito.verify(this.auctionDao, Mockito.times(2)).updateAuction(Mockito.any());
+    }
+
+    /**
+     * Test that a bid whose write failed or threw is not kept, and the auction is read again.
+     */
+    @Test
+    public void reloadsAfterFailedWrite() throws Exception {
+        ActorAuctionService service = createService();
+        storeAuction();
+        Mockito.when(this.auctionDao.updateAuction(Mockito.any()))
+                .thenThrow(new StoreUnavailableException("State store circuit breaker is open"))
+                .thenReturn(false)
+                .thenReturn(true);
+
+        // Assert the thrown write reaches the caller
+        try {
+            bid(service, 20);
+            assert false;
+        } catch (StoreUnavailableException expected) {
+        }
+
+        // Assert the failed write left no phantom bid behind either
+        assert bid(service, 20) == OfferResponse.SERVER_ERROR;
+        assert bid(service, 20) == OfferResponse.SUCCESS;
+
+        // Assert the auction was read again after each failure
+        Mockito.verify(this.auctionDao, Mockito.times(3)).getAuctionById("auction");
+    }
+
+    /**
+     * Test that the expiration reminder and a deactivation free the actor's state, so it is read again.
+     */
+    @Test
+    public void freesStateOnReminderAndDeactivation() throws Exception {
+        ActorAuctionService service = createService();
+        storeAuction();
+        Mockito.when(this.auctionDao.updateAuction(Mockito.any())).thenReturn(true);
+        bid(service, 20);
+
+        // Assert other reminders keep the state
+        service.onActorReminder("auction", "other");
+        bid(service, 30);
+        Mockito.verify(this.auctionDao, Mockito.times(1)).getAuctionById("auction");
+
+        // Assert the expiration reminder frees the state and stops itself
+        service.onActorReminder("auction", ActorAuctionService.EXPIRATION_REMINDER);
+        Mockito.verify(this.template).delete(Mockito.endsWith("/auction/reminders/" + ActorAuctionService.EXPIRATION_REMINDER));
+        bid(service, 40);
+        Mockito.verify(this.auctionDao, Mockito.times(2)).getAuctionById("auction");
+
+        // Assert a deactivation frees the state
+        service.onActorDeactivated("auction");
+        bid(service, 50);
+        Mockito.verify(this.auctionDao, Mockito.times(3)).getAuctionById("auction");
+    }
+}
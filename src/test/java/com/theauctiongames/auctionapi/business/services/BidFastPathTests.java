@@ -0,0 +1,138 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.data.cache.AuctionCache;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidatedEvent;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidationBus;
+import com.theauctiongames.auctionapi.data.cache.InvalidationMessage;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+/**
+ * The testing class for the bid fast path.
+ */
+class BidFastPathTests {
+
+    /**
+     * Test that only bids that cannot win are rejected, and that older versions never replace newer ones.
+     */
+    @Test
+    public void rejectsLosingBids() {
+        BidFastPath fastPath = new BidFastPath(10, 60_000, true, new SimpleMeterRegistry());
+        AuctionEntity auction = auction(2, 20);
+
+        // Unknown auctions always go to the store
+        assert fastPath.check("auction", 1) == OfferResponse.SUCCESS;
+
+        fastPath.learn(auction);
+        assert fastPath.check("auction", 5) == OfferResponse.TOO_LOW;
+        assert fastPath.check("auction", 20) == OfferResponse.TOO_LOW;
+        assert fastPath.check("auction", 100) == OfferResponse.TOO_HIGH;
+        assert fastPath.check("auction", 21) == OfferResponse.SUCCESS;
+
+        // A stale read does not lower the bar
+        fastPath.learn(auction(1, 15));
+        assert fastPath.check("auction", 18) == OfferResponse.TOO_LOW;
+
+        // A write on another replica drops the state
+        fastPath.onAuctionInvalidated(new AuctionInvalidatedEvent("auction", 3));
+        assert fastPath.check("auction", 18) == OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Test that an update on another replica relaxing a rejection is reported with the cache disabled.
+     */
+    @Test
+    public void dropsRemoteUpdates() {
+        BidFastPath fastPath = new BidFastPath(10, 60_000, true, new SimpleMeterRegistry());
+        AuctionInvalidationBus bus = new AuctionInvalidationBus(new AuctionCache(false, 10, 60_000), true,
+                event -> fastPath.onAuctionInvalidated((AuctionInvalidatedEvent) event), "pubsub", "topic", null);
+
+        // Learn an expired auction
+        AuctionEntity auction = auction(2, 20);
+        auction.setExpirationTimestamp(System.currentTimeMillis() - 1);
+        fastPath.learn(auction);
+        assert fastPath.check("auction", 50) == OfferResponse.EXPIRED;
+
+        // Another replica extends it, the next bid goes to the store
+        assert !bus.getSubscriptions("/route").isEmpty();
+        bus.onMessage(new InvalidationMessage("auction", 3, false, "other-replica"));
+        assert fastPath.check("auction", 50) == OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Test that a store read started before a write on another replica cannot bring the older state back.
+     */
+    @Test
+    public void refusesReadsOlderThanInvalidation() {
+        BidFastPath fastPath = new BidFastPath(10, 60_000, true, new SimpleMeterRegistry());
+        fastPath.learn(auction(2, 20));
+
+        // The write is reported before the older read finishes
+        fastPath.onAuctionInvalidated(new AuctionInvalidatedEvent("auction", 3));
+        fastPath.learn(auction(2, 20));
+        assert fastPath.check("auction", 18) == OfferResponse.SUCCESS;
+
+        // The written version is learned again
+        fastPath.learn(auction(3, 20));
+        assert fastPath.check("auction", 18) == OfferResponse.TOO_LOW;
+
+        // Nothing older than a deletion is learned
+        fastPath.onAuctionInvalidated(new AuctionInvalidatedEvent("auction", -1));
+        fastPath.learn(auction(4, 20));
+        assert fastPath.check("auction", 18) == OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Test that a state is no longer trusted after its maximum age, in case a write was not reported.
+     */
+    @Test
+    public void expiresStates() throws InterruptedException {
+        BidFastPath fastPath = new BidFastPath(10, 50, true, new SimpleMeterRegistry());
+        fastPath.learn(auction(2, 20));
+        assert fastPath.check("auction", 18) == OfferResponse.TOO_LOW;
+
+        // Assert the bid goes to the store once the state is too old
+        Thread.sleep(100);
+        assert fastPath.check("auction", 18) == OfferResponse.SUCCESS;
+        fastPath.sweep();
+        fastPath.learn(auction(1, 20));
+        assert fastPath.check("auction", 18) == OfferResponse.TOO_LOW;
+    }
+
+    /**
+     * Test that nothing is rejected when writes on other replicas are not reported.
+     */
+    @Test
+    public void trustsStoreWithoutInvalidations() {
+        BidFastPath fastPath = new BidFastPath(10, 60_000, false, new SimpleMeterRegistry());
+        AuctionEntity auction = auction(2, 20);
+        auction.setPurchase(new OfferEntity("user", 100, 0));
+        fastPath.learn(auction);
+
+        assert fastPath.check("auction", 5) == OfferResponse.SUCCESS;
+        assert fastPath.check("auction", 100) == OfferResponse.SUCCESS;
+    }
+
+    /**
+     * Create an auction with a single bid.
+     *
+     * @param version the auction version
+     * @param price   the bid price
+     * @return the auction
+     */
+    private static AuctionEntity auction(long version, double price) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("auction");
+        auction.setVersion(version);
+        auction.setStartBid(10);
+        auction.setBinPrice(100);
+        auction.setExpirationTimestamp(System.currentTimeMillis() + 60_000);
+        auction.setBids(new ArrayList<>());
+        auction.getBids().add(new OfferEntity("user", price, 0));
+        return auction;
+    }
+}
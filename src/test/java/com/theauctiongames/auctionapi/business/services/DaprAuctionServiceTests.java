@@ -0,0 +1,212 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.BidChunkEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the dapr auction service.
+ */
+class DaprAuctionServiceTests {
+
+    /**
+     * The mocked auction DAO.
+     */
+    private final AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+
+    /**
+     * Create a service over the mocked DAO, archiving chunks of two bids and keeping at least two inline.
+     *
+     * @return the dapr auction service
+     */
+    private DaprAuctionService createService() {
+        return new DaprAuctionService(this.auctionDao, new BidCompactionPolicy(2, 2), Mockito.mock(ApplicationEventPublisher.class),
+                new BidFastPath(10, 60_000, true, new SimpleMeterRegistry()), Mockito.mock(ImagePipeline.class));
+    }
+
+    /**
+     * Create a bid numbered from the oldest, priced at ten times its number.
+     *
+     * @param number the bid number
+     * @return the bid
+     */
+    private OfferEntity createBid(int number) {
+        return new OfferEntity("user", number * 10, number);
+    }
+
+    /**
+     * Create an open auction with the given inline bids.
+     *
+     * @param archived the number of archived bids
+     * @param inline   the number of inline bids after the archived ones
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(int archived, int inline) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("auction");
+        auction.setStartBid(0);
+        auction.setBinPrice(1_000);
+        auction.setExpirationTimestamp(Long.MAX_VALUE);
+        auction.setArchivedBidCount(archived);
+        auction.setBidChunkSize(archived > 0 ? 2 : 0);
+        auction.setBids(new ArrayList<>());
+        for (int i = archived; i < archived + inline; i++) {
+            auction.getBids().add(createBid(i));
+        }
+        return auction;
+    }
+
+    /**
+     * Store an archived chunk of two bids in the mocked store.
+     *
+     * @param index the chunk index
+     */
+    private void storeChunk(int index) {
+        Mockito.when(this.auctionDao.getBidChunk("auction", index)).thenReturn(Optional.of(
+                new BidChunkEntity("auction", index, List.of(createBid(index * 2), createBid(index * 2 + 1)))));
+    }
+
+    /**
+     * Read a page of the auction's bids.
+     *
+     * @param service the dapr auction service
+     * @param limit   the maximum number of bids on the page
+     * @param before  the cursor of the page, or null for the most recent bids
+     * @return the page of bids
+     */
+    private BidPageModel readPage(DaprAuctionService service, int limit, Integer before) {
+        return service.getVersionedBidsForAuction("auction", limit, before).orElseThrow().get();
+    }
+
+    /**
+     * Get the numbers of the bids on a page.
+     *
+     * @param page the page of bids
+     * @return the bid numbers, oldest first
+     */
+    private List<Integer> numbers(BidPageModel page) {
+        return page.getBids().stream().map(bid -> (int) bid.getPrice() / 10).toList();
+    }
+
+    /**
+     * Test paging back from the most recent bids through the archived chunks with the cursor.
+     */
+    @Test
+    public void pagesThroughChunks() {
+        DaprAuctionService service = createService();
+        Mockito.when(this.auctionDao.getAuctionById("auction")).thenReturn(Optional.of(createAuction(4, 3)));
+        storeChunk(0);
+        storeChunk(1);
+
+        // Assert the most recent page is read without the archived chunks
+        BidPageModel page = readPage(service, 3, null);
+        assert numbers(page).equals(List.of(4, 5, 6));
+        assert page.getNextBefore() == 4;
+        Mockito.verify(this.auctionDao, Mockito.never()).getBidChunk(Mockito.anyString(), Mockito.anyInt());
+
+        // Assert a page across the chunk boundary reads both chunks
+        page = readPage(service, 3, page.getNextBefore());
+        assert numbers(page).equals(List.of(1, 2, 3));
+        assert page.getNextBefore() == 1;
+
+        // Assert the oldest page has no cursor
+        page = readPage(service, 3, page.getNextBefore());
+        assert numbers(page).equals(List.of(0));
+        assert page.getNextBefore() == null;
+
+        // Assert a page across the archived and inline bids reads only the chunk it overlaps
+        Mockito.clearInvocations(this.auctionDao);
+        assert numbers(readPage(service, 4, 6)).equals(List.of(2, 3, 4, 5));
+        Mockito.verify(this.auctionDao, Mockito.never()).getBidChunk("auction", 0);
+    }
+
+    /**
+     * Test that the bids of a missing chunk are left out of the page without moving the cursor.
+     */
+    @Test
+    public void skipsMissingChunk() {
+        DaprAuctionService service = createService();
+        Mockito.when(this.auctionDao.getAuctionById("auction")).thenReturn(Optional.of(createAuction(4, 3)));
+        Mockito.when(this.auctionDao.getBidChunk("auction", 0)).thenReturn(Optional.empty());
+        storeChunk(1);
+
+        // Assert the page holds the bids that could be read, and the cursor still points past the missing ones
+        BidPageModel page = readPage(service, 3, 4);
+        assert numbers(page).equals(List.of(2, 3));
+        assert page.getNextBefore() == 1;
+    }
+
+    /**
+     * Test that the oldest bids are archived before the auction is stored without them.
+     */
+    @Test
+    public void compactsBids() {
+        DaprAuctionService service = createService();
+        AuctionEntity auction = createAuction(0, 3);
+        Mockito.when(this.auctionDao.storeBidChunk(Mockito.any())).thenReturn(true);
+        Mockito.when(this.auctionDao.updateAuction(Mockito.any())).thenReturn(true);
+
+        // Assert the fourth bid archives the two oldest
+        assert service.addBid(Optional.of(auction), new OfferModel("user", 30, 3)) == OfferResponse.SUCCESS;
+        assert auction.getArchivedBidCount() == 2;
+        assert auction.getBidChunkSize() == 2;
+        assert auction.getBids().size() == 2;
+        assert auction.getBids().get(0).getPrice() == 20;
+
+        // Assert the chunk was stored first, with the oldest bids
+        InOrder order = Mockito.inOrder(this.auctionDao);
+        order.verify(this.auctionDao).storeBidChunk(Mockito.argThat(chunk -> chunk.getIndex() == 0
+                && chunk.getBids().size() == 2 && chunk.getBids().get(1).getPrice() == 10));
+        order.verify(this.auctionDao).updateAuction(auction);
+    }
+
+    /**
+     * Test that the bids stay inline if their chunk could not be stored.
+     */
+    @Test
+    public void keepsBidsWhenChunkFails() {
+        DaprAuctionService service = createService();
+        AuctionEntity auction = createAuction(0, 3);
+        Mockito.when(this.auctionDao.storeBidChunk(Mockito.any())).thenReturn(false);
+        Mockito.when(this.auctionDao.updateAuction(Mockito.any())).thenReturn(true);
+
+        // Assert the bid was stored with every bid still inline
+        assert service.addBid(Optional.of(auction), new OfferModel("user", 30, 3)) == OfferResponse.SUCCESS;
+        assert auction.getArchivedBidCount() == 0;
+        assert auction.getBids().size() == 4;
+    }
+
+    /**
+     * Test that a seller's auctions are paged newest first from the seller index.
+     */
+    @Test
+    public void pagesSellerAuctionsNewestFirst() {
+        DaprAuctionService service = createService();
+        Mockito.when(this.auctionDao.getAuctionIdsBySeller("seller")).thenReturn(List.of("a", "b", "c", "d", "e"));
+        Mockito.when(this.auctionDao.getAuctionsByIds(Mockito.any())).thenReturn(List.of());
+
+        // Assert the pages are read newest first, and a page past the end is empty
+        service.getAuctionsBySeller("seller", 0, 2);
+        service.getAuctionsBySeller("seller", 2, 2);
+        service.getAuctionsBySeller("seller", 4, 2);
+        service.getAuctionsBySeller("seller", 5, 2);
+        InOrder order = Mockito.inOrder(this.auctionDao);
+        order.verify(this.auctionDao).getAuctionsByIds(List.of("e", "d"));
+        order.verify(this.auctionDao).getAuctionsByIds(List.of("c", "b"));
+        order.verify(this.auctionDao).getAuctionsByIds(List.of("a"));
+        order.verify(this.auctionDao).getAuctionsByIds(List.of());
+    }
+}
@@ -0,0 +1,106 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.entities.IdempotencyRecordEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The testing class for the idempotency cache.
+ */
+class IdempotencyCacheTests {
+
+    /**
+     * Test that a key runs its offer once and cannot be reused for a different request.
+     */
+    @Test
+    public void bindsKeyToRequest() {
+        IdempotencyCache cache = new IdempotencyCache(null, new ObjectMapper(), 3600, 100, false);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Assert a retry gets the original result without running the offer again
+        assert cache.execute("key", "bids:auction", new OfferModel("user", 200, 0), () -> {
+            runs.incrementAndGet();
+            return OfferResponse.SUCCESS;
+        }) == OfferResponse.SUCCESS;
+        assert cache.execute("key", "bids:auction", new OfferModel("user", 200, 0), () -> OfferResponse.TOO_LOW) == OfferResponse.SUCCESS;
+        assert runs.get() == 1;
+
+        // Assert the key is rejected for a different request
+        try {
+            cache.execute("key", "bids:auction", new OfferModel("user", 300, 0), () -> OfferResponse.SUCCESS);
+            assert false;
+        } catch (IdempotencyKeyReusedException expected) {
+        }
+    }
+
+    /**
+     * Test that the key is claimed in the store before the offer runs, and the result is stored.
+     */
+    @Test
+    public void claimsPersistedKey() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        Mockito.when(auctionDao.claimIdempotencyRecord(Mockito.any(), Mockito.anyLong())).thenReturn(true);
+        IdempotencyCache cache = new IdempotencyCache(auctionDao, new ObjectMapper(), 3600, 100, true);
+
+        assert cache.execute("key", "bids:auction", new OfferModel("user", 200, 0), () -> OfferResponse.SUCCESS) == OfferResponse.SUCCESS;
+
+        // Assert the claim had no result and the stored record does
+        ArgumentCaptor<IdempotencyRecordEntity> claim = ArgumentCaptor.forClass(IdempotencyRecordEntity.class);
+        Mockito.verify(auctionDao).claimIdempotencyRecord(claim.capture(), Mockito.anyLong());
+        assert claim.getValue().getResult() == null;
+        ArgumentCaptor<IdempotencyRecordEntity> stored = ArgumentCaptor.forClass(IdempotencyRecordEntity.class);
+        Mockito.verify(auctionDao).storeIdempotencyRecord(stored.capture(), Mockito.anyLong());
+        assert stored.getValue().getResult().equals("SUCCESS");
+        assert stored.getValue().getFingerprint().equals(claim.getValue().getFingerprint());
+    }
+
+    /**
+     * Test that a key claimed by another replica never runs the offer here.
+     */
+    @Test
+    public void defersToOtherReplica() {
+        AuctionDao auctionDao = Mockito.mock(AuctionDao.class);
+        AtomicReference<IdempotencyRecordEntity> claim = new AtomicReference<>();
+        Mockito.when(auctionDao.claimIdempotencyRecord(Mockito.any(), Mockito.anyLong())).thenAnswer(invocation -> {
+            claim.set(invocation.getArgument(0));
+            return false;
+        });
+        IdempotencyCache cache = new IdempotencyCache(auctionDao, new ObjectMapper(), 3600, 100, true);
+        OfferModel bid = new OfferModel("user", 200, 0);
+
+        // Assert a request still running on the other replica is reported as in use
+        Mockito.when(auctionDao.getIdempotencyRecord("bids:auction:key")).thenAnswer(invocation ->
+                Optional.of(new IdempotencyRecordEntity("bids:auction:key", claim.get().getFingerprint(), null, 0)));
+        try {
+            cache.execute("key", "bids:auction", bid, () -> OfferResponse.SERVER_ERROR);
+            assert false;
+        } catch (IdempotencyKeyInUseException expected) {
+        }
+
+        // Assert a completed request's result is returned
+        Mockito.when(auctionDao.getIdempotencyRecord("bids:auction:key")).thenAnswer(invocation ->
+                Optional.of(new IdempotencyRecordEntity("bids:auction:key", claim.get().getFingerprint(), "TOO_LOW", 0)));
+        assert cache.execute("key", "bids:auction", bid, () -> OfferResponse.SERVER_ERROR) == OfferResponse.TOO_LOW;
+
+        // Assert the other replica's key is rejected for a different request
+        Mockito.when(auctionDao.getIdempotencyRecord("other:auction:key")).thenReturn(
+                Optional.of(new IdempotencyRecordEntity("other:auction:key", "different", "SUCCESS", 0)));
+        try {
+            cache.execute("key", "other:auction", bid, () -> OfferResponse.SERVER_ERROR);
+            assert false;
+        } catch (IdempotencyKeyReusedException expected) {
+        }
+
+        // Assert nothing was stored or released on behalf of the other replica
+        Mockito.verify(auctionDao, Mockito.never()).storeIdempotencyRecord(Mockito.any(), Mockito.anyLong());
+        Mockito.verify(auctionDao, Mockito.never()).deleteIdempotencyRecord(Mockito.any());
+    }
+}
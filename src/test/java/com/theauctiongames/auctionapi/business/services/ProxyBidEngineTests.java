@@ -0,0 +1,87 @@
+package com.theauctiongames.auctionapi.business.services;
+
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import com.theauctiongames.auctionapi.data.entities.ProxyBidEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The testing class for the proxy bid engine.
+ */
+class ProxyBidEngineTests {
+
+    /**
+     * Test that competing proxies resolve in one step, the stronger one winning by its increment.
+     */
+    @Test
+    public void competingProxies() {
+        AuctionEntity auction = auction();
+        auction.getProxyBids().add(new ProxyBidEntity("a", 50, 1, 1));
+        auction.getProxyBids().add(new ProxyBidEntity("b", 80, 5, 2));
+
+        List<OfferEntity> added = ProxyBidEngine.resolve(auction, 10);
+
+        // The weaker proxy bids its maximum and is outbid by the stronger one
+        assert added.size() == 2 : added.size();
+        assert added.get(0).getUserId().equals("a") && added.get(0).getPrice() == 50;
+        assert added.get(1).getUserId().equals("b") && added.get(1).getPrice() == 55;
+        assert auction.getBids().size() == 2;
+        assert auction.getProxyBids().size() == 1 && auction.getProxyBids().get(0).getUserId().equals("b");
+    }
+
+    /**
+     * Test that equal maximums go to the proxy placed first.
+     */
+    @Test
+    public void tieGoesToEarliest() {
+        AuctionEntity auction = auction();
+        auction.getProxyBids().add(new ProxyBidEntity("late", 40, 1, 2));
+        auction.getProxyBids().add(new ProxyBidEntity("early", 40, 1, 1));
+
+        List<OfferEntity> added = ProxyBidEngine.resolve(auction, 10);
+
+        assert added.size() == 1 : added.size();
+        assert added.get(0).getUserId().equals("early") && added.get(0).getPrice() == 40;
+    }
+
+    /**
+     * Test that a proxy answers a regular bid, and stays silent while it leads.
+     */
+    @Test
+    public void answersRegularBid() {
+        AuctionEntity auction = auction();
+        auction.getProxyBids().add(new ProxyBidEntity("a", 30, 2, 1));
+
+        // A lone proxy opens the auction at the starting price
+        List<OfferEntity> opened = ProxyBidEngine.resolve(auction, 10);
+        assert opened.size() == 1 && opened.get(0).getPrice() == 10;
+        assert ProxyBidEngine.resolve(auction, 11).isEmpty();
+
+        // A regular bid is outbid by the increment
+        auction.getBids().add(new OfferEntity("b", 20, 12));
+        List<OfferEntity> answered = ProxyBidEngine.resolve(auction, 12);
+        assert answered.size() == 1 && answered.get(0).getUserId().equals("a") && answered.get(0).getPrice() == 22;
+
+        // A regular bid above the maximum drops the proxy
+        auction.getBids().add(new OfferEntity("b", 31, 13));
+        assert ProxyBidEngine.resolve(auction, 13).isEmpty();
+        assert auction.getProxyBids().isEmpty();
+    }
+
+    /**
+     * Create an auction without bids.
+     *
+     * @return the auction
+     */
+    private static AuctionEntity auction() {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setStartBid(10);
+        auction.setBinPrice(100);
+        auction.setBids(new ArrayList<>());
+        auction.setProxyBids(new ArrayList<>());
+        return auction;
+    }
+}
@@ -0,0 +1,86 @@
+package com.theauctiongames.auctionapi.business.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.business.models.AuctionModel;
+import com.theauctiongames.auctionapi.business.models.BidPageModel;
+import com.theauctiongames.auctionapi.business.models.RankedAuctionModel;
+import com.theauctiongames.auctionapi.business.models.Versioned;
+import com.theauctiongames.auctionapi.business.rankings.AuctionRankings;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the auction warm-up.
+ */
+class AuctionWarmUpTests {
+
+    /**
+     * The mocked auction service.
+     */
+    private final AuctionService service = Mockito.mock(AuctionService.class);
+
+    /**
+     * The mocked auction rankings.
+     */
+    private final AuctionRankings rankings = Mockito.mock(AuctionRankings.class);
+
+    /**
+     * Rank two auctions as ending soonest, both readable through the service.
+     */
+    private void rankAuctions() {
+        Mockito.when(this.rankings.getEndingSoon(2)).thenReturn(List.of(
+                new RankedAuctionModel("first", "First", 100, 1, 0, 1_000),
+                new RankedAuctionModel("second", "Second", 200, 2, 0, 2_000)));
+        Mockito.when(this.service.getVersionedAuctionById(Mockito.anyString()))
+                .thenReturn(Optional.of(new Versioned<>("1", AuctionModel::new)));
+        Mockito.when(this.service.getVersionedBidsForAuction(Mockito.anyString(), Mockito.anyInt(), Mockito.isNull()))
+                .thenReturn(Optional.of(new Versioned<>("1", () -> new BidPageModel(List.of(), null))));
+    }
+
+    /**
+     * Test that every auction ending soon is read with its latest bids on each round.
+     */
+    @Test
+    public void readsAuctionsEndingSoon() {
+        rankAuctions();
+
+        new AuctionWarmUp(this.service, this.rankings, new ObjectMapper(), true, 2, 3, 20_000).run(null);
+
+        // Assert each auction and its bids were read once per round
+        for (String id : List.of("first", "second")) {
+            Mockito.verify(this.service, Mockito.times(3)).getVersionedAuctionById(id);
+            Mockito.verify(this.service, Mockito.times(3)).getVersionedBidsForAuction(Mockito.eq(id), Mockito.anyInt(), Mockito.isNull());
+        }
+    }
+
+    /**
+     * Test that nothing is read when the warm-up is disabled or out of time.
+     */
+    @Test
+    public void skipsWhenDisabledOrOutOfTime() {
+        rankAuctions();
+
+        new AuctionWarmUp(this.service, this.rankings, new ObjectMapper(), false, 2, 3, 20_000).run(null);
+        Mockito.verifyNoInteractions(this.rankings);
+
+        new AuctionWarmUp(this.service, this.rankings, new ObjectMapper(), true, 2, 3, -1).run(null);
+        Mockito.verifyNoInteractions(this.service);
+    }
+
+    /**
+     * Test that a failed read does not stop the application from starting.
+     */
+    @Test
+    public void startsWhenReadFails() {
+        rankAuctions();
+        Mockito.when(this.service.getVersionedAuctionById("first")).thenThrow(new IllegalStateException("Unavailable"));
+
+        // Assert the warm-up returns without reading further
+        new AuctionWarmUp(this.service, this.rankings, new ObjectMapper(), true, 2, 3, 20_000).run(null);
+        Mockito.verify(this.service, Mockito.never()).getVersionedAuctionById("second");
+    }
+}
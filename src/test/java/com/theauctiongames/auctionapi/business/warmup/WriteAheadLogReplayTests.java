@@ -0,0 +1,48 @@
+package com.theauctiongames.auctionapi.business.warmup;
+
+import com.theauctiongames.auctionapi.business.models.OfferModel;
+import com.theauctiongames.auctionapi.business.models.ProxyBidModel;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.OfferResponse;
+import com.theauctiongames.auctionapi.data.wal.WalRecord;
+import com.theauctiongames.auctionapi.data.wal.WalRecordType;
+import com.theauctiongames.auctionapi.data.wal.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * The testing class for the write-ahead log replay.
+ */
+class WriteAheadLogReplayTests {
+
+    /**
+     * Test that replayed offers keep the time they were logged at.
+     */
+    @Test
+    public void keepsLoggedTimestamps() {
+        AuctionService service = Mockito.mock(AuctionService.class);
+        WriteAheadLog writeAheadLog = Mockito.mock(WriteAheadLog.class);
+        Mockito.when(writeAheadLog.getRecovered()).thenReturn(List.of(
+                new WalRecord(WalRecordType.BID, "auction", "bidder", 20, 0, 1_000),
+                new WalRecord(WalRecordType.PROXY_BID, "auction", "proxy", 50, 5, 2_000)));
+        Mockito.when(service.addBidToAuction(Mockito.any(), Mockito.any())).thenReturn(OfferResponse.SUCCESS);
+        Mockito.when(service.placeProxyBid(Mockito.any(), Mockito.any())).thenReturn(OfferResponse.TOO_LOW);
+
+        new WriteAheadLogReplay(service, writeAheadLog).run(null);
+
+        // Assert both offers were replayed at their logged time
+        ArgumentCaptor<OfferModel> bid = ArgumentCaptor.forClass(OfferModel.class);
+        Mockito.verify(service).addBidToAuction(Mockito.eq("auction"), bid.capture());
+        assert bid.getValue().getCreationTimestamp() == 1_000;
+        ArgumentCaptor<ProxyBidModel> proxyBid = ArgumentCaptor.forClass(ProxyBidModel.class);
+        Mockito.verify(service).placeProxyBid(Mockito.eq("auction"), proxyBid.capture());
+        assert proxyBid.getValue().getCreationTimestamp() == 2_000;
+        assert proxyBid.getValue().getIncrement() == 5;
+
+        // Assert the replayed log was discarded
+        Mockito.verify(writeAheadLog).discardRecovered();
+    }
+}
@@ -0,0 +1,75 @@
+package com.theauctiongames.auctionapi.data.cache;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The testing class for the auction cache.
+ */
+class AuctionCacheTests {
+
+    /**
+     * Test that versions only move forward, whatever order writes and invalidations arrive in.
+     */
+    @Test
+    public void versionChecks() {
+        AuctionCache cache = new AuctionCache(true, 100, 60_000);
+        byte[] v1 = {1};
+        byte[] v2 = {2};
+        byte[] v3 = {3};
+
+        // A newer write replaces an older one, a late older read does not
+        cache.put("a", 1, v1);
+        cache.put("a", 2, v2);
+        cache.put("a", 1, v1);
+        assert cache.get("a").orElseThrow() == v2;
+
+        // Stale and duplicate invalidations are ignored
+        assert !cache.invalidate("a", 1);
+        assert !cache.invalidate("a", 2);
+        assert cache.get("a").isPresent();
+
+        // A newer invalidation drops the auction and refuses anything older than it
+        assert cache.invalidate("a", 3);
+        assert cache.get("a").isEmpty();
+        cache.put("a", 2, v2);
+        assert cache.get("a").isEmpty();
+        cache.put("a", 3, v3);
+        assert cache.get("a").orElseThrow() == v3;
+
+        // Other contents under a cached version are refused
+        cache.put("a", 3, v1);
+        assert cache.get("a").orElseThrow() == v3;
+    }
+
+    /**
+     * Test that the cache is bounded, dropping the least recently used auction.
+     */
+    @Test
+    public void bounded() {
+        AuctionCache cache = new AuctionCache(true, 2, 60_000);
+        cache.put("a", 1, new byte[0]);
+        cache.put("b", 1, new byte[0]);
+        cache.get("a");
+        cache.put("c", 1, new byte[0]);
+
+        assert cache.get("a").isPresent();
+        assert cache.get("b").isEmpty();
+        assert cache.get("c").isPresent();
+    }
+
+    /**
+     * Test that entries and markers expire, so a lost invalidation or a deleted id is not kept forever.
+     */
+    @Test
+    public void expires() throws InterruptedException {
+        AuctionCache cache = new AuctionCache(true, 100, 50);
+        cache.put("a", 1, new byte[0]);
+        assert cache.invalidate("b", Long.MAX_VALUE);
+
+        // Assert both are dropped after the maximum staleness
+        Thread.sleep(100);
+        assert cache.get("a").isEmpty();
+        cache.put("b", 1, new byte[0]);
+        assert cache.get("b").isPresent();
+    }
+}
@@ -0,0 +1,120 @@
+package com.theauctiongames.auctionapi.data.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The testing class for the auction value codec.
+ */
+class AuctionValueCodecTests {
+
+    /**
+     * The json object mapper.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Create an auction entity to encode.
+     *
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction() {
+        // Add a long bid history so field names dominate the plain json
+        List<OfferEntity> bids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            bids.add(new OfferEntity("Test User " + (i % 5), 100 + i, 1_000_000 + i));
+        }
+
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("auction");
+        auction.setSellerId("seller");
+        auction.setTitle("Test Auction");
+        auction.setDescription("Test Auction Description");
+        auction.setStartBid(100);
+        auction.setBids(bids);
+        auction.setBinPrice(19_000);
+        auction.setBase64Image("");
+        auction.setCreationTimestamp(1_000);
+        auction.setExpirationTimestamp(2_000);
+        return auction;
+    }
+
+    /**
+     * Test that every codec round trips through the stored value.
+     *
+     * @throws Exception if encoding fails
+     */
+    @Test
+    public void roundTrip() throws Exception {
+        for (String name : List.of(JacksonAuctionCodec.JSON, JacksonAuctionCodec.SMILE, JacksonAuctionCodec.CBOR)) {
+            AuctionValueCodec codec = new AuctionValueCodec(name);
+
+            // Encode and decode the auction
+            String value = codec.encode(createAuction());
+            AuctionEntity decoded = codec.decode(this.mapper.readTree(value));
+
+            // Assert the auction survived
+            assert decoded.getId().equals("auction");
+            assert decoded.getBids().size() == 100;
+            assert decoded.getBids().get(99).getPrice() == 199;
+            assert codec.isWriteCodec(this.mapper.readTree(value));
+        }
+    }
+
+    /**
+     * Test that values written by one codec are readable by another.
+     *
+     * @throws Exception if encoding fails
+     */
+    @Test
+    public void readsOtherCodecs() throws Exception {
+        AuctionValueCodec json = new AuctionValueCodec(JacksonAuctionCodec.JSON);
+        AuctionValueCodec smile = new AuctionValueCodec(JacksonAuctionCodec.SMILE);
+
+        // Read legacy json with the smile codec and vice versa
+        String legacy = json.encode(createAuction());
+        String tagged = smile.encode(createAuction());
+        assert smile.decode(this.mapper.readTree(legacy)).getTitle().equals("Test Auction");
+        assert json.decode(this.mapper.readTree(tagged)).getTitle().equals("Test Auction");
+
+        // Assert only the matching codec is considered current
+        assert !smile.isWriteCodec(this.mapper.readTree(legacy));
+        assert smile.isWriteCodec(this.mapper.readTree(tagged));
+
+        // Assert the binary payload is smaller than the plain json
+        assert tagged.length() < legacy.length();
+    }
+
+    /**
+     * Test that a value dominated by image data is never stored larger than its plain json.
+     *
+     * @throws Exception if encoding fails
+     */
+    @Test
+    public void keepsPlainJsonForImages() throws Exception {
+        // Attach a realistic, incompressible image of 200 KB
+        byte[] image = new byte[200 * 1024];
+        new Random(42).nextBytes(image);
+        AuctionEntity auction = createAuction();
+        auction.setBase64Image(Base64.getEncoder().encodeToString(image));
+
+        for (String name : List.of(JacksonAuctionCodec.SMILE, JacksonAuctionCodec.CBOR)) {
+            AuctionValueCodec codec = new AuctionValueCodec(name);
+            String legacy = new AuctionValueCodec(JacksonAuctionCodec.JSON).encode(auction);
+            String value = codec.encode(auction);
+
+            // Assert the value is not inflated by the envelope, and still reads back and counts as current
+            assert value.length() <= legacy.length();
+            assert !this.mapper.readTree(value).has(AuctionValueCodec.CODEC_FIELD);
+            assert codec.decode(this.mapper.readTree(value)).getBase64Image().equals(auction.getBase64Image());
+            assert codec.isWriteCodec(this.mapper.readTree(value));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import com.theauctiongames.auctionapi.business.events.AuctionEvent;
+import com.theauctiongames.auctionapi.business.events.AuctionEventType;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * The testing class for the auction archival task.
+ */
+class AuctionArchivalTaskTests {
+
+    /**
+     * Test that every archived auction is published so the in-memory views drop it.
+     */
+    @Test
+    public void publishesArchived() {
+        DaprAuctionDao auctionDao = Mockito.mock(DaprAuctionDao.class);
+        ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("closed");
+        Mockito.when(auctionDao.archiveClosedAuctions(Mockito.anyLong(), Mockito.eq(100))).thenReturn(List.of(auction));
+
+        new AuctionArchivalTask(auctionDao, publisher, true, 60, 100).run();
+
+        // Assert the archived event was published
+        ArgumentCaptor<AuctionEvent> event = ArgumentCaptor.forClass(AuctionEvent.class);
+        Mockito.verify(publisher).publishEvent(event.capture());
+        assert event.getValue().getType() == AuctionEventType.ARCHIVED;
+        assert event.getValue().getAuctionId().equals("closed");
+    }
+}
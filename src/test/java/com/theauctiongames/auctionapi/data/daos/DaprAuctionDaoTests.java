@@ -0,0 +1,325 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import com.theauctiongames.auctionapi.data.cache.AuctionCache;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidationBus;
+import com.theauctiongames.auctionapi.data.codecs.AuctionValueCodec;
+import com.theauctiongames.auctionapi.data.codecs.JacksonAuctionCodec;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.SellerIndexEntity;
+import com.theauctiongames.auctionapi.data.resilience.HedgedReads;
+import com.theauctiongames.auctionapi.data.resilience.StoreGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The testing class for the dapr auction DAO.
+ */
+class DaprAuctionDaoTests {
+
+    /**
+     * The mocked template the sidecar is called with.
+     */
+    private final RestTemplate template = Mockito.mock(RestTemplate.class);
+
+    /**
+     * The auction value codec.
+     */
+    private final AuctionValueCodec codec = new AuctionValueCodec("json");
+
+    /**
+     * Create a DAO calling the mocked template.
+     *
+     * @return the dapr auction DAO
+     */
+    @SuppressWarnings("unchecked")
+    private DaprAuctionDao createDao() {
+        StoreGuard guard = Mockito.mock(StoreGuard.class);
+        Mockito.when(guard.call(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> ((Function<RestTemplate, ?>) invocation.getArgument(1)).apply(this.template));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new DaprAuctionDao(this.codec, guard, new HedgedReads(registry, false, 0.95, 5, 1),
+                new AuctionCache(false, 100, 60_000), Mockito.mock(AuctionInvalidationBus.class), registry, 5000);
+    }
+
+    /**
+     * Create a closed auction with one archived bid chunk.
+     *
+     * @param id                  the auction id
+     * @param expirationTimestamp when the auction expires
+     * @return the auction entity
+     */
+    private AuctionEntity createAuction(String id, long expirationTimestamp) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setSellerId("seller");
+        auction.setTitle("Test Auction");
+        auction.setStartBid(100);
+        auction.setBids(new ArrayList<>());
+        auction.setExpirationTimestamp(expirationTimestamp);
+        auction.setVersion(1);
+        auction.setArchivedBidCount(1);
+        auction.setBidChunkSize(1);
+        return auction;
+    }
+
+    /**
+     * Store an auction in the mocked live store.
+     *
+     * @param auction the auction
+     * @param etag    the etag of the stored auction
+     */
+    private void store(AuctionEntity auction, String etag) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + etag + "\"");
+        byte[] value = this.codec.encode(auction).getBytes(StandardCharsets.UTF_8);
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/" + auction.getId()), Mockito.eq(byte[].class)))
+                .thenReturn(new ResponseEntity<>(value, headers, HttpStatus.OK));
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/" + StateKeys.bidChunk(auction.getId(), 0)), Mockito.eq(byte[].class)))
+                .thenReturn(new ResponseEntity<>("{\"bids\":[]}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+    }
+
+    /**
+     * Test that a closed auction is deleted from the live store only with the etag it was archived at,
+     * before its chunks.
+     */
+    @Test
+    public void archivesWithEtag() throws Exception {
+        DaprAuctionDao dao = createDao();
+        AuctionEntity auction = createAuction("closed", 1_000);
+        store(auction, "7");
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+        Mockito.when(this.template.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.DELETE), Mockito.any(), Mockito.eq(Void.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+
+        // Assert the auction was archived
+        List<AuctionEntity> archived = dao.archiveAuctions(List.of(auction), 2_000, 10);
+        assert archived.size() == 1;
+        assert archived.get(0).getId().equals("closed");
+
+        // Assert the auction was deleted with its etag before its chunk
+        InOrder order = Mockito.inOrder(this.template);
+        order.verify(this.template).exchange(Mockito.endsWith("/closed?concurrency=first-write"), Mockito.eq(HttpMethod.DELETE),
+                Mockito.<HttpEntity<?>>argThat(request -> "7".equals(request.getHeaders().getFirst(HttpHeaders.IF_MATCH))),
+                Mockito.eq(Void.class));
+        order.verify(this.template).delete(Mockito.endsWith("/" + StateKeys.bidChunk("closed", 0)));
+    }
+
+    /**
+     * Test that an auction written after it was read stays live, and its stale archived copy is dropped.
+     */
+    @Test
+    public void keepsAuctionWrittenSinceRead() throws Exception {
+        DaprAuctionDao dao = createDao();
+        AuctionEntity auction = createAuction("reopened", 1_000);
+        store(auction, "7");
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+        Mockito.when(this.template.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.DELETE), Mockito.any(), Mockito.eq(Void.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", new HttpHeaders(), null, null));
+
+        // Assert nothing was archived
+        assert dao.archiveAuctions(List.of(auction), 2_000, 10).isEmpty();
+
+        // Assert the live chunk was kept and the archived copies were dropped
+        Mockito.verify(this.template, Mockito.never()).delete(Mockito.endsWith("/" + StateKeys.bidChunk("reopened", 0)));
+        Mockito.verify(this.template).delete(Mockito.endsWith("/" + StateKeys.archived("reopened")));
+        Mockito.verify(this.template).delete(Mockito.endsWith("/" + StateKeys.archived(StateKeys.bidChunk("reopened", 0))));
+    }
+
+    /**
+     * Test that an auction reopened before it is read again is not archived.
+     */
+    @Test
+    public void skipsReopenedAuction() throws Exception {
+        DaprAuctionDao dao = createDao();
+        store(createAuction("reopened", Long.MAX_VALUE), "7");
+
+        // Assert the stale query result was ignored
+        assert dao.archiveAuctions(List.of(createAuction("reopened", 1_000)), 2_000, 10).isEmpty();
+        Mockito.verify(this.template, Mockito.never()).postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class));
+    }
+
+    /**
+     * Test that an update is written with the etag it was read at, bumping the version read.
+     */
+    @Test
+    public void updatesWithEtag() throws Exception {
+        DaprAuctionDao dao = createDao();
+        store(createAuction("open", Long.MAX_VALUE), "7");
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+
+        // Assert the next version was stored only if the auction is still at the etag read
+        AuctionEntity update = createAuction("open", Long.MAX_VALUE);
+        assert dao.updateAuction(update);
+        assert update.getVersion() == 2;
+        Mockito.verify(this.template).postForEntity(Mockito.anyString(), Mockito.<HttpEntity<String>>argThat(request -> {
+            JSONObject entry = new JSONArray(request.getBody()).getJSONObject(0);
+            return entry.getString("etag").equals("7")
+                    && entry.getJSONObject("options").getString("concurrency").equals("first-write");
+        }), Mockito.eq(String.class));
+    }
+
+    /**
+     * Test that an update conflicting with a write since the read fails, so no version is stored twice.
+     */
+    @Test
+    public void failsUpdateWrittenSinceRead() throws Exception {
+        DaprAuctionDao dao = createDao();
+        store(createAuction("open", Long.MAX_VALUE), "7");
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", new HttpHeaders(), null, null));
+
+        // Assert the update failed
+        assert !dao.updateAuction(createAuction("open", Long.MAX_VALUE));
+    }
+
+    /**
+     * Encode an auction the way the cbor codec stores it.
+     *
+     * @param auction the auction
+     * @return the tagged state store value
+     */
+    private JSONObject cborValue(AuctionEntity auction) throws Exception {
+        return new JSONObject()
+                .put(AuctionValueCodec.CODEC_FIELD, JacksonAuctionCodec.CBOR)
+                .put(AuctionValueCodec.DATA_FIELD, Base64.getEncoder().encodeToString(JacksonAuctionCodec.cbor().encode(auction)));
+    }
+
+    /**
+     * Test that values are re-encoded with the etag they were queried at, and a value written since the
+     * query is skipped instead of overwritten by its older copy.
+     */
+    @Test
+    public void reencodesWithEtag() throws Exception {
+        DaprAuctionDao dao = createDao();
+        String results = new JSONObject().put("results", new JSONArray()
+                .put(new JSONObject().put("key", "open").put("data", cborValue(createAuction("open", Long.MAX_VALUE))).put("etag", "7"))
+                .put(new JSONObject().put("key", "bid").put("data", cborValue(createAuction("bid", Long.MAX_VALUE))).put("etag", "8")))
+                .toString();
+        Mockito.when(this.template.postForEntity(Mockito.endsWith("/query"), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> new ResponseEntity<>(
+                        new ObjectMapper().readValue(results, (Class<?>) invocation.getArgument(2)), HttpStatus.OK));
+
+        // Reject the write of the auction bid on since the query
+        Mockito.when(this.template.postForEntity(Mockito.endsWith("/state/null"), Mockito.any(), Mockito.eq(String.class)))
+                .thenAnswer(invocation -> {
+                    JSONObject entry = new JSONArray(invocation.<HttpEntity<String>>getArgument(1).getBody()).getJSONObject(0);
+                    if (entry.getString("key").equals("bid")) {
+                        throw HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", new HttpHeaders(), null, null);
+                    }
+                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                });
+
+        // Assert only the unchanged auction was re-encoded, with the etag it was queried at
+        assert dao.reencodeAuctions() == 1;
+        Mockito.verify(this.template, Mockito.times(2)).postForEntity(Mockito.endsWith("/state/null"),
+                Mockito.<HttpEntity<String>>argThat(request -> {
+                    JSONObject entry = new JSONArray(request.getBody()).getJSONObject(0);
+                    return entry.getString("etag").equals(entry.getString("key").equals("open") ? "7" : "8")
+                            && entry.getJSONObject("options").getString("concurrency").equals("first-write");
+                }), Mockito.eq(String.class));
+    }
+
+    /**
+     * Create a stored seller index response.
+     *
+     * @param sellerId   the seller id
+     * @param etag       the etag of the stored index
+     * @param auctionIds the indexed auction ids, oldest first
+     * @return the response of reading the index
+     */
+    private ResponseEntity<byte[]> sellerIndex(String sellerId, String etag, String... auctionIds) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + etag + "\"");
+        byte[] value = this.codec.encode(new SellerIndexEntity(sellerId, List.of(auctionIds))).getBytes(StandardCharsets.UTF_8);
+        return new ResponseEntity<>(value, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Test that an auction moved to another seller leaves the old seller's index for the new one, each
+     * written with the etag it was read at.
+     */
+    @Test
+    public void movesAuctionBetweenSellers() throws Exception {
+        DaprAuctionDao dao = createDao();
+        AuctionEntity auction = createAuction("open", Long.MAX_VALUE);
+        auction.setSellerId("old");
+        store(auction, "7");
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/" + StateKeys.sellerIndex("old")), Mockito.eq(byte[].class)))
+                .thenReturn(sellerIndex("old", "3", "earlier", "open", "later"));
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/" + StateKeys.sellerIndex("new")), Mockito.eq(byte[].class)))
+                .thenReturn(sellerIndex("new", "4", "other"));
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+
+        // Assert the auction was moved, keeping the order of the other auctions
+        AuctionEntity update = createAuction("open", Long.MAX_VALUE);
+        update.setSellerId("new");
+        assert dao.updateAuction(update);
+        assert dao.getAuctionIdsBySeller("old").equals(List.of("earlier", "later"));
+        assert dao.getAuctionIdsBySeller("new").equals(List.of("other", "open"));
+
+        // Assert both indexes were written with the etag they were read at
+        for (String etag : List.of("3", "4")) {
+            Mockito.verify(this.template).postForEntity(Mockito.anyString(), Mockito.<HttpEntity<String>>argThat(request -> {
+                JSONObject entry = new JSONArray(request.getBody()).getJSONObject(0);
+                return entry.getString("key").startsWith(StateKeys.sellerIndex("")) && entry.getString("etag").equals(etag);
+            }), Mockito.eq(String.class));
+        }
+    }
+
+    /**
+     * Test that a seller index written since it was read is read again and the auction added to the newer
+     * index, keeping the auction indexed concurrently.
+     */
+    @Test
+    public void retriesSellerIndexOnConflict() throws Exception {
+        DaprAuctionDao dao = createDao();
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/created"), Mockito.eq(byte[].class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+        Mockito.when(this.template.getForEntity(Mockito.endsWith("/" + StateKeys.sellerIndex("seller")), Mockito.eq(byte[].class)))
+                .thenReturn(sellerIndex("seller", "1", "first"))
+                .thenReturn(sellerIndex("seller", "2", "first", "concurrent"));
+
+        // Reject the first write of the index
+        AtomicInteger indexWrites = new AtomicInteger();
+        Mockito.when(this.template.postForEntity(Mockito.anyString(), Mockito.any(), Mockito.eq(String.class)))
+                .thenAnswer(invocation -> {
+                    JSONObject entry = new JSONArray(invocation.<HttpEntity<String>>getArgument(1).getBody()).getJSONObject(0);
+                    if (entry.getString("key").equals(StateKeys.sellerIndex("seller")) && indexWrites.incrementAndGet() == 1) {
+                        throw HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", new HttpHeaders(), null, null);
+                    }
+                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                });
+
+        // Assert the auction was added after the concurrently indexed one
+        assert dao.createAuction(createAuction("created", Long.MAX_VALUE));
+        assert indexWrites.get() == 2;
+        assert dao.getAuctionIdsBySeller("seller").equals(List.of("first", "concurrent", "created"));
+        Mockito.verify(this.template).postForEntity(Mockito.anyString(), Mockito.<HttpEntity<String>>argThat(request -> {
+            JSONObject entry = new JSONArray(request.getBody()).getJSONObject(0);
+            return entry.getString("key").equals(StateKeys.sellerIndex("seller")) && entry.getString("etag").equals("2");
+        }), Mockito.eq(String.class));
+    }
+}
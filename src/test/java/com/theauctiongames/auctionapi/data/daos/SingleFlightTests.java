@@ -0,0 +1,135 @@
+package com.theauctiongames.auctionapi.data.daos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The testing class for single flight coalescing.
+ */
+class SingleFlightTests {
+
+    /**
+     * Test that a call made while the same call is in flight shares its result.
+     */
+    @Test
+    public void coalesces() throws Exception {
+        Counter merged = new SimpleMeterRegistry().counter("merged");
+        SingleFlight<String> flight = new SingleFlight<>(merged);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Start a call that blocks until released
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        started.await();
+
+        // Join it with a second call for the same key
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+        while (merged.count() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Both share the one call
+        assert leader.get().equals("value");
+        assert follower.get().equals("value");
+        assert calls.get() == 1;
+
+        // Nothing is cached once the call completes
+        assert flight.execute("key", () -> "fresh").equals("fresh");
+    }
+
+    /**
+     * Test that a failed call fails every caller that joined it, and the next call runs again.
+     */
+    @Test
+    public void sharesFailure() throws Exception {
+        Counter merged = new SimpleMeterRegistry().counter("merged");
+        SingleFlight<String> flight = new SingleFlight<>(merged);
+        IllegalStateException failure = new IllegalStateException("Unavailable");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Start a call that fails once released, and join it
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        started.await();
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> "other"));
+        while (merged.count() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // Both fail with the same exception
+        for (CompletableFuture<String> caller : List.of(leader, follower)) {
+            try {
+                caller.get();
+                assert false;
+            } catch (ExecutionException exception) {
+                assert exception.getCause() == failure : exception.getCause();
+            }
+        }
+
+        // The failure is not kept for later calls
+        assert flight.execute("key", () -> "fresh").equals("fresh");
+    }
+
+    /**
+     * Test that a call made after the key was forgotten runs on its own instead of joining the call in flight.
+     */
+    @Test
+    public void forgetRunsFresh() throws Exception {
+        Counter merged = new SimpleMeterRegistry().counter("merged");
+        SingleFlight<String> flight = new SingleFlight<>(merged);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Start a call that blocks until released, then forget it
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return "stale";
+        }));
+        started.await();
+        flight.forget("key");
+
+        // The next call runs while the forgotten one is still in flight
+        assert flight.execute("key", () -> "fresh").equals("fresh");
+        assert merged.count() == 0;
+
+        // The forgotten call still answers its own caller
+        release.countDown();
+        assert leader.get().equals("stale");
+    }
+
+    /**
+     * Wait for a latch.
+     *
+     * @param latch the latch
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The testing class for the circuit breaker.
+ */
+class CircuitBreakerTests {
+
+    /**
+     * Test opening, probing and closing.
+     */
+    @Test
+    public void transitions() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, 50);
+
+        // A success resets the consecutive failures
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assert breaker.getState() == CircuitBreaker.State.CLOSED;
+
+        // Consecutive failures open the breaker and calls fail fast
+        breaker.onFailure();
+        assert breaker.getState() == CircuitBreaker.State.OPEN;
+        assert !breaker.tryAcquire();
+
+        // After the cool-down a single probe is let through, and its failure opens the breaker again
+        Thread.sleep(60);
+        assert breaker.tryAcquire();
+        assert !breaker.tryAcquire();
+        breaker.onFailure();
+        assert breaker.getState() == CircuitBreaker.State.OPEN;
+
+        // A successful probe closes the breaker
+        Thread.sleep(60);
+        assert breaker.tryAcquire();
+        breaker.onSuccess();
+        assert breaker.getState() == CircuitBreaker.State.CLOSED;
+        assert breaker.tryAcquire();
+    }
+}
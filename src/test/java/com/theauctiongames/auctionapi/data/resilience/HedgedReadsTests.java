@@ -0,0 +1,117 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The testing class for the hedged reads.
+ */
+class HedgedReadsTests {
+
+    /**
+     * The meter registry.
+     */
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Released to let the slow reads answer.
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Create a hedged read operation that has seen enough fast reads to track their percentile.
+     *
+     * @param budgetPercent the percentage of reads that may be hedged
+     * @return the hedged operation
+     */
+    private HedgedReads.Operation createOperation(long budgetPercent) {
+        HedgedReads.Operation operation = new HedgedReads(this.registry, true, 0.95, budgetPercent, 64).forOperation("get");
+
+        // Reads are not hedged until the percentile is known
+        for (int i = 0; i < 64; i++) {
+            assert operation.execute(() -> "fast").equals("fast");
+        }
+        assert hedges() == 0;
+        return operation;
+    }
+
+    /**
+     * Create a read whose first attempt waits until released and whose repeats answer right away.
+     *
+     * @return the read
+     */
+    private Supplier<String> slowRead() {
+        AtomicInteger attempts = new AtomicInteger();
+        return () -> {
+            if (attempts.incrementAndGet() > 1) {
+                return "hedge";
+            }
+            try {
+                this.release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return "primary";
+        };
+    }
+
+    /**
+     * Get the number of hedges sent.
+     *
+     * @return the number of hedges
+     */
+    private double hedges() {
+        return this.registry.get("auction.store.hedge.sent").tag("operation", "get").counter().count();
+    }
+
+    /**
+     * Test that a read slower than the tracked percentile is hedged, and the first answer is used.
+     */
+    @Test
+    public void hedgesSlowReads() {
+        HedgedReads.Operation operation = createOperation(5);
+
+        // Assert the hedge answered while the first attempt was still waiting
+        try {
+            assert operation.execute(slowRead()).equals("hedge");
+            assert hedges() == 1;
+            assert this.registry.get("auction.store.hedge.wins").tag("operation", "get").counter().count() == 1;
+        } finally {
+            this.release.countDown();
+        }
+    }
+
+    /**
+     * Test that hedges stop once the budget is spent, and the read waits for its first attempt instead.
+     */
+    @Test
+    public void capsHedgesAtBudget() throws Exception {
+        HedgedReads.Operation operation = createOperation(0);
+
+        try {
+            // Spend the saved up budget of ten hedges
+            for (int i = 0; i < 10; i++) {
+                assert operation.execute(slowRead()).equals("hedge");
+            }
+            assert hedges() == 10;
+
+            // Assert the next slow read is not hedged
+            CompletableFuture<String> read = CompletableFuture.supplyAsync(() -> operation.execute(slowRead()));
+            Thread.sleep(200);
+            assert !read.isDone();
+            assert hedges() == 10;
+
+            // Assert it answers from its first attempt once that is released
+            this.release.countDown();
+            assert read.get(5, TimeUnit.SECONDS).equals("primary");
+        } finally {
+            this.release.countDown();
+        }
+    }
+}
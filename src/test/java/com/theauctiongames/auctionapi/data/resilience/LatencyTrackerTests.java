@@ -0,0 +1,30 @@
+package com.theauctiongames.auctionapi.data.resilience;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The testing class for the latency tracker.
+ */
+class LatencyTrackerTests {
+
+    /**
+     * Test the tracked percentile of recorded latencies.
+     */
+    @Test
+    public void percentile() {
+        LatencyTracker tracker = new LatencyTracker(0.9);
+
+        // Nothing is tracked until enough samples arrive
+        tracker.record(1_000);
+        assert tracker.getNanos() == 0;
+
+        // Latencies of 1 to 512 microseconds, in shuffled order
+        for (int i = 1; i < 512; i++) {
+            tracker.record((i * 37 % 512 + 1) * 1_000L);
+        }
+
+        // The 90th percentile of the ring
+        long nanos = tracker.getNanos();
+        assert nanos >= 455_000 && nanos <= 465_000 : nanos;
+    }
+}
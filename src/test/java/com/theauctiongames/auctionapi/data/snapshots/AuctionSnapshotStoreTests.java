@@ -0,0 +1,73 @@
+package com.theauctiongames.auctionapi.data.snapshots;
+
+import com.theauctiongames.auctionapi.data.codecs.AuctionValueCodec;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.entities.OfferEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The testing class for the auction snapshot store.
+ */
+class AuctionSnapshotStoreTests {
+
+    /**
+     * Create a test auction.
+     *
+     * @param id the auction id
+     * @return the auction
+     */
+    private static AuctionEntity auction(String id) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        auction.setTitle("Test Auction " + id);
+        auction.setBids(new ArrayList<>(List.of(new OfferEntity("user", 10, 1_000))));
+        auction.setVersion(3);
+        return auction;
+    }
+
+    /**
+     * Test that a snapshot round trips, replacing the previous one.
+     */
+    @Test
+    public void roundTrip(@TempDir Path directory) throws Exception {
+        AuctionSnapshotStore store = new AuctionSnapshotStore(new AuctionValueCodec("json"), directory.resolve("auctions.snapshot").toString());
+        assert store.read().isEmpty();
+
+        store.write(List.of(auction("first")));
+        assert store.write(List.of(auction("first"), auction("second"))) == 2;
+
+        AuctionSnapshot snapshot = store.read().orElseThrow();
+        assert snapshot.getAuctions().size() == 2;
+        assert snapshot.getAuctions().get(1).getId().equals("second");
+        assert snapshot.getAuctions().get(1).getVersion() == 3;
+        assert snapshot.getAuctions().get(1).getBids().get(0).getPrice() == 10;
+    }
+
+    /**
+     * Test that a corrupt snapshot is not loaded.
+     */
+    @Test
+    public void rejectsCorruptSnapshot(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("auctions.snapshot");
+        AuctionSnapshotStore store = new AuctionSnapshotStore(new AuctionValueCodec("json"), path.toString());
+        store.write(List.of(auction("first")));
+
+        // Flip a byte in the middle of the auction
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() / 2);
+            int value = file.read();
+            file.seek(file.length() / 2);
+            file.write(value ^ 0xFF);
+        }
+
+        Optional<AuctionSnapshot> snapshot = store.read();
+        assert snapshot.isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+package com.theauctiongames.auctionapi.data.wal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The testing class for the write-ahead log.
+ */
+class WriteAheadLogTests {
+
+    /**
+     * Test that only unconfirmed offers are recovered, in order.
+     */
+    @Test
+    public void recoversUnconfirmedOffers(@TempDir Path directory) throws Exception {
+        WriteAheadLog log = new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 4096, 0);
+        long first = log.append(bid("first", 10));
+        log.append(bid("second", 20));
+        long third = log.append(bid("third", 30));
+        log.append(new WalRecord(WalRecordType.PURCHASE, "auction", "fourth", 100, 0, 4));
+        log.confirm(first);
+        log.confirm(third);
+
+        // Restart on the same directory
+        WriteAheadLog restarted = new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 4096, 0);
+        List<WalRecord> recovered = restarted.getRecovered();
+        assert recovered.size() == 2;
+        assert recovered.get(0).getUserId().equals("second");
+        assert recovered.get(1).getType() == WalRecordType.PURCHASE;
+
+        // New records never reuse a recovered sequence
+        assert restarted.append(bid("fifth", 50)) > third + 2;
+
+        // Discarding removes the previous run's segment
+        restarted.discardRecovered();
+        assert segments(directory) == 1;
+    }
+
+    /**
+     * Test that full segments are deleted once every record in them is confirmed.
+     */
+    @Test
+    public void truncatesConfirmedSegments(@TempDir Path directory) throws Exception {
+        WriteAheadLog log = new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 256, 0);
+        for (int i = 0; i < 20; i++) {
+            log.confirm(log.append(bid("user" + i, i)));
+        }
+
+        assert segments(directory) == 1;
+    }
+
+    /**
+     * Test that a torn record ends the recovered records.
+     */
+    @Test
+    public void stopsAtTornRecord(@TempDir Path directory) throws Exception {
+        WriteAheadLog log = new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 4096, 0);
+        log.append(bid("first", 10));
+        log.append(bid("second", 20));
+
+        // Corrupt the last byte of the second record
+        Path segment;
+        try (Stream<Path> paths = Files.list(directory)) {
+            segment = paths.findFirst().orElseThrow();
+        }
+        int recordBytes = WalSegment.HEADER_BYTES + bid("first", 10).encode().length;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(recordBytes * 2L - 1);
+            file.write(0xFF);
+        }
+
+        List<WalRecord> recovered = new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 4096, 0).getRecovered();
+        assert recovered.size() == 1;
+        assert recovered.get(0).getUserId().equals("first");
+    }
+
+    /**
+     * Test that appends do not wait for a flush when records are flushed on an interval.
+     */
+    @Test
+    public void flushesOnInterval(@TempDir Path directory) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteAheadLog log = new WriteAheadLog(registry, true, directory.toString(), 4096, 200);
+
+        // Assert the append returned before its flush
+        log.append(bid("first", 10));
+        log.append(bid("second", 20));
+        assert registry.get("auction.wal.syncs").counter().count() == 0;
+
+        // Assert both records are flushed together on the interval
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.get("auction.wal.syncs").counter().count() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assert registry.get("auction.wal.syncs").counter().count() == 1;
+        assert new WriteAheadLog(new SimpleMeterRegistry(), true, directory.toString(), 4096, 0).getRecovered().size() == 2;
+    }
+
+    /**
+     * Create a logged bid.
+     *
+     * @param userId the user id
+     * @param price  the bid price
+     * @return the record
+     */
+    private static WalRecord bid(String userId, double price) {
+        return new WalRecord(WalRecordType.BID, "auction", userId, price, 0, 1);
+    }
+
+    /**
+     * Count the segment files in a directory.
+     *
+     * @param directory the directory
+     * @return the number of segment files
+     */
+    private static long segments(Path directory) throws Exception {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.count();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * The testing class for the sidecar tracing interceptor.
+ */
+class SidecarTracingInterceptorTests {
+
+    /**
+     * Test that a sidecar call gets a client span and passes its trace context to the sidecar.
+     */
+    @Test
+    public void tracesSidecarCall() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        TracingConfig config = new TracingConfig();
+        SdkTracerProvider provider = config.tracerProvider(exporter, "memory", 1.0);
+        OpenTelemetry openTelemetry = config.openTelemetry(provider);
+        SidecarTracingInterceptor interceptor = new SidecarTracingInterceptor(openTelemetry, config.tracer(openTelemetry));
+
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:3500/v1.0/state/store/auction-1"));
+        interceptor.intercept(request, new byte[0], (sent, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        // The span is named without the key, and its context reached the sidecar
+        List<SpanData> spans = exporter.getFinishedSpans();
+        assert spans.size() == 1 : spans.size();
+        assert spans.get(0).getName().equals("GET /v1.0/state/store") : spans.get(0).getName();
+        assert spans.get(0).getKind() == SpanKind.CLIENT;
+        String traceparent = request.getHeaders().getFirst("traceparent");
+        assert traceparent != null && traceparent.contains(spans.get(0).getTraceId()) && traceparent.contains(spans.get(0).getSpanId());
+
+        provider.close();
+    }
+}
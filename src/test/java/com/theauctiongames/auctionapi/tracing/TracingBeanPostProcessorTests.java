@@ -0,0 +1,177 @@
+package com.theauctiongames.auctionapi.tracing;
+
+import com.theauctiongames.auctionapi.business.admission.AdmissionControl;
+import com.theauctiongames.auctionapi.business.controllers.AuctionRestController;
+import com.theauctiongames.auctionapi.business.images.ImagePipeline;
+import com.theauctiongames.auctionapi.business.ownership.AuctionForwarder;
+import com.theauctiongames.auctionapi.business.ownership.AuctionOwnership;
+import com.theauctiongames.auctionapi.business.services.AuctionService;
+import com.theauctiongames.auctionapi.business.services.BidCompactionPolicy;
+import com.theauctiongames.auctionapi.business.services.BidFastPath;
+import com.theauctiongames.auctionapi.business.services.DaprAuctionService;
+import com.theauctiongames.auctionapi.business.services.IdempotencyCache;
+import com.theauctiongames.auctionapi.data.cache.AuctionCache;
+import com.theauctiongames.auctionapi.data.cache.AuctionInvalidationBus;
+import com.theauctiongames.auctionapi.data.codecs.AuctionValueCodec;
+import com.theauctiongames.auctionapi.data.daos.AuctionDao;
+import com.theauctiongames.auctionapi.data.daos.DaprAuctionDao;
+import com.theauctiongames.auctionapi.data.entities.AuctionEntity;
+import com.theauctiongames.auctionapi.data.resilience.HedgedReads;
+import com.theauctiongames.auctionapi.data.resilience.StoreGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * The testing class for the tracing bean post processor, with the tracing filter and sidecar interceptor.
+ */
+class TracingBeanPostProcessorTests {
+
+    /**
+     * The port the mocked sidecar is reached at.
+     */
+    private static final String SIDECAR = "localhost:3500";
+
+    /**
+     * Find a finished span by name.
+     *
+     * @param spans the finished spans
+     * @param name  the span name
+     * @return the span
+     */
+    private SpanData span(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError(name + " not in " + spans));
+    }
+
+    /**
+     * Create a template calling the sidecar through the tracing interceptor, reaching the mocked sidecar
+     * whatever port the DAO was configured with.
+     *
+     * @param openTelemetry the OpenTelemetry instance
+     * @param tracer        the tracer
+     * @return the template
+     */
+    private RestTemplate createTemplate(OpenTelemetry openTelemetry, Tracer tracer) {
+        RestTemplate template = new RestTemplate();
+        template.getInterceptors().add(new SidecarTracingInterceptor(openTelemetry, tracer));
+        template.setUriTemplateHandler(new DefaultUriBuilderFactory() {
+            @Override
+            public URI expand(String uriTemplate, Object... uriVars) {
+                return super.expand(uriTemplate.replaceFirst("localhost:[^/]*", SIDECAR), uriVars);
+            }
+
+            @Override
+            public URI expand(String uriTemplate, Map<String, ?> uriVars) {
+                return super.expand(uriTemplate.replaceFirst("localhost:[^/]*", SIDECAR), uriVars);
+            }
+        });
+        return template;
+    }
+
+    /**
+     * Test that a request produces the span chain controller, service, DAO and sidecar call, each a child
+     * of the one before, with the auction id, outcome and payload size.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void tracesRequestThroughServiceAndDao() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        TracingConfig config = new TracingConfig();
+        SdkTracerProvider provider = config.tracerProvider(exporter, "memory", 1.0);
+        OpenTelemetry openTelemetry = config.openTelemetry(provider);
+        Tracer tracer = config.tracer(openTelemetry);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("tracer", tracer);
+        TracingBeanPostProcessor processor = new TracingBeanPostProcessor("memory", beans.getBeanProvider(Tracer.class));
+
+        // Call the mocked sidecar through the DAO's store guard
+        RestTemplate template = createTemplate(openTelemetry, tracer);
+        MockRestServiceServer sidecar = MockRestServiceServer.bindTo(template).build();
+        StoreGuard guard = Mockito.mock(StoreGuard.class);
+        Mockito.when(guard.call(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> ((Function<RestTemplate, ?>) invocation.getArgument(1)).apply(template));
+
+        // Wrap the DAO and service the way the application context does
+        AuctionValueCodec codec = new AuctionValueCodec("json");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuctionDao dao = (AuctionDao) processor.postProcessAfterInitialization(new DaprAuctionDao(codec, guard,
+                new HedgedReads(registry, false, 0.95, 5, 1), new AuctionCache(false, 100, 60_000),
+                Mockito.mock(AuctionInvalidationBus.class), registry, 5000), "daprAuctionDao");
+        AuctionService service = (AuctionService) processor.postProcessAfterInitialization(new DaprAuctionService(dao,
+                new BidCompactionPolicy(50, 200), Mockito.mock(ApplicationEventPublisher.class),
+                new BidFastPath(10, 60_000, true, registry), Mockito.mock(ImagePipeline.class)), "daprAuctionService");
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new AuctionRestController(service, Mockito.mock(IdempotencyCache.class),
+                        Mockito.mock(AdmissionControl.class), Mockito.mock(AuctionOwnership.class), Mockito.mock(AuctionForwarder.class)))
+                .addFilters(new TracingFilter(openTelemetry, tracer))
+                .build();
+
+        // Store an auction in the mocked sidecar
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId("auction-1");
+        auction.setTitle("Test Auction");
+        auction.setBids(new ArrayList<>());
+        auction.setVersion(1);
+        byte[] value = codec.encode(auction).getBytes(StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(value.length);
+        sidecar.expect(requestTo("http://" + SIDECAR + "/v1.0/state/null/auction-1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(value, MediaType.APPLICATION_JSON).headers(headers));
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/v1/auctions/auction-1"));
+        sidecar.verify();
+
+        // Assert each span is a child of the one before
+        List<SpanData> spans = exporter.getFinishedSpans();
+        SpanData server = span(spans, "GET /api/v1/auctions/{id}");
+        SpanData serviceSpan = span(spans, "AuctionService.getVersionedAuctionById");
+        SpanData daoSpan = span(spans, "AuctionDao.getAuctionById");
+        SpanData client = span(spans, "GET /v1.0/state/null");
+        assert server.getKind() == SpanKind.SERVER;
+        assert client.getKind() == SpanKind.CLIENT;
+        assert serviceSpan.getParentSpanId().equals(server.getSpanId());
+        assert daoSpan.getParentSpanId().equals(serviceSpan.getSpanId());
+        assert client.getParentSpanId().equals(daoSpan.getSpanId());
+        assert client.getTraceId().equals(server.getTraceId());
+
+        // Assert the auction id, outcome and payload size were recorded
+        for (SpanData span : List.of(server, serviceSpan, daoSpan)) {
+            assert "auction-1".equals(span.getAttributes().get(TracingConfig.AUCTION_ID)) : span;
+        }
+        assert "found".equals(serviceSpan.getAttributes().get(TracingConfig.OUTCOME));
+        assert "found".equals(daoSpan.getAttributes().get(TracingConfig.OUTCOME));
+        assert server.getAttributes().get(AttributeKey.longKey("http.status_code")) == 200;
+        assert client.getAttributes().get(AttributeKey.longKey("http.response_content_length")) == value.length;
+
+        provider.close();
+    }
+}